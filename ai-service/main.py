@@ -8,6 +8,7 @@ app = FastAPI(title="LégyMérnök AI Service")
 OLLAMA_URL = os.getenv("OLLAMA_URL", "http://ollama:11434")
 EMBED_MODEL = os.getenv("EMBED_MODEL", "nomic-embed-text")
 CHAT_MODEL = os.getenv("CHAT_MODEL", "gemma3:8b-q4_K_M")
+EMBED_MAX_BATCH = int(os.getenv("EMBED_MAX_BATCH", "64"))
 
 
 class EmbedRequest(BaseModel):
@@ -19,6 +20,15 @@ class EmbedResponse(BaseModel):
     model: str
 
 
+class EmbedBatchRequest(BaseModel):
+    texts: list[str]
+
+
+class EmbedBatchResponse(BaseModel):
+    embeddings: list[list[float]]
+    model: str
+
+
 class GenerateRequest(BaseModel):
     prompt: str
     context: list[str] = []
@@ -47,8 +57,30 @@ async def embed(req: EmbedRequest):
     async with httpx.AsyncClient(timeout=60) as client:
         try:
             r = await client.post(
-                f"{OLLAMA_URL}/api/embeddings",
-                json={"model": EMBED_MODEL, "prompt": req.text},
+                f"{OLLAMA_URL}/api/embed",
+                json={"model": EMBED_MODEL, "input": req.text},
+            )
+            r.raise_for_status()
+        except httpx.HTTPStatusError as e:
+            raise HTTPException(status_code=502, detail=f"Ollama error: {e.response.text}")
+        except httpx.RequestError as e:
+            raise HTTPException(status_code=503, detail=f"Ollama unreachable: {str(e)}")
+
+    return EmbedResponse(embedding=r.json()["embeddings"][0], model=EMBED_MODEL)
+
+
+@app.post("/embed_batch", response_model=EmbedBatchResponse)
+async def embed_batch(req: EmbedBatchRequest):
+    if len(req.texts) > EMBED_MAX_BATCH:
+        raise HTTPException(status_code=422, detail=f"Too many texts: {len(req.texts)} > {EMBED_MAX_BATCH}")
+    if not req.texts:
+        return EmbedBatchResponse(embeddings=[], model=EMBED_MODEL)
+
+    async with httpx.AsyncClient(timeout=120) as client:
+        try:
+            r = await client.post(
+                f"{OLLAMA_URL}/api/embed",
+                json={"model": EMBED_MODEL, "input": req.texts},
             )
             r.raise_for_status()
         except httpx.HTTPStatusError as e:
@@ -56,8 +88,10 @@ async def embed(req: EmbedRequest):
         except httpx.RequestError as e:
             raise HTTPException(status_code=503, detail=f"Ollama unreachable: {str(e)}")
 
-    data = r.json()
-    return EmbedResponse(embedding=data["embedding"], model=EMBED_MODEL)
+    embeddings = r.json()["embeddings"]
+    if len(embeddings) != len(req.texts):
+        raise HTTPException(status_code=502, detail="Ollama returned a different number of embeddings")
+    return EmbedBatchResponse(embeddings=embeddings, model=EMBED_MODEL)
 
 
 @app.post("/generate", response_model=GenerateResponse)
@@ -1,5 +1,6 @@
 package com.legymernok.backend.config;
 
+import com.legymernok.backend.integration.OutboundHttpClients;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -26,8 +27,9 @@ public class AppConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // Az AI service (embed / generate) hívásai — poolozott kliens, read timeouttal
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(OutboundHttpClients httpClients) {
+        return httpClients.restTemplate("ai");
     }
 }
@@ -4,6 +4,7 @@ import com.legymernok.backend.model.auth.Permission;
 import com.legymernok.backend.model.auth.Role;
 import com.legymernok.backend.repository.auth.PermissionRepository;
 import com.legymernok.backend.repository.auth.RoleRepository;
+import com.legymernok.backend.security.PermissionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -18,6 +19,7 @@ public class DataInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionRegistry permissionRegistry;
 
     @Override
     @Transactional
@@ -145,6 +147,9 @@ public class DataInitializer implements CommandLineRunner {
         contentCreatorPermissions.add(sectorRead);
         createRoleIfNotFound("ROLE_CONTENT_CREATOR", contentCreatorPermissions);
 
+        // Sűrű bit-azonosítók a jogokhoz (AuthorityMask)
+        permissionRegistry.registerAll(permissionRepository.findAll().stream().map(Permission::getName).toList());
+
         System.out.println("--- Jogosultsági rendszer inicializálva (Permissions & Roles) ---");
     }
 
@@ -0,0 +1,79 @@
+package com.legymernok.backend.config;
+
+import com.legymernok.backend.integration.PgVector;
+import org.postgresql.core.BaseConnection;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A pgvector bináris átvitele (PgVector): a DataSource-ot becsomagoljuk, és minden
+ * kiadott kapcsolaton regisztráljuk a vector típust. A regisztráció a fizikai
+ * kapcsolatra szól, ismételt kiadáskor csak egy halmaz-ellenőrzés.
+ */
+@Configuration
+public class PgVectorConfig {
+
+    @Bean
+    static BeanPostProcessor pgVectorDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof PgVectorDataSource)) {
+                    return new PgVectorDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class PgVectorDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        // A már regisztrált fizikai kapcsolatok; a pool által lezártak a GC-vel kiesnek
+        private final Set<BaseConnection> registeredConnections =
+                Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+        PgVectorDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return registered(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return registered(super.getConnection(username, password));
+        }
+
+        // A becsomagolt pool (Hikari) leállítása a context zárásakor
+        @Override
+        public void close() throws Exception {
+            if (getTargetDataSource() instanceof AutoCloseable closeable) closeable.close();
+        }
+
+        private Connection registered(Connection connection) throws SQLException {
+            try {
+                if (connection.isWrapperFor(BaseConnection.class)) {
+                    BaseConnection pgConnection = connection.unwrap(BaseConnection.class);
+                    if (!registeredConnections.contains(pgConnection) && PgVector.register(pgConnection)) {
+                        registeredConnections.add(pgConnection);
+                    }
+                }
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.legymernok.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Háttérfeladatok (@Scheduled), pl. a meleg repó-pool feltöltése (MissionRepositoryPoolService)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
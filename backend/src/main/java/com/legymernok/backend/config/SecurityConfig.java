@@ -48,8 +48,11 @@ public class SecurityConfig {
                                 // történik, lásd StompAuthChannelInterceptor.
                                 "/ws-log/**",
                                 "/ws-mission-logs/**",
-                                "/api/mission-verification/**"
+                                "/api/mission-verification/**",
+                                "/actuator/health"
                         ).permitAll()
+                        // Metrikák (cache hit/miss, pool-méretek) — ugyanaz a jog, mint az admin logokhoz
+                        .requestMatchers("/actuator/**").hasAuthority("logs:read")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -0,0 +1,19 @@
+package com.legymernok.backend.dto.admin;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+public class GiteaResilienceStatusResponse {
+    private String circuitBreakerState;
+    private double failureRate;
+    private int bufferedCalls;
+    private Instant openedAt;
+    // Műveletosztályonként (READ, PROVISION, COMMIT) a szabad és az összes bulkhead-hely
+    private Map<String, Integer> bulkheadAvailable;
+    private Map<String, Integer> bulkheadLimits;
+}
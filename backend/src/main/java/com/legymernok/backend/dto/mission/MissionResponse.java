@@ -3,14 +3,18 @@ package com.legymernok.backend.dto.mission;
 import com.legymernok.backend.model.mission.Difficulty;
 import com.legymernok.backend.model.mission.MissionType;
 import com.legymernok.backend.model.mission.VerificationStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class MissionResponse {
     private UUID id;
     private UUID starSystemId;
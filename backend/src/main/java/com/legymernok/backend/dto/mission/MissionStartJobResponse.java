@@ -0,0 +1,19 @@
+package com.legymernok.backend.dto.mission;
+
+import com.legymernok.backend.model.mission.MissionStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class MissionStartJobResponse {
+
+    private UUID jobId; // = a CadetMission ID-je
+    private UUID missionId;
+    private MissionStatus status;
+    private MissionStartStep step; // csak futó/éppen lezárult indításnál
+    private String repositoryUrl;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.legymernok.backend.dto.mission;
+
+/**
+ * Az aszinkron misszióindítás lépései — a STOMP-on küldött haladásjelzés
+ * (MissionStartJobResponse.step) értékei.
+ */
+public enum MissionStartStep {
+    QUEUED,
+    CREATING_REPOSITORY,
+    COPYING_TEMPLATE,
+    ADDING_COLLABORATOR,
+    COMPLETED,
+    FAILED
+}
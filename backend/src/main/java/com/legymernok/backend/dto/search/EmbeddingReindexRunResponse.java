@@ -0,0 +1,21 @@
+package com.legymernok.backend.dto.search;
+
+import com.legymernok.backend.model.starsystem.EmbeddingReindexStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class EmbeddingReindexRunResponse {
+    private UUID id;
+    private EmbeddingReindexStatus status;
+    private int total;
+    private int processed;
+    private int embedded;
+    private int failed;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
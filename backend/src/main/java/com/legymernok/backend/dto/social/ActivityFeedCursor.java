@@ -0,0 +1,47 @@
+package com.legymernok.backend.dto.social;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Az aktivitás-feed keyset kurzora: az utolsó kiadott elem (occurredAt, id) párja,
+ * a kliens felé átlátszatlan base64url szövegként. A "cursor" request paraméterből
+ * a valueOf-on keresztül konvertálódik; érvénytelen érték 400-at ad.
+ */
+public record ActivityFeedCursor(Instant occurredAt, UUID id) {
+
+    /** Az első lap: minden létező elem "előtte" van. */
+    public static final ActivityFeedCursor START = new ActivityFeedCursor(
+            Instant.parse("9999-12-31T23:59:59Z"), UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+
+    public static ActivityFeedCursor valueOf(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid activity feed cursor");
+        }
+        try {
+            return new ActivityFeedCursor(Instant.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid activity feed cursor", e);
+        }
+    }
+
+    /**
+     * Az adatbázis (occurred_at, id) sorrendje szerint későbbi-e. A UUID-okat előjel
+     * nélküli bájtsorrendben hasonlítjuk (mint a Postgres), nem a UUID.compareTo szerint.
+     */
+    public boolean isAfter(ActivityFeedCursor other) {
+        int byTime = occurredAt.compareTo(other.occurredAt);
+        return byTime != 0 ? byTime > 0 : id.toString().compareTo(other.id.toString()) > 0;
+    }
+
+    public String encode() {
+        String raw = occurredAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.legymernok.backend.dto.social;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,7 +9,9 @@ import java.util.UUID;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class ActivityFeedItemResponse {
+    private UUID id;
     private UUID cadetId;
     private String cadetUsername;
     private String type; // "GROUP_STEP" | "FILL_IN_BLANK" | "QUIZ"
@@ -0,0 +1,13 @@
+package com.legymernok.backend.dto.social;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ActivityFeedPageResponse {
+    private List<ActivityFeedItemResponse> items;
+    private String nextCursor; // null, ha nincs több elem
+}
@@ -3,13 +3,17 @@ package com.legymernok.backend.dto.starsystem;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.legymernok.backend.dto.group.MissionGroupResponse;
 import com.legymernok.backend.dto.mission.MissionResponse;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class StarSystemItemResponse {
 
@@ -0,0 +1,123 @@
+package com.legymernok.backend.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Szálbiztos circuit breaker az utolsó N hívás (csúszó ablak) hibaaránya alapján.
+ *
+ * CLOSED: minden hívás átmegy, ha az ablak legalább minimumCalls hívást tartalmaz és
+ * a hibaarány eléri a küszöböt, OPEN-be vált. OPEN: minden hívás azonnal elutasítva,
+ * amíg le nem telik az openDuration. HALF_OPEN: legfeljebb halfOpenCalls próbahívás
+ * mehet át — ha mind sikeres, visszazár, az első hibára újra kinyit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** A breaker pillanatnyi állapota (admin végpont, metrikák). */
+    public record Snapshot(State state, double failureRate, int bufferedCalls, Instant openedAt) {
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    // Csúszó ablak: true = hibás hívás
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private Instant openedAt;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Clock clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.window = new boolean[windowSize];
+    }
+
+    /** Átengedhető-e a következő hívás; true esetén a hívónak jeleznie kell az eredményt. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openedAt.plus(openDuration))) return false;
+            state = State.HALF_OPEN;
+            halfOpenStarted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) return false;
+            halfOpenStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSucceeded >= halfOpenCalls) close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) open();
+        }
+    }
+
+    /** Kézi visszazárás (admin). */
+    public synchronized void reset() {
+        close();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(state, failureRate(), windowCount, openedAt);
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (window[windowNext]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) windowFailures++;
+        windowNext = (windowNext + 1) % windowSize;
+    }
+
+    private double failureRate() {
+        return windowCount == 0 ? 0.0 : (double) windowFailures / windowCount;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.instant();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        openedAt = null;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -30,13 +30,14 @@ public class GitHubService {
             @Value("${github.token}") String token,
             @Value("${github.repo.owner}") String owner,
             @Value("${github.repo.name}") String repo,
-            @Value("${github.feedback.label}") String feedbackLabel) {
+            @Value("${github.feedback.label}") String feedbackLabel,
+            OutboundHttpClients httpClients) {
         this.owner = owner;
         this.repo = repo;
         this.feedbackLabel = feedbackLabel;
         this.configured = token != null && !token.isBlank();
 
-        RestClient.Builder builder = RestClient.builder()
+        RestClient.Builder builder = httpClients.restClient("github")
                 .baseUrl(apiUrl)
                 .defaultHeader("Accept", "application/vnd.github+json")
                 .defaultHeader("X-GitHub-Api-Version", "2022-11-28")
@@ -0,0 +1,216 @@
+package com.legymernok.backend.integration;
+
+import com.legymernok.backend.dto.admin.GiteaResilienceStatusResponse;
+import com.legymernok.backend.exception.ExternalServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rugalmassági réteg a GiteaService minden HTTP-hívása körül (RestClient interceptor).
+ *
+ * - Bulkhead műveletosztályonként (olvasás / repó- és userkezelés / commit): ha egy
+ *   lassú Gitea mellett egy osztály betelik, a további hívások max-wait után azonnal
+ *   ExternalServiceException-t kapnak, így a Tomcat-szálak nem torlódnak fel, és a
+ *   Giteát nem érintő végpontok (pl. csillagtérkép) kiszolgálhatók maradnak.
+ * - Circuit breaker: hálózati hiba vagy 5xx válasz hibának számít; nyitott állapotban
+ *   a hívások Gitea-kérés nélkül, azonnal elbuknak, majd half-open próbahívások
+ *   döntik el, hogy visszazárhat-e.
+ * - Olvasásoknál (GET) korlátos újrapróbálás exponenciális, "full jitter" várakozással
+ *   hálózati hibára és 502/503/504-re — a módosító hívások nem idempotensek, azokat nem.
+ *
+ * Metrikák: gitea.circuit_breaker.state (0 zárt, 1 half-open, 2 nyitott),
+ * gitea.circuit_breaker.failure_rate, gitea.bulkhead.available, gitea.calls.rejected,
+ * gitea.calls.retries. Állapot: GET /api/admin/gitea/resilience.
+ */
+@Component
+@Slf4j
+public class GiteaResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    public enum OperationClass { READ, PROVISION, COMMIT }
+
+    private final CircuitBreaker circuitBreaker;
+    private final Map<OperationClass, Semaphore> bulkheads = new EnumMap<>(OperationClass.class);
+    private final Map<OperationClass, Integer> bulkheadLimits = new EnumMap<>(OperationClass.class);
+    private final long bulkheadMaxWaitMillis;
+    private final int readMaxAttempts;
+    private final long retryBaseDelayMillis;
+    private final long retryMaxDelayMillis;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter breakerRejections;
+    private final Counter retries;
+
+    public GiteaResilienceInterceptor(
+            @Value("${gitea.resilience.bulkhead.read:32}") int readLimit,
+            @Value("${gitea.resilience.bulkhead.provision:8}") int provisionLimit,
+            @Value("${gitea.resilience.bulkhead.commit:16}") int commitLimit,
+            @Value("${gitea.resilience.bulkhead.max-wait-ms:500}") long bulkheadMaxWaitMillis,
+            @Value("${gitea.resilience.breaker.window-size:20}") int windowSize,
+            @Value("${gitea.resilience.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${gitea.resilience.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${gitea.resilience.breaker.open-duration-ms:30000}") long openDurationMillis,
+            @Value("${gitea.resilience.breaker.half-open-calls:3}") int halfOpenCalls,
+            @Value("${gitea.resilience.retry.max-attempts:3}") int readMaxAttempts,
+            @Value("${gitea.resilience.retry.base-delay-ms:100}") long retryBaseDelayMillis,
+            @Value("${gitea.resilience.retry.max-delay-ms:1000}") long retryMaxDelayMillis,
+            MeterRegistry meterRegistry) {
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                Duration.ofMillis(openDurationMillis), halfOpenCalls, Clock.systemUTC());
+        this.bulkheadLimits.put(OperationClass.READ, readLimit);
+        this.bulkheadLimits.put(OperationClass.PROVISION, provisionLimit);
+        this.bulkheadLimits.put(OperationClass.COMMIT, commitLimit);
+        this.bulkheadLimits.forEach((operation, limit) -> bulkheads.put(operation, new Semaphore(limit)));
+        this.bulkheadMaxWaitMillis = bulkheadMaxWaitMillis;
+        this.readMaxAttempts = Math.max(1, readMaxAttempts);
+        this.retryBaseDelayMillis = retryBaseDelayMillis;
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gitea.circuit_breaker.state", circuitBreaker, cb -> switch (cb.getState()) {
+                    case CLOSED -> 0;
+                    case HALF_OPEN -> 1;
+                    case OPEN -> 2;
+                })
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(meterRegistry);
+        Gauge.builder("gitea.circuit_breaker.failure_rate", circuitBreaker, cb -> cb.snapshot().failureRate())
+                .register(meterRegistry);
+        bulkheads.forEach((operation, semaphore) ->
+                Gauge.builder("gitea.bulkhead.available", semaphore, Semaphore::availablePermits)
+                        .tag("operation", operation.name().toLowerCase())
+                        .register(meterRegistry));
+        this.breakerRejections = rejectionCounter("circuit_open", "any");
+        this.retries = Counter.builder("gitea.calls.retries").register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        OperationClass operation = classify(request);
+        int maxAttempts = operation == OperationClass.READ ? readMaxAttempts : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ClientHttpResponse response = executeGuarded(operation, request, body, execution);
+                if (attempt >= maxAttempts || !isRetryable(response.getStatusCode())) return response;
+                response.close();
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) throw e;
+            }
+            retries.increment();
+            log.debug("Retrying Gitea {} {} (attempt {})", request.getMethod(), request.getURI().getPath(), attempt + 1);
+            backoff(attempt);
+        }
+    }
+
+    private ClientHttpResponse executeGuarded(OperationClass operation, HttpRequest request, byte[] body,
+                                              ClientHttpRequestExecution execution) throws IOException {
+        Semaphore bulkhead = bulkheads.get(operation);
+        if (!acquire(bulkhead)) {
+            rejectionCounter("bulkhead_full", operation.name().toLowerCase()).increment();
+            throw new ExternalServiceException("Gitea",
+                    "Too many concurrent " + operation.name().toLowerCase() + " calls, please try again later");
+        }
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                breakerRejections.increment();
+                throw new ExternalServiceException("Gitea", "Service is temporarily unavailable (circuit breaker open)");
+            }
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                if (response.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /** Olvasás: GET/HEAD; commit: a /contents végpontok módosításai; minden más repó-/userkezelés. */
+    static OperationClass classify(HttpRequest request) {
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) return OperationClass.READ;
+        String path = request.getURI().getPath();
+        if (path != null && path.contains("/contents")) return OperationClass.COMMIT;
+        return OperationClass.PROVISION;
+    }
+
+    public GiteaResilienceStatusResponse status() {
+        CircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+        Map<String, Integer> available = new LinkedHashMap<>();
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        bulkheads.forEach((operation, semaphore) -> {
+            available.put(operation.name(), semaphore.availablePermits());
+            limits.put(operation.name(), bulkheadLimits.get(operation));
+        });
+        return GiteaResilienceStatusResponse.builder()
+                .circuitBreakerState(snapshot.state().name())
+                .failureRate(snapshot.failureRate())
+                .bufferedCalls(snapshot.bufferedCalls())
+                .openedAt(snapshot.openedAt())
+                .bulkheadAvailable(available)
+                .bulkheadLimits(limits)
+                .build();
+    }
+
+    CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean acquire(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(bulkheadMaxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isRetryable(HttpStatusCode status) {
+        int code = status.value();
+        return code == 502 || code == 503 || code == 504;
+    }
+
+    private void backoff(int attempt) throws IOException {
+        long cap = Math.min(retryMaxDelayMillis, retryBaseDelayMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to retry Gitea call", e);
+        }
+    }
+
+    private Counter rejectionCounter(String reason, String operation) {
+        return Counter.builder("gitea.calls.rejected")
+                .tag("reason", reason)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
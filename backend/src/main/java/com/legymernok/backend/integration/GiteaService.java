@@ -3,25 +3,37 @@ package com.legymernok.backend.integration;
 import com.legymernok.backend.exception.ExternalServiceException;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.mission.MissionType;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.http.MediaType;
 import org.springframework.core.ParameterizedTypeReference;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 @Service
 @Slf4j
 public class GiteaService {
 
+    // Minden commit (uploadFiles) erre az ágra megy, a pillanatképek is innen olvasnak
+    private static final String DEFAULT_BRANCH = "main";
+
     private final RestClient restClient;
     /**
      * -- GETTER --
@@ -40,6 +52,12 @@ public class GiteaService {
     private final String quizTemplateRepoOwner;
     private final String quizTemplateRepoName;
     private final String verificationSecretValue;
+    // Párhuzamos fájlfa-bejárás (copyRepositoryContents / copyMissionRepositoryForCadet)
+    private final ExecutorService treeFetchExecutor;
+    private final GiteaTreeFetcher treeFetcher;
+    private final TemplateSnapshotCache templateSnapshotCache;
+    // Utoljára ismert blob SHA-k repónként — diff-alapú mentés (uploadFiles)
+    private final RepositoryBlobIndex blobIndex;
 
     public GiteaService(
             @Value("${gitea.api.url}") String apiUrl,
@@ -52,7 +70,14 @@ public class GiteaService {
             @Value("${gitea.template.python.repo}") String pythonTemplateRepoName,
             @Value("${gitea.template.quiz.owner}") String quizTemplateRepoOwner,
             @Value("${gitea.template.quiz.repo}")String quizTemplateRepoName,
-            @Value("${mission.verification.secret}") String verificationSecretValue) {
+            @Value("${mission.verification.secret}") String verificationSecretValue,
+            @Value("${gitea.fetch.max-concurrency:16}") int fetchMaxConcurrency,
+            @Value("${gitea.fetch.per-repo-concurrency:6}") int fetchPerRepoConcurrency,
+            @Value("${gitea.fetch.acquire-timeout-ms:30000}") long fetchAcquireTimeoutMillis,
+            TemplateSnapshotCache templateSnapshotCache,
+            RepositoryBlobIndex blobIndex,
+            OutboundHttpClients httpClients,
+            GiteaResilienceInterceptor resilience) {
 
         this.adminUsername = adminUsername;
         this.adminToken = adminToken;
@@ -63,15 +88,30 @@ public class GiteaService {
         this.quizTemplateRepoOwner = quizTemplateRepoOwner;
         this.quizTemplateRepoName = quizTemplateRepoName;
         this.verificationSecretValue = verificationSecretValue;
+        this.templateSnapshotCache = templateSnapshotCache;
+        this.blobIndex = blobIndex;
 
         String basicAuth = "Basic " + Base64.getEncoder().encodeToString((adminUsername + ":" + adminPassword).getBytes(StandardCharsets.UTF_8));
 
-        this.restClient = RestClient.builder()
+        this.restClient = httpClients.restClient("gitea")
                 .baseUrl(apiUrl)
                 //.defaultHeader("Authorization", "token " + adminToken)
                 //.defaultHeaders(headers -> headers.setBasicAuth(adminUsername, adminPassword))
                 .defaultHeader("Authorization", basicAuth)
+                // Bulkhead + circuit breaker + GET-retry minden Gitea-hívás körül
+                .requestInterceptor(resilience)
                 .build();
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gitea-fetch-");
+        threadFactory.setDaemon(true);
+        this.treeFetchExecutor = Executors.newFixedThreadPool(fetchMaxConcurrency, threadFactory);
+        this.treeFetcher = new GiteaTreeFetcher(treeFetchExecutor, fetchMaxConcurrency,
+                fetchPerRepoConcurrency, fetchAcquireTimeoutMillis);
+    }
+
+    @PreDestroy
+    void shutdownTreeFetchExecutor() {
+        treeFetchExecutor.shutdownNow();
     }
 
     /**
@@ -151,6 +191,7 @@ public class GiteaService {
         requestBody.put("private", isPrivate);
         requestBody.put("auto_init", false);
         // description, license is beállítható
+        blobIndex.evict(adminUsername, repoName);
 
         try {
             Map response = restClient.post()
@@ -183,6 +224,7 @@ public class GiteaService {
      */
     public void deleteRepository(String owner, String repoName) {
         log.info("Attempting to delete Gitea repository: {}/{}", owner, repoName);
+        blobIndex.evict(owner, repoName);
         try {
             restClient.delete()
                     .uri("/repos/{owner}/{repo}", owner, repoName)
@@ -197,6 +239,35 @@ public class GiteaService {
         }
     }
 
+    /**
+     * Átnevez egy, az admin felhasználóhoz tartozó repository-t (pl. egy
+     * előre létrehozott pool-repót a kadét saját repójának nevére).
+     * @param repoName A repository jelenlegi neve.
+     * @param newRepoName Az új név.
+     * @return Az átnevezett repository klónozási URL-je (clone_url).
+     * @throws ExternalServiceException Ha hiba történik (pl. az új név foglalt).
+     */
+    public String renameAdminRepository(String repoName, String newRepoName) {
+        log.info("Renaming Gitea repository '{}' to '{}'", repoName, newRepoName);
+        blobIndex.evict(adminUsername, repoName);
+        blobIndex.evict(adminUsername, newRepoName);
+        try {
+            Map response = restClient.patch()
+                    .uri("/repos/{owner}/{repo}", adminUsername, repoName)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("name", newRepoName))
+                    .retrieve()
+                    .body(Map.class);
+            if (response != null && response.containsKey("clone_url")) {
+                return (String) response.get("clone_url");
+            }
+        } catch (Exception e) {
+            log.error("Failed to rename Gitea repository '{}' to '{}'. Error: {}", repoName, newRepoName, e.getMessage());
+            throw new ExternalServiceException("Gitea", "Failed to rename repository: " + e.getMessage());
+        }
+        throw new ExternalServiceException("Gitea", "Failed to rename repository: No clone URL returned.");
+    }
+
     /**
      * Töröl egy, az admin felhasználóhoz tartozó repository-t.
      * @param repoName A törlendő repository neve.
@@ -207,8 +278,10 @@ public class GiteaService {
     }
 
     /**
-     * Rekurzívan másolja egy repository tartalmát (fájlok és mappák) egy másik repository-ba.
+     * Átmásolja egy repository teljes tartalmát (fájlok és mappák) egy frissen
+     * létrehozott, üres másik repository-ba, egyetlen commitban.
      * Mindkét repository-nak az admin tulajdonában kell lennie a művelethez.
+     * A forrás tartalma a HEAD commit SHA-ja szerint cache-elt (TemplateSnapshotCache).
      *
      * @param sourceOwner    A forrás repository tulajdonosának neve.
      * @param sourceRepoName A forrás repository neve.
@@ -217,23 +290,26 @@ public class GiteaService {
      */
     public void copyRepositoryContents(String sourceOwner, String sourceRepoName, String targetRepoName) {
         log.info("Collecting contents from {}/{} to copy to admin's {}", sourceOwner, sourceRepoName, targetRepoName);
-        Map<String, String> allFiles = new HashMap<>();
-        collectFilesRecursive(sourceOwner, sourceRepoName, "", allFiles);
-
-        // getRepoContents/getFileContent 404-nél csendben üres listát/null-t ad
-        // vissza (lásd ott a kommentet) — enélkül az ellenőrzés nélkül egy
-        // hiányzó/elgépelt nevű forrás template repo esetén a célrepó
-        // "sikeresen", de láthatatlanul ÜRESEN jönne létre (ez okozta az
-        // eredeti #34 issue-t: orphan, üres mission repók, semmilyen hibaüzenet
-        // nélkül).
-        if (allFiles.isEmpty()) {
-            throw new ExternalServiceException("Gitea",
-                    "Template repository '" + sourceOwner + "/" + sourceRepoName
-                            + "' is empty or does not exist — cannot copy contents to '" + targetRepoName + "'.");
-        }
+        Map<String, String> allFiles = cachedTemplateFiles(sourceOwner, sourceRepoName, false, ref -> {
+            Map<String, String> files = getRepositorySnapshot(sourceOwner, sourceRepoName, ref);
+
+            // getRepoContents/getFileContent 404-nél csendben üres listát/null-t ad
+            // vissza (lásd ott a kommentet) — enélkül az ellenőrzés nélkül egy
+            // hiányzó/elgépelt nevű forrás template repo esetén a célrepó
+            // "sikeresen", de láthatatlanul ÜRESEN jönne létre (ez okozta az
+            // eredeti #34 issue-t: orphan, üres mission repók, semmilyen hibaüzenet
+            // nélkül).
+            if (files.isEmpty()) {
+                throw new ExternalServiceException("Gitea",
+                        "Template repository '" + sourceOwner + "/" + sourceRepoName
+                                + "' is empty or does not exist — cannot copy contents to '" + targetRepoName + "'.");
+            }
+            return files;
+        });
 
-        // Egyetlen nagy commit az összes fájllal
-        uploadFiles(adminUsername, targetRepoName, allFiles, "Initial template copy", null);
+        // Egyetlen nagy commit az összes fájllal — a célrepó friss és üres,
+        // nincs mit SHA-ra lekérdezni.
+        commitFiles(adminUsername, targetRepoName, allFiles, "Initial template copy", null, Collections.emptyMap());
     }
 
     // solution.<ext> = a küldetés készítőjének referenciamegoldása — kizárólag
@@ -255,26 +331,15 @@ public class GiteaService {
      * package.json/requirements.txt, .gitea/workflows/ci.yml) változatlanul
      * másolódik.
      *
+     * A szűrt fájlkészlet a forrás repó HEAD commit SHA-ja szerint cache-elt, így
+     * változatlan template mellett egy kadét indítása csak "secret + egy batch commit".
+     *
      * @throws ExternalServiceException Ha a forrás repó üres/nem létezik, vagy
      *                                   a szűrés után nem marad kadét-látható fájl.
      */
     public void copyMissionRepositoryForCadet(String sourceOwner, String sourceRepoName, String targetRepoName, String missionId) {
         log.info("Collecting CODING mission contents from {}/{} for cadet copy to {}", sourceOwner, sourceRepoName, targetRepoName);
-        Map<String, String> sourceFiles = new HashMap<>();
-        collectFilesRecursive(sourceOwner, sourceRepoName, "", sourceFiles);
-
-        if (sourceFiles.isEmpty()) {
-            throw new ExternalServiceException("Gitea",
-                    "Mission repository '" + sourceOwner + "/" + sourceRepoName
-                            + "' is empty or does not exist — cannot copy contents to '" + targetRepoName + "'.");
-        }
-
-        Map<String, String> cadetFiles = transformForCadetCopy(sourceFiles, missionId);
-
-        if (cadetFiles.isEmpty()) {
-            throw new ExternalServiceException("Gitea",
-                    "Mission repository '" + sourceOwner + "/" + sourceRepoName + "' has no cadet-visible files to copy.");
-        }
+        Map<String, String> cadetFiles = getCadetCopyFiles(sourceOwner, sourceRepoName, missionId);
 
         // A kadét saját (admin-owned) másolat-repója NEM örökli a forrás
         // misszió-repó Actions secret-jét — a Gitea repo-copy művelet
@@ -283,7 +348,80 @@ public class GiteaService {
         // mission-verifier action 401-et kapna a callback-nél (#52).
         setRepositorySecret(targetRepoName, "MISSION_VERIFICATION_SECRET", this.verificationSecretValue);
 
-        uploadFiles(adminUsername, targetRepoName, cadetFiles, "Initial cadet copy", null);
+        commitFiles(adminUsername, targetRepoName, cadetFiles, "Initial cadet copy", null, Collections.emptyMap());
+    }
+
+    /**
+     * Egy CODING misszió kadét-másolatra szánt (transformForCadetCopy utáni)
+     * fájlkészlete, a forrás HEAD commit SHA-ja szerint cache-elve.
+     *
+     * @throws ExternalServiceException Ha a forrás repó üres/nem létezik, vagy
+     *                                   a szűrés után nem marad kadét-látható fájl.
+     */
+    public Map<String, String> getCadetCopyFiles(String sourceOwner, String sourceRepoName, String missionId) {
+        return cachedTemplateFiles(sourceOwner, sourceRepoName, true, ref -> {
+            Map<String, String> sourceFiles = getRepositorySnapshot(sourceOwner, sourceRepoName, ref);
+
+            if (sourceFiles.isEmpty()) {
+                throw new ExternalServiceException("Gitea",
+                        "Mission repository '" + sourceOwner + "/" + sourceRepoName
+                                + "' is empty or does not exist — cannot create a cadet copy.");
+            }
+
+            Map<String, String> cadetFiles = transformForCadetCopy(sourceFiles, missionId);
+
+            if (cadetFiles.isEmpty()) {
+                throw new ExternalServiceException("Gitea",
+                        "Mission repository '" + sourceOwner + "/" + sourceRepoName + "' has no cadet-visible files to copy.");
+            }
+            return cadetFiles;
+        });
+    }
+
+    /**
+     * Eldobja egy template/misszió repó összes cache-elt pillanatképét — a
+     * Forge-írások (MissionService) hívják, miután a repó tartalma megváltozott.
+     */
+    public void evictTemplateSnapshots(String owner, String repoName) {
+        templateSnapshotCache.evictRepository(owner, repoName);
+    }
+
+    // A loader a ref-et (commit SHA, vagy ha az nem kérdezhető le, "main") kapja
+    // meg — így a cache-be pontosan az adott commit tartalma kerül, akkor is, ha
+    // a SHA lekérdezése és az archívum letöltése között új commit érkezik.
+    private Map<String, String> cachedTemplateFiles(String owner, String repoName, boolean cadetCopy,
+                                                    Function<String, Map<String, String>> loader) {
+        Optional<String> headSha = getHeadCommitSha(owner, repoName);
+        if (headSha.isEmpty()) {
+            return loader.apply(DEFAULT_BRANCH);
+        }
+        String sha = headSha.get();
+        return templateSnapshotCache.get(new TemplateSnapshotCache.Key(owner, repoName, sha, cadetCopy),
+                () -> loader.apply(sha));
+    }
+
+    /**
+     * A repository main ágának aktuális HEAD commit SHA-ja.
+     * @return Üres, ha a repó/ág nem létezik (pl. még üres repó), vagy a lekérdezés sikertelen.
+     */
+    public Optional<String> getHeadCommitSha(String owner, String repoName) {
+        try {
+            Map<String, Object> branch = restClient.get()
+                    .uri("/repos/{owner}/{repo}/branches/{branch}", owner, repoName, DEFAULT_BRANCH)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+            if (branch != null && branch.get("commit") instanceof Map<?, ?> commit && commit.get("id") instanceof String sha) {
+                return Optional.of(sha);
+            }
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("Branch {} not found in {}/{}", DEFAULT_BRANCH, owner, repoName);
+        } catch (ExternalServiceException e) {
+            // Nyitott circuit breaker / bulkhead: a hívó 503-at kapjon, ne "üres repót"
+            throw e;
+        } catch (Exception e) {
+            log.warn("Failed to get HEAD commit of {}/{}: {}", owner, repoName, e.getMessage());
+        }
+        return Optional.empty();
     }
 
     private static String basename(String path) {
@@ -365,18 +503,76 @@ public class GiteaService {
         return cadetFiles;
     }
 
-    private void collectFilesRecursive(String owner, String repoName, String path, Map<String, String> collection) {
-        List<GiteaContent> contents = getRepoContents(owner, repoName, path);
-        for (GiteaContent content : contents) {
-            if ("file".equals(content.getType())) {
-                String fileContent = getFileContent(owner, repoName, content.getPath());
-                if (fileContent != null) {
-                    collection.put(content.getPath(), fileContent);
-                }
-            } else if ("dir".equals(content.getType())) {
-                collectFilesRecursive(owner, repoName, content.getPath(), collection);
+    /**
+     * Egy repository teljes tartalmának pillanatképe a main ágról, egyetlen
+     * HTTP-hívással — lásd {@link #getRepositorySnapshot(String, String, String)}.
+     */
+    public Map<String, String> getRepositorySnapshot(String owner, String repoName) {
+        return getRepositorySnapshot(owner, repoName, DEFAULT_BRANCH);
+    }
+
+    /**
+     * Egy repository teljes tartalmának pillanatképe egy adott ágon/commiton,
+     * egyetlen HTTP-hívással: a Gitea archívum-végpontjáról (&lt;ref&gt;.zip)
+     * streamelve, a memóriában bontjuk ki. Ha az archívum nem érhető el (pl. a
+     * template repó alapértelmezett ága nem main, vagy az archívum-generálás le
+     * van tiltva), visszaesik a contents API párhuzamos bejárására.
+     *
+     * @param owner A repository tulajdonosának neve.
+     * @param repoName A repository neve.
+     * @param ref Ág neve vagy commit SHA.
+     * @return Map, ahol a kulcs a fájl teljes útvonala a repón belül, az érték a
+     *         (UTF-8) tartalom. Üres/nem létező repónál üres Map.
+     */
+    public Map<String, String> getRepositorySnapshot(String owner, String repoName, String ref) {
+        try {
+            Map<String, String> files = restClient.get()
+                    .uri("/repos/{owner}/{repo}/archive/{archive}", owner, repoName, ref + ".zip")
+                    .exchange((request, response) -> {
+                        if (response.getStatusCode().isError()) {
+                            log.debug("Archive of {}/{}@{} not available (HTTP {}).", owner, repoName, ref, response.getStatusCode());
+                            return null;
+                        }
+                        return readRepositoryArchive(response.getBody());
+                    });
+            if (files != null) {
+                log.debug("Fetched snapshot of {}/{}@{} from archive: {} files.", owner, repoName, ref, files.size());
+                return files;
             }
+        } catch (ExternalServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Archive snapshot of {}/{} failed, falling back to contents API. Error: {}", owner, repoName, e.getMessage());
         }
+        return collectFiles(owner, repoName);
+    }
+
+    // A Gitea zip-archívumában minden bejegyzés egy "<repónév>/" gyökérmappa
+    // alatt van — ezt levágjuk, hogy a kulcsok ugyanazok legyenek, mint a
+    // contents API útvonalai.
+    static Map<String, String> readRepositoryArchive(InputStream archive) throws IOException {
+        Map<String, String> files = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(archive, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+                String name = entry.getName();
+                int rootSeparator = name.indexOf('/');
+                String path = rootSeparator >= 0 ? name.substring(rootSeparator + 1) : name;
+                if (path.isEmpty()) continue;
+                files.put(path, new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
+    // A teljes fájlfa párhuzamos, korlátos bejárása (lásd GiteaTreeFetcher) —
+    // ugyanazt a path -> tartalom Map-et adja, mint a korábbi soros rekurzió,
+    // így a transformForCadetCopy bemenete változatlan.
+    private Map<String, String> collectFiles(String owner, String repoName) {
+        return treeFetcher.fetch("",
+                path -> getRepoContents(owner, repoName, path),
+                path -> getFileContent(owner, repoName, path));
     }
 
     public String uploadFile(String repoOwner, String repoName, String filePath, String content) {
@@ -384,26 +580,117 @@ public class GiteaService {
     }
 
     /**
-     * Feltölt több fájlt egyetlen commit-ban.
+     * Feltölt több fájlt egyetlen commit-ban — csak azokat, amelyek tartalma eltér a
+     * repóban lévőtől (blob SHA összevetés a RepositoryBlobIndex alapján, beágyazott
+     * útvonalakra is). Ha egyik fájl sem változott, csak a HEAD commit lekérdezése
+     * történik (a leképezés ehhez a commithoz tartozik), commit nem.
      * @param files Egy Map, ahol a kulcs a fájl útvonala, az érték a tartalom.
-     * @param "operation" "create" vagy "update" (Gitea API-tól függően).
      */
     public void uploadFiles(String repoOwner, String repoName, Map<String, String> files, String commitMessage, Cadet user) {
         if (files == null || files.isEmpty()) return;
+        files.keySet().forEach(this::validateFilePath);
+        commitChanges(repoOwner, repoName, files, Collections.emptySet(), commitMessage, user);
+    }
 
-        // 1. Lekérjük a jelenlegi fájlokat, hogy tudjuk az SHA-kat (ha léteznek)
-        // Ez fontos, mert a Batch API nem tud "upsert"-et (create or update), nekünk kell megmondani
-        Map<String, String> currentShas = new HashMap<>();
+    // Diff-alapú batch commit. A tárolt blob SHA-k csak változatlan HEAD mellett
+    // érvényesek (a kadét git push-sal is módosíthatja a repót); ha a push a HEAD
+    // lekérdezése után érkezik, a Gitea 4xx-szel elutasítja a commitot — ilyenkor
+    // egyszer újrapróbáljuk a repó friss fájlfájával.
+    private void commitChanges(String repoOwner, String repoName, Map<String, String> files, Collection<String> deletions,
+                               String commitMessage, Cadet user) {
+        for (int attempt = 1; ; attempt++) {
+            RepositoryBlobIndex.Diff diff = RepositoryBlobIndex.diff(knownBlobShas(repoOwner, repoName), files, deletions);
+            if (diff.isEmpty()) {
+                log.debug("No changes to commit to {}/{}, skipping Gitea call", repoOwner, repoName);
+                return;
+            }
+
+            List<Map<String, Object>> fileActions = fileActions(diff.upserts(), diff.knownShas());
+            for (String path : diff.deletions()) {
+                Map<String, Object> action = new HashMap<>();
+                action.put("path", path);
+                action.put("operation", "delete");
+                action.put("sha", diff.knownShas().get(path));
+                fileActions.add(action);
+            }
+
+            try {
+                String newHeadSha = postBatch(repoOwner, repoName, fileActions, commitMessage, user);
+                blobIndex.apply(repoOwner, repoName, diff, newHeadSha);
+                log.info("Committed {} changed and {} deleted files to {}/{} ({} unchanged skipped)",
+                        diff.upserts().size(), diff.deletions().size(), repoOwner, repoName,
+                        files.size() - diff.upserts().size());
+                return;
+            } catch (HttpClientErrorException e) {
+                blobIndex.evict(repoOwner, repoName);
+                if (attempt >= 2) {
+                    log.error("Batch upload failed: {}", e.getMessage());
+                    throw new ExternalServiceException("Gitea", "Batch upload failed: " + e.getMessage());
+                }
+                log.info("Batch commit to {}/{} rejected ({}), retrying with fresh file SHAs", repoOwner, repoName, e.getStatusCode());
+            } catch (Exception e) {
+                blobIndex.evict(repoOwner, repoName);
+                log.error("Batch upload failed: {}", e.getMessage());
+                throw new ExternalServiceException("Gitea", "Batch upload failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // A main ág aktuális HEAD-jéhez tartozó útvonal -> blob SHA leképezés
+    private Map<String, String> knownBlobShas(String owner, String repoName) {
+        String headSha = getHeadCommitSha(owner, repoName).orElse(null);
+        return blobIndex.get(owner, repoName, headSha, () -> listBlobShas(owner, repoName));
+    }
+
+    /**
+     * A main ág teljes fájlfája (beágyazott útvonalakkal) útvonal -> blob SHA
+     * formában, a git trees API-val (lapozva, ha a fa csonkolt).
+     * Üres (még commit nélküli) repónál üres Map.
+     */
+    private Map<String, String> listBlobShas(String owner, String repoName) {
+        Map<String, String> shas = new HashMap<>();
         try {
-            // Végigmegyünk a gyökérkönyvtáron (és rekurzívan ha kell, de egyszerűség kedvéért a főbb fájlokra)
-            List<GiteaContent> contents = getRepoContents(repoOwner, repoName, "");
-            for (GiteaContent c : contents) {
-                if ("file".equals(c.getType())) currentShas.put(c.getPath(), c.getSha());
+            for (int page = 1; ; page++) {
+                Map<String, Object> tree = restClient.get()
+                        .uri("/repos/{owner}/{repo}/git/trees/{ref}?recursive=true&page={page}",
+                                owner, repoName, DEFAULT_BRANCH, page)
+                        .retrieve()
+                        .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+                if (tree == null || !(tree.get("tree") instanceof List<?> entries) || entries.isEmpty()) break;
+                for (Object entry : entries) {
+                    if (entry instanceof Map<?, ?> node && "blob".equals(node.get("type"))
+                            && node.get("path") instanceof String path && node.get("sha") instanceof String sha) {
+                        shas.put(path, sha);
+                    }
+                }
+                if (!Boolean.TRUE.equals(tree.get("truncated"))) break;
             }
+        } catch (HttpClientErrorException.NotFound e) {
+            log.debug("No {} branch in {}/{} yet, treating it as empty", DEFAULT_BRANCH, owner, repoName);
+        } catch (HttpClientErrorException e) {
+            // Gitea üres repóra (még nincs commit) 409-et is adhat
+            log.debug("Could not list tree of {}/{} ({}), treating it as empty", owner, repoName, e.getStatusCode());
         } catch (Exception e) {
-            log.warn("Could not fetch current SHAs, assuming new repository.");
+            log.error("Failed to list file tree of {}/{}: {}", owner, repoName, e.getMessage());
+            throw new ExternalServiceException("Gitea", "Failed to list repository files: " + e.getMessage());
         }
+        return shas;
+    }
 
+    // A batch contents API hívása: currentShas alapján dől el fájlonként a
+    // create vagy update művelet (frissen létrehozott repónál üres Map).
+    private void commitFiles(String repoOwner, String repoName, Map<String, String> files, String commitMessage,
+                             Cadet user, Map<String, String> currentShas) {
+        try {
+            postBatch(repoOwner, repoName, fileActions(files, currentShas), commitMessage, user);
+            log.info("Successfully batch committed {} files to {}/{}", files.size(), repoOwner, repoName);
+        } catch (Exception e) {
+            log.error("Batch upload failed: {}", e.getMessage());
+            throw new ExternalServiceException("Gitea", "Batch upload failed: " + e.getMessage());
+        }
+    }
+
+    private List<Map<String, Object>> fileActions(Map<String, String> files, Map<String, String> currentShas) {
         List<Map<String, Object>> fileActions = new ArrayList<>();
         for (Map.Entry<String, String> entry : files.entrySet()) {
             String path = entry.getKey();
@@ -423,11 +710,16 @@ public class GiteaService {
             }
             fileActions.add(action);
         }
+        return fileActions;
+    }
 
+    // A létrejött commit SHA-ja, ha a válasz tartalmazza
+    private String postBatch(String repoOwner, String repoName, List<Map<String, Object>> fileActions,
+                             String commitMessage, Cadet user) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("files", fileActions);
         requestBody.put("message", commitMessage);
-        requestBody.put("branch", "main"); // Mindig a main-re commitolunk
+        requestBody.put("branch", DEFAULT_BRANCH); // Mindig a main-re commitolunk
 
         // Szerző beállítása...
         String authorName = (user != null) ? user.getUsername() : adminUsername;
@@ -438,20 +730,18 @@ public class GiteaService {
         requestBody.put("author", identity);
         requestBody.put("committer", identity);
 
-        log.info("Request body: {}", requestBody);
+        log.debug("Batch commit to {}/{}: {} file operations", repoOwner, repoName, fileActions.size());
 
-        try {
-            restClient.post()
-                    .uri("/repos/{owner}/{repo}/contents", repoOwner, repoName)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(requestBody)
-                    .retrieve()
-                    .toBodilessEntity();
-            log.info("Successfully batch committed {} files to {}/{}", files.size(), repoOwner, repoName);
-        } catch (Exception e) {
-            log.error("Batch upload failed: {}", e.getMessage());
-            throw new ExternalServiceException("Gitea", "Batch upload failed: " + e.getMessage());
+        Map<String, Object> response = restClient.post()
+                .uri("/repos/{owner}/{repo}/contents", repoOwner, repoName)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(requestBody)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+        if (response != null && response.get("commit") instanceof Map<?, ?> commit && commit.get("sha") instanceof String sha) {
+            return sha;
         }
+        return null;
     }
 
     /**
@@ -520,6 +810,9 @@ public class GiteaService {
         } catch (Exception e) {
             log.error("Failed to upload file {} to {}/{}. Error: {}", filePath, repoOwner, repoName, e.getMessage());
             throw new ExternalServiceException("Gitea", "Failed to upload file: " + e.getMessage());
+        } finally {
+            // Egyedi PUT/POST a batch-útvonal mellett — a tárolt blob SHA-k már nem aktuálisak
+            blobIndex.evict(repoOwner, repoName);
         }
     }
 
@@ -533,6 +826,8 @@ public class GiteaService {
                     .body(new ParameterizedTypeReference<Map<String, Object>>() {});
         } catch (HttpClientErrorException.NotFound e) {
             return null; // Ez így már jó lesz az uploadFile if-ágához
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting file info for {}: {}", filePath, e.getMessage());
             return null;
@@ -549,36 +844,15 @@ public class GiteaService {
      */
     public void deleteFile(String repoOwner, String repoName, String filePath, Cadet user) {
         validateFilePath(filePath);
-        Map<String, Object> fileInfo = getFileInfo(repoOwner, repoName, filePath);
-        if (fileInfo == null || !fileInfo.containsKey("sha")) {
-            throw new ExternalServiceException("Gitea", "File not found, cannot delete: " + filePath);
-        }
-
-        String authorName = (user != null) ? user.getUsername() : adminUsername;
-        String authorEmail = (user != null && user.getEmail() != null) ? user.getEmail() : adminUsername + "@legymernok.hu";
-        Map<String, String> identity = new HashMap<>();
-        identity.put("name", authorName);
-        identity.put("email", authorEmail);
-
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("sha", fileInfo.get("sha"));
-        requestBody.put("message", "Delete " + filePath);
-        requestBody.put("author", identity);
-        requestBody.put("committer", identity);
-
-        String uri = String.format("/repos/%s/%s/contents/%s", repoOwner, repoName, filePath);
-        try {
-            restClient.method(org.springframework.http.HttpMethod.DELETE)
-                    .uri(uri)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(requestBody)
-                    .retrieve()
-                    .toBodilessEntity();
-            log.info("Deleted file {} from {}/{}", filePath, repoOwner, repoName);
-        } catch (Exception e) {
-            log.error("Failed to delete file {} from {}/{}. Error: {}", filePath, repoOwner, repoName, e.getMessage());
-            throw new ExternalServiceException("Gitea", "Failed to delete file: " + e.getMessage());
+        // A törléshez kell a fájl blob SHA-ja — a tárolt fából, ha ott nincs, friss fából
+        if (!knownBlobShas(repoOwner, repoName).containsKey(filePath)) {
+            blobIndex.evict(repoOwner, repoName);
+            if (!knownBlobShas(repoOwner, repoName).containsKey(filePath)) {
+                throw new ExternalServiceException("Gitea", "File not found, cannot delete: " + filePath);
+            }
         }
+        commitChanges(repoOwner, repoName, Collections.emptyMap(), Set.of(filePath), "Delete " + filePath, user);
+        log.info("Deleted file {} from {}/{}", filePath, repoOwner, repoName);
     }
 
     /**
@@ -644,6 +918,8 @@ public class GiteaService {
         } catch (HttpClientErrorException.NotFound e) {
             log.warn("Directory not found in Gitea: {}/{}/{}", owner, repoName, path);
             return Collections.emptyList();
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to get repo contents for {}/{}/{}: {}", owner, repoName, path, e.getMessage());
             return Collections.emptyList();
@@ -657,7 +933,16 @@ public class GiteaService {
      * @param filePath A fájl útvonala.
      */
     public String getFileContent(String owner, String repoName, String filePath) {
-        String uri = String.format("/repos/%s/%s/contents/%s", owner, repoName, filePath);
+        return getFileContent(owner, repoName, filePath, null);
+    }
+
+    /**
+     * Lekéri egy fájl tartalmát egy adott commiton/ágon (Stringként, decode-olva).
+     * @param ref Commit SHA vagy ág neve; null esetén az alapértelmezett ág.
+     */
+    public String getFileContent(String owner, String repoName, String filePath, String ref) {
+        String uri = String.format("/repos/%s/%s/contents/%s", owner, repoName, filePath)
+                + (ref != null ? "?ref=" + ref : "");
         try {
             GiteaContent content = restClient.get()
                     .uri(uri)
@@ -671,6 +956,8 @@ public class GiteaService {
         } catch (HttpClientErrorException.NotFound e) {
             log.warn("File not found in Gitea: {}/{}/{}", owner, repoName, filePath);
             return null;
+        } catch (ExternalServiceException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to get file content for {}/{}/{}: {}", owner, repoName, filePath, e.getMessage());
         }
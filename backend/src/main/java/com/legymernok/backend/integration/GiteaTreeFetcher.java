@@ -0,0 +1,151 @@
+package com.legymernok.backend.integration;
+
+import com.legymernok.backend.exception.ExternalServiceException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Egy repository teljes fájlfájának párhuzamos bejárása a Gitea contents API-n.
+ * A korábbi, soros collectFilesRecursive minden mappára és minden fájlra külön,
+ * egymás után várt GET-et küldött (N+1 round-trip) — itt a mappalistázások és a
+ * fájlolvasások egy közös, korlátos executoron futnak egyszerre.
+ *
+ * A bejárást a hívó szál vezérli: ő adja be a feladatokat és dolgozza fel az
+ * eredményeket, a pool-szálak csak egy-egy HTTP-hívást végeznek, így beágyazott
+ * várakozásból eredő deadlock nem fordulhat elő.
+ * <ul>
+ *   <li>perRepoConcurrency: egy bejáráson belül legfeljebb ennyi hívás lehet
+ *       egyszerre úton — egyetlen nagy repó sem sajátíthatja ki a poolt.</li>
+ *   <li>globalPermits: az összes párhuzamos bejárás együttes felső korlátja
+ *       (back-pressure) — ha elfogyott, a hívó szál vár, legfeljebb
+ *       acquireTimeoutMillis-ig, utána ExternalServiceException.</li>
+ * </ul>
+ */
+@Slf4j
+class GiteaTreeFetcher {
+
+    @FunctionalInterface
+    interface DirectoryLister {
+        List<GiteaService.GiteaContent> list(String path);
+    }
+
+    @FunctionalInterface
+    interface FileReader {
+        String read(String path);
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+    private final int perRepoConcurrency;
+    private final long acquireTimeoutMillis;
+
+    GiteaTreeFetcher(ExecutorService executor, int maxConcurrency, int perRepoConcurrency, long acquireTimeoutMillis) {
+        if (maxConcurrency < 1 || perRepoConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limits must be positive.");
+        }
+        this.executor = executor;
+        this.globalPermits = new Semaphore(maxConcurrency, true);
+        this.perRepoConcurrency = perRepoConcurrency;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Bejárja a rootPath alatti teljes fát, és visszaadja a fájlokat
+     * (kulcs: teljes útvonal a repón belül, érték: dekódolt tartalom) — pontosan
+     * ugyanazt a Map-et, amit a soros bejárás is adott volna.
+     */
+    Map<String, String> fetch(String rootPath, DirectoryLister lister, FileReader reader) {
+        Map<String, String> collection = new HashMap<>();
+        CompletionService<FetchResult> completionService = new ExecutorCompletionService<>(executor);
+        Deque<FetchTask> pending = new ArrayDeque<>();
+        pending.add(FetchTask.directory(rootPath == null ? "" : rootPath));
+        int inFlight = 0;
+
+        try {
+            while (!pending.isEmpty() || inFlight > 0) {
+                while (!pending.isEmpty() && inFlight < perRepoConcurrency) {
+                    acquireGlobalPermit();
+                    FetchTask task = pending.poll();
+                    try {
+                        completionService.submit(() -> {
+                            try {
+                                return task.run(lister, reader);
+                            } finally {
+                                globalPermits.release();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        globalPermits.release();
+                        throw e;
+                    }
+                    inFlight++;
+                }
+
+                FetchResult result = completionService.take().get();
+                inFlight--;
+
+                if (result.directoryEntries() != null) {
+                    for (GiteaService.GiteaContent content : result.directoryEntries()) {
+                        if ("file".equals(content.getType())) {
+                            pending.add(FetchTask.file(content.getPath()));
+                        } else if ("dir".equals(content.getType())) {
+                            pending.add(FetchTask.directory(content.getPath()));
+                        }
+                    }
+                } else if (result.fileContent() != null) {
+                    collection.put(result.path(), result.fileContent());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalServiceException("Gitea", "Repository tree fetch interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Parallel repository tree fetch failed: {}", cause.getMessage());
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ExternalServiceException("Gitea", "Repository tree fetch failed: " + cause.getMessage());
+        }
+        return collection;
+    }
+
+    private void acquireGlobalPermit() throws InterruptedException {
+        if (!globalPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new ExternalServiceException("Gitea",
+                    "Too many concurrent repository reads — tree fetch could not start within " + acquireTimeoutMillis + " ms.");
+        }
+    }
+
+    private record FetchTask(String path, boolean isDirectory) {
+        static FetchTask directory(String path) {
+            return new FetchTask(path, true);
+        }
+
+        static FetchTask file(String path) {
+            return new FetchTask(path, false);
+        }
+
+        FetchResult run(DirectoryLister lister, FileReader reader) {
+            if (isDirectory) {
+                List<GiteaService.GiteaContent> entries = lister.list(path);
+                return new FetchResult(path, entries != null ? entries : List.of(), null);
+            }
+            return new FetchResult(path, null, reader.read(path));
+        }
+    }
+
+    private record FetchResult(String path, List<GiteaService.GiteaContent> directoryEntries, String fileContent) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.legymernok.backend.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A kimenő HTTP-hívások közös rétege. Minden downstream (gitea, github, ai) saját,
+ * névvel azonosított Apache HttpClient 5 klienst kap: poolozott, keep-alive-os
+ * kapcsolatok (nem fizetünk minden hívásnál TCP/TLS felépítést), route-onkénti
+ * limit, connect/read/pool-várakozási timeout (egy lassú AI service nem tarthat
+ * fogva szálakat a végtelenségig) és opcionális gzip.
+ *
+ * Beállítások kliensenként: http.client.{név}.max-total, max-per-route,
+ * connect-timeout-ms, read-timeout-ms, acquire-timeout-ms, idle-timeout-seconds,
+ * compression. Metrikák: a pool kihasználtsága "httpcomponents.httpclient.pool.*"
+ * (httpclient={név} taggel), a hívások késleltetése "http.client.requests".
+ */
+@Component
+@Slf4j
+public class OutboundHttpClients {
+
+    private static final String PROPERTY_PREFIX = "http.client.";
+
+    /** Egy névvel azonosított kliens beállításai. */
+    record Settings(int maxTotal, int maxPerRoute, long connectTimeoutMillis, long readTimeoutMillis,
+                    long acquireTimeoutMillis, long idleTimeoutSeconds, boolean compression) {
+    }
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final Map<String, CloseableHttpClient> clients = new ConcurrentHashMap<>();
+
+    public OutboundHttpClients(Environment environment, MeterRegistry meterRegistry,
+                               ObservationRegistry observationRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /** RestClient builder a megnevezett downstream poolozott kliensével és metrikáival. */
+    public RestClient.Builder restClient(String name) {
+        return RestClient.builder()
+                .requestFactory(requestFactory(name))
+                .observationRegistry(observationRegistry);
+    }
+
+    /** RestTemplate a megnevezett downstream poolozott kliensével és metrikáival. */
+    public RestTemplate restTemplate(String name) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory(name));
+        restTemplate.setObservationRegistry(observationRegistry);
+        return restTemplate;
+    }
+
+    ClientHttpRequestFactory requestFactory(String name) {
+        return new HttpComponentsClientHttpRequestFactory(clients.computeIfAbsent(name, this::createClient));
+    }
+
+    Settings settings(String name) {
+        String prefix = PROPERTY_PREFIX + name + ".";
+        return new Settings(
+                environment.getProperty(prefix + "max-total", Integer.class, 50),
+                environment.getProperty(prefix + "max-per-route", Integer.class, 20),
+                environment.getProperty(prefix + "connect-timeout-ms", Long.class, 3000L),
+                environment.getProperty(prefix + "read-timeout-ms", Long.class, 30000L),
+                environment.getProperty(prefix + "acquire-timeout-ms", Long.class, 5000L),
+                environment.getProperty(prefix + "idle-timeout-seconds", Long.class, 30L),
+                environment.getProperty(prefix + "compression", Boolean.class, true));
+    }
+
+    private CloseableHttpClient createClient(String name) {
+        Settings settings = settings(name);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxTotal())
+                .setMaxConnPerRoute(settings.maxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(settings.connectTimeoutMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(settings.readTimeoutMillis()))
+                        // A szerver által már lezárt, pool-ban ülő kapcsolat ne okozzon hibát
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(settings.acquireTimeoutMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(settings.readTimeoutMillis()))
+                        .build())
+                // A tétlen kapcsolatokat mi zárjuk le, mielőtt a szerver idle timeout-ja tenné
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(settings.idleTimeoutSeconds()))
+                // Az alapértelmezett stratégia 503/429-re a nem idempotens POST-ot is
+                // újraküldené — az újrapróbálás a hívó döntése (lásd GiteaResilienceInterceptor)
+                .disableAutomaticRetries();
+        if (!settings.compression()) {
+            builder.disableContentCompression();
+        }
+        log.info("Outbound HTTP client '{}' created: {}", name, settings);
+        return builder.build();
+    }
+
+    @PreDestroy
+    void close() {
+        clients.forEach((name, client) -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Could not close outbound HTTP client '{}': {}", name, e.getMessage());
+            }
+        });
+        clients.clear();
+    }
+}
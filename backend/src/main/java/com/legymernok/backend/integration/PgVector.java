@@ -0,0 +1,143 @@
+package com.legymernok.backend.integration;
+
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * pgvector "vector" érték JDBC paraméterként és eredményként, float[]-ként tárolva.
+ * Ha a kapcsolaton regisztráltuk (register, lásd PgVectorConfig), a pgjdbc bináris
+ * formában küldi és fogadja: 2 bájt dimenzió, 2 bájt fenntartott (0), majd a float4
+ * értékek big-endian — így nincs "[f1,f2,...]" szöveg építése és parse-olása egyik
+ * oldalon sem, és az SQL-ben sem kell ?::vector cast. Regisztráció nélkül (vagy amíg
+ * egy lekérdezés nincs szerver oldalon előkészítve) a szöveges alakra esik vissza.
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    public static final String TYPE = "vector";
+
+    private float[] vector;
+
+    public PgVector() {
+        setType(TYPE);
+    }
+
+    public PgVector(float[] vector) {
+        this();
+        this.vector = vector;
+    }
+
+    public float[] toArray() {
+        return vector;
+    }
+
+    /**
+     * Egy eredményoszlop értéke float[]-ként: a regisztrált kapcsolat PgVector-t ad,
+     * a nem regisztrált PGobject-et vagy szöveget (pl. embedding::text).
+     */
+    public static float[] toArray(Object dbValue) throws SQLException {
+        if (dbValue == null) return null;
+        if (dbValue instanceof PgVector pgVector) return pgVector.toArray();
+        if (dbValue instanceof PGobject pgObject) return parse(pgObject.getValue());
+        return parse(dbValue.toString());
+    }
+
+    /**
+     * Bekapcsolja a kapcsolaton a vector típus bináris átvitelét. Az ismételt hívás
+     * ártalmatlan, de felesleges — a PgVectorConfig fizikai kapcsolatonként egyszer hívja.
+     *
+     * @return false, ha nem PostgreSQL kapcsolat, vagy a pgvector kiterjesztés még nincs
+     *         telepítve (ilyenkor nem csinál semmit, egy későbbi hívás még regisztrálhat).
+     */
+    public static boolean register(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(BaseConnection.class)) return false;
+        BaseConnection pgConnection = connection.unwrap(BaseConnection.class);
+        int oid = pgConnection.getTypeInfo().getPGType(TYPE);
+        if (oid == Oid.UNSPECIFIED) return false;
+
+        pgConnection.addDataType(TYPE, PgVector.class);
+        QueryExecutor queryExecutor = pgConnection.getQueryExecutor();
+        queryExecutor.addBinarySendOid(oid);
+        queryExecutor.addBinaryReceiveOid(oid);
+        return true;
+    }
+
+    // --- Bináris alak ---
+
+    @Override
+    public int lengthInBytes() {
+        return vector == null ? 0 : 4 + 4 * vector.length;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, lengthInBytes());
+        buffer.putShort((short) vector.length);
+        buffer.putShort((short) 0);
+        for (float value : vector) buffer.putFloat(value);
+    }
+
+    @Override
+    public void setByteValue(byte[] bytes, int offset) throws SQLException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+        int dimensions = Short.toUnsignedInt(buffer.getShort());
+        buffer.getShort();
+        float[] result = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) result[i] = buffer.getFloat();
+        vector = result;
+    }
+
+    // --- Szöveges alak (visszaesés) ---
+
+    @Override
+    public String getValue() {
+        if (vector == null) return null;
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Override
+    public void setValue(String value) throws SQLException {
+        vector = parse(value);
+    }
+
+    // pgvector szöveges alakja: [0.1,0.2,...]
+    private static float[] parse(String text) throws SQLException {
+        if (text == null) return null;
+        if (text.length() < 2 || text.charAt(0) != '[' || text.charAt(text.length() - 1) != ']') {
+            throw new SQLException("Invalid vector literal");
+        }
+        String body = text.substring(1, text.length() - 1);
+        if (body.isEmpty()) return new float[0];
+        String[] parts = body.split(",");
+        float[] result = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) result[i] = Float.parseFloat(parts[i]);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector other && Arrays.equals(vector, other.vector);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(vector);
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
@@ -0,0 +1,33 @@
+package com.legymernok.backend.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/** A megosztott cache réteg Redis-en (cache.shared.enabled=true esetén). */
+@Component
+@ConditionalOnProperty(name = "cache.shared.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RedisSharedCacheTier implements SharedCacheTier {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public long increment(String key) {
+        Long value = redisTemplate.opsForValue().increment(key);
+        return value != null ? value : 0L;
+    }
+}
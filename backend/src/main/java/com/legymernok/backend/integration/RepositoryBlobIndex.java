@@ -0,0 +1,130 @@
+package com.legymernok.backend.integration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Repónként az utoljára ismert fájl -> git blob SHA leképezés (a teljes fa, nem
+ * csak a gyökér). Ez alapján dönti el a GiteaService.uploadFiles(), hogy egy mentés
+ * mely fájljai változtak: a tartalom blob SHA-ját helyben számoljuk, és csak az
+ * eltérő/új/törölt útvonalak mennek a batch commitba — ha semmi sem változott,
+ * Gitea-hívás sem történik.
+ *
+ * A leképezés a main ág egy HEAD commitjához tartozik: ha a kadét git push-sal
+ * közben a saját repójába commitolt, a HEAD eltér, és a leképezést eldobjuk — különben
+ * a korábban indexelt tartalomra visszamentett fájlt "változatlannak" látnánk, és a
+ * push-olt változat maradna a repóban. Ha a push a HEAD-lekérdezés és a commit közé
+ * esik, a Gitea elutasítja a régi SHA-val küldött módosítást; a hívó ilyenkor törli a
+ * bejegyzést és friss fával újrapróbálja. Metrikák: "gitea.blob.index" néven.
+ */
+@Component
+public class RepositoryBlobIndex {
+
+    private record RepoKey(String owner, String repoName) {
+    }
+
+    // headSha: a main ág commitja, amelyhez a leképezés tartozik (null: még üres repó)
+    private record Entry(String headSha, Map<String, String> shas) {
+    }
+
+    /**
+     * Egy mentés és a repó ismert állapotának különbsége.
+     * @param upserts     Létrehozandó/frissítendő útvonalak -> új tartalom.
+     * @param deletions   Törlendő útvonalak.
+     * @param knownShas   A diff alapjául szolgáló (régi) blob SHA-k.
+     */
+    public record Diff(Map<String, String> upserts, Set<String> deletions, Map<String, String> knownShas) {
+
+        public boolean isEmpty() {
+            return upserts.isEmpty() && deletions.isEmpty();
+        }
+    }
+
+    private final Cache<RepoKey, Entry> cache;
+
+    public RepositoryBlobIndex(@Value("${gitea.blob-index.max-repositories:5000}") long maxRepositories,
+                               @Value("${gitea.blob-index.expire-after-access-minutes:30}") long expireAfterAccessMinutes,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxRepositories)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gitea.blob.index");
+    }
+
+    /**
+     * A repó ismert blob SHA-i, ha a tárolt leképezés ugyanahhoz a HEAD commithoz
+     * tartozik; egyébként a loader-rel (teljes fa lekérése) újratöltve.
+     */
+    public Map<String, String> get(String owner, String repoName, String headSha,
+                                   Supplier<Map<String, String>> loader) {
+        RepoKey key = new RepoKey(owner, repoName);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && Objects.equals(entry.headSha(), headSha)) return entry.shas();
+        Entry loaded = new Entry(headSha, Map.copyOf(loader.get()));
+        cache.put(key, loaded);
+        return loaded.shas();
+    }
+
+    /**
+     * Egy sikeres commit után a diff eredményét rávezeti a tárolt leképezésre.
+     * @param newHeadSha A létrejött commit SHA-ja; ha ismeretlen, a bejegyzés törlődik.
+     */
+    public void apply(String owner, String repoName, Diff diff, String newHeadSha) {
+        if (newHeadSha == null) {
+            evict(owner, repoName);
+            return;
+        }
+        cache.asMap().computeIfPresent(new RepoKey(owner, repoName), (key, entry) -> {
+            Map<String, String> updated = new HashMap<>(entry.shas());
+            diff.upserts().forEach((path, content) -> updated.put(path, gitBlobSha(content)));
+            diff.deletions().forEach(updated::remove);
+            return new Entry(newHeadSha, Map.copyOf(updated));
+        });
+    }
+
+    /** Elfelejti a repó leképezését (a következő mentés friss fát kér le). */
+    public void evict(String owner, String repoName) {
+        cache.invalidate(new RepoKey(owner, repoName));
+    }
+
+    /**
+     * Összeveti a mentendő tartalmat az ismert blob SHA-kkal.
+     * Törlésnél csak a ténylegesen létező útvonalak kerülnek a diffbe.
+     */
+    public static Diff diff(Map<String, String> knownShas, Map<String, String> files, Collection<String> deletions) {
+        Map<String, String> upserts = new LinkedHashMap<>();
+        files.forEach((path, content) -> {
+            if (!gitBlobSha(content).equals(knownShas.get(path))) upserts.put(path, content);
+        });
+        Set<String> existingDeletions = new LinkedHashSet<>();
+        for (String path : deletions) {
+            if (knownShas.containsKey(path) && !files.containsKey(path)) existingDeletions.add(path);
+        }
+        return new Diff(upserts, existingDeletions, knownShas);
+    }
+
+    /** A git blob objektum SHA-1-e: sha1("blob " + bájthossz + "\0" + tartalom). */
+    static String gitBlobSha(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            sha1.update(("blob " + bytes.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(sha1.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
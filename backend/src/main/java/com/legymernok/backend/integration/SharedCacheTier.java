@@ -0,0 +1,19 @@
+package com.legymernok.backend.integration;
+
+import java.time.Duration;
+
+/**
+ * Több backend-példány által közösen látott kulcs-érték tár (Redis-kompatibilis
+ * szemantika): cache-bejegyzések TTL-lel és atomi verziószámlálók. A helyi Caffeine
+ * cache-ek második rétege; a hívóknak a hibáit cache-tévesztésként kell kezelniük.
+ */
+public interface SharedCacheTier {
+
+    /** @return A kulcs értéke, vagy null, ha nincs (vagy lejárt). */
+    String get(String key);
+
+    void set(String key, String value, Duration ttl);
+
+    /** Atomi növelés; a nem létező kulcs 0-ról indul. @return Az új érték. */
+    long increment(String key);
+}
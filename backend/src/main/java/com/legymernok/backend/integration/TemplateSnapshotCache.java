@@ -0,0 +1,69 @@
+package com.legymernok.backend.integration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Egy template/misszió repó kadét-másolatra szánt fájlkészletének cache-e.
+ * Tartalom-címzett: a kulcs a forrás repó és annak HEAD commit SHA-ja, tehát egy
+ * változatlan template-hez tartozó bejegyzés sosem avul el — ha száz kadét indítja
+ * ugyanazt a missziót, a Gitea-ból csak egyszer olvassuk ki a repót.
+ *
+ * A Forge-ból érkező írások (MissionService) ettől függetlenül explicit törlik az
+ * adott repó bejegyzéseit, hogy a régi SHA-khoz tartozó, már sosem kért tartalom
+ * ne foglalja a helyet. A méret a tárolt tartalom összhossza alapján korlátos.
+ * Metrikák: "gitea.template.snapshot" néven (cache.gets hit/miss, cache.evictions...).
+ */
+@Component
+@Slf4j
+public class TemplateSnapshotCache {
+
+    /**
+     * @param cadetCopy true, ha az érték a transformForCadetCopy kimenete (CODING),
+     *                  false, ha a teljes, szűretlen repó-tartalom (pl. QUIZ template).
+     */
+    public record Key(String owner, String repoName, String commitSha, boolean cadetCopy) {
+    }
+
+    private final Cache<Key, Map<String, String>> cache;
+
+    public TemplateSnapshotCache(@Value("${gitea.template-cache.max-size-mb:64}") long maxSizeMb,
+                                 MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher(TemplateSnapshotCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gitea.template.snapshot");
+    }
+
+    /**
+     * Visszaadja a kulcshoz tartozó fájlkészletet, vagy a loader-rel betölti és
+     * eltárolja. A loader kivétele nem kerül cache-be, változatlanul továbbmegy.
+     */
+    public Map<String, String> get(Key key, Supplier<Map<String, String>> loader) {
+        return cache.get(key, k -> Map.copyOf(loader.get()));
+    }
+
+    /** Törli egy repó összes (bármely commit SHA-hoz tartozó) bejegyzését. */
+    public void evictRepository(String owner, String repoName) {
+        cache.asMap().keySet().removeIf(key -> key.owner().equals(owner) && key.repoName().equals(repoName));
+        log.debug("Evicted template snapshots of {}/{}", owner, repoName);
+    }
+
+    private static int weigh(Key key, Map<String, String> files) {
+        long size = 0;
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            size += entry.getKey().length() + entry.getValue().length();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+}
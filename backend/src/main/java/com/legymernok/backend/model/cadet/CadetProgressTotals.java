@@ -0,0 +1,50 @@
+package com.legymernok.backend.model.cadet;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Kadét-szintű haladás-összesítő (profil, "folytasd" kártya). Csak a
+ * CadetProgressService írja, natív upserttel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cadet_progress_totals")
+public class CadetProgressTotals {
+
+    @Id
+    @Column(name = "cadet_id")
+    private UUID cadetId;
+
+    @Column(name = "completed_missions", nullable = false)
+    private long completedMissions;
+
+    @Column(name = "completed_groups", nullable = false)
+    private long completedGroups;
+
+    // A legutóbb elindított misszió (CadetMission.lastUpdatedAt szerint)
+    @Column(name = "last_mission_id")
+    private UUID lastMissionId;
+
+    @Column(name = "last_mission_at")
+    private Instant lastMissionAt;
+
+    // A legutóbb haladt, még nem befejezett csoport
+    @Column(name = "last_group_id")
+    private UUID lastGroupId;
+
+    @Column(name = "last_group_at")
+    private Instant lastGroupAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.legymernok.backend.model.cadet;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Egy kadét haladása egy Star Systemben (elkezdett / befejezett elemek száma), a
+ * cadet_missions és mission_group_progress táblákból denormalizálva. Csak a
+ * CadetProgressService írja, natív upserttel.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cadet_star_system_progress",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"cadet_id", "star_system_id"}))
+public class CadetStarSystemProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "cadet_id", nullable = false)
+    private UUID cadetId;
+
+    @Column(name = "star_system_id", nullable = false)
+    private UUID starSystemId;
+
+    @Column(name = "started_items", nullable = false)
+    private int startedItems;
+
+    @Column(name = "completed_items", nullable = false)
+    private int completedItems;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.legymernok.backend.model.mission;
+
+import com.legymernok.backend.model.ConnectTable.CadetMission;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Egy kadét még nem commitolt mentései egy CODING misszió saját munkarepójához
+ * (lásd MissionPlayDraftService). Írása natív upserttel történik, a version
+ * minden mentésnél nő — a commit után csak változatlan version mellett törölhető.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "mission_play_drafts")
+public class MissionPlayDraft {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cadet_mission_id", nullable = false, unique = true)
+    private CadetMission cadetMission;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", nullable = false)
+    private Map<String, String> files; // útvonal -> legutóbb mentett tartalom
+
+    @Column(nullable = false)
+    private long version;
+
+    // Az első, még nem commitolt mentés ideje — ehhez képest commitol az ütemező
+    @Column(name = "dirty_since", nullable = false)
+    private Instant dirtySince;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
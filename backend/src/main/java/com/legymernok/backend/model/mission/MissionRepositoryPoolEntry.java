@@ -0,0 +1,46 @@
+package com.legymernok.backend.model.mission;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Egy előre létrehozott, a misszió kadét-másolatával már feltöltött, admin-owned
+ * Gitea repó, amit a startMission egy kadétnak kioszthat (lásd MissionRepositoryPoolService).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "mission_repository_pool")
+public class MissionRepositoryPoolEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mission_id", nullable = false)
+    private Mission mission;
+
+    @Column(name = "repo_name", nullable = false, unique = true)
+    private String repoName;
+
+    @Column(name = "clone_url", nullable = false)
+    private String cloneUrl;
+
+    // A misszió template repójának HEAD commitja a feltöltés pillanatában
+    @Column(name = "template_sha", nullable = false, length = 64)
+    private String templateSha;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+}
@@ -3,6 +3,10 @@ package com.legymernok.backend.model.mission;
 public enum MissionStatus {
     LOCKED,
     NOT_STARTED,
+    // Aszinkron indítás: a kadét repója még épül (MissionStartService)
+    PENDING,
+    // Aszinkron indítás: a repó-előkészítés elbukott, újraindítható
+    START_FAILED,
     IN_PROGRESS,
     COMPLETED
 }
@@ -1,5 +1,7 @@
 package com.legymernok.backend.model.social;
 
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
 import com.legymernok.backend.model.cadet.Cadet;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -9,8 +11,12 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.UUID;
 
-/** Egyirányú követés (Duolingo-mintázat, nincs elfogadás) — plans/frontend_redesign_2026.md 7.2. */
+/**
+ * Egyirányú követés (Duolingo-mintázat, nincs elfogadás) — plans/frontend_redesign_2026.md 7.2.
+ * Az ActivityFeedRepository natív lekérdezéseinek típusos eredmény-leképezései is itt vannak.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,8 +24,27 @@ import java.time.Instant;
 @Entity
 @Table(name = "follows")
 @IdClass(FollowId.class)
+@SqlResultSetMapping(name = Follow.FEED_ITEM_MAPPING, classes = @ConstructorResult(
+        targetClass = ActivityFeedItemResponse.class,
+        columns = {
+                @ColumnResult(name = "id", type = UUID.class),
+                @ColumnResult(name = "cadet_id", type = UUID.class),
+                @ColumnResult(name = "username", type = String.class),
+                @ColumnResult(name = "type", type = String.class),
+                @ColumnResult(name = "name", type = String.class),
+                @ColumnResult(name = "occurred_at", type = Instant.class)
+        }))
+@SqlResultSetMapping(name = Follow.FEED_CURSOR_MAPPING, classes = @ConstructorResult(
+        targetClass = ActivityFeedCursor.class,
+        columns = {
+                @ColumnResult(name = "occurred_at", type = Instant.class),
+                @ColumnResult(name = "item_id", type = UUID.class)
+        }))
 public class Follow {
 
+    public static final String FEED_ITEM_MAPPING = "ActivityFeedItem";
+    public static final String FEED_CURSOR_MAPPING = "ActivityFeedCursor";
+
     @Id
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "follower_id", nullable = false)
@@ -0,0 +1,58 @@
+package com.legymernok.backend.model.starsystem;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A Star System embeddingek egy újraindexelési futása (lásd StarSystemEmbeddingReindexer).
+ * A lastStarSystemId az utolsó teljesen feldolgozott lap utolsó id-ja — innen folytatódik
+ * egy megszakadt futás.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "embedding_reindex_runs")
+public class EmbeddingReindexRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmbeddingReindexStatus status;
+
+    // A Star Systemek száma a futás indításakor (a haladás becsléséhez)
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int processed;
+
+    // Új embedding készült (a változatlan forrásszövegűek nem számítanak bele)
+    @Column(nullable = false)
+    private int embedded;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(name = "last_star_system_id")
+    private UUID lastStarSystemId;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,8 @@
+package com.legymernok.backend.model.starsystem;
+
+public enum EmbeddingReindexStatus {
+    RUNNING,
+    COMPLETED,
+    // Megszakadt futás, újraindításkor az utolsó kész laptól folytatódik
+    FAILED
+}
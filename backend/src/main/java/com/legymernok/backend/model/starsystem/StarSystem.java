@@ -19,8 +19,15 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Table(name = "star_systems")
+@SqlResultSetMapping(name = StarSystem.ITEM_COUNT_MAPPING, columns = {
+        @ColumnResult(name = "star_system_id", type = UUID.class),
+        @ColumnResult(name = "item_count", type = Long.class)
+})
 public class StarSystem {
 
+    /** A StarSystemRepository.countItemsByStarSystem típusos oszlopai. */
+    public static final String ITEM_COUNT_MAPPING = "StarSystemItemCount";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
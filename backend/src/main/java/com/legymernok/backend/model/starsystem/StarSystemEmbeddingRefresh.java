@@ -0,0 +1,39 @@
+package com.legymernok.backend.model.starsystem;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Egy Star System függő embedding-frissítése (lásd StarSystemEmbeddingRefresher).
+ * Írása natív upserttel történik, a version minden újabb jelölésnél nő — a frissítés
+ * után csak változatlan version mellett törölhető.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "star_system_embedding_refresh")
+public class StarSystemEmbeddingRefresh {
+
+    @Id
+    @Column(name = "star_system_id")
+    private UUID starSystemId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Az első, még fel nem dolgozott jelölés ideje — a max-delay ehhez képest számít
+    @Column(name = "dirty_since", nullable = false)
+    private Instant dirtySince;
+
+    // A legutóbbi jelölés ideje — a debounce ehhez képest számít
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
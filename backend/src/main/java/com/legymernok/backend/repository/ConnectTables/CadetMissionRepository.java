@@ -3,10 +3,14 @@ package com.legymernok.backend.repository.ConnectTables;
 import com.legymernok.backend.model.ConnectTable.CadetMission;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.mission.MissionStatus;
+import com.legymernok.backend.model.mission.MissionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,9 +21,19 @@ public interface CadetMissionRepository extends JpaRepository<CadetMission, UUID
     void deleteAllByMissionId(UUID missionId);
     Optional<CadetMission> findByCadetIdAndMissionId(UUID cadetId, UUID missionId);
     List<CadetMission> findAllByCadetId(UUID cadetId);
-    long countByCadetIdAndStatus(UUID cadetId, MissionStatus status);
 
-    /** Star System-enként hány egyedi kadét indított el legalább egy standalone missziót — admin dashboard. */
-    @Query("SELECT cm.mission.starSystem.id, COUNT(DISTINCT cm.cadet.id) FROM CadetMission cm GROUP BY cm.mission.starSystem.id")
-    List<Object[]> countDistinctCadetsByStarSystem();
+    /** Az adott típusú, since óta legtöbbször elindított missziók ID-i csökkenő sorrendben — a warm pool ezekre tart előre repókat. */
+    @Query("SELECT cm.mission.id FROM CadetMission cm " +
+            "WHERE cm.mission.missionType = :missionType AND cm.mission.templateRepositoryUrl IS NOT NULL AND cm.startedAt >= :since " +
+            "GROUP BY cm.mission.id ORDER BY COUNT(cm) DESC")
+    List<UUID> findMostStartedMissionIds(@Param("missionType") MissionType missionType,
+                                         @Param("since") Instant since,
+                                         Pageable pageable);
+
+    /** Egy CadetMission a kadéttal és a misszióval együtt — a háttérben futó misszióindítás session nélkül dolgozik velük. */
+    @Query("SELECT cm FROM CadetMission cm JOIN FETCH cm.cadet JOIN FETCH cm.mission WHERE cm.id = :id")
+    Optional<CadetMission> findWithCadetAndMissionById(@Param("id") UUID id);
+
+    @Query("SELECT cm.id FROM CadetMission cm WHERE cm.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") MissionStatus status);
 }
@@ -0,0 +1,48 @@
+package com.legymernok.backend.repository.cadet;
+
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CadetProgressTotalsRepository extends JpaRepository<CadetProgressTotals, UUID> {
+
+    /** Az összesítő sorok kiszámolása a forrástáblákból; a WHERE szűri a kadétokat. */
+    String UPSERT_TOTALS = "INSERT INTO cadet_progress_totals (cadet_id, completed_missions, completed_groups, " +
+            "last_mission_id, last_mission_at, last_group_id, last_group_at, updated_at) " +
+            "SELECT c.id, " +
+            "(SELECT COUNT(*) FROM cadet_missions cm WHERE cm.cadet_id = c.id AND cm.status = 'COMPLETED'), " +
+            "(SELECT COUNT(*) FROM mission_group_progress p WHERE p.cadet_id = c.id AND p.completed), " +
+            "lm.mission_id, lm.last_updated_at, lg.group_id, lg.last_updated_at, now() " +
+            "FROM cadets c " +
+            "LEFT JOIN LATERAL (SELECT cm.mission_id, cm.last_updated_at FROM cadet_missions cm " +
+            "  WHERE cm.cadet_id = c.id AND cm.status IN ('IN_PROGRESS', 'COMPLETED') " +
+            "  ORDER BY cm.last_updated_at DESC NULLS LAST LIMIT 1) lm ON true " +
+            "LEFT JOIN LATERAL (SELECT p.group_id, p.last_updated_at FROM mission_group_progress p " +
+            "  WHERE p.cadet_id = c.id AND NOT p.completed ORDER BY p.last_updated_at DESC NULLS LAST LIMIT 1) lg ON true ";
+
+    String ON_CONFLICT_UPDATE = "ON CONFLICT (cadet_id) DO UPDATE SET " +
+            "completed_missions = EXCLUDED.completed_missions, completed_groups = EXCLUDED.completed_groups, " +
+            "last_mission_id = EXCLUDED.last_mission_id, last_mission_at = EXCLUDED.last_mission_at, " +
+            "last_group_id = EXCLUDED.last_group_id, last_group_at = EXCLUDED.last_group_at, updated_at = now()";
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_TOTALS + "WHERE c.id = :cadetId " + ON_CONFLICT_UPDATE, nativeQuery = true)
+    void refresh(@Param("cadetId") UUID cadetId);
+
+    /** Azon kadétok összesítői, akiknek van haladás-sora a Star Systemben. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_TOTALS +
+            "WHERE c.id IN (SELECT sp.cadet_id FROM cadet_star_system_progress sp WHERE sp.star_system_id = :starSystemId) " +
+            ON_CONFLICT_UPDATE, nativeQuery = true)
+    void refreshAllForStarSystem(@Param("starSystemId") UUID starSystemId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_TOTALS + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int refreshAll();
+}
@@ -0,0 +1,80 @@
+package com.legymernok.backend.repository.cadet;
+
+import com.legymernok.backend.model.cadet.CadetStarSystemProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CadetStarSystemProgressRepository extends JpaRepository<CadetStarSystemProgress, UUID> {
+
+    /**
+     * A haladás forrássorai: (cadet_id, star_system_id, completed) minden ténylegesen
+     * elindult standalone misszióra (CadetMission — a PENDING / START_FAILED indítás
+     * még nem az) és csoportra (MissionGroupProgress).
+     */
+    String PROGRESS_ITEMS = "(SELECT cm.cadet_id, m.star_system_id, cm.status = 'COMPLETED' AS completed " +
+            "FROM cadet_missions cm JOIN missions m ON m.id = cm.mission_id " +
+            "WHERE m.group_id IS NULL AND cm.status IN ('IN_PROGRESS', 'COMPLETED') " +
+            "UNION ALL " +
+            "SELECT p.cadet_id, g.star_system_id, p.completed " +
+            "FROM mission_group_progress p JOIN mission_groups g ON g.id = p.group_id) item ";
+
+    String INSERT_PROGRESS = "INSERT INTO cadet_star_system_progress " +
+            "(cadet_id, star_system_id, started_items, completed_items, updated_at) ";
+
+    String SELECT_GROUPED = "SELECT item.cadet_id, item.star_system_id, COUNT(*), " +
+            "COUNT(*) FILTER (WHERE item.completed), now() FROM " + PROGRESS_ITEMS;
+
+    String ON_CONFLICT_UPDATE = "ON CONFLICT (cadet_id, star_system_id) DO UPDATE SET " +
+            "started_items = EXCLUDED.started_items, completed_items = EXCLUDED.completed_items, updated_at = now()";
+
+    /** Azok a sorok, amelyekhez már egyetlen forrássor sem tartozik; a WHERE szűkítheti. */
+    String DELETE_ORPHANS = "DELETE FROM cadet_star_system_progress sp WHERE NOT EXISTS (SELECT 1 FROM " +
+            PROGRESS_ITEMS + "WHERE item.cadet_id = sp.cadet_id AND item.star_system_id = sp.star_system_id) ";
+
+    List<CadetStarSystemProgress> findAllByCadetId(UUID cadetId);
+
+    /** Egy (kadét, Star System) sor újraszámolása a forrástáblákból, indexelt lookupokkal. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_PROGRESS +
+            "SELECT :cadetId, :starSystemId, COUNT(*), COUNT(*) FILTER (WHERE item.completed), now() " +
+            "FROM " + PROGRESS_ITEMS +
+            "WHERE item.cadet_id = :cadetId AND item.star_system_id = :starSystemId " +
+            ON_CONFLICT_UPDATE, nativeQuery = true)
+    void refresh(@Param("cadetId") UUID cadetId, @Param("starSystemId") UUID starSystemId);
+
+    /**
+     * Egy Star System összes kadétjának sorai. Upsert, nem törlés + beszúrás, így a
+     * közben futó refresh nem ütközik egyedi kulcs-sértésbe; a kiesett sorokat a
+     * deleteOrphansForStarSystem takarítja.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_PROGRESS + SELECT_GROUPED +
+            "WHERE item.star_system_id = :starSystemId " +
+            "GROUP BY item.cadet_id, item.star_system_id " + ON_CONFLICT_UPDATE, nativeQuery = true)
+    void upsertAllForStarSystem(@Param("starSystemId") UUID starSystemId);
+
+    @Modifying
+    @Query(value = DELETE_ORPHANS + "AND sp.star_system_id = :starSystemId", nativeQuery = true)
+    void deleteOrphansForStarSystem(@Param("starSystemId") UUID starSystemId);
+
+    /** A teljes tábla újraszámolása helyben (upsert) — backfill / eltérés-javítás. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = INSERT_PROGRESS + SELECT_GROUPED +
+            "GROUP BY item.cadet_id, item.star_system_id " + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int upsertAll();
+
+    @Modifying
+    @Query(value = DELETE_ORPHANS, nativeQuery = true)
+    int deleteOrphans();
+
+    /** Star System-enként hány kadét kezdett el legalább egy elemet — admin dashboard. */
+    @Query("SELECT p.starSystemId, COUNT(p) FROM CadetStarSystemProgress p WHERE p.startedItems > 0 GROUP BY p.starSystemId")
+    List<Object[]> countStartedCadetsByStarSystem();
+}
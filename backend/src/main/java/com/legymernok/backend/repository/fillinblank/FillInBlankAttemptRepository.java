@@ -4,7 +4,6 @@ import com.legymernok.backend.model.fillinblank.FillInBlankAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +13,4 @@ public interface FillInBlankAttemptRepository extends JpaRepository<FillInBlankA
     Optional<FillInBlankAttempt> findTopByCadetIdAndMissionIdOrderBySubmittedAtDesc(UUID cadetId, UUID missionId);
 
     void deleteAllByMissionId(UUID missionId);
-
-    List<FillInBlankAttempt> findTop20ByCadet_IdInAndPassedTrueOrderBySubmittedAtDesc(List<UUID> cadetIds);
 }
@@ -0,0 +1,44 @@
+package com.legymernok.backend.repository.mission;
+
+import com.legymernok.backend.model.mission.MissionPlayDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MissionPlayDraftRepository extends JpaRepository<MissionPlayDraft, UUID> {
+
+    Optional<MissionPlayDraft> findByCadetMissionId(UUID cadetMissionId);
+
+    /**
+     * Beírja/összefésüli a mentett fájlokat a piszkozatba egyetlen utasítással: a
+     * meglévő útvonalakat felülírja, a többit megtartja (jsonb ||), és növeli a version-t.
+     * A dirty_since csak új piszkozatnál állítódik be.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO mission_play_drafts (cadet_mission_id, files) VALUES (:cadetMissionId, CAST(:files AS jsonb)) " +
+            "ON CONFLICT (cadet_mission_id) DO UPDATE SET files = mission_play_drafts.files || EXCLUDED.files, " +
+            "version = mission_play_drafts.version + 1, updated_at = now()", nativeQuery = true)
+    void upsertFiles(@Param("cadetMissionId") UUID cadetMissionId, @Param("files") String filesJson);
+
+    @Query("SELECT d.id FROM MissionPlayDraft d WHERE d.dirtySince <= :before ORDER BY d.dirtySince")
+    List<UUID> findIdsDirtySince(@Param("before") Instant before);
+
+    @Query("SELECT d FROM MissionPlayDraft d JOIN FETCH d.cadetMission cm JOIN FETCH cm.cadet WHERE d.id = :id")
+    Optional<MissionPlayDraft> findWithCadetMissionById(@Param("id") UUID id);
+
+    /** Törli a piszkozatot, ha a commit óta nem érkezett újabb mentés. */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MissionPlayDraft d WHERE d.id = :id AND d.version = :version")
+    int deleteIfUnchanged(@Param("id") UUID id, @Param("version") long version);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +18,16 @@ public interface MissionRepository extends JpaRepository<Mission, UUID> {
 
     List<Mission> findAllByGroupIdOrderByGroupOrderAsc(UUID groupId);
 
+    /**
+     * Egy Star System összes missziója (standalone és csoportos) egyetlen lekérdezéssel:
+     * [Mission, tulajdonos felhasználóneve]. A csoport fetch joinnal jön, a tulajdonosból
+     * csak a név — így az EAGER szerepkörök/jogosultságok sem töltődnek be. A csoportosítás
+     * és a rendezés a hívónál, memóriában történik.
+     */
+    @Query("SELECT m, o.username FROM Mission m LEFT JOIN FETCH m.group LEFT JOIN m.owner o " +
+            "WHERE m.starSystem.id = :starSystemId")
+    List<Object[]> findAllWithGroupAndOwnerNameByStarSystemId(@Param("starSystemId") UUID starSystemId);
+
     @Query("SELECT COALESCE(MAX(m.orderIndex), -1) FROM Mission m " +
             "WHERE m.starSystem.id = :starSystemId AND m.group IS NULL")
     Integer findMaxOrderIndex(@Param("starSystemId") UUID starSystemId);
@@ -41,4 +52,8 @@ public interface MissionRepository extends JpaRepository<Mission, UUID> {
     List<Mission> findAllByOwnerId(UUID ownerId);
 
     List<Mission> findAllByStarSystemId(UUID starSystemId);
+
+    /** A megadott Star Systemek misszióinak neve: [star_system_id, name] (embedding-szöveghez). */
+    @Query("SELECT m.starSystem.id, m.name FROM Mission m WHERE m.starSystem.id IN :starSystemIds")
+    List<Object[]> findNamesByStarSystemIds(@Param("starSystemIds") Collection<UUID> starSystemIds);
 }
@@ -0,0 +1,32 @@
+package com.legymernok.backend.repository.mission;
+
+import com.legymernok.backend.model.mission.MissionRepositoryPoolEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MissionRepositoryPoolRepository extends JpaRepository<MissionRepositoryPoolEntry, UUID> {
+
+    long countByMissionIdAndTemplateSha(UUID missionId, String templateSha);
+
+    List<MissionRepositoryPoolEntry> findAllByMissionId(UUID missionId);
+
+    List<MissionRepositoryPoolEntry> findAllByMissionIdAndTemplateShaNot(UUID missionId, String templateSha);
+
+    /**
+     * A legrégebbi, a megadott template-verzióhoz tartozó pool-repó, sorzárral —
+     * SKIP LOCKED, hogy egyszerre induló kadétok ne ugyanazt a repót kapják,
+     * és ne is várjanak egymásra.
+     */
+    @Query(value = "SELECT * FROM mission_repository_pool " +
+            "WHERE mission_id = :missionId AND template_sha = :templateSha " +
+            "ORDER BY created_at LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<MissionRepositoryPoolEntry> lockOldestAvailable(@Param("missionId") UUID missionId,
+                                                            @Param("templateSha") String templateSha);
+}
@@ -0,0 +1,81 @@
+package com.legymernok.backend.repository.social;
+
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
+import com.legymernok.backend.model.social.Follow;
+import com.legymernok.backend.model.social.FollowId;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A követett kadétok teljesítései egyetlen UNION ALL lekérdezéssel (group step,
+ * sikeres fill-in-blank, quiz), keyset lapozással (occurred_at, id) szerint.
+ * Minden ág külön a kurzor után, a saját indexén olvas legfeljebb :limit sort (V14).
+ * A forrás-ágak az "actor" CTE kadétjaira szűrnek, amit a lekérdezés maga ad meg.
+ * A sorok a Follow entitás típusos leképezéseivel (Follow.FEED_ITEM_MAPPING,
+ * Follow.FEED_CURSOR_MAPPING) alakulnak DTO-vá.
+ */
+@org.springframework.stereotype.Repository
+public interface ActivityFeedRepository extends Repository<Follow, FollowId> {
+
+    String AFTER_CURSOR = ") < (:cursorAt, :cursorId) ";
+
+    String FEED_ITEMS =
+            "(SELECT s.id, 'GROUP_STEP' AS type, p.cadet_id, s.mission_id, s.completed_at AS occurred_at " +
+            "FROM actor JOIN mission_group_progress p ON p.cadet_id = actor.id " +
+            "JOIN mission_group_step_completions s ON s.progress_id = p.id " +
+            "WHERE (s.completed_at, s.id" + AFTER_CURSOR +
+            "ORDER BY s.completed_at DESC, s.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT a.id, 'FILL_IN_BLANK' AS type, a.cadet_id, a.mission_id, a.submitted_at AS occurred_at " +
+            "FROM actor JOIN fill_in_blank_attempts a ON a.cadet_id = actor.id " +
+            "WHERE a.passed AND (a.submitted_at, a.id" + AFTER_CURSOR +
+            "ORDER BY a.submitted_at DESC, a.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT r.id, 'QUIZ' AS type, r.cadet_id, r.mission_id, r.completed_at AS occurred_at " +
+            "FROM actor JOIN mission_results r ON r.cadet_id = actor.id " +
+            "WHERE (r.completed_at, r.id" + AFTER_CURSOR +
+            "ORDER BY r.completed_at DESC, r.id DESC LIMIT :limit)";
+
+    String RESOLVE_NAMES = "JOIN cadets c ON c.id = feed.cadet_id JOIN missions m ON m.id = feed.mission_id " +
+            "ORDER BY feed.occurred_at DESC, feed.id DESC LIMIT :limit";
+
+    String SELECT_FEED = "SELECT feed.id, feed.type, c.id AS cadet_id, c.username, m.name, feed.occurred_at FROM (";
+
+    /** Egy lap a kurzor után, legújabb elöl, az összes követett kadét forrássoraiból. */
+    @NativeQuery(value = "WITH actor AS (SELECT f.followee_id AS id FROM follows f WHERE f.follower_id = :followerId) " +
+            SELECT_FEED + FEED_ITEMS + ") feed " + RESOLVE_NAMES, sqlResultSetMapping = Follow.FEED_ITEM_MAPPING)
+    List<ActivityFeedItemResponse> findPage(@Param("followerId") UUID followerId,
+                            @Param("cursorAt") Instant cursorAt,
+                            @Param("cursorId") UUID cursorId,
+                            @Param("limit") int limit);
+
+    /**
+     * Egy lap az inboxból (fan-out-on-write), kiegészítve a feed_pull kadétok
+     * forrássoraival — az ő inbox-soraikat figyelmen kívül hagyjuk, hogy ne duplikálódjanak.
+     * A levágási határnál (findHorizon) nem újabb elemek hiányozhatnak.
+     */
+    @NativeQuery(value = "WITH actor AS (SELECT f.followee_id AS id FROM follows f JOIN cadets pc ON pc.id = f.followee_id " +
+            "WHERE f.follower_id = :followerId AND pc.feed_pull) " +
+            SELECT_FEED +
+            "(SELECT i.item_id AS id, i.type, i.actor_id AS cadet_id, i.mission_id, i.occurred_at " +
+            "FROM activity_inbox i JOIN cadets ac ON ac.id = i.actor_id " +
+            "WHERE i.follower_id = :followerId AND NOT ac.feed_pull AND (i.occurred_at, i.item_id" + AFTER_CURSOR +
+            "ORDER BY i.occurred_at DESC, i.item_id DESC LIMIT :limit) " +
+            "UNION ALL " + FEED_ITEMS + ") feed " + RESOLVE_NAMES, sqlResultSetMapping = Follow.FEED_ITEM_MAPPING)
+    List<ActivityFeedItemResponse> findInboxPage(@Param("followerId") UUID followerId,
+                                 @Param("cursorAt") Instant cursorAt,
+                                 @Param("cursorId") UUID cursorId,
+                                 @Param("limit") int limit);
+
+    /** @return Az inbox levágási határa (occurred_at, item_id), vagy üres, ha még nem volt levágás. */
+    @NativeQuery(value = "SELECT h.occurred_at, h.item_id FROM activity_inbox_horizon h WHERE h.follower_id = :followerId",
+            sqlResultSetMapping = Follow.FEED_CURSOR_MAPPING)
+    Optional<ActivityFeedCursor> findHorizon(@Param("followerId") UUID followerId);
+}
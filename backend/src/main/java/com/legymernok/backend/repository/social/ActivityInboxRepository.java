@@ -0,0 +1,146 @@
+package com.legymernok.backend.repository.social;
+
+import com.legymernok.backend.model.social.Follow;
+import com.legymernok.backend.model.social.FollowId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Az aktivitás-inbox írási oldala (ActivityInboxService): a fan-out és a backfill
+ * sorok, a kötegelt másolás a követők inboxába, és a korlátos méretre vágás.
+ * A feed olvasása az ActivityFeedRepository-ban van.
+ */
+@org.springframework.stereotype.Repository
+public interface ActivityInboxRepository extends Repository<Follow, FollowId> {
+
+    /** Egy köteg fan-out job által érintett követők (a feed_pull kadétok követői nem). */
+    String FOLLOWERS_OF_JOBS = "(SELECT f.follower_id FROM activity_fanout_jobs j " +
+            "JOIN cadets a ON a.id = j.actor_id AND NOT a.feed_pull " +
+            "JOIN follows f ON f.followee_id = j.actor_id WHERE j.id IN (:jobIds)) ";
+
+    /**
+     * A levágási határ a követőnként :maxSize+1. legújabb elem — csak előre léphet.
+     * A followers feltételt a két változat adja meg.
+     */
+    String UPSERT_HORIZON = "INSERT INTO activity_inbox_horizon (follower_id, occurred_at, item_id) " +
+            "SELECT t.follower_id, t.occurred_at, t.item_id FROM (SELECT i.follower_id, i.occurred_at, i.item_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY i.follower_id ORDER BY i.occurred_at DESC, i.item_id DESC) AS rn " +
+            "FROM activity_inbox i WHERE i.follower_id IN ";
+
+    String UPSERT_HORIZON_END = ") t WHERE t.rn = :maxSize + 1 " +
+            "ON CONFLICT (follower_id) DO UPDATE SET occurred_at = EXCLUDED.occurred_at, item_id = EXCLUDED.item_id " +
+            "WHERE (EXCLUDED.occurred_at, EXCLUDED.item_id) > " +
+            "(activity_inbox_horizon.occurred_at, activity_inbox_horizon.item_id)";
+
+    String DELETE_BEYOND_HORIZON = "DELETE FROM activity_inbox i USING activity_inbox_horizon h " +
+            "WHERE h.follower_id = i.follower_id AND (i.occurred_at, i.item_id) <= (h.occurred_at, h.item_id) " +
+            "AND i.follower_id IN ";
+
+    // --- Fan-out ---
+
+    @Modifying
+    @Query(value = "INSERT INTO activity_fanout_jobs (item_id, type, actor_id, mission_id, occurred_at) " +
+            "VALUES (:itemId, :type, :actorId, :missionId, :occurredAt)", nativeQuery = true)
+    void enqueueFanout(@Param("itemId") UUID itemId, @Param("type") String type, @Param("actorId") UUID actorId,
+                       @Param("missionId") UUID missionId, @Param("occurredAt") Instant occurredAt);
+
+    /** A legrégebbi jobok sorzárral — SKIP LOCKED, hogy több példány párhuzamosan dolgozhasson. */
+    @Query(value = "SELECT j.id FROM activity_fanout_jobs j ORDER BY j.created_at LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockFanoutBatch(@Param("batchSize") int batchSize);
+
+    /** A jobok bemásolása a (nem feed_pull) szerzők követőinek inboxába; egy utasítás a teljes kötegre. */
+    @Modifying
+    @Query(value = "INSERT INTO activity_inbox (follower_id, item_id, type, actor_id, mission_id, occurred_at) " +
+            "SELECT f.follower_id, j.item_id, j.type, j.actor_id, j.mission_id, j.occurred_at " +
+            "FROM activity_fanout_jobs j JOIN cadets a ON a.id = j.actor_id AND NOT a.feed_pull " +
+            "JOIN follows f ON f.followee_id = j.actor_id WHERE j.id IN (:jobIds) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("jobIds") List<UUID> jobIds);
+
+    @Modifying
+    @Query(value = UPSERT_HORIZON + FOLLOWERS_OF_JOBS + UPSERT_HORIZON_END, nativeQuery = true)
+    void advanceHorizonForJobs(@Param("jobIds") List<UUID> jobIds, @Param("maxSize") int maxSize);
+
+    @Modifying
+    @Query(value = DELETE_BEYOND_HORIZON + FOLLOWERS_OF_JOBS, nativeQuery = true)
+    int pruneForJobs(@Param("jobIds") List<UUID> jobIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM activity_fanout_jobs WHERE id IN (:jobIds)", nativeQuery = true)
+    void deleteFanoutJobs(@Param("jobIds") List<UUID> jobIds);
+
+    // --- Backfill új követésnél ---
+
+    @Modifying
+    @Query(value = "INSERT INTO activity_inbox_backfills (follower_id, followee_id) VALUES (:followerId, :followeeId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void enqueueBackfill(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+    /** Az összes meglévő követés betöltése (az inbox első bekapcsolásakor). */
+    @Modifying
+    @Query(value = "INSERT INTO activity_inbox_backfills (follower_id, followee_id) " +
+            "SELECT follower_id, followee_id FROM follows ON CONFLICT DO NOTHING", nativeQuery = true)
+    int enqueueBackfillForAllFollows();
+
+    /** @return Soronként: follower_id, followee_id. */
+    @Query(value = "SELECT b.follower_id, b.followee_id FROM activity_inbox_backfills b ORDER BY b.created_at " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockBackfillBatch(@Param("batchSize") int batchSize);
+
+    /**
+     * A követett kadét legutóbbi (forrásonként legfeljebb :limit) teljesítései a követő
+     * inboxába; feed_pull kadétnál nincs teendő.
+     */
+    @Modifying
+    @Query(value = "WITH actor AS (SELECT c.id FROM cadets c WHERE c.id = :followeeId AND NOT c.feed_pull) " +
+            "INSERT INTO activity_inbox (follower_id, item_id, type, actor_id, mission_id, occurred_at) " +
+            "SELECT :followerId, feed.id, feed.type, feed.cadet_id, feed.mission_id, feed.occurred_at " +
+            "FROM (" + ActivityFeedRepository.FEED_ITEMS + ") feed ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfill(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId,
+                 @Param("cursorAt") Instant cursorAt, @Param("cursorId") UUID cursorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = UPSERT_HORIZON + "(:followerId)" + UPSERT_HORIZON_END, nativeQuery = true)
+    void advanceHorizon(@Param("followerId") UUID followerId, @Param("maxSize") int maxSize);
+
+    @Modifying
+    @Query(value = DELETE_BEYOND_HORIZON + "(:followerId)", nativeQuery = true)
+    int prune(@Param("followerId") UUID followerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM activity_inbox_backfills WHERE follower_id = :followerId AND followee_id = :followeeId",
+            nativeQuery = true)
+    void deleteBackfill(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+    // --- Követés megszűnése, hibrid szabály ---
+
+    @Modifying
+    @Query(value = "DELETE FROM activity_inbox WHERE follower_id = :followerId AND actor_id = :followeeId",
+            nativeQuery = true)
+    void deleteFollowee(@Param("followerId") UUID followerId, @Param("followeeId") UUID followeeId);
+
+    /**
+     * Átállítja a kadétot pull módra, ha a követőinek száma túllépte a küszöböt.
+     * Egyirányú: a pull kadét teljes története a forrástáblákból olvasható, visszaállításkor
+     * viszont az inboxokból hiányozna.
+     * @return 1, ha most vált pull módúvá.
+     */
+    @Modifying
+    @Query(value = "UPDATE cadets SET feed_pull = true WHERE id = :cadetId AND NOT feed_pull " +
+            "AND (SELECT COUNT(*) FROM follows WHERE followee_id = :cadetId) > :maxFollowers", nativeQuery = true)
+    int markPullIfPopular(@Param("cadetId") UUID cadetId, @Param("maxFollowers") long maxFollowers);
+
+    @Modifying
+    @Query(value = "DELETE FROM activity_inbox WHERE actor_id = :actorId", nativeQuery = true)
+    int deleteActor(@Param("actorId") UUID actorId);
+
+    @Query(value = "SELECT NOT EXISTS (SELECT 1 FROM activity_inbox)", nativeQuery = true)
+    boolean isInboxEmpty();
+}
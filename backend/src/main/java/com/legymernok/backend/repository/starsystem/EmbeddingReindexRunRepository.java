@@ -0,0 +1,14 @@
+package com.legymernok.backend.repository.starsystem;
+
+import com.legymernok.backend.model.starsystem.EmbeddingReindexRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EmbeddingReindexRunRepository extends JpaRepository<EmbeddingReindexRun, UUID> {
+
+    Optional<EmbeddingReindexRun> findFirstByOrderByStartedAtDesc();
+}
@@ -0,0 +1,50 @@
+package com.legymernok.backend.repository.starsystem;
+
+import com.legymernok.backend.model.starsystem.StarSystemEmbeddingRefresh;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StarSystemEmbeddingRefreshRepository extends JpaRepository<StarSystemEmbeddingRefresh, UUID> {
+
+    /**
+     * Piszkosnak jelöli a Star System embeddingjét. A hívó tranzakciójához csatlakozik,
+     * így a jelölés az írással együtt commitol (vagy gördül vissza). Ismételt jelölés
+     * csak a version-t és az updated_at-et lépteti, a dirty_since marad.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO star_system_embedding_refresh (star_system_id) VALUES (:starSystemId) " +
+            "ON CONFLICT (star_system_id) DO UPDATE SET version = star_system_embedding_refresh.version + 1, " +
+            "updated_at = now()", nativeQuery = true)
+    void markDirty(@Param("starSystemId") UUID starSystemId);
+
+    /** Az esedékes frissítések: quietBefore óta nem jött újabb jelölés, vagy már maxDelayBefore óta várnak. */
+    @Query("SELECT r FROM StarSystemEmbeddingRefresh r " +
+            "WHERE r.updatedAt <= :quietBefore OR r.dirtySince <= :maxDelayBefore ORDER BY r.dirtySince")
+    List<StarSystemEmbeddingRefresh> findDue(@Param("quietBefore") Instant quietBefore,
+                                             @Param("maxDelayBefore") Instant maxDelayBefore,
+                                             Limit limit);
+
+    /** Törli a jelölést, ha a frissítés óta nem érkezett újabb. */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StarSystemEmbeddingRefresh r WHERE r.starSystemId = :starSystemId AND r.version = :version")
+    int deleteIfUnchanged(@Param("starSystemId") UUID starSystemId, @Param("version") long version);
+
+    /** Sikertelen frissítés után a következő próbálkozás egy teljes debounce-időszak múlva jön. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StarSystemEmbeddingRefresh r SET r.dirtySince = :retryFrom, r.updatedAt = :retryFrom " +
+            "WHERE r.starSystemId = :starSystemId")
+    void postpone(@Param("starSystemId") UUID starSystemId, @Param("retryFrom") Instant retryFrom);
+}
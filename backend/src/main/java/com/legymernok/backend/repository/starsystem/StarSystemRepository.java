@@ -2,6 +2,9 @@ package com.legymernok.backend.repository.starsystem;
 
 import com.legymernok.backend.model.starsystem.StarSystem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,32 @@ public interface StarSystemRepository extends JpaRepository<StarSystem, UUID> {
     List<StarSystem> findAllByOwnerId(UUID ownerId);
     List<StarSystem> findAllBySectorId(UUID sectorId);
     long countBySectorId(UUID sectorId);
-}
\ No newline at end of file
+
+    /** Az összes Star System a szektorával együtt (a csillagtérkép lazy betöltés nélkül mappeli). */
+    @Query("SELECT s FROM StarSystem s LEFT JOIN FETCH s.sector")
+    List<StarSystem> findAllWithSector();
+
+    @Query("SELECT s FROM StarSystem s LEFT JOIN FETCH s.sector WHERE s.id = :id")
+    Optional<StarSystem> findWithSectorById(@Param("id") UUID id);
+
+    /**
+     * Star System-enként az elemek száma (standalone missziók + csoportok) egyetlen
+     * lekérdezéssel: [star_system_id, elemek száma]. Elem nélküli rendszer nem szerepel.
+     * A kadét haladását a cadet_star_system_progress tábla adja (CadetProgressService).
+     */
+    @NativeQuery(value = "SELECT item.star_system_id, COUNT(*) AS item_count FROM (" +
+            "  SELECT m.star_system_id FROM missions m WHERE m.group_id IS NULL " +
+            "  UNION ALL " +
+            "  SELECT g.star_system_id FROM mission_groups g" +
+            ") item GROUP BY item.star_system_id", sqlResultSetMapping = StarSystem.ITEM_COUNT_MAPPING)
+    List<Object[]> countItemsByStarSystem();
+
+    /**
+     * Az embedding-újraindexelés egy lapja id szerinti keyset lapozással:
+     * [id, name, description, tárolt forrásszöveg-hash]. A hash null, ha nincs embedding.
+     */
+    @Query(value = "SELECT s.id, s.name, s.description, " +
+            "CASE WHEN s.content_embedding IS NOT NULL THEN s.content_embedding_hash END " +
+            "FROM star_systems s WHERE s.id > :afterId ORDER BY s.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findEmbeddingSourcePage(@Param("afterId") UUID afterId, @Param("limit") int limit);
+}
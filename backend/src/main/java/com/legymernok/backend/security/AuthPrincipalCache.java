@@ -0,0 +1,113 @@
+package com.legymernok.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legymernok.backend.integration.SharedCacheTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * A JwtAuthenticationFilter principal-cache-e: a felhasználónévhez betöltött
+ * UserDetails (Cadet + EAGER szerepkörök és engedélyek) rövid TTL-lel, így nem
+ * kell minden API-hívásnál az adatbázishoz fordulni.
+ *
+ * A jogosultságot érintő módosítások (PrincipalChangedEvent) a commit után azonnal
+ * érvénytelenítenek. Megosztott cache réteggel (SharedCacheTier) egy közös verzió is
+ * lép, ami a kulcs része — így a többi példány is a következő kérésnél újratölt,
+ * nem csak a TTL lejártakor. Metrikák: "auth.principal" néven.
+ *
+ * A bejegyzés a jogok lefordított bitmaszkját (AuthorityMask) is tartalmazza, így az
+ * a principal-lel együtt érvénytelenedik.
+ */
+@Component
+@Slf4j
+public class AuthPrincipalCache {
+
+    private static final String VERSION_KEY = "auth-principal:version";
+
+    /** A betöltött felhasználó és a lefordított jogai. */
+    public record CompiledPrincipal(UserDetails userDetails, AuthorityMask authorities) {
+    }
+
+    private record Key(String username, String version) {
+    }
+
+    private final UserDetailsService userDetailsService;
+    private final PermissionRegistry permissionRegistry;
+    private final SharedCacheTier sharedTier;
+    private final Cache<Key, CompiledPrincipal> cache;
+
+    public AuthPrincipalCache(UserDetailsService userDetailsService,
+                              PermissionRegistry permissionRegistry,
+                              ObjectProvider<SharedCacheTier> sharedTier,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${auth.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                              @Value("${auth.principal-cache.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.permissionRegistry = permissionRegistry;
+        this.sharedTier = sharedTier.getIfAvailable();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "auth.principal"));
+    }
+
+    /**
+     * A felhasználó a cache-ből, vagy a UserDetailsService-ből betöltve.
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException Ha nem létezik (nem cache-elődik).
+     */
+    public CompiledPrincipal load(String username) {
+        String version = currentVersion();
+        if (version == null) {
+            return compile(username);
+        }
+        return cache.get(new Key(username, version), key -> compile(key.username()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        if (sharedTier != null) {
+            try {
+                sharedTier.increment(VERSION_KEY);
+            } catch (RuntimeException e) {
+                // A többi példány legfeljebb a TTL lejártáig a régi jogokkal engedhet
+                log.error("Could not bump shared principal version: {}", e.getMessage());
+            }
+        }
+        if (event.username() == null) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.username().equals(event.username()));
+        }
+    }
+
+    private CompiledPrincipal compile(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return new CompiledPrincipal(userDetails, permissionRegistry.compile(userDetails.getAuthorities()));
+    }
+
+    private String currentVersion() {
+        if (sharedTier == null) {
+            return "0";
+        }
+        try {
+            String value = sharedTier.get(VERSION_KEY);
+            return value != null ? value : "0";
+        } catch (RuntimeException e) {
+            // Nem tudjuk, történt-e máshol jogmódosítás: cache nélkül, a friss jogokkal
+            log.warn("Could not read shared principal version: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.legymernok.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Egy felhasználó lefordított, megváltoztathatatlan jogosultság-halmaza: bitmaszk a
+ * PermissionRegistry azonosítói szerint, és a Spring Security-nek átadható
+ * GrantedAuthority lista (hogy ne kelljen kérésenként a Cadet.getAuthorities()-t
+ * újra felépíteni).
+ */
+public final class AuthorityMask {
+
+    private final PermissionRegistry registry;
+    private final long[] words;
+    private final List<GrantedAuthority> authorities;
+
+    AuthorityMask(PermissionRegistry registry, long[] words, Collection<? extends GrantedAuthority> authorities) {
+        this.registry = registry;
+        this.words = words;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public boolean has(String authority) {
+        return has(registry.idOf(authority));
+    }
+
+    public boolean has(int id) {
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,22 @@
+package com.legymernok.backend.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+/**
+ * A JwtAuthenticationFilter által beállított Authentication: a jogokat a principal
+ * betöltésekor lefordított AuthorityMask-ként is hordozza, amit a CurrentCadet
+ * bit-tesztként használ.
+ */
+public class CompiledAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final transient AuthorityMask authorityMask;
+
+    public CompiledAuthenticationToken(AuthPrincipalCache.CompiledPrincipal principal) {
+        super(principal.userDetails(), null, principal.authorities().authorities());
+        this.authorityMask = principal.authorities();
+    }
+
+    public AuthorityMask getAuthorityMask() {
+        return authorityMask;
+    }
+}
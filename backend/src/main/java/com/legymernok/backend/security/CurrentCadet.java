@@ -0,0 +1,122 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.exception.ResourceNotFoundException;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.repository.cadet.CadetRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * A bejelentkezett kadét feloldása a service-ek számára. A JwtAuthenticationFilter
+ * már betöltötte a Cadet-et a SecurityContext-be, így nincs szükség újabb
+ * findByUsername-re; a repository csak akkor kell, ha a principal nem Cadet
+ * (pl. @WithMockUser, vagy a tesztekben mockolt Authentication).
+ *
+ * A hasAuthority a JwtAuthenticationFilter tokenjén lévő, lefordított AuthorityMask
+ * bit-tesztje; más principalnál a jogosultságnevek halmaza kérésenként egyszer
+ * készül el. Az eredmény request attribútumban memoizált, így egy kérésen belül több
+ * service hívása sem kérdez újra. Kérésen kívül (aszinkron szál) nincs memo, az
+ * eredmény ekkor is helyes.
+ *
+ * A visszaadott Cadet a kérések közt megosztott principal is lehet
+ * (AuthPrincipalCache): csak olvasásra és kapcsolatként (owner, cadet) használjuk —
+ * módosítás előtt a repository-ból kell betölteni.
+ */
+public final class CurrentCadet {
+
+    private static final String ATTRIBUTE = CurrentCadet.class.getName() + ".RESOLVED";
+
+    // authorities: null, amíg az első hasAuthority ki nem számolja
+    private record Resolved(Authentication authentication, Cadet cadet, Predicate<String> authorities) {
+    }
+
+    private CurrentCadet() {
+    }
+
+    /**
+     * @return A bejelentkezett kadét.
+     * @throws ResourceNotFoundException Ha a principal nem Cadet, és a felhasználónév nem található.
+     */
+    public static Cadet get(CadetRepository cadetRepository) {
+        return resolve(cadetRepository).cadet();
+    }
+
+    /**
+     * Jogosultság-ellenőrzés. A bejelentkezett kadétra (a principal példányra) a
+     * lefordított maszkból vagy a kérésenként egyszer kiszámolt halmazból, más Cadet
+     * példányra a szerepkörei alapján.
+     */
+    public static boolean hasAuthority(Cadet cadet, String authority) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Resolved resolved = memo(authentication);
+        if (resolved == null && authentication != null && authentication.getPrincipal() == cadet) {
+            resolved = remember(fromPrincipal(authentication, cadet));
+        }
+        if (resolved == null || resolved.cadet() != cadet) {
+            return authorityNames(cadet).contains(authority);
+        }
+        if (resolved.authorities() == null) {
+            resolved = remember(new Resolved(resolved.authentication(), cadet, authorityNames(cadet)::contains));
+        }
+        return resolved.authorities().test(authority);
+    }
+
+    private static Resolved resolve(CadetRepository cadetRepository) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Resolved resolved = memo(authentication);
+        if (resolved != null) {
+            return resolved;
+        }
+
+        if (authentication.getPrincipal() instanceof Cadet cadet) {
+            resolved = fromPrincipal(authentication, cadet);
+        } else {
+            String username = authentication.getName();
+            Cadet cadet = cadetRepository.findByUsername(username)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+            resolved = new Resolved(authentication, cadet, null);
+        }
+        return remember(resolved);
+    }
+
+    private static Resolved fromPrincipal(Authentication authentication, Cadet cadet) {
+        if (authentication instanceof CompiledAuthenticationToken token) {
+            return new Resolved(authentication, cadet, token.getAuthorityMask()::has);
+        }
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+        return new Resolved(authentication, cadet, authorities::contains);
+    }
+
+    private static Resolved remember(Resolved resolved) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return resolved;
+    }
+
+    // A memo csak ugyanarra az Authentication-re érvényes (pl. kérésen belüli újrahitelesítés után nem)
+    private static Resolved memo(Authentication authentication) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || authentication == null) {
+            return null;
+        }
+        Object value = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return value instanceof Resolved resolved && resolved.authentication() == authentication ? resolved : null;
+    }
+
+    private static Set<String> authorityNames(Cadet cadet) {
+        return cadet.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -11,7 +11,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,7 +23,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final AuthPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -44,7 +43,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
+            // Aláírás + lejárat egyetlen parse-szal
+            username = jwtService.extractValidUsername(jwt);
         } catch (Exception e) {
             // Ha a token hibás vagy lejárt, nem állítunk be semmit
             filterChain.doFilter(request, response);
@@ -53,24 +53,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // 1. BETÖLTJÜK A USERT AZ ADATBÁZISBÓL (Így azonnal frissülnek a jogok!)
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // 1. BETÖLTJÜK A USERT (rövid TTL-es cache; jogmódosításkor azonnal ürül)
+            AuthPrincipalCache.CompiledPrincipal principal = principalCache.load(username);
 
-            // 2. VALIDÁLJUK A TOKENT (Lejárat, aláírás)
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // 2. LÉTREHOZZUK AZ AUTH TOKENT A FRISS JOGOKKAL (betöltéskor lefordítva, ld. AuthorityMask)
+            CompiledAuthenticationToken authToken = new CompiledAuthenticationToken(principal);
 
-                // 3. LÉTREHOZZUK AZ AUTH TOKENT A FRISS JOGOKKAL
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities() // Ez a Cadet.getAuthorities() hívja, ami DB-ből jön
-                );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // 4. BEÁLLÍTJUK A KONTEXTUST
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            // 3. BEÁLLÍTJUK A KONTEXTUST
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
@@ -1,9 +1,11 @@
 package com.legymernok.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
@@ -25,11 +27,34 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Az aláíró kulcs és a parser szálbiztos, elég egyszer felépíteni
+    private Key signInKey;
+    private JwtParser parser;
+
+    // A `jwt.secret` (.env: JWT_SECRET) nyers ASCII stringként kerül aláíró kulccsá,
+    // NEM Base64-dekódolva — ha valaha Base64-kódolt értéket tennél ide, itt kell
+    // Decoders.BASE64.decode(secretKey)-re váltani, különben a validáció csendben
+    // rossz kulccsal fog futni.
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     // Username kinyerése a tokenből
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Egyetlen parse-szal ellenőrzi az aláírást és a lejáratot (a parser a lejárt
+     * tokent elutasítja), és visszaadja a felhasználónevet.
+     * @throws io.jsonwebtoken.JwtException Ha a token hibás, rossz aláírású vagy lejárt.
+     */
+    public String extractValidUsername(String token) {
+        return extractAllClaims(token).getSubject();
+    }
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -45,22 +70,14 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // Token validálás
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -69,18 +86,6 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    // A `jwt.secret` (.env: JWT_SECRET) nyers ASCII stringként kerül aláíró kulccsá,
-    // NEM Base64-dekódolva — ha valaha Base64-kódolt értéket tennél ide, itt kell
-    // Decoders.BASE64.decode(secretKey)-re váltani, különben a validáció csendben
-    // rossz kulccsal fog futni.
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return parser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.legymernok.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sűrű egész azonosítók a jogosultságnevekhez (a permissions tábla, és a
+ * szerepkörnevek, pl. "ROLE_ADMIN"), hogy egy felhasználó jogai bitmaszkként
+ * (AuthorityMask) legyenek tárolhatók és bit-teszttel ellenőrizhetők.
+ *
+ * Indításkor a DataInitializer a permissions táblát név szerint rendezve regisztrálja;
+ * az ismeretlen nevek (új szerepkör vagy engedély) az első
+ * előfordulásukkor kapnak újat. Azonosítót sosem veszünk vissza és nem osztunk ki
+ * újra, így egy korábban lefordított maszk sem válhat hibássá.
+ */
+@Component
+@Slf4j
+public class PermissionRegistry {
+
+    // Copy-on-write: az olvasás zár nélküli, az (indulás utáni ritka) bővítés szinkronizált
+    private volatile Map<String, Integer> ids = Map.of();
+
+    public void registerAll(Collection<String> authorities) {
+        authorities.stream().sorted().forEach(this::register);
+        log.info("Permission registry holds {} authorities", ids.size());
+    }
+
+    /** @return A név azonosítója, vagy -1, ha még egyetlen lefordított maszkban sem szerepelt. */
+    public int idOf(String authority) {
+        Integer id = ids.get(authority);
+        return id != null ? id : -1;
+    }
+
+    /** A jogok egyszeri lefordítása (principal betöltésekor), a további ellenőrzések már bit-tesztek. */
+    public AuthorityMask compile(Collection<? extends GrantedAuthority> authorities) {
+        long[] words = new long[0];
+        for (GrantedAuthority authority : authorities) {
+            int id = register(authority.getAuthority());
+            if ((id >>> 6) >= words.length) {
+                words = Arrays.copyOf(words, (id >>> 6) + 1);
+            }
+            words[id >>> 6] |= 1L << id;
+        }
+        return new AuthorityMask(this, words, authorities);
+    }
+
+    private int register(String authority) {
+        Integer id = ids.get(authority);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(authority);
+            if (id == null) {
+                Map<String, Integer> copy = new HashMap<>(ids);
+                id = copy.size();
+                copy.put(authority, id);
+                ids = Map.copyOf(copy);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.legymernok.backend.security;
+
+/**
+ * Egy felhasználó jogai (szerepkörei, azok engedélyei) vagy adatai megváltoztak —
+ * az AuthPrincipalCache a commit után eldobja a gyorsítótárazott principalt.
+ * @param username Az érintett felhasználó, vagy null, ha bárkit érinthet (szerepkör módosítása).
+ */
+public record PrincipalChangedEvent(String username) {
+
+    public static PrincipalChangedEvent allPrincipals() {
+        return new PrincipalChangedEvent(null);
+    }
+}
@@ -11,11 +11,8 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -28,6 +25,9 @@ import java.util.regex.Pattern;
 // ellenőrzés itt, a STOMP CONNECT és SUBSCRIBE frame-eken történik: a kliens a JWT-t
 // STOMP connectHeaders-ként küldi ("Authorization: Bearer <token>"), ezt validáljuk
 // CONNECT-kor, majd minden SUBSCRIBE-nál külön ellenőrizzük a célt (topic-ot).
+// A CONNECT ugyanúgy old fel, mint a JwtAuthenticationFilter: egyetlen token-parse és
+// a gyorsítótárazott, lefordított principal (AuthPrincipalCache), így a session
+// CompiledAuthenticationToken-jén a jogellenőrzés bit-teszt.
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -38,9 +38,13 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
     // átmegy UUID.fromString()-en is (a lenti try/catch csak defenzív tartalék).
     private static final Pattern MISSION_TOPIC = Pattern.compile(
             "^/topic/mission/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})$");
+    // Aszinkron misszióindítás haladása — kadétonkénti topic, csak a saját jobját láthatja.
+    private static final Pattern MISSION_START_TOPIC = Pattern.compile(
+            "^/topic/mission/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}"
+                    + "/start/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})$");
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final AuthPrincipalCache principalCache;
     private final MissionService missionService;
 
     @Override
@@ -69,28 +73,22 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
         String jwt = authHeader.substring(7);
         String username;
         try {
-            username = jwtService.extractUsername(jwt);
+            // Aláírás + lejárat egyetlen parse-szal
+            username = jwtService.extractValidUsername(jwt);
         } catch (Exception e) {
             log.warn("STOMP CONNECT rejected: invalid token");
             throw new AccessDeniedException("Invalid token");
         }
 
-        UserDetails userDetails;
+        AuthPrincipalCache.CompiledPrincipal principal;
         try {
-            userDetails = userDetailsService.loadUserByUsername(username);
+            principal = principalCache.load(username);
         } catch (Exception e) {
             log.warn("STOMP CONNECT rejected: user not found");
             throw new AccessDeniedException("Invalid token");
         }
 
-        if (!jwtService.isTokenValid(jwt, userDetails)) {
-            log.warn("STOMP CONNECT rejected: token failed validation");
-            throw new AccessDeniedException("Invalid token");
-        }
-
-        UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-        accessor.setUser(authToken);
+        accessor.setUser(new CompiledAuthenticationToken(principal));
     }
 
     private void authorizeSubscription(StompHeaderAccessor accessor) {
@@ -109,9 +107,12 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
         }
 
         if ("/topic/logs".equals(destination)) {
-            boolean allowed = cadet.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .anyMatch(authority -> authority.equals("logs:read"));
+            // A CONNECT lefordított maszkja; más Authentication-nél a már kész jogok listája
+            boolean allowed = principal instanceof CompiledAuthenticationToken compiled
+                    ? compiled.getAuthorityMask().has("logs:read")
+                    : principal.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .anyMatch("logs:read"::equals);
             if (!allowed) {
                 log.warn("STOMP SUBSCRIBE rejected: '{}' has no logs:read", cadet.getUsername());
                 throw new AccessDeniedException("Missing logs:read authority");
@@ -138,6 +139,15 @@ public class StompAuthChannelInterceptor implements ChannelInterceptor {
             return;
         }
 
+        Matcher startMatcher = MISSION_START_TOPIC.matcher(destination);
+        if (startMatcher.matches()) {
+            if (!startMatcher.group(1).equalsIgnoreCase(String.valueOf(cadet.getId()))) {
+                log.warn("STOMP SUBSCRIBE rejected: '{}' cannot follow another cadet's mission start", cadet.getUsername());
+                throw new AccessDeniedException("Not allowed to follow this mission start");
+            }
+            return;
+        }
+
         // Ismeretlen topic mintázat — alapértelmezésben tiltjuk, ne engedjünk
         // véletlenül hozzáférést egy jövőbeli, még nem ismert csatornához.
         log.warn("STOMP SUBSCRIBE rejected: unknown destination '{}'", destination);
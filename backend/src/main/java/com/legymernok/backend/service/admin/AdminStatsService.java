@@ -5,9 +5,8 @@ import com.legymernok.backend.dto.admin.PopularStarSystemSummary;
 import com.legymernok.backend.dto.admin.RecentCadetSummary;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.starsystem.StarSystem;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
+import com.legymernok.backend.repository.cadet.CadetStarSystemProgressRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
 import com.legymernok.backend.service.feedback.FeedbackService;
@@ -40,8 +39,7 @@ public class AdminStatsService {
     private final CadetRepository cadetRepository;
     private final StarSystemRepository starSystemRepository;
     private final MissionRepository missionRepository;
-    private final CadetMissionRepository cadetMissionRepository;
-    private final MissionGroupProgressRepository missionGroupProgressRepository;
+    private final CadetStarSystemProgressRepository cadetStarSystemProgressRepository;
     private final FeedbackService feedbackService;
 
     public AdminStatsResponse getStats() {
@@ -89,10 +87,15 @@ public class AdminStatsService {
         }
     }
 
+    /**
+     * Star System-enként hány egyedi kadét kezdett el legalább egy elemet (standalone
+     * misszió vagy csoport) — a materializált cadet_star_system_progress táblából.
+     */
     private List<PopularStarSystemSummary> getMostStartedStarSystems() {
         Map<UUID, Long> counts = new HashMap<>();
-        mergeCounts(counts, cadetMissionRepository.countDistinctCadetsByStarSystem());
-        mergeCounts(counts, missionGroupProgressRepository.countDistinctCadetsByStarSystem());
+        for (Object[] row : cadetStarSystemProgressRepository.countStartedCadetsByStarSystem()) {
+            counts.put((UUID) row[0], (Long) row[1]);
+        }
 
         List<Map.Entry<UUID, Long>> top = counts.entrySet().stream()
                 .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed())
@@ -119,22 +122,6 @@ public class AdminStatsService {
                 .toList();
     }
 
-    /**
-     * A standalone-misszió és a group-indítás számlálása KÜLÖN query — ha
-     * ugyanaz a kadét mindkét úton indított már valamit ugyanabban a
-     * rendszerben, a két számot ÖSSZEADJUK (nem deduplikáljuk kadét-szinten
-     * a két forrás között) — ez egy tudatos, egyszerűsített MVP-metrika:
-     * "hány (kadét, indítási esemény) pár volt ebben a rendszerben",
-     * nem "hány egyedi kadét összesen".
-     */
-    private void mergeCounts(Map<UUID, Long> target, List<Object[]> rows) {
-        for (Object[] row : rows) {
-            UUID starSystemId = (UUID) row[0];
-            Long count = (Long) row[1];
-            target.merge(starSystemId, count, Long::sum);
-        }
-    }
-
     private RecentCadetSummary toRecentCadetSummary(Cadet cadet) {
         return RecentCadetSummary.builder()
                 .id(cadet.getId())
@@ -1,6 +1,5 @@
 package com.legymernok.backend.service.ai;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
@@ -8,48 +7,125 @@ import org.springframework.http.RequestEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Szövegek embeddingje az AI service /embed végpontján. Az ugyanarra a normalizált
+ * szövegre adott választ az EmbeddingCache tárolja, a modell neve szerint elkülönítve
+ * (ai.embedding.model — az AI service EMBED_MODEL beállításával egyezzen).
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AiEmbeddingService {
 
     private final RestTemplate restTemplate;
+    private final EmbeddingCache embeddingCache;
+    private final String aiServiceUrl;
+    private final String model;
 
-    @Value("${ai.service.url:http://localhost:8081}")
-    private String aiServiceUrl;
+    public AiEmbeddingService(RestTemplate restTemplate,
+                              EmbeddingCache embeddingCache,
+                              @Value("${ai.service.url:http://localhost:8081}") String aiServiceUrl,
+                              @Value("${ai.embedding.model:nomic-embed-text}") String model) {
+        this.restTemplate = restTemplate;
+        this.embeddingCache = embeddingCache;
+        this.aiServiceUrl = aiServiceUrl;
+        this.model = model;
+    }
 
+    /**
+     * @return A szöveg embeddingje (megosztott tömb, nem módosítható), vagy null, ha az
+     * AI service nem érhető el.
+     */
     public float[] embed(String text) {
+        String normalized = EmbeddingCache.normalize(text);
+        String textHash = EmbeddingCache.hash(normalized);
+        float[] cached = embeddingCache.get(model, textHash);
+        if (cached != null) return cached;
+
         try {
             var request = RequestEntity
                     .post(aiServiceUrl + "/embed")
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("text", text));
+                    .body(Map.of("text", normalized));
 
             var response = restTemplate.exchange(request, EmbedResponse.class);
-            if (response.getBody() == null) return null;
-            List<Float> list = response.getBody().embedding();
-            float[] arr = new float[list.size()];
-            for (int i = 0; i < list.size(); i++) arr[i] = list.get(i);
-            return arr;
+            EmbedResponse body = response.getBody();
+            if (body == null || body.embedding() == null) return null;
+            if (body.model() != null && !body.model().equals(model)) {
+                // Más modell válaszolt, mint amire a kulcs szól — nem cache-eljük
+                log.warn("Embedding model mismatch: expected '{}', AI service returned '{}'", model, body.model());
+                return body.embedding();
+            }
+            embeddingCache.put(model, textHash, body.embedding());
+            return body.embedding();
         } catch (Exception e) {
             log.warn("Embedding failed for text '{}': {}", text.substring(0, Math.min(50, text.length())), e.getMessage());
             return null;
         }
     }
 
-    public String toVectorString(float[] embedding) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < embedding.length; i++) {
-            sb.append(embedding[i]);
-            if (i < embedding.length - 1) sb.append(",");
+    /**
+     * Több szöveg embeddingje: a cache-ben nem talált szövegek egyetlen /embed_batch
+     * hívással mennek az AI service-hez (a hívó feladata, hogy a köteg ne lépje túl az
+     * AI service EMBED_MAX_BATCH korlátját).
+     * @return A bemenet sorrendjében az embeddingek, vagy null, ha az AI-hívás elbukott.
+     */
+    public List<float[]> embedBatch(List<String> texts) {
+        float[][] result = new float[texts.size()][];
+        List<Integer> missing = new ArrayList<>();
+        List<String> missingTexts = new ArrayList<>();
+        String[] textHashes = new String[texts.size()];
+        for (int i = 0; i < texts.size(); i++) {
+            String normalized = EmbeddingCache.normalize(texts.get(i));
+            textHashes[i] = EmbeddingCache.hash(normalized);
+            result[i] = embeddingCache.get(model, textHashes[i]);
+            if (result[i] == null) {
+                missing.add(i);
+                missingTexts.add(normalized);
+            }
+        }
+        if (missing.isEmpty()) return Arrays.asList(result);
+
+        try {
+            var request = RequestEntity
+                    .post(aiServiceUrl + "/embed_batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("texts", missingTexts));
+
+            EmbedBatchResponse body = restTemplate.exchange(request, EmbedBatchResponse.class).getBody();
+            if (body == null || body.embeddings() == null || body.embeddings().size() != missing.size()) {
+                log.warn("Batch embedding returned an unexpected response for {} texts", missing.size());
+                return null;
+            }
+            boolean cacheable = body.model() == null || body.model().equals(model);
+            if (!cacheable) {
+                log.warn("Embedding model mismatch: expected '{}', AI service returned '{}'", model, body.model());
+            }
+            for (int j = 0; j < missing.size(); j++) {
+                int i = missing.get(j);
+                result[i] = body.embeddings().get(j);
+                if (cacheable) embeddingCache.put(model, textHashes[i], result[i]);
+            }
+            return Arrays.asList(result);
+        } catch (Exception e) {
+            log.warn("Batch embedding failed for {} texts: {}", missing.size(), e.getMessage());
+            return null;
         }
-        sb.append("]");
-        return sb.toString();
     }
 
-    record EmbedResponse(List<Float> embedding, String model) {}
+    /**
+     * A szöveg tartalmi hash-e a beállított modellel együtt: ha ez nem változott, a
+     * korábban eltárolt embedding is érvényes.
+     */
+    public String sourceHash(String text) {
+        return EmbeddingCache.hash(model + "\n" + EmbeddingCache.normalize(text));
+    }
+
+    record EmbedResponse(float[] embedding, String model) {}
+
+    record EmbedBatchResponse(List<float[]> embeddings, String model) {}
 }
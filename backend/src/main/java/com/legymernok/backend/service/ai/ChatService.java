@@ -6,7 +6,7 @@ import com.legymernok.backend.dto.chat.ChatContextDto;
 import com.legymernok.backend.dto.chat.ChatRequest;
 import com.legymernok.backend.dto.chat.ChatResponse;
 import com.legymernok.backend.dto.search.StarSystemSearchResult;
-import com.legymernok.backend.service.starsystem.StarSystemService;
+import com.legymernok.backend.service.starsystem.StarSystemSemanticSearch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,7 +27,7 @@ import java.util.regex.Pattern;
 public class ChatService {
 
     private final AiEmbeddingService embeddingService;
-    private final StarSystemService starSystemService;
+    private final StarSystemSemanticSearch semanticSearch;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
@@ -74,8 +74,7 @@ public class ChatService {
         try {
             float[] vector = embeddingService.embed(request.message());
             if (vector != null) {
-                relevant = starSystemService.searchByEmbedding(
-                        embeddingService.toVectorString(vector), 3);
+                relevant = semanticSearch.search(vector, 3);
             }
         } catch (Exception e) {
             log.warn("Semantic search failed during chat: {}", e.getMessage());
@@ -0,0 +1,185 @@
+package com.legymernok.backend.service.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legymernok.backend.integration.PgVector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Az AiEmbeddingService embedding-cache-e. A kulcs a modell neve és a normalizált
+ * szöveg SHA-256 hash-e, így a népszerű keresőkifejezések, a chat ismétlődő kérdései
+ * és a változatlan Star System szövegek nem mennek újra az AI service-hez.
+ *
+ * Két rétegű: méretkorlátos helyi Caffeine cache (max-size, a legrégebben használt
+ * bejegyzés esik ki), és opcionálisan az embedding_cache tábla (persistent), amely
+ * újraindulás után és a példányok között is megmarad. A tábla hibája nem akadályozza
+ * az embeddinget, csak a cache-ből kiesés.
+ *
+ * A tábla nem nő korlátlanul: a prune ütemezetten törli a retention-days óta nem
+ * használt és a már nem beállított modellhez (ai.embedding.model) tartozó sorokat. A
+ * használatot (last_used_at) nem olvasásonként írjuk — a találatok nagy része a helyi
+ * rétegből jön, és az olvasás read-only tranzakcióban is futhat —, hanem a találati
+ * kulcsokat gyűjtjük, és a prune előtt egy kötegben frissítjük.
+ *
+ * A visszaadott tömbök megosztottak — a hívók nem módosíthatják őket.
+ * Metrikák: "ai.embedding" néven (helyi réteg), és ai.embedding.cache.persistent
+ * (result=hit/miss) a tábla találataira.
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private record Key(String model, String textHash) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean persistent;
+    private final String model;
+    private final int retentionDays;
+    private final Cache<Key, float[]> embeddings;
+    // A legutóbbi prune óta használt kulcsok, a last_used_at kötegelt frissítéséhez
+    private final Set<Key> used = ConcurrentHashMap.newKeySet();
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+
+    public EmbeddingCache(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.embedding-cache.max-size:10000}") long maxSize,
+                          @Value("${ai.embedding-cache.persistent:false}") boolean persistent,
+                          @Value("${ai.embedding.model:nomic-embed-text}") String model,
+                          @Value("${ai.embedding-cache.retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.persistent = persistent;
+        this.model = model;
+        this.retentionDays = retentionDays;
+        this.embeddings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, embeddings, "ai.embedding");
+        this.persistentHits = Counter.builder("ai.embedding.cache.persistent")
+                .tag("result", "hit")
+                .description("Az embedding_cache táblából kiszolgált embeddingek")
+                .register(meterRegistry);
+        this.persistentMisses = Counter.builder("ai.embedding.cache.persistent")
+                .tag("result", "miss")
+                .description("Az embedding_cache táblában sem talált embeddingek")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A cache kulcsának alapja: Unicode NFC, a szélek levágva, a belső whitespace-ek
+     * egy szóközzé vonva. A kis- és nagybetűket nem egyesíti, mert az a modell
+     * kimenetét is megváltoztathatja.
+     */
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC).strip()).replaceAll(" ");
+    }
+
+    /** A szöveg SHA-256 hash-e hexában (64 karakter). */
+    public static String hash(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param textHash A normalizált szöveg hash-e (hash(normalize(text))).
+     * @return null, ha egyik rétegben sincs meg.
+     */
+    public float[] get(String model, String textHash) {
+        Key key = new Key(model, textHash);
+        float[] cached = embeddings.getIfPresent(key);
+        if (!persistent) return cached;
+        if (cached != null) {
+            used.add(key);
+            return cached;
+        }
+
+        float[] stored = load(key);
+        if (stored == null) {
+            persistentMisses.increment();
+            return null;
+        }
+        persistentHits.increment();
+        used.add(key);
+        embeddings.put(key, stored);
+        return stored;
+    }
+
+    public void put(String model, String textHash, float[] embedding) {
+        Key key = new Key(model, textHash);
+        embeddings.put(key, embedding);
+        if (!persistent) return;
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO embedding_cache (model, text_hash, embedding) VALUES (?, ?, ?) " +
+                            "ON CONFLICT (model, text_hash) DO UPDATE SET last_used_at = now()",
+                    model, textHash, new PgVector(embedding));
+        } catch (DataAccessException e) {
+            log.warn("Embedding cache write failed for model {}: {}", model, e.getMessage());
+        }
+    }
+
+    /**
+     * A tábla karbantartása: előbb a használt kulcsok last_used_at-je frissül, aztán
+     * törlődnek a retention-days óta nem használt és a más modellhez tartozó sorok.
+     */
+    @Scheduled(cron = "${ai.embedding-cache.prune.cron:0 15 4 * * *}")
+    public void prune() {
+        if (!persistent) return;
+        List<Object[]> touched = new ArrayList<>();
+        for (Key key : used) {
+            used.remove(key);
+            touched.add(new Object[]{key.model(), key.textHash()});
+        }
+        try {
+            if (!touched.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE embedding_cache SET last_used_at = now() WHERE model = ? AND text_hash = ?", touched);
+            }
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM embedding_cache WHERE model <> ? OR last_used_at < now() - make_interval(days => ?)",
+                    model, retentionDays);
+            log.info("Pruned embedding cache: {} rows removed, {} rows touched", deleted, touched.size());
+        } catch (DataAccessException e) {
+            log.warn("Embedding cache prune failed: {}", e.getMessage());
+        }
+    }
+
+    private float[] load(Key key) {
+        try {
+            List<float[]> rows = jdbcTemplate.query(
+                    "SELECT embedding FROM embedding_cache WHERE model = ? AND text_hash = ?",
+                    (rs, i) -> PgVector.toArray(rs.getObject(1)), key.model(), key.textHash());
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (DataAccessException e) {
+            log.warn("Embedding cache read failed for model {}: {}", key.model(), e.getMessage());
+            return null;
+        }
+    }
+}
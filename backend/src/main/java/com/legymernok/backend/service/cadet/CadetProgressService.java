@@ -0,0 +1,88 @@
+package com.legymernok.backend.service.cadet;
+
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
+import com.legymernok.backend.model.cadet.CadetStarSystemProgress;
+import com.legymernok.backend.repository.cadet.CadetProgressTotalsRepository;
+import com.legymernok.backend.repository.cadet.CadetStarSystemProgressRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A denormalizált kadét-haladás (cadet_star_system_progress, cadet_progress_totals)
+ * karbantartása. Az állapotot módosító műveletek (misszióindítás, csoport-lépés,
+ * misszió/csoport törlése vagy áthelyezése) a saját tranzakciójukban hívják a
+ * refresh metódusokat, így a csillagtérkép, a profil, a dashboard és az admin
+ * statisztika egysoros lookuppal olvas.
+ *
+ * A refresh az érintett sort a forrástáblákból számolja újra (nem +1/-1 delta), így
+ * idempotens és nem sodródik el ismételt hívásoktól. A rebuildAll ütemezetten az
+ * egész táblát helyben újraszámolja — ez javítja a kézi adatjavításból vagy egy
+ * kimaradt hookból eredő eltérést. A tömeges újraszámolás is upsert (ON CONFLICT),
+ * a forrássor nélkül maradt sorokat pedig külön törli, így a táblát egyik pillanatban
+ * sem üríti ki, és a közben futó refresh sem ütközik vele.
+ */
+@Service
+@Slf4j
+public class CadetProgressService {
+
+    private final CadetStarSystemProgressRepository progressRepository;
+    private final CadetProgressTotalsRepository totalsRepository;
+    private final boolean rebuildEnabled;
+
+    public CadetProgressService(CadetStarSystemProgressRepository progressRepository,
+                                CadetProgressTotalsRepository totalsRepository,
+                                @Value("${cadet.progress.rebuild.enabled:true}") boolean rebuildEnabled) {
+        this.progressRepository = progressRepository;
+        this.totalsRepository = totalsRepository;
+        this.rebuildEnabled = rebuildEnabled;
+    }
+
+    /** Egy kadét egy Star Systembeli sora és összesítője (saját elem indítása/haladása után). */
+    @Transactional
+    public void refresh(UUID cadetId, UUID starSystemId) {
+        progressRepository.refresh(cadetId, starSystemId);
+        totalsRepository.refresh(cadetId);
+    }
+
+    /**
+     * Egy Star System összes kadétjának újraszámolása (misszió/csoport törlése vagy
+     * áthelyezése után, amikor nem tudni előre, kiket érint). Az összesítőket a régi
+     * sorok alapján frissítjük, hogy a rendszerből épp kieső kadétok is sorra kerüljenek.
+     */
+    @Transactional
+    public void refreshStarSystem(UUID starSystemId) {
+        totalsRepository.refreshAllForStarSystem(starSystemId);
+        progressRepository.upsertAllForStarSystem(starSystemId);
+        progressRepository.deleteOrphansForStarSystem(starSystemId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CadetStarSystemProgress> getStarSystemProgress(UUID cadetId) {
+        return progressRepository.findAllByCadetId(cadetId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CadetProgressTotals> getTotals(UUID cadetId) {
+        return totalsRepository.findById(cadetId);
+    }
+
+    /** Backfill és eltérés-javítás: a két tábla teljes újraszámolása egy tranzakcióban. */
+    @Scheduled(cron = "${cadet.progress.rebuild.cron:0 30 3 * * *}")
+    @Transactional
+    public void rebuildAll() {
+        if (!rebuildEnabled) return;
+        long start = System.currentTimeMillis();
+        int rows = progressRepository.upsertAll();
+        int orphans = progressRepository.deleteOrphans();
+        int cadets = totalsRepository.refreshAll();
+        log.info("Rebuilt cadet progress: {} star system rows ({} orphans removed), {} cadet totals in {} ms",
+                rows, orphans, cadets, System.currentTimeMillis() - start);
+    }
+}
@@ -15,10 +15,15 @@ import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.security.PrincipalChangedEvent;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.legymernok.backend.integration.GiteaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +46,7 @@ public class CadetService {
     private final PasswordEncoder passwordEncoder;
     private final GiteaService giteaService;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CadetResponse createCadet(CreateCadetRequest request) {
@@ -106,6 +112,10 @@ public class CadetService {
                 system.setOwner(inheritanceAdmin);
                 starSystemRepository.save(system);
             }
+            // A "saját rendszereim" lista a tulajdonos szerint szűr
+            if (!systemsToReassign.isEmpty()) {
+                eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
+            }
 
             // 3. Átruházzuk a küldetéseket
             List<Mission> missionsToReassign = missionRepository.findAllByOwnerId(id);
@@ -113,6 +123,10 @@ public class CadetService {
                 mission.setOwner(inheritanceAdmin);
                 missionRepository.save(mission);
             }
+            // A missziók tulajdonosneve a Star System részletes nézetekben is szerepel
+            if (!missionsToReassign.isEmpty()) {
+                eventPublisher.publishEvent(StarSystemContentChangedEvent.allSystems());
+            }
         } else {
             // Ha nincs "örökös", akkor töröljük a tartalmakat is (vagy dobjunk hibát)
             // Döntés kérdése. Most tegyük fel, hogy ez hiba.
@@ -150,6 +164,8 @@ public class CadetService {
         log.info("Deleted Cadet: {}", cadet.getUsername());
 
         cadetRepository.delete(cadet);
+        // A törölt felhasználó még érvényes tokenje se hitelesítsen a cache-ből
+        eventPublisher.publishEvent(new PrincipalChangedEvent(cadet.getUsername()));
     }
 
     @Transactional
@@ -195,6 +211,7 @@ public class CadetService {
 
         Cadet updatedCadet = cadetRepository.save(cadetToUpdate);
         log.info("Updated Cadet: {}", updatedCadet.getUsername());
+        eventPublisher.publishEvent(new PrincipalChangedEvent(updatedCadet.getUsername()));
         return mapToResponse(updatedCadet);
     }
 
@@ -2,20 +2,21 @@ package com.legymernok.backend.service.dashboard;
 
 import com.legymernok.backend.dto.dashboard.ContinueResponse;
 import com.legymernok.backend.exception.ResourceNotFoundException;
-import com.legymernok.backend.model.ConnectTable.CadetMission;
 import com.legymernok.backend.model.cadet.Cadet;
-import com.legymernok.backend.model.mission.MissionGroupProgress;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionGroup;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
+import com.legymernok.backend.repository.mission.MissionGroupRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.Comparator;
-import java.util.Optional;
+import java.util.Objects;
 
 /** "Folytasd onnan, ahol abbahagytad" dashboard-kártya adatforrása — terv 5.2. */
 @Service
@@ -23,50 +24,44 @@ import java.util.Optional;
 public class DashboardService {
 
     private final CadetRepository cadetRepository;
-    private final CadetMissionRepository cadetMissionRepository;
-    private final MissionGroupProgressRepository missionGroupProgressRepository;
+    private final CadetProgressService cadetProgressService;
+    private final MissionRepository missionRepository;
+    private final MissionGroupRepository missionGroupRepository;
 
     @Transactional(readOnly = true)
     public ContinueResponse getContinue() {
         Cadet cadet = getCurrentAuthenticatedUser();
 
-        Optional<CadetMission> lastMission = cadetMissionRepository.findAllByCadetId(cadet.getId()).stream()
-                .max(Comparator.comparing(CadetMission::getLastUpdatedAt));
+        // A legutóbbi misszió és nyitott csoport a materializált összesítőből
+        CadetProgressTotals totals = cadetProgressService.getTotals(cadet.getId())
+                .filter(t -> t.getLastMissionId() != null || t.getLastGroupId() != null)
+                .orElseThrow(() -> new ResourceNotFoundException("Continue", "cadetId", cadet.getId()));
 
-        Optional<MissionGroupProgress> lastGroup = missionGroupProgressRepository.findAllByCadetId(cadet.getId())
-                .stream()
-                .filter(p -> !p.isCompleted())
-                .max(Comparator.comparing(MissionGroupProgress::getLastUpdatedAt));
+        Instant missionTime = Objects.requireNonNullElse(totals.getLastMissionAt(), Instant.EPOCH);
+        Instant groupTime = Objects.requireNonNullElse(totals.getLastGroupAt(), Instant.EPOCH);
 
-        Instant missionTime = lastMission.map(CadetMission::getLastUpdatedAt).orElse(Instant.EPOCH);
-        Instant groupTime = lastGroup.map(MissionGroupProgress::getLastUpdatedAt).orElse(Instant.EPOCH);
-
-        if (lastMission.isEmpty() && lastGroup.isEmpty()) {
-            throw new ResourceNotFoundException("Continue", "cadetId", cadet.getId());
-        }
-
-        if (groupTime.isAfter(missionTime)) {
-            MissionGroupProgress progress = lastGroup.get();
+        if (totals.getLastGroupId() != null && (totals.getLastMissionId() == null || groupTime.isAfter(missionTime))) {
+            MissionGroup group = missionGroupRepository.findById(totals.getLastGroupId())
+                    .orElseThrow(() -> new ResourceNotFoundException("MissionGroup", "id", totals.getLastGroupId()));
             return ContinueResponse.builder()
                     .type("GROUP")
-                    .groupId(progress.getGroup().getId())
-                    .starSystemId(progress.getGroup().getStarSystem().getId())
-                    .name(progress.getGroup().getName())
+                    .groupId(group.getId())
+                    .starSystemId(group.getStarSystem().getId())
+                    .name(group.getName())
                     .build();
         }
 
-        CadetMission cadetMission = lastMission.get();
+        Mission mission = missionRepository.findById(totals.getLastMissionId())
+                .orElseThrow(() -> new ResourceNotFoundException("Mission", "id", totals.getLastMissionId()));
         return ContinueResponse.builder()
                 .type("MISSION")
-                .missionId(cadetMission.getMission().getId())
-                .starSystemId(cadetMission.getMission().getStarSystem().getId())
-                .name(cadetMission.getMission().getName())
+                .missionId(mission.getId())
+                .starSystemId(mission.getStarSystem().getId())
+                .name(mission.getName())
                 .build();
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
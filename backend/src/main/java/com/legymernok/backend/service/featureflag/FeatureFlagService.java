@@ -5,8 +5,11 @@ import com.legymernok.backend.dto.featureflag.UpdateFeatureFlagRequest;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.model.featureflag.FeatureFlag;
 import com.legymernok.backend.repository.featureflag.FeatureFlagRepository;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,7 @@ import java.util.stream.Collectors;
 public class FeatureFlagService {
 
     private final FeatureFlagRepository featureFlagRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<FeatureFlagResponse> getAllFlags() {
@@ -46,6 +50,7 @@ public class FeatureFlagService {
 
         FeatureFlag updatedFlag = featureFlagRepository.save(flag);
         log.info("Updated FeatureFlag: {} -> enabled={}", updatedFlag.getKey(), updatedFlag.isEnabled());
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.FEATURE_FLAG));
         return mapToResponse(updatedFlag);
     }
 
@@ -10,10 +10,14 @@ import com.legymernok.backend.model.mission.MissionType;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.fillinblank.*;
 import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.social.ActivityRecordedEvent;
 import com.legymernok.backend.service.streak.StreakService;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +37,7 @@ public class FillInBlankService {
     private final FillInBlankAnswerDetailRepository answerDetailRepository;
     private final CadetRepository cadetRepository;
     private final StreakService streakService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public FillInBlankUserResponse saveDefinition(UUID missionId, SaveFillInBlankRequest request) {
@@ -83,6 +88,7 @@ public class FillInBlankService {
             }
         }
 
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.FILL_IN_BLANK));
         return getDefinitionForUser(missionId);
     }
 
@@ -229,6 +235,8 @@ public class FillInBlankService {
 
         if (passed) {
             streakService.recordActivity(cadet.getId());
+            eventPublisher.publishEvent(new ActivityRecordedEvent("FILL_IN_BLANK", attempt.getId(), cadet.getId(),
+                    mission.getId(), attempt.getSubmittedAt()));
         }
 
         return FillInBlankResultResponse.builder()
@@ -254,8 +262,6 @@ public class FillInBlankService {
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
@@ -13,11 +13,14 @@ import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
 import com.legymernok.backend.repository.mission.MissionGroupRepository;
 import com.legymernok.backend.repository.mission.MissionGroupStepCompletionRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import com.legymernok.backend.service.social.ActivityRecordedEvent;
 import com.legymernok.backend.service.streak.StreakService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +41,8 @@ public class MissionGroupProgressService {
     private final MissionGroupRepository groupRepository;
     private final MissionRepository missionRepository;
     private final CadetRepository cadetRepository;
+    private final CadetProgressService cadetProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public GroupProgressResponse getProgress(UUID groupId) {
@@ -76,6 +81,7 @@ public class MissionGroupProgressService {
                 .build();
 
         progress = progressRepository.save(progress);
+        cadetProgressService.refresh(cadet.getId(), group.getStarSystem().getId());
         return mapToResponse(progress, 0, groupMissions.size());
     }
 
@@ -97,8 +103,10 @@ public class MissionGroupProgressService {
                         .progress(progress)
                         .mission(currentMission)
                         .build();
-                stepCompletionRepository.saveAndFlush(step);
+                step = stepCompletionRepository.saveAndFlush(step);
                 streakService.recordActivity(cadet.getId());
+                eventPublisher.publishEvent(new ActivityRecordedEvent("GROUP_STEP", step.getId(), cadet.getId(),
+                        currentMissionId, step.getCompletedAt()));
             } catch (DataIntegrityViolationException e) {
                 // Idempotens: ha már létezik, nem duplikálódik
                 log.debug("Step completion already exists for mission {}, ignoring.", currentMissionId);
@@ -125,6 +133,7 @@ public class MissionGroupProgressService {
             progress.setCompletedAt(Instant.now());
         }
         progress = progressRepository.save(progress);
+        cadetProgressService.refresh(cadet.getId(), progress.getGroup().getStarSystem().getId());
 
         return mapToResponse(progress, completedIds.size(), groupMissions.size());
     }
@@ -143,8 +152,6 @@ public class MissionGroupProgressService {
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
@@ -13,9 +13,12 @@ import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.mission.MissionGroupRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,6 +37,8 @@ public class MissionGroupService {
     private final StarSystemRepository starSystemRepository;
     private final CadetRepository cadetRepository;
     private final MissionService missionService;
+    private final CadetProgressService cadetProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public MissionGroupResponse createGroup(CreateMissionGroupRequest request) {
@@ -66,6 +71,7 @@ public class MissionGroupService {
 
         MissionGroup saved = missionGroupRepository.save(group);
         log.info("MissionGroup '{}' created by '{}'", saved.getName(), currentUser.getUsername());
+        publishStarSystemChanged(starSystem.getId());
         return mapToResponse(saved);
     }
 
@@ -76,6 +82,7 @@ public class MissionGroupService {
 
         group.setName(request.getName());
         group.setDescription(request.getDescription());
+        publishStarSystemChanged(group.getStarSystem().getId());
         return mapToResponse(missionGroupRepository.save(group));
     }
 
@@ -122,6 +129,9 @@ public class MissionGroupService {
         // 4. Group törlése
         missionGroupRepository.delete(group);
         missionGroupRepository.flush();
+        // A csoport kiesett, a tagjai standalone elemmé váltak
+        cadetProgressService.refreshStarSystem(starSystemId);
+        publishStarSystemChanged(starSystemId);
         log.info("MissionGroup '{}' deleted, {} FIB missions deleted, {} missions became standalone",
                 group.getName(), fibMissions.size(), n);
     }
@@ -148,6 +158,8 @@ public class MissionGroupService {
         mission.setGroupOrder(nextGroupOrder);
         mission.setOrderIndex(null);
         missionRepository.save(mission);
+        cadetProgressService.refreshStarSystem(group.getStarSystem().getId());
+        publishStarSystemChanged(group.getStarSystem().getId());
 
         return mapToResponse(group);
     }
@@ -164,6 +176,8 @@ public class MissionGroupService {
         mission.setGroupOrder(null);
         mission.setOrderIndex(newOrderIndex);
         missionRepository.save(mission);
+        cadetProgressService.refreshStarSystem(group.getStarSystem().getId());
+        publishStarSystemChanged(group.getStarSystem().getId());
 
         return mapToResponse(group);
     }
@@ -177,6 +191,7 @@ public class MissionGroupService {
         Integer targetOrderIndex = null;
         UUID targetUUID = targetId;
 
+        publishStarSystemChanged(group.getStarSystem().getId());
         var targetGroup = missionGroupRepository.findById(targetId);
         if (targetGroup.isPresent()) {
             targetOrderIndex = targetGroup.get().getOrderIndex();
@@ -224,6 +239,7 @@ public class MissionGroupService {
         target.setGroupOrder(tmpOrder);
         missionRepository.save(mission);
         missionRepository.save(target);
+        publishStarSystemChanged(mission.getStarSystem().getId());
 
         return ReorderResponse.builder()
                 .updated(List.of(
@@ -266,9 +282,11 @@ public class MissionGroupService {
                 .build();
     }
 
+    private void publishStarSystemChanged(UUID starSystemId) {
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(starSystemId));
+    }
+
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
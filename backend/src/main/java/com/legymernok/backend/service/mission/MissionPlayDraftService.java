@@ -0,0 +1,132 @@
+package com.legymernok.backend.service.mission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legymernok.backend.integration.GiteaService;
+import com.legymernok.backend.model.ConnectTable.CadetMission;
+import com.legymernok.backend.model.mission.MissionPlayDraft;
+import com.legymernok.backend.repository.mission.MissionPlayDraftRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Write-behind mentés a CODING misszió-lejátszóhoz. A kadét mentései (PUT
+ * /play/files) nem mennek azonnal a Giteába: egy (kadét, misszió) párhoz tartozó,
+ * Postgresben tárolt piszkozatba kerülnek, a kérés pedig rögtön visszatér. Az
+ * ütemező a flush-after ideje óta piszkos piszkozatokat egyetlen commitba vonja
+ * össze — így a gyakori mentésekből kevés commit és kevés CI-futás lesz. Explicit
+ * beküldésnél (commit=true) a piszkozat azonnal commitolódik.
+ *
+ * A getPlayFiles a piszkozatot a repó tartalma fölé rétegezi, tehát a kadét mindig a
+ * legutóbbi mentését látja. Metrikák: mission.play_draft.saves, mission.play_draft.flushes.
+ */
+@Service
+@Slf4j
+public class MissionPlayDraftService {
+
+    private static final String COMMIT_MESSAGE = "Save from mission player";
+
+    private final MissionPlayDraftRepository draftRepository;
+    private final GiteaService giteaService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration flushAfter;
+
+    private final Counter draftSaves;
+    private final Counter flushes;
+
+    public MissionPlayDraftService(MissionPlayDraftRepository draftRepository,
+                                   GiteaService giteaService,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${mission.play-draft.enabled:true}") boolean enabled,
+                                   @Value("${mission.play-draft.flush-after-ms:20000}") long flushAfterMillis) {
+        this.draftRepository = draftRepository;
+        this.giteaService = giteaService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.flushAfter = Duration.ofMillis(flushAfterMillis);
+        this.draftSaves = Counter.builder("mission.play_draft.saves").register(meterRegistry);
+        this.flushes = Counter.builder("mission.play_draft.flushes").register(meterRegistry);
+    }
+
+    /**
+     * Elmenti a fájlokat a kadét piszkozatába, vagy (commitNow / kikapcsolt
+     * write-behind esetén) a függő piszkozattal együtt azonnal commitolja őket.
+     */
+    public void save(CadetMission cadetMission, Map<String, String> files, boolean commitNow) {
+        if (enabled && !commitNow) {
+            if (files.isEmpty()) return;
+            draftRepository.upsertFiles(cadetMission.getId(), toJson(files));
+            draftSaves.increment();
+            return;
+        }
+
+        Optional<MissionPlayDraft> draft = draftRepository.findByCadetMissionId(cadetMission.getId());
+        Map<String, String> merged = new HashMap<>(draft.map(MissionPlayDraft::getFiles).orElse(Map.of()));
+        merged.putAll(files);
+        commit(cadetMission, merged);
+        draft.ifPresent(d -> draftRepository.deleteIfUnchanged(d.getId(), d.getVersion()));
+    }
+
+    /** Azonnal commitolja a függő piszkozatot (pl. egy fájl törlése/átnevezése előtt). */
+    public void flush(CadetMission cadetMission) {
+        save(cadetMission, Map.of(), true);
+    }
+
+    /** A még nem commitolt mentett fájlok — a getPlayFiles ezeket rétegezi a repó tartalmára. */
+    public Map<String, String> pendingFiles(CadetMission cadetMission) {
+        return draftRepository.findByCadetMissionId(cadetMission.getId())
+                .map(MissionPlayDraft::getFiles)
+                .orElse(Map.of());
+    }
+
+    /**
+     * Commitolja azokat a piszkozatokat, amelyek legalább flush-after ideje piszkosak.
+     * Ha közben újabb mentés érkezett, a piszkozat megmarad, és a következő kör viszi.
+     */
+    @Scheduled(fixedDelayString = "${mission.play-draft.check-interval-ms:5000}",
+            initialDelayString = "${mission.play-draft.check-interval-ms:5000}")
+    public void flushDueDrafts() {
+        if (!enabled) return;
+
+        for (UUID draftId : draftRepository.findIdsDirtySince(Instant.now().minus(flushAfter))) {
+            try {
+                draftRepository.findWithCadetMissionById(draftId).ifPresent(draft -> {
+                    commit(draft.getCadetMission(), draft.getFiles());
+                    draftRepository.deleteIfUnchanged(draft.getId(), draft.getVersion());
+                });
+            } catch (Exception e) {
+                // A piszkozat megmarad, a következő kör újrapróbálja
+                log.error("Flushing play draft {} failed: {}", draftId, e.getMessage());
+            }
+        }
+    }
+
+    private void commit(CadetMission cadetMission, Map<String, String> files) {
+        if (files.isEmpty()) return;
+        String repoName = MissionService.extractRepoNameFromUrl(cadetMission.getRepositoryUrl());
+        // Diff-alapú: csak a ténylegesen változott fájlok kerülnek a commitba
+        giteaService.uploadFiles(giteaService.getAdminUsername(), repoName, files, COMMIT_MESSAGE, cadetMission.getCadet());
+        flushes.increment();
+    }
+
+    private String toJson(Map<String, String> files) {
+        try {
+            return objectMapper.writeValueAsString(files);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize play draft", e);
+        }
+    }
+}
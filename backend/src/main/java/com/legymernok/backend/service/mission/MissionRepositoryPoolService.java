@@ -0,0 +1,236 @@
+package com.legymernok.backend.service.mission;
+
+import com.legymernok.backend.integration.GiteaService;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionRepositoryPoolEntry;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.repository.mission.MissionRepositoryPoolRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Előre létrehozott ("meleg") kadét-repók poolja a népszerű CODING missziókhoz.
+ *
+ * A startMission Gitea-lánca (üres repó + secret + másolás + collaborator) terhelés
+ * alatt másodpercekig tart. Ha a pool be van kapcsolva (mission.warm-pool.enabled),
+ * a háttérütemező a legtöbbször indított CODING missziókhoz missziónként legfeljebb
+ * size-per-mission darab admin-owned, a kadét-másolattal már feltöltött repót tart
+ * készletben; indításkor a kadét egy ilyet kap meg átnevezéssel, és már csak a
+ * collaborator hozzáadása marad.
+ *
+ * Minden pool-repó a template HEAD commit SHA-jával van rögzítve: csak az aktuális
+ * template-verzióhoz tartozó repó osztható ki, a template változása után az elavult
+ * repókat a következő feltöltési kör törli. Metrikák: mission.warm_pool.size,
+ * mission.warm_pool.claims{outcome=hit|miss}, mission.warm_pool.provisioned,
+ * mission.warm_pool.discarded.
+ */
+@Service
+@Slf4j
+public class MissionRepositoryPoolService {
+
+    private static final String POOL_REPO_PREFIX = "pool-";
+
+    private final MissionRepositoryPoolRepository poolRepository;
+    private final MissionRepository missionRepository;
+    private final CadetMissionRepository cadetMissionRepository;
+    private final GiteaService giteaService;
+    private final TransactionTemplate claimTransaction;
+
+    private final boolean enabled;
+    private final int sizePerMission;
+    private final int maxMissions;
+    private final int maxTotal;
+    private final Duration popularityWindow;
+
+    private final Counter claimHits;
+    private final Counter claimMisses;
+    private final Counter provisioned;
+    private final Counter discarded;
+
+    public MissionRepositoryPoolService(MissionRepositoryPoolRepository poolRepository,
+                                        MissionRepository missionRepository,
+                                        CadetMissionRepository cadetMissionRepository,
+                                        GiteaService giteaService,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${mission.warm-pool.enabled:false}") boolean enabled,
+                                        @Value("${mission.warm-pool.size-per-mission:3}") int sizePerMission,
+                                        @Value("${mission.warm-pool.max-missions:10}") int maxMissions,
+                                        @Value("${mission.warm-pool.max-total:50}") int maxTotal,
+                                        @Value("${mission.warm-pool.popularity-window-days:14}") int popularityWindowDays) {
+        this.poolRepository = poolRepository;
+        this.missionRepository = missionRepository;
+        this.cadetMissionRepository = cadetMissionRepository;
+        this.giteaService = giteaService;
+        // A claim() saját, rövid tranzakciója: csak a sorzár és a törlés fut benne
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.sizePerMission = sizePerMission;
+        this.maxMissions = maxMissions;
+        this.maxTotal = maxTotal;
+        this.popularityWindow = Duration.ofDays(popularityWindowDays);
+
+        Gauge.builder("mission.warm_pool.size", poolRepository, MissionRepositoryPoolRepository::count)
+                .description("Pre-provisioned cadet repositories waiting to be claimed")
+                .register(meterRegistry);
+        this.claimHits = Counter.builder("mission.warm_pool.claims").tag("outcome", "hit").register(meterRegistry);
+        this.claimMisses = Counter.builder("mission.warm_pool.claims").tag("outcome", "miss").register(meterRegistry);
+        this.provisioned = Counter.builder("mission.warm_pool.provisioned").register(meterRegistry);
+        this.discarded = Counter.builder("mission.warm_pool.discarded").register(meterRegistry);
+    }
+
+    /**
+     * Kiad egy, a misszió aktuális template-verziójához tartozó pool-repót a
+     * kadétnak: átnevezi targetRepoName-re. A Gitea-hívások (HEAD SHA, átnevezés)
+     * tranzakción kívül futnak; csak a pool-bejegyzés zárolása és törlése kap saját,
+     * rövid (REQUIRES_NEW) tranzakciót, így a sorzár nem vár a Giteára. A törlés az
+     * átnevezés előtt véglegessé válik: ha az átnevezés elbukik, a repót itt töröljük,
+     * ha pedig a startMission bukik el később, a (már átnevezett) repót az ottani
+     * árva-repó takarítás törli.
+     *
+     * @return Az átnevezett repó clone URL-je, vagy üres, ha nincs kiadható
+     *         pool-repó (ilyenkor a hívó a szokásos módon hozza létre a repót).
+     */
+    public Optional<String> claim(UUID missionId, String sourceRepoName, String targetRepoName) {
+        if (!enabled) return Optional.empty();
+
+        Optional<MissionRepositoryPoolEntry> entry = giteaService.getHeadCommitSha(giteaService.getAdminUsername(), sourceRepoName)
+                .flatMap(headSha -> claimTransaction.execute(status -> takeOldestAvailable(missionId, headSha)));
+        if (entry.isEmpty()) {
+            claimMisses.increment();
+            return Optional.empty();
+        }
+
+        MissionRepositoryPoolEntry pooled = entry.get();
+        try {
+            String cloneUrl = giteaService.renameAdminRepository(pooled.getRepoName(), targetRepoName);
+            claimHits.increment();
+            log.info("Claimed pooled repository '{}' as '{}' for mission {}", pooled.getRepoName(), targetRepoName, missionId);
+            return Optional.of(cloneUrl);
+        } catch (Exception e) {
+            log.warn("Claiming pooled repository '{}' failed, falling back to regular provisioning. Error: {}",
+                    pooled.getRepoName(), e.getMessage());
+            deleteRepositoryQuietly(pooled.getRepoName());
+            claimMisses.increment();
+            return Optional.empty();
+        }
+    }
+
+    private Optional<MissionRepositoryPoolEntry> takeOldestAvailable(UUID missionId, String headSha) {
+        Optional<MissionRepositoryPoolEntry> entry = poolRepository.lockOldestAvailable(missionId, headSha);
+        entry.ifPresent(pooled -> {
+            poolRepository.delete(pooled);
+            poolRepository.flush();
+        });
+        return entry;
+    }
+
+    /**
+     * Feltölti a poolt a legnépszerűbb CODING missziókhoz, és közben eltakarítja az
+     * elavult (régebbi template-verzióhoz tartozó) pool-repókat.
+     */
+    @Scheduled(fixedDelayString = "${mission.warm-pool.refill-interval-ms:60000}",
+            initialDelayString = "${mission.warm-pool.initial-delay-ms:30000}")
+    public void refill() {
+        if (!enabled) return;
+
+        List<UUID> popularMissionIds = cadetMissionRepository.findMostStartedMissionIds(
+                MissionType.CODING, Instant.now().minus(popularityWindow), PageRequest.of(0, maxMissions));
+        long budget = maxTotal - poolRepository.count();
+
+        for (Mission mission : missionRepository.findAllById(popularMissionIds)) {
+            try {
+                budget -= refillMission(mission, budget);
+            } catch (Exception e) {
+                log.error("Warm pool refill failed for mission {}: {}", mission.getId(), e.getMessage());
+            }
+        }
+    }
+
+    // Visszaadja, hány új pool-repó jött létre.
+    private int refillMission(Mission mission, long budget) {
+        String sourceRepoName = MissionService.extractRepoNameFromUrl(mission.getTemplateRepositoryUrl());
+        if (sourceRepoName == null) return 0;
+
+        Optional<String> headSha = giteaService.getHeadCommitSha(giteaService.getAdminUsername(), sourceRepoName);
+        if (headSha.isEmpty()) return 0;
+
+        for (MissionRepositoryPoolEntry stale : poolRepository.findAllByMissionIdAndTemplateShaNot(mission.getId(), headSha.get())) {
+            discard(stale);
+        }
+
+        long missing = Math.min(sizePerMission - poolRepository.countByMissionIdAndTemplateSha(mission.getId(), headSha.get()), budget);
+        int created = 0;
+        for (int i = 0; i < missing; i++) {
+            provision(mission, sourceRepoName, headSha.get());
+            created++;
+        }
+        if (created > 0) {
+            log.info("Warm pool: provisioned {} repositories for mission {}", created, mission.getId());
+        }
+        return created;
+    }
+
+    private void provision(Mission mission, String sourceRepoName, String templateSha) {
+        String poolRepoName = POOL_REPO_PREFIX + mission.getId() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String cloneUrl = giteaService.createEmptyRepository(poolRepoName, true);
+        try {
+            giteaService.copyMissionRepositoryForCadet(giteaService.getAdminUsername(), sourceRepoName, poolRepoName,
+                    mission.getId().toString());
+            poolRepository.save(MissionRepositoryPoolEntry.builder()
+                    .mission(mission)
+                    .repoName(poolRepoName)
+                    .cloneUrl(cloneUrl)
+                    .templateSha(templateSha)
+                    .build());
+            provisioned.increment();
+        } catch (RuntimeException e) {
+            deleteRepositoryQuietly(poolRepoName);
+            throw e;
+        }
+    }
+
+    /**
+     * Törli egy misszió összes pool-repóját (Gitea + DB) — misszió törlésekor
+     * hívandó, különben a pool-repók árván maradnának a Giteában.
+     */
+    @Transactional
+    public void discardPool(UUID missionId) {
+        for (MissionRepositoryPoolEntry entry : poolRepository.findAllByMissionId(missionId)) {
+            discard(entry);
+        }
+    }
+
+    private void discard(MissionRepositoryPoolEntry entry) {
+        deleteRepositoryQuietly(entry.getRepoName());
+        poolRepository.delete(entry);
+        discarded.increment();
+    }
+
+    private void deleteRepositoryQuietly(String repoName) {
+        try {
+            giteaService.deleteAdminRepository(repoName);
+        } catch (Exception e) {
+            log.error("Failed to delete pool repository '{}'. Manual cleanup needed. Error: {}", repoName, e.getMessage());
+        }
+    }
+}
@@ -29,7 +29,13 @@ import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
 import com.legymernok.backend.repository.quiz.QuizSessionRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import com.legymernok.backend.service.quiz.QuizDefinitionCache;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
 import com.legymernok.backend.service.streak.StreakService;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import lombok.RequiredArgsConstructor;
@@ -37,12 +43,14 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -66,6 +74,11 @@ public class MissionService {
     private final FillInBlankBlankRepository fillInBlankBlankRepository;
     private final FillInBlankDefinitionRepository fillInBlankDefinitionRepository;
     private final MissionGroupRepository missionGroupRepository;
+    private final MissionRepositoryPoolService missionRepositoryPoolService;
+    private final MissionPlayDraftService missionPlayDraftService;
+    private final QuizDefinitionCache quizDefinitionCache;
+    private final CadetProgressService cadetProgressService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${gitea.template.js.owner}")
     private String jsTemplateRepoOwner;
@@ -132,6 +145,7 @@ public class MissionService {
             Mission savedMission = missionRepository.save(mission);
             log.info("New {} mission '{}' created by user '{}'.",
                     request.getMissionType(), savedMission.getName(), currentUser.getUsername());
+            publishStarSystemChanged(starSystem.getId());
             return mapToResponse(savedMission);
         }
 
@@ -164,6 +178,7 @@ public class MissionService {
         log.info("New mission '{}' created by user '{}' with repo '{}'.",
                 savedMission.getName(), currentUser.getUsername(), savedMission.getTemplateRepositoryUrl());
 
+        publishStarSystemChanged(starSystem.getId());
         return mapToResponse(savedMission);
     }
 
@@ -191,6 +206,8 @@ public class MissionService {
         if (request.getFiles() != null && !request.getFiles().isEmpty()) {
             String commitMsg = "Forge Update - " + OffsetDateTime.now().toString();
             giteaService.uploadFiles(repoOwner, repoName, request.getFiles(), commitMsg, currentUser);
+            giteaService.evictTemplateSnapshots(repoOwner, repoName);
+            quizDefinitionCache.evict(mission.getId());
         } else {
             log.warn("Mission '{}' content saved without any files. Mission ID: {}", mission.getName(), mission.getId());
         }
@@ -203,6 +220,7 @@ public class MissionService {
         log.info("Mission '{}' (ID: {}) content saved by user '{}'. Status set to PENDING.",
                 mission.getName(), mission.getId(), currentUser.getUsername());
 
+        publishStarSystemChanged(mission.getStarSystem().getId());
         return mapToResponse(updatedMission);
     }
 
@@ -263,6 +281,19 @@ public class MissionService {
         }
     }
 
+    /**
+     * Törli a kadét (esetleg félkész) munkarepóját egy misszióhoz, ha létezik —
+     * egy megszakadt aszinkron indítás folytatása előtt (MissionStartService).
+     */
+    public void deleteCadetRepositoryQuietly(Cadet cadet, Mission mission) {
+        String repoName = cadetRepositoryName(cadet, mission);
+        try {
+            giteaService.deleteAdminRepository(repoName);
+        } catch (Exception e) {
+            log.error("Failed to delete leftover cadet repo '{}'. Error: {}", repoName, e.getMessage());
+        }
+    }
+
     /**
      * Új (üres) fájlt hoz létre egy misszió saját (template) repójában —
      * admin/tulajdonos állíthatja elő előre a fájlstruktúrát, mielőtt egy
@@ -280,6 +311,8 @@ public class MissionService {
         String repoName = mission.getId().toString();
 
         giteaService.uploadFile(repoOwner, repoName, path, "", currentUser);
+        giteaService.evictTemplateSnapshots(repoOwner, repoName);
+        quizDefinitionCache.evict(mission.getId());
         log.info("File '{}' created in mission '{}' (ID: {}) template repo by '{}'.",
                 path, mission.getName(), mission.getId(), currentUser.getUsername());
         return mapToResponse(mission);
@@ -296,6 +329,8 @@ public class MissionService {
         String repoOwner = giteaService.getAdminUsername();
         String repoName = mission.getId().toString();
         giteaService.deleteFile(repoOwner, repoName, path, currentUser);
+        giteaService.evictTemplateSnapshots(repoOwner, repoName);
+        quizDefinitionCache.evict(mission.getId());
         log.info("File '{}' deleted from mission '{}' (ID: {}) template repo by '{}'.",
                 path, mission.getName(), mission.getId(), currentUser.getUsername());
     }
@@ -311,6 +346,8 @@ public class MissionService {
         String repoOwner = giteaService.getAdminUsername();
         String repoName = mission.getId().toString();
         giteaService.renameFile(repoOwner, repoName, oldPath, newPath, currentUser);
+        giteaService.evictTemplateSnapshots(repoOwner, repoName);
+        quizDefinitionCache.evict(mission.getId());
         log.info("File '{}' renamed to '{}' in mission '{}' (ID: {}) template repo by '{}'.",
                 oldPath, newPath, mission.getName(), mission.getId(), currentUser.getUsername());
     }
@@ -344,13 +381,20 @@ public class MissionService {
         String repoOwner = giteaService.getAdminUsername();
         String repoName = extractRepoNameFromUrl(cadetMission.getRepositoryUrl());
 
+        // A még nem commitolt (write-behind) mentések felülírják a repó tartalmát
+        Map<String, String> files = new HashMap<>(giteaService.getRepositorySnapshot(repoOwner, repoName));
+        files.putAll(missionPlayDraftService.pendingFiles(cadetMission));
+        return rootLevelFiles(files);
+    }
+
+    // A Monaco-szerkesztők (Forge és player) eddig is csak a repó gyökerében
+    // lévő fájlokat kapták meg — a pillanatkép (getRepositorySnapshot) a teljes
+    // fát adja egyetlen hívással, ebből szűrjük vissza ugyanezt a nézetet.
+    private static Map<String, String> rootLevelFiles(Map<String, String> snapshot) {
         Map<String, String> filesContent = new HashMap<>();
-        for (GiteaService.GiteaContent content : giteaService.getRepoContents(repoOwner, repoName, "")) {
-            if ("file".equals(content.getType())) {
-                String fileContent = giteaService.getFileContent(repoOwner, repoName, content.getPath());
-                if (fileContent != null) filesContent.put(content.getName(), fileContent);
-            }
-        }
+        snapshot.forEach((path, content) -> {
+            if (!path.contains("/")) filesContent.put(path, content);
+        });
         return filesContent;
     }
 
@@ -370,15 +414,20 @@ public class MissionService {
         }
     }
 
-    /** Elmenti (batch) a kadét saját munkarepójának fájltartalmait. */
+    /**
+     * Elmenti a kadét saját munkarepójának fájltartalmait. Alapból a write-behind
+     * piszkozatba kerülnek (MissionPlayDraftService), commit=true esetén — explicit
+     * mentés/beküldés, ami a CI-t is elindítja — azonnal egy Gitea commitba.
+     */
     @Transactional
-    public void savePlayFiles(UUID missionId, Map<String, String> files) {
+    public void savePlayFiles(UUID missionId, Map<String, String> files, boolean commit) {
         Cadet currentUser = getCurrentAuthenticatedUser();
         CadetMission cadetMission = requirePlayRepository(missionId, currentUser);
-        String repoOwner = giteaService.getAdminUsername();
-        String repoName = extractRepoNameFromUrl(cadetMission.getRepositoryUrl());
 
-        if (files == null || files.isEmpty()) return;
+        if (files == null || files.isEmpty()) {
+            if (commit) missionPlayDraftService.flush(cadetMission);
+            return;
+        }
         // Az írásvédett fájlokat (tesztek) kiszűrjük a batch-ből — a frontend
         // mindig a teljes, aktuálisan nyitott fájlkészletet küldi (a
         // változatlan tesztfájl tartalmát is), ezért ez nem hibaeset, csendben
@@ -387,8 +436,8 @@ public class MissionService {
         files.forEach((path, content) -> {
             if (!isProtectedCadetFile(path)) mutableFiles.put(path, content);
         });
-        if (mutableFiles.isEmpty()) return;
-        giteaService.uploadFiles(repoOwner, repoName, mutableFiles, "Save from mission player", currentUser);
+        if (mutableFiles.isEmpty() && !commit) return;
+        missionPlayDraftService.save(cadetMission, mutableFiles, commit);
     }
 
     /** Új (üres) fájlt hoz létre a kadét saját munkarepójában. */
@@ -410,6 +459,8 @@ public class MissionService {
         requireMutablePlayFile(path);
         String repoOwner = giteaService.getAdminUsername();
         String repoName = extractRepoNameFromUrl(cadetMission.getRepositoryUrl());
+        // A függő piszkozat előbb menjen ki, különben a következő flush visszaírná a törölt fájlt
+        missionPlayDraftService.flush(cadetMission);
         giteaService.deleteFile(repoOwner, repoName, path, currentUser);
     }
 
@@ -422,6 +473,7 @@ public class MissionService {
         requireMutablePlayFile(newPath);
         String repoOwner = giteaService.getAdminUsername();
         String repoName = extractRepoNameFromUrl(cadetMission.getRepositoryUrl());
+        missionPlayDraftService.flush(cadetMission);
         giteaService.renameFile(repoOwner, repoName, oldPath, newPath, currentUser);
     }
 
@@ -451,18 +503,7 @@ public class MissionService {
         String repoName = mission.getId().toString(); // A repó neve a Mission UUID-ja
         String repoOwner = giteaService.getAdminUsername(); // Az admin a tulajdonos
 
-        Map<String, String> filesContent = new HashMap<>();
-        List<GiteaService.GiteaContent> contents = giteaService.getRepoContents(repoOwner, repoName, ""); // Gyökér mappa
-
-        for (GiteaService.GiteaContent content : contents) {
-            // Csak fájlokat olvasunk ki
-            if ("file".equals(content.getType())) {
-                String fileContent = giteaService.getFileContent(repoOwner, repoName, content.getPath());
-                if (fileContent != null) {
-                    filesContent.put(content.getName(), fileContent);
-                }
-            }
-        }
+        Map<String, String> filesContent = rootLevelFiles(giteaService.getRepositorySnapshot(repoOwner, repoName));
 
         // QUIZ típusú missziónál a quiz.json helyes válaszait le kell szűrni,
         // ha a kérelmező nem az owner és nem admin – különben a megoldókulcs kiszivárog.
@@ -472,10 +513,15 @@ public class MissionService {
             String quizJson = filesContent.get("quiz.json");
             if (quizJson != null) {
                 try {
-                    QuizDefinition quizDef = objectMapper.readValue(quizJson, QuizDefinition.class);
-                    quizDef.getQuestions().forEach(q ->
-                            q.getOptions().forEach(o -> o.setIsCorrect(null)));
-                    filesContent.put("quiz.json", objectMapper.writeValueAsString(quizDef));
+                    // A kvíz aktuális változatához a lecsupaszított JSON már kész van a cache-ben
+                    String publicJson = quizDefinitionCache.findCached(missionId, quizJson)
+                            .map(QuizDefinitionCache.CachedQuiz::publicJson)
+                            .orElse(null);
+                    if (publicJson == null) {
+                        QuizDefinition quizDef = objectMapper.readValue(quizJson, QuizDefinition.class);
+                        publicJson = objectMapper.writeValueAsString(QuizDefinitionCache.stripAnswers(quizDef));
+                    }
+                    filesContent.put("quiz.json", publicJson);
                 } catch (Exception e) {
                     log.error("Failed to strip answers from quiz.json for mission {}", missionId, e);
                 }
@@ -532,6 +578,7 @@ public class MissionService {
         }
 
         log.info("Admin mission '{}' (ID: {}) created by '{}'.", saved.getName(), saved.getId(), currentUser.getUsername());
+        publishStarSystemChanged(starSystem.getId());
         return mapToResponse(saved);
     }
 
@@ -573,6 +620,7 @@ public class MissionService {
         // hanem a Mission Forge majd közvetlenül hívja a GiteaService-t, ha kell.
         // Ha mégis, akkor a GiteaService.updateFile() metódusát kell használni.
 
+        UUID previousStarSystemId = missionToUpdate.getStarSystem().getId();
         missionToUpdate.setStarSystem(newStarSystem);
         missionToUpdate.setName(request.getName());
         missionToUpdate.setDescriptionMarkdown(request.getDescriptionMarkdown());
@@ -585,6 +633,13 @@ public class MissionService {
         missionToUpdate.setUpdatedAt(Instant.now());
 
         Mission updatedMission = missionRepository.save(missionToUpdate);
+        if (!previousStarSystemId.equals(newStarSystem.getId())) {
+            // Az elem átkerült: mindkét rendszer kadét-haladása változhat
+            cadetProgressService.refreshStarSystem(previousStarSystemId);
+            cadetProgressService.refreshStarSystem(newStarSystem.getId());
+            publishStarSystemChanged(previousStarSystemId);
+        }
+        publishStarSystemChanged(newStarSystem.getId());
         return mapToResponse(updatedMission);
     }
 
@@ -598,20 +653,63 @@ public class MissionService {
         // 2. Ellenőrzés: Már elkezdte?
         Optional<CadetMission> existing = cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), mission.getId());
         if (existing.isPresent()) {
-            log.info("User '{}' resumed mission '{}'", username, mission.getName());
-            return existing.get().getRepositoryUrl();
+            MissionStatus status = existing.get().getStatus();
+            if (status == MissionStatus.PENDING) {
+                throw new ResourceConflictException("CadetMission", "missionId", missionId, "Mission start is already in progress");
+            }
+            if (status != MissionStatus.START_FAILED) {
+                log.info("User '{}' resumed mission '{}'", username, mission.getName());
+                return existing.get().getRepositoryUrl();
+            }
+        }
+
+        // 3. User Repó Létrehozása Giteán (a mission template alapján)
+        String userRepoUrl = provisionCadetRepository(mission, cadet, step -> { });
+
+        // Mentés az adatbázisba (egy korábbi, elbukott aszinkron indítás sorát újrahasznosítjuk)
+        CadetMission cadetMission = existing.orElseGet(() -> CadetMission.builder()
+                .cadet(cadet)
+                .mission(mission)
+                .build());
+        cadetMission.setStatus(MissionStatus.IN_PROGRESS);
+        cadetMission.setRepositoryUrl(userRepoUrl);
+        cadetMission.setStartedAt(Instant.now());
+
+        try {
+            cadetMissionRepository.save(cadetMission);
+        } catch (RuntimeException e) {
+            deleteOrphanedGiteaRepository(cadetRepositoryName(cadet, mission), e);
+            throw e;
         }
+        cadetProgressService.refresh(cadet.getId(), mission.getStarSystem().getId());
+        log.info("User '{}' started mission '{}'. Repo: {}", username, mission.getName(), cadetRepositoryName(cadet, mission));
+        return userRepoUrl;
+    }
 
-        // 2b. Régebbi (a Stage 2 lusta-provisioning bevezetése előtt létrehozott)
+    /** A kadét saját munkarepójának neve: cadet-[username]-[missionId]. */
+    static String cadetRepositoryName(Cadet cadet, Mission mission) {
+        return "cadet-" + cadet.getUsername() + "-" + mission.getId().toString();
+    }
+
+    /**
+     * Létrehozza és feltölti a kadét saját (admin-owned) munkarepóját egy misszióhoz,
+     * és hozzáadja a kadétot collaboratorként. Adatbázis-tranzakciót nem igényel — a
+     * szinkron startMission és az aszinkron MissionStartService is ezt hívja.
+     * Bármely lépés hibájakor a már létrehozott repót törli (árva-repó takarítás).
+     *
+     * @param onStep Haladásjelzés az egyes Gitea-lépések előtt.
+     * @return A kadét repójának clone URL-je.
+     * @throws ExternalServiceException Ha bármely Gitea-lépés elbukik.
+     */
+    public String provisionCadetRepository(Mission mission, Cadet cadet, Consumer<MissionStartStep> onStep) {
+        // Régebbi (a Stage 2 lusta-provisioning bevezetése előtt létrehozott)
         // CODING misszióknak lehet, hogy még nincs template repójuk — enélkül
         // nem lenne mit másolni a kadét saját repójába.
         if (mission.getMissionType() == MissionType.CODING) {
             mission = ensureMissionRepository(mission);
         }
 
-        // 3. User Repó Létrehozása Giteán (a mission template alapján)
-        // A repo neve: cadet-[username]-[missionId]
-        String userRepoName = "cadet-" + cadet.getUsername() + "-" + mission.getId().toString();
+        String userRepoName = cadetRepositoryName(cadet, mission);
         String sourceMissionRepoUrl = mission.getTemplateRepositoryUrl(); // Ez az admin által birtokolt user-specifikus repó URL-je
         String sourceRepoOwner = giteaService.getAdminUsername(); // Az admin, mert övé a mission template repó
         String sourceRepoName = extractRepoNameFromUrl(sourceMissionRepoUrl); // Repó név kinyerése
@@ -620,50 +718,50 @@ public class MissionService {
             throw new ExternalServiceException("Gitea", "Could not extract repository name from mission template URL: " + sourceMissionRepoUrl);
         }
 
-        // Létrehozzuk az üres repót a usernek az admin alatt
-        String userRepoUrl;
-        try {
-            userRepoUrl = giteaService.createEmptyRepository(userRepoName, true);
-        } catch (Exception e) {
-            log.error("Gitea repository creation failed for cadet mission repo '{}'. Error: {}", userRepoName, e.getMessage());
-            throw new ExternalServiceException("Gitea", "Failed to create repository: " + e.getMessage());
+        // CODING missziónál előbb a meleg poolból próbálunk egy már feltöltött
+        // repót kiosztani (átnevezés) — ha nincs, a teljes láncot futtatjuk.
+        String userRepoUrl = null;
+        if (mission.getMissionType() == MissionType.CODING) {
+            userRepoUrl = missionRepositoryPoolService.claim(mission.getId(), sourceRepoName, userRepoName).orElse(null);
         }
 
-        try {
-            // Átmásoljuk az eredeti misszió repójának tartalmát az új user-specifikus repóba.
-            // CODING missziónál szűrt másolás kell (a referenciamegoldás sose kerüljön át,
-            // a starter.<ext> a kadét solution.<ext>-jeként) — más típusoknál (pl. QUIZ)
-            // marad a régi, teljes másolás.
-            if (mission.getMissionType() == MissionType.CODING) {
-                giteaService.copyMissionRepositoryForCadet(sourceRepoOwner, sourceRepoName, userRepoName, mission.getId().toString());
-            } else {
-                giteaService.copyRepositoryContents(sourceRepoOwner, sourceRepoName, userRepoName);
+        if (userRepoUrl == null) {
+            // Létrehozzuk az üres repót a usernek az admin alatt
+            onStep.accept(MissionStartStep.CREATING_REPOSITORY);
+            try {
+                userRepoUrl = giteaService.createEmptyRepository(userRepoName, true);
+            } catch (Exception e) {
+                log.error("Gitea repository creation failed for cadet mission repo '{}'. Error: {}", userRepoName, e.getMessage());
+                throw new ExternalServiceException("Gitea", "Failed to create repository: " + e.getMessage());
             }
 
+            onStep.accept(MissionStartStep.COPYING_TEMPLATE);
+            try {
+                // Átmásoljuk az eredeti misszió repójának tartalmát az új user-specifikus repóba.
+                // CODING missziónál szűrt másolás kell (a referenciamegoldás sose kerüljön át,
+                // a starter.<ext> a kadét solution.<ext>-jeként) — más típusoknál (pl. QUIZ)
+                // marad a régi, teljes másolás.
+                if (mission.getMissionType() == MissionType.CODING) {
+                    giteaService.copyMissionRepositoryForCadet(sourceRepoOwner, sourceRepoName, userRepoName, mission.getId().toString());
+                } else {
+                    giteaService.copyRepositoryContents(sourceRepoOwner, sourceRepoName, userRepoName);
+                }
+            } catch (Exception e) {
+                log.error("Gitea repository setup (copy) failed for '{}'. Error: {}", userRepoName, e.getMessage());
+                deleteOrphanedGiteaRepository(userRepoName, e);
+                throw new ExternalServiceException("Gitea", "Failed to set up repository: " + e.getMessage());
+            }
+        }
+
+        onStep.accept(MissionStartStep.ADDING_COLLABORATOR);
+        try {
             // User hozzáadása kollaborátorként (write joggal)
             giteaService.addCollaborator(userRepoName, cadet.getUsername(), "write");
         } catch (Exception e) {
-            log.error("Gitea repository setup (copy/collaborator) failed for '{}'. Error: {}", userRepoName, e.getMessage());
+            log.error("Gitea repository setup (collaborator) failed for '{}'. Error: {}", userRepoName, e.getMessage());
             deleteOrphanedGiteaRepository(userRepoName, e);
             throw new ExternalServiceException("Gitea", "Failed to set up repository: " + e.getMessage());
         }
-
-        // Mentés az adatbázisba
-        CadetMission cadetMission = CadetMission.builder()
-                .cadet(cadet)
-                .mission(mission)
-                .status(MissionStatus.IN_PROGRESS)
-                .repositoryUrl(userRepoUrl)
-                .startedAt(Instant.now())
-                .build();
-
-        try {
-            cadetMissionRepository.save(cadetMission);
-        } catch (RuntimeException e) {
-            deleteOrphanedGiteaRepository(userRepoName, e);
-            throw e;
-        }
-        log.info("User '{}' started mission '{}'. Repo: {}", username, mission.getName(),userRepoName);
         return userRepoUrl;
     }
 
@@ -736,6 +834,7 @@ public class MissionService {
         requireMissionEditAccess(mission, currentUser);
 
         mission.setContent(content);
+        publishStarSystemChanged(mission.getStarSystem().getId());
         return mapToResponse(missionRepository.save(mission));
     }
 
@@ -746,6 +845,7 @@ public class MissionService {
 
         mission.setVerificationStatus(newStatus);
         missionRepository.save(mission);
+        publishStarSystemChanged(mission.getStarSystem().getId());
 
         // A misszió szerzőjének (Forge-ben létrehozó kadétnak) sikeres CI-verifikáció
         // is számít aktivitásnak — lásd plans/frontend_redesign_2026.md 7.1.
@@ -778,11 +878,13 @@ public class MissionService {
 
         // 1. Gitea Repo törlése (Best Effort - ha nem sikerül, nem állítjuk meg a folyamatot, csak logolunk)
         try {
+            missionRepositoryPoolService.discardPool(id);
             // URL-ből név kinyerése: http://gitea:3000/legymernok_admin/repo-name.git -> repo-name
             // Feltételezzük, hogy a saját adminunk a tulajdonos
             String repoName = extractRepoNameFromUrl(repoUrl);
             if (repoName != null) {
                 giteaService.deleteAdminRepository(repoName);
+                giteaService.evictTemplateSnapshots(giteaService.getAdminUsername(), repoName);
             }
         } catch (Exception e) {
             System.err.println("Failed to delete Gitea repo: " + e.getMessage());
@@ -805,15 +907,26 @@ public class MissionService {
         // 3. Smart Delete: Sorszámok rendezése (hézag megszüntetése)
         missionRepository.shiftOrdersDown(starSystemId, deletedOrder);
         missionRepository.flush();
+
+        // 4. A törölt misszió kiesik a rendszer kadétjainak haladásából
+        cadetProgressService.refreshStarSystem(starSystemId);
+        publishStarSystemChanged(starSystemId);
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.FILL_IN_BLANK));
+    }
+
+    // A Star System részletes nézetének cache-e (StarSystemDetailCache) a commit után ürül
+    private void publishStarSystemChanged(UUID starSystemId) {
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(starSystemId));
     }
 
-    private boolean isAdmin() {
+    /** Admin nézet: a mapToResponse csak ekkor adja ki a templateRepositoryUrl-t. */
+    public boolean isAdmin() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null) return false;
         return auth.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
     }
 
-    private String extractRepoNameFromUrl(String url) {
+    static String extractRepoNameFromUrl(String url) {
         if (url == null || url.isEmpty()) return null;
         // Utolsó "/" utáni rész
         String lastPart = url.substring(url.lastIndexOf('/') + 1);
@@ -825,6 +938,14 @@ public class MissionService {
     }
 
     public MissionResponse mapToResponse(Mission mission) {
+        return mapToResponse(mission, mission.getOwner() != null ? mission.getOwner().getUsername() : null);
+    }
+
+    /**
+     * Mappelés előre lekérdezett tulajdonosnévvel (lista-nézetek): a lazy owner-t csak
+     * az id-ja miatt érinti, ami a proxyból inicializálás nélkül olvasható.
+     */
+    public MissionResponse mapToResponse(Mission mission, String ownerUsername) {
         String repoUrl = null;
 
         if (isAdmin()) {
@@ -843,7 +964,7 @@ public class MissionService {
                 .groupId(mission.getGroup() != null ? mission.getGroup().getId() : null)
                 .groupOrder(mission.getGroupOrder())
                 .ownerId(mission.getOwner() != null ? mission.getOwner().getId() : null)
-                .ownerUsername(mission.getOwner() != null ? mission.getOwner().getUsername() : null)
+                .ownerUsername(ownerUsername)
                 .verificationStatus(mission.getVerificationStatus())
                 .createdAt(mission.getCreatedAt())
                 .content(mission.getContent())
@@ -851,14 +972,10 @@ public class MissionService {
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 
     private boolean hasAuthority(Cadet user, String authorityName) {
-        return user.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(authority -> authority.equals(authorityName));
+        return CurrentCadet.hasAuthority(user, authorityName);
     }
 }
\ No newline at end of file
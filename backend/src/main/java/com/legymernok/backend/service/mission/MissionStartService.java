@@ -0,0 +1,240 @@
+package com.legymernok.backend.service.mission;
+
+import com.legymernok.backend.dto.mission.MissionStartJobResponse;
+import com.legymernok.backend.dto.mission.MissionStartStep;
+import com.legymernok.backend.exception.ResourceNotFoundException;
+import com.legymernok.backend.model.ConnectTable.CadetMission;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionStatus;
+import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.repository.cadet.CadetRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aszinkron misszióindítás. A szinkron startMission a teljes Gitea-láncot (repó
+ * létrehozás, másolás, collaborator) a kérés szálán, nyitott DB-tranzakcióval futtatja;
+ * itt a kérés csak egy PENDING CadetMission sort ír (ennek ID-je a job ID), a Gitea-
+ * lépések pedig egy saját, korlátos executoron futnak. A haladás a kadét saját STOMP
+ * topicjára megy: /topic/mission/{missionId}/start/{cadetId}.
+ *
+ * Idempotens: a (cadet, mission) egyedi kulcs miatt ismételt kattintásra ugyanazt a
+ * jobot kapja vissza a kadét; egy elbukott (START_FAILED) indítás újrakérhető.
+ * Újraindítás után a félbemaradt PENDING sorokat az ütemezett resumePendingStarts()
+ * veszi fel újra — a futó jobokat csak ez a példány tartja nyilván, ezért egyetlen
+ * backend-példányt feltételez.
+ */
+@Service
+@Slf4j
+public class MissionStartService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MissionService missionService;
+    private final MissionRepository missionRepository;
+    private final CadetRepository cadetRepository;
+    private final CadetMissionRepository cadetMissionRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CadetProgressService cadetProgressService;
+    private final ExecutorService executor;
+
+    // Ebben a példányban sorban álló/futó jobok és az aktuális lépésük.
+    private final Map<UUID, MissionStartStep> activeJobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MissionStartService(MissionService missionService,
+                               MissionRepository missionRepository,
+                               CadetRepository cadetRepository,
+                               CadetMissionRepository cadetMissionRepository,
+                               SimpMessagingTemplate messagingTemplate,
+                               CadetProgressService cadetProgressService,
+                               @Value("${mission.start.max-concurrency:4}") int maxConcurrency,
+                               @Value("${mission.start.queue-capacity:200}") int queueCapacity) {
+        this(missionService, missionRepository, cadetRepository, cadetMissionRepository, messagingTemplate,
+                cadetProgressService, new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), newThreadFactory()));
+    }
+
+    MissionStartService(MissionService missionService,
+                        MissionRepository missionRepository,
+                        CadetRepository cadetRepository,
+                        CadetMissionRepository cadetMissionRepository,
+                        SimpMessagingTemplate messagingTemplate,
+                        CadetProgressService cadetProgressService,
+                        ExecutorService executor) {
+        this.missionService = missionService;
+        this.missionRepository = missionRepository;
+        this.cadetRepository = cadetRepository;
+        this.cadetMissionRepository = cadetMissionRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.cadetProgressService = cadetProgressService;
+        this.executor = executor;
+    }
+
+    private static CustomizableThreadFactory newThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mission-start-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        // A félbemaradt jobok PENDING sora megmarad, újraindítás után folytatódnak.
+        executor.shutdownNow();
+    }
+
+    /**
+     * Elindítja (vagy visszaadja a már futó/kész) misszióindítást a kadétnak.
+     *
+     * @return A job állapota — PENDING esetén a haladás a STOMP topicon követhető.
+     */
+    public MissionStartJobResponse requestStart(UUID missionId, String username) {
+        Mission mission = missionRepository.findById(missionId).orElseThrow(() -> new ResourceNotFoundException("Mission", "id", missionId));
+        Cadet cadet = cadetRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+
+        CadetMission cadetMission = cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), missionId)
+                .orElse(null);
+        if (cadetMission == null) {
+            try {
+                cadetMission = cadetMissionRepository.saveAndFlush(CadetMission.builder()
+                        .cadet(cadet)
+                        .mission(mission)
+                        .status(MissionStatus.PENDING)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Párhuzamos dupla kattintás: a másik kérés már beírta a sort.
+                cadetMission = cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), missionId)
+                        .orElseThrow(() -> e);
+            }
+        } else if (cadetMission.getStatus() == MissionStatus.START_FAILED) {
+            cadetMission.setStatus(MissionStatus.PENDING);
+            cadetMission = cadetMissionRepository.save(cadetMission);
+        }
+
+        if (cadetMission.getStatus() == MissionStatus.PENDING) {
+            submit(cadetMission.getId(), false);
+        }
+        return toResponse(cadetMission, missionId, activeJobs.get(cadetMission.getId()), null);
+    }
+
+    /** A bejelentkezett kadét indítási jobjának aktuális állapota egy misszióhoz. */
+    public MissionStartJobResponse getStartJob(UUID missionId, String username) {
+        Cadet cadet = cadetRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+        CadetMission cadetMission = cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), missionId)
+                .orElseThrow(() -> new ResourceNotFoundException("CadetMission", "missionId", missionId));
+        return toResponse(cadetMission, missionId, activeJobs.get(cadetMission.getId()), null);
+    }
+
+    /**
+     * Újraütemezi a PENDING, de ebben a példányban nem futó indításokat — pl. egy
+     * újraindítás előtt félbemaradtakat, vagy amiket a tele sor miatt nem sikerült beküldeni.
+     */
+    @Scheduled(fixedDelayString = "${mission.start.resume-interval-ms:30000}",
+            initialDelayString = "${mission.start.resume-initial-delay-ms:10000}")
+    public void resumePendingStarts() {
+        for (UUID jobId : cadetMissionRepository.findIdsByStatus(MissionStatus.PENDING)) {
+            if (!activeJobs.containsKey(jobId)) {
+                log.info("Resuming interrupted mission start {}", jobId);
+                submit(jobId, true);
+            }
+        }
+    }
+
+    private void submit(UUID jobId, boolean resumed) {
+        if (activeJobs.putIfAbsent(jobId, MissionStartStep.QUEUED) != null) return;
+        try {
+            executor.execute(() -> run(jobId, resumed));
+        } catch (RejectedExecutionException e) {
+            // A sor PENDING marad — a resumePendingStarts() később újra beküldi.
+            activeJobs.remove(jobId);
+            log.warn("Mission start queue is full, job {} will be retried later", jobId);
+        }
+    }
+
+    void run(UUID jobId, boolean resumed) {
+        try {
+            CadetMission cadetMission = cadetMissionRepository.findWithCadetAndMissionById(jobId).orElse(null);
+            // Közben befejeződött (pl. egy korábbi futás), vagy a misszió törlődött.
+            if (cadetMission == null || cadetMission.getStatus() != MissionStatus.PENDING) return;
+
+            Mission mission = cadetMission.getMission();
+            Cadet cadet = cadetMission.getCadet();
+            if (resumed) {
+                // Egy félbemaradt futás részleges (pl. másolás nélküli) repót hagyhatott
+                // hátra — tiszta lappal kezdünk, különben a létrehozás ütközne.
+                missionService.deleteCadetRepositoryQuietly(cadet, mission);
+            }
+
+            try {
+                String repoUrl = missionService.provisionCadetRepository(mission, cadet, step -> publish(cadetMission, step, null));
+                cadetMission.setStatus(MissionStatus.IN_PROGRESS);
+                cadetMission.setRepositoryUrl(repoUrl);
+                cadetMission.setStartedAt(Instant.now());
+                cadetMissionRepository.save(cadetMission);
+                // Csak a sikeres indítás számít elkezdett elemnek (a PENDING / START_FAILED nem)
+                cadetProgressService.refresh(cadet.getId(), mission.getStarSystem().getId());
+                log.info("User '{}' started mission '{}' asynchronously", cadet.getUsername(), mission.getName());
+                publish(cadetMission, MissionStartStep.COMPLETED, null);
+            } catch (Exception e) {
+                log.error("Asynchronous start of mission {} for '{}' failed: {}", mission.getId(), cadet.getUsername(), e.getMessage());
+                cadetMission.setStatus(MissionStatus.START_FAILED);
+                cadetMissionRepository.save(cadetMission);
+                publish(cadetMission, MissionStartStep.FAILED, truncate(e.getMessage()));
+            }
+        } catch (Exception e) {
+            // DB-hiba: a sor PENDING marad, a resumePendingStarts() újrapróbálja.
+            log.error("Mission start job {} could not be processed: {}", jobId, e.getMessage());
+        } finally {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    private void publish(CadetMission cadetMission, MissionStartStep step, String error) {
+        UUID missionId = cadetMission.getMission().getId();
+        activeJobs.computeIfPresent(cadetMission.getId(), (id, previous) -> step);
+        try {
+            messagingTemplate.convertAndSend(
+                    "/topic/mission/" + missionId + "/start/" + cadetMission.getCadet().getId(),
+                    toResponse(cadetMission, missionId, step, error));
+        } catch (Exception e) {
+            log.warn("Could not publish mission start progress for job {}: {}", cadetMission.getId(), e.getMessage());
+        }
+    }
+
+    private static MissionStartJobResponse toResponse(CadetMission cadetMission, UUID missionId,
+                                                      MissionStartStep step, String error) {
+        return MissionStartJobResponse.builder()
+                .jobId(cadetMission.getId())
+                .missionId(missionId)
+                .status(cadetMission.getStatus())
+                .step(step)
+                .repositoryUrl(cadetMission.getRepositoryUrl())
+                .error(error)
+                .build();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) return message;
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
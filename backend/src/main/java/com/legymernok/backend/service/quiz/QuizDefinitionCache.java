@@ -0,0 +1,140 @@
+package com.legymernok.backend.service.quiz;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legymernok.backend.dto.quiz.QuizDefinition;
+import com.legymernok.backend.integration.GiteaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A QUIZ missziók quiz.json-jának feldolgozott cache-e. Egy bejegyzés a misszió és
+ * a template repó HEAD commit SHA-ja szerint tárolja a nyers JSON-t, a teljes
+ * (megoldókulcsos) QuizDefinition-t, és a kadétnak kiadható, előre lecsupaszított
+ * változatot — egy népszerű kvíz indítása így nem jár Gitea-hívással és ismételt
+ * JSON-feldolgozással.
+ *
+ * A misszió -> HEAD SHA leképezést is cache-eljük (head-check-seconds ideig), így a
+ * SHA-t sem kérdezzük le minden indításnál. A Forge-mentések (MissionService) a
+ * misszió bejegyzéseit explicit törlik; a Forge-on kívüli (pl. közvetlen Gitea)
+ * módosítás legkésőbb a SHA újraellenőrzésekor jut érvényre.
+ *
+ * A visszaadott objektumok megosztottak — a hívók nem módosíthatják őket.
+ * Metrikák: "quiz.definition" néven.
+ */
+@Component
+@Slf4j
+public class QuizDefinitionCache {
+
+    private static final String QUIZ_FILE = "quiz.json";
+
+    /**
+     * Egy quiz.json adott commitbeli tartalma.
+     * @param json             A nyers quiz.json (ez kerül a QuizSession pillanatképbe).
+     * @param definition       A teljes definíció, isCorrect mezőkkel.
+     * @param publicDefinition A megoldások nélküli (isMulti-val kiegészített) változat.
+     * @param publicJson       A publicDefinition JSON-ként (Forge fájlnézet nem-owner esetén).
+     */
+    public record CachedQuiz(String commitSha, String json, QuizDefinition definition,
+                             QuizDefinition publicDefinition, String publicJson) {
+    }
+
+    private record Key(UUID missionId, String commitSha) {
+    }
+
+    private final GiteaService giteaService;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, CachedQuiz> definitions;
+    private final Cache<UUID, String> headShas;
+
+    public QuizDefinitionCache(GiteaService giteaService,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${quiz.definition-cache.max-size:1000}") long maxSize,
+                               @Value("${quiz.definition-cache.head-check-seconds:60}") long headCheckSeconds) {
+        this.giteaService = giteaService;
+        this.objectMapper = objectMapper;
+        this.definitions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.headShas = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(headCheckSeconds))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, definitions, "quiz.definition");
+    }
+
+    /**
+     * A misszió aktuális quiz.json-ja feldolgozva.
+     * @return Üres, ha a repóban nincs quiz.json.
+     */
+    public Optional<CachedQuiz> get(UUID missionId) {
+        String owner = giteaService.getAdminUsername();
+        String repoName = missionId.toString(); // A repó neve a misszió UUID-je
+        String sha = headShas.get(missionId, id -> giteaService.getHeadCommitSha(owner, repoName).orElse(null));
+        if (sha == null) {
+            // Üres repó vagy sikertelen SHA-lekérdezés: cache nélkül, a main ágról
+            return Optional.ofNullable(load(owner, repoName, null));
+        }
+        return Optional.ofNullable(definitions.get(new Key(missionId, sha), key -> load(owner, repoName, sha)));
+    }
+
+    /**
+     * A már cache-elt bejegyzés, ha a tartalma pontosan a megadott JSON — Gitea-hívás
+     * és feldolgozás nélkül (pl. a Forge fájlnézet vagy egy folytatott kvíz pillanatképe).
+     */
+    public Optional<CachedQuiz> findCached(UUID missionId, String json) {
+        String sha = headShas.getIfPresent(missionId);
+        if (sha == null || json == null) return Optional.empty();
+        return Optional.ofNullable(definitions.getIfPresent(new Key(missionId, sha)))
+                .filter(cached -> cached.json().equals(json));
+    }
+
+    /** Eldobja a misszió összes bejegyzését (Forge-mentés után). */
+    public void evict(UUID missionId) {
+        headShas.invalidate(missionId);
+        definitions.asMap().keySet().removeIf(key -> key.missionId().equals(missionId));
+    }
+
+    /**
+     * Eltávolítja a helyes válaszokat (isCorrect), előtte kiszámolja az isMulti-t.
+     * A kapott objektumot módosítja és adja vissza.
+     */
+    public static QuizDefinition stripAnswers(QuizDefinition quiz) {
+        quiz.getQuestions().forEach(q -> {
+            // isMulti kiszámítása isCorrect törlése ELŐTT
+            long correctCount = q.getOptions().stream()
+                    .filter(o -> Boolean.TRUE.equals(o.getIsCorrect()))
+                    .count();
+            q.setIsMulti(correctCount > 1);
+            // isCorrect törlése — kliens nem láthatja a helyes válaszokat
+            q.getOptions().forEach(o -> o.setIsCorrect(null));
+        });
+        return quiz;
+    }
+
+    private CachedQuiz load(String owner, String repoName, String commitSha) {
+        String json = giteaService.getFileContent(owner, repoName, QUIZ_FILE, commitSha);
+        if (json == null) return null;
+        try {
+            QuizDefinition definition = objectMapper.readValue(json, QuizDefinition.class);
+            // Külön példány, hogy a lecsupaszítás ne érintse a teljes definíciót
+            QuizDefinition publicDefinition = stripAnswers(objectMapper.readValue(json, QuizDefinition.class));
+            log.debug("Parsed {} of {}/{}@{}", QUIZ_FILE, owner, repoName, commitSha);
+            return new CachedQuiz(commitSha, json, definition, publicDefinition,
+                    objectMapper.writeValueAsString(publicDefinition));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid " + QUIZ_FILE + " in repository " + owner + "/" + repoName, e);
+        }
+    }
+}
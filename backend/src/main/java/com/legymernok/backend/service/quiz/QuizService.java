@@ -5,15 +5,17 @@ import com.legymernok.backend.dto.quiz.QuizDefinition;
 import com.legymernok.backend.exception.ResourceConflictException;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.exception.UnauthorizedAccessException;
-import com.legymernok.backend.integration.GiteaService;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.mission.*;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
 import com.legymernok.backend.repository.quiz.QuizSessionRepository;
+import com.legymernok.backend.security.CurrentCadet;
+import com.legymernok.backend.service.social.ActivityRecordedEvent;
 import com.legymernok.backend.service.streak.StreakService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,12 +29,13 @@ import java.util.*;
 @RequiredArgsConstructor
 @Slf4j
 public class QuizService {
-    private final GiteaService giteaService;
     private final QuizSessionRepository quizSessionRepository;
     private final MissionRepository missionRepository;
     private final MissionResultRepository missionResultRepository;
     private final ObjectMapper objectMapper; // JSON deszerializáláshoz
     private final StreakService streakService;
+    private final QuizDefinitionCache quizDefinitionCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public QuizDefinition startQuiz(UUID missionId, Cadet cadet) throws Exception {
@@ -48,43 +51,37 @@ public class QuizService {
         // 2. Megnézzük, van-e már aktív munkamenet
         Optional<QuizSession> existingSession = quizSessionRepository.findByMissionIdAndCadetId(missionId, cadet.getId());
 
-        QuizDefinition fullQuiz;
-        QuizSession session;
-
         if (existingSession.isPresent()) {
-            session = existingSession.get();
-            fullQuiz = objectMapper.readValue(session.getQuizSnapshot(), QuizDefinition.class);
+            String snapshot = existingSession.get().getQuizSnapshot();
             log.info("Resuming existing quiz session for mission {}", missionId);
-        } else {
-            // 3. Letöltjük a kvízt a Giteából
-            String owner = giteaService.getAdminUsername();
-            String repoName = mission.getId().toString(); // A repó neve a misszió UUID-je
-            String jsonContent = giteaService.getFileContent(owner, repoName, "quiz.json");
-
-            if (jsonContent == null) {
-                throw new ResourceNotFoundException("QuizDefinition", "missionId", missionId);
-            }
+            // Ha a pillanatkép a kvíz aktuális változata, a kész publikus változatot adjuk vissza
+            Optional<QuizDefinitionCache.CachedQuiz> cached = quizDefinitionCache.findCached(missionId, snapshot);
+            if (cached.isPresent()) return cached.get().publicDefinition();
+            // Biztonsági szűrés: megoldások eltávolítása a válaszból
+            return QuizDefinitionCache.stripAnswers(objectMapper.readValue(snapshot, QuizDefinition.class));
+        }
 
-            fullQuiz = objectMapper.readValue(jsonContent, QuizDefinition.class);
+        // 3. A kvíz a cache-ből (misszió + template HEAD SHA szerint), csak miss esetén a Giteából
+        QuizDefinitionCache.CachedQuiz quiz = quizDefinitionCache.get(missionId)
+                .orElseThrow(() -> new ResourceNotFoundException("QuizDefinition", "missionId", missionId));
 
-            // 4. Munkamenet létrehozása
-            Instant now = Instant.now();
-            int timeLimit = fullQuiz.getConfig().getTimeLimitSeconds();
+        // 4. Munkamenet létrehozása
+        Instant now = Instant.now();
+        int timeLimit = quiz.definition().getConfig().getTimeLimitSeconds();
 
-            session = QuizSession.builder()
-                    .mission(mission)
-                    .cadet(cadet)
-                    .startTime(now)
-                    .endTimeLimit(now.plus(Duration.ofSeconds(timeLimit)))
-                    .quizSnapshot(jsonContent)
-                    .build();
+        QuizSession session = QuizSession.builder()
+                .mission(mission)
+                .cadet(cadet)
+                .startTime(now)
+                .endTimeLimit(now.plus(Duration.ofSeconds(timeLimit)))
+                .quizSnapshot(quiz.json())
+                .build();
 
-            quizSessionRepository.save(session);
-            log.info("Started new quiz session for mission {}", missionId);
-        }
+        quizSessionRepository.save(session);
+        log.info("Started new quiz session for mission {}", missionId);
 
-        // 5. Biztonsági szűrés: megoldások eltávolítása a válaszból
-        return stripAnswers(fullQuiz);
+        // 5. A megoldások nélküli, előre elkészített változat
+        return quiz.publicDefinition();
     }
 
     @Transactional
@@ -118,7 +115,13 @@ public class QuizService {
 
         boolean isLate = Instant.now().isAfter(session.getEndTimeLimit());
 
-        QuizDefinition definition = objectMapper.readValue(session.getQuizSnapshot(), QuizDefinition.class);
+        // A kvíz aktuális változatánál a cache-elt (megoldókulcsos) definíció, különben a pillanatkép
+        QuizDefinition definition = quizDefinitionCache.findCached(missionId, session.getQuizSnapshot())
+                .map(QuizDefinitionCache.CachedQuiz::definition)
+                .orElse(null);
+        if (definition == null) {
+            definition = objectMapper.readValue(session.getQuizSnapshot(), QuizDefinition.class);
+        }
         double totalScore = 0;
         double maxPossibleScore = 0;
 
@@ -164,6 +167,8 @@ public class QuizService {
         missionResultRepository.save(result);
         quizSessionRepository.delete(session);
         streakService.recordActivity(cadet.getId());
+        eventPublisher.publishEvent(new ActivityRecordedEvent("QUIZ", result.getId(), cadet.getId(),
+                session.getMission().getId(), result.getCompletedAt()));
 
         return result;
     }
@@ -174,8 +179,7 @@ public class QuizService {
                 .orElseThrow(() -> new ResourceNotFoundException("Mission", "id", missionId));
 
         boolean isOwner = mission.getOwner().getId().equals(cadet.getId());
-        boolean canEditAny = cadet.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("mission:edit_any"));
+        boolean canEditAny = CurrentCadet.hasAuthority(cadet, "mission:edit_any");
 
         if (!isOwner && !canEditAny) {
             throw new UnauthorizedAccessException("Nincs jogosultságod törölni más misszió sessionjeit.");
@@ -210,17 +214,4 @@ public class QuizService {
             throw new RuntimeException("Failed to generate submission hash", e);
         }
     }
-
-    private QuizDefinition stripAnswers(QuizDefinition fullQuiz) {
-        fullQuiz.getQuestions().forEach(q -> {
-            // isMulti kiszámítása isCorrect törlése ELŐTT
-            long correctCount = q.getOptions().stream()
-                    .filter(o -> Boolean.TRUE.equals(o.getIsCorrect()))
-                    .count();
-            q.setIsMulti(correctCount > 1);
-            // isCorrect törlése — kliens nem láthatja a helyes válaszokat
-            q.getOptions().forEach(o -> o.setIsCorrect(null));
-        });
-        return fullQuiz;
-    }
 }
@@ -11,8 +11,10 @@ import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.repository.auth.PermissionRepository;
 import com.legymernok.backend.repository.auth.RoleRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
+import com.legymernok.backend.security.PrincipalChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +31,7 @@ public class RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final CadetRepository cadetRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public RoleResponse createRole(CreateRoleRequest request) {
@@ -85,6 +88,8 @@ public class RoleService {
 
         Role updatedRole = roleRepository.save(role);
         log.info("Updated Role: {}", updatedRole);
+        // A szerepkör minden birtokosának jogai változhattak (AuthPrincipalCache)
+        eventPublisher.publishEvent(PrincipalChangedEvent.allPrincipals());
         return mapRoleToResponse(updatedRole);
     }
 
@@ -106,6 +111,7 @@ public class RoleService {
         // 3. Most már biztonságosan törölhetjük a szerepkört
         roleRepository.delete(role);
         log.info("Deleted Role: {}", role);
+        eventPublisher.publishEvent(PrincipalChangedEvent.allPrincipals());
     }
 
     @Transactional(readOnly = true)
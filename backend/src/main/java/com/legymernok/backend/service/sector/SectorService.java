@@ -10,8 +10,12 @@ import com.legymernok.backend.model.sector.Sector;
 import com.legymernok.backend.model.starsystem.StarSystem;
 import com.legymernok.backend.repository.sector.SectorRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +36,7 @@ public class SectorService {
 
     private final SectorRepository sectorRepository;
     private final StarSystemRepository starSystemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public SectorResponse createSector(CreateSectorRequest request) {
@@ -50,6 +55,7 @@ public class SectorService {
 
         Sector saved = sectorRepository.save(sector);
         log.info("Sector created: {}", saved.getName());
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.SECTOR));
         return mapToResponse(saved);
     }
 
@@ -79,6 +85,9 @@ public class SectorService {
         sector.setDescription(request.getDescription());
         sector.setIconUrl(request.getIconUrl());
 
+        // A szektor neve minden hozzá tartozó Star System részletes nézetében szerepel
+        eventPublisher.publishEvent(StarSystemContentChangedEvent.allSystems());
+        publishSectorAndStarSystemsChanged();
         return mapToResponse(sectorRepository.save(sector));
     }
 
@@ -88,6 +97,8 @@ public class SectorService {
         // A hozzá tartozó Star System-ek NEM törlődnek, a DB FK ON DELETE SET
         // NULL gondoskodik a "Besorolatlan" állapotba kerülésükről.
         sectorRepository.delete(sector);
+        eventPublisher.publishEvent(StarSystemContentChangedEvent.allSystems());
+        publishSectorAndStarSystemsChanged();
     }
 
     @Transactional(readOnly = true)
@@ -108,6 +119,7 @@ public class SectorService {
         target.setOrderIndex(tmp);
         sectorRepository.save(sector);
         sectorRepository.save(target);
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.SECTOR));
 
         return ReorderResponse.builder()
                 .updated(List.of(
@@ -117,6 +129,12 @@ public class SectorService {
                 .build();
     }
 
+    // A Star System listák a szektor nevét is tartalmazzák (ConditionalGet verziók)
+    private void publishSectorAndStarSystemsChanged() {
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.SECTOR));
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
+    }
+
     private Sector getSectorOrThrow(UUID id) {
         return sectorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sector", "id", id));
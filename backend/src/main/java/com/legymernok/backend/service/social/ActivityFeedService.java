@@ -1,108 +1,96 @@
 package com.legymernok.backend.service.social;
 
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
 import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
-import com.legymernok.backend.exception.ResourceNotFoundException;
+import com.legymernok.backend.dto.social.ActivityFeedPageResponse;
 import com.legymernok.backend.model.cadet.Cadet;
-import com.legymernok.backend.model.fillinblank.FillInBlankAttempt;
-import com.legymernok.backend.model.mission.MissionGroupStepCompletion;
-import com.legymernok.backend.model.mission.MissionResult;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.fillinblank.FillInBlankAttemptRepository;
-import com.legymernok.backend.repository.mission.MissionGroupStepCompletionRepository;
-import com.legymernok.backend.repository.mission.MissionResultRepository;
-import com.legymernok.backend.repository.social.FollowRepository;
+import com.legymernok.backend.repository.social.ActivityFeedRepository;
+import com.legymernok.backend.security.CurrentCadet;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * A követett kadétok legutóbbi teljesítéseinek összefésült listája — terv 5.2/7.2.
- * Három forrás-tábla (group step, fill-in-blank, quiz) egyszerű Java-oldali
- * összefésülésével, nem natív SQL UNION-nal.
+ * A követett kadétok teljesítéseinek időrendi feed-je — terv 5.2/7.2.
+ * A három forrás-tábla (group step, fill-in-blank, quiz) összefésülése és a
+ * nevek feloldása egyetlen SQL UNION ALL lekérdezés (ActivityFeedRepository);
+ * a lapozás keyset alapú, a kurzor az előző lap utolsó eleme. Bekapcsolt
+ * fan-out-on-write inbox esetén (ActivityInboxService) elsődlegesen abból olvas.
  */
 @Service
 @RequiredArgsConstructor
 public class ActivityFeedService {
 
-    private static final int FEED_SIZE = 20;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
 
-    private final FollowRepository followRepository;
     private final CadetRepository cadetRepository;
-    private final MissionGroupStepCompletionRepository stepCompletionRepository;
-    private final FillInBlankAttemptRepository fillInBlankAttemptRepository;
-    private final MissionResultRepository missionResultRepository;
+    private final ActivityFeedRepository activityFeedRepository;
+    private final ActivityInboxService activityInboxService;
 
+    /**
+     * @param cursor Az előző lap nextCursor-a, vagy null az első laphoz.
+     * @param size A lap mérete (1..50 közé szorítva).
+     */
     @Transactional(readOnly = true)
-    public List<ActivityFeedItemResponse> getActivityFeed() {
+    public ActivityFeedPageResponse getActivityFeed(ActivityFeedCursor cursor, int size) {
         Cadet current = getCurrentAuthenticatedUser();
-        List<UUID> followeeIds = followRepository.findAllByFollower_Id(current.getId()).stream()
-                .map(f -> f.getFollowee().getId())
-                .collect(Collectors.toList());
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ActivityFeedCursor after = cursor != null ? cursor : ActivityFeedCursor.START;
 
-        if (followeeIds.isEmpty()) {
-            return List.of();
-        }
-
-        Stream<ActivityFeedItemResponse> groupSteps = stepCompletionRepository
-                .findTop20ByProgress_Cadet_IdInOrderByCompletedAtDesc(followeeIds).stream()
-                .map(this::mapGroupStep);
-
-        Stream<ActivityFeedItemResponse> fillInBlanks = fillInBlankAttemptRepository
-                .findTop20ByCadet_IdInAndPassedTrueOrderBySubmittedAtDesc(followeeIds).stream()
-                .map(this::mapFillInBlank);
+        // Egy elemmel többet kérünk, így külön COUNT nélkül tudjuk, van-e következő lap
+        List<ActivityFeedItemResponse> items = activityInboxService.isEnabled()
+                ? inboxPage(current.getId(), after, pageSize + 1)
+                : pullPage(current.getId(), after, pageSize + 1);
 
-        Stream<ActivityFeedItemResponse> quizzes = missionResultRepository
-                .findTop20ByCadet_IdInOrderByCompletedAtDesc(followeeIds).stream()
-                .map(this::mapQuiz);
-
-        return Stream.of(groupSteps, fillInBlanks, quizzes)
-                .flatMap(s -> s)
-                .sorted(Comparator.comparing(ActivityFeedItemResponse::getOccurredAt).reversed())
-                .limit(FEED_SIZE)
-                .collect(Collectors.toList());
+        if (items.size() <= pageSize) {
+            return ActivityFeedPageResponse.builder().items(items).build();
+        }
+        List<ActivityFeedItemResponse> page = items.subList(0, pageSize);
+        ActivityFeedItemResponse last = page.get(pageSize - 1);
+        return ActivityFeedPageResponse.builder()
+                .items(page)
+                .nextCursor(cursorOf(last).encode())
+                .build();
     }
 
-    private ActivityFeedItemResponse mapGroupStep(MissionGroupStepCompletion step) {
-        Cadet cadet = step.getProgress().getCadet();
-        return ActivityFeedItemResponse.builder()
-                .cadetId(cadet.getId())
-                .cadetUsername(cadet.getUsername())
-                .type("GROUP_STEP")
-                .label(step.getMission().getName())
-                .occurredAt(step.getCompletedAt())
-                .build();
+    private List<ActivityFeedItemResponse> pullPage(UUID followerId, ActivityFeedCursor after, int limit) {
+        return activityFeedRepository.findPage(followerId, after.occurredAt(), after.id(), limit);
     }
 
-    private ActivityFeedItemResponse mapFillInBlank(FillInBlankAttempt attempt) {
-        return ActivityFeedItemResponse.builder()
-                .cadetId(attempt.getCadet().getId())
-                .cadetUsername(attempt.getCadet().getUsername())
-                .type("FILL_IN_BLANK")
-                .label(attempt.getMission().getName())
-                .occurredAt(attempt.getSubmittedAt())
-                .build();
+    /**
+     * Az inboxból olvasott lap. A levágási határnál nem újabb elemek hiányozhatnak az
+     * inboxból, ezért onnan (és ha az inbox elfogy) a lapot a forrástáblákból töltjük ki.
+     */
+    private List<ActivityFeedItemResponse> inboxPage(UUID followerId, ActivityFeedCursor after, int limit) {
+        List<ActivityFeedItemResponse> items = activityFeedRepository
+                .findInboxPage(followerId, after.occurredAt(), after.id(), limit);
+        ActivityFeedCursor horizon = activityFeedRepository.findHorizon(followerId).orElse(null);
+        if (horizon == null) {
+            return items;
+        }
+        List<ActivityFeedItemResponse> trusted = items.stream()
+                .takeWhile(item -> cursorOf(item).isAfter(horizon))
+                .toList();
+        if (trusted.size() == limit) {
+            return trusted;
+        }
+        ActivityFeedCursor from = trusted.isEmpty() ? after : cursorOf(trusted.get(trusted.size() - 1));
+        List<ActivityFeedItemResponse> page = new ArrayList<>(trusted);
+        page.addAll(pullPage(followerId, from, limit - trusted.size()));
+        return page;
     }
 
-    private ActivityFeedItemResponse mapQuiz(MissionResult result) {
-        return ActivityFeedItemResponse.builder()
-                .cadetId(result.getCadet().getId())
-                .cadetUsername(result.getCadet().getUsername())
-                .type("QUIZ")
-                .label(result.getMission().getName())
-                .occurredAt(result.getCompletedAt())
-                .build();
+    private static ActivityFeedCursor cursorOf(ActivityFeedItemResponse item) {
+        return new ActivityFeedCursor(item.getOccurredAt(), item.getId());
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
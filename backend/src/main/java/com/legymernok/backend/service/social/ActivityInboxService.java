@@ -0,0 +1,126 @@
+package com.legymernok.backend.service.social;
+
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.repository.social.ActivityInboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fan-out-on-write aktivitás-inbox (opcionális, social.feed.inbox.enabled). Egy
+ * teljesítés a létrehozó tranzakcióban csak egy fan-out jobot ír; az
+ * ActivityInboxWorker kötegekben másolja a szerző követőinek inboxába, így a feed
+ * olvasása egyetlen indexelt lekérdezés a nagy IN (...) helyett.
+ *
+ * Hibrid szabály: a max-push-followers-nél több követővel rendelkező kadét pull
+ * módra vált (cadets.feed_pull), az ő teljesítéseit a feed olvasáskor húzza be. Az
+ * inbox követőnként legfeljebb max-size elemet tart; a levágott rész határát az
+ * activity_inbox_horizon tárolja, az annál régebbi lapokat az ActivityFeedService a
+ * forrástáblákból olvassa. Új követésnél egy backfill job tölti be a követett kadét
+ * legutóbbi teljesítéseit.
+ *
+ * Metrikák: social.feed.inbox.fanout_rows, social.feed.inbox.pruned_rows.
+ */
+@Service
+@Slf4j
+public class ActivityInboxService {
+
+    private final ActivityInboxRepository inboxRepository;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxPushFollowers;
+    private final int batchSize;
+
+    private final Counter fanOutRows;
+    private final Counter prunedRows;
+
+    public ActivityInboxService(ActivityInboxRepository inboxRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${social.feed.inbox.enabled:false}") boolean enabled,
+                                @Value("${social.feed.inbox.max-size:500}") int maxSize,
+                                @Value("${social.feed.inbox.max-push-followers:1000}") long maxPushFollowers,
+                                @Value("${social.feed.inbox.batch-size:200}") int batchSize) {
+        this.inboxRepository = inboxRepository;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.maxPushFollowers = maxPushFollowers;
+        this.batchSize = batchSize;
+        this.fanOutRows = Counter.builder("social.feed.inbox.fanout_rows").register(meterRegistry);
+        this.prunedRows = Counter.builder("social.feed.inbox.pruned_rows").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** A teljesítés tranzakciójában fut: a job a teljesítéssel együtt commitolódik vagy gördül vissza. */
+    @EventListener
+    public void onActivityRecorded(ActivityRecordedEvent event) {
+        if (!enabled) return;
+        inboxRepository.enqueueFanout(event.itemId(), event.type(), event.actorId(), event.missionId(), event.occurredAt());
+    }
+
+    @EventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (!enabled) return;
+        if (!event.following()) {
+            inboxRepository.deleteFollowee(event.followerId(), event.followeeId());
+            inboxRepository.deleteBackfill(event.followerId(), event.followeeId());
+            return;
+        }
+        if (inboxRepository.markPullIfPopular(event.followeeId(), maxPushFollowers) > 0) {
+            // Az inbox-sorai innentől figyelmen kívül maradnának, a feed a forrástáblákból olvassa
+            int removed = inboxRepository.deleteActor(event.followeeId());
+            log.info("Cadet {} switched to pull-based feed delivery, removed {} inbox rows", event.followeeId(), removed);
+        }
+        inboxRepository.enqueueBackfill(event.followerId(), event.followeeId());
+    }
+
+    /** Az inbox első bekapcsolásakor a meglévő követések betöltése. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void enqueueInitialBackfill() {
+        if (!enabled || !inboxRepository.isInboxEmpty()) return;
+        int queued = inboxRepository.enqueueBackfillForAllFollows();
+        log.info("Activity inbox is empty, queued backfill for {} follows", queued);
+    }
+
+    /** @return A feldolgozott jobok száma (0, ha a sor üres). */
+    @Transactional
+    public int fanOutBatch() {
+        List<UUID> jobIds = inboxRepository.lockFanoutBatch(batchSize);
+        if (jobIds.isEmpty()) return 0;
+
+        fanOutRows.increment(inboxRepository.fanOut(jobIds));
+        inboxRepository.advanceHorizonForJobs(jobIds, maxSize);
+        prunedRows.increment(inboxRepository.pruneForJobs(jobIds));
+        inboxRepository.deleteFanoutJobs(jobIds);
+        return jobIds.size();
+    }
+
+    /** @return A feldolgozott backfill jobok száma (0, ha a sor üres). */
+    @Transactional
+    public int backfillBatch() {
+        List<Object[]> jobs = inboxRepository.lockBackfillBatch(batchSize);
+        for (Object[] job : jobs) {
+            UUID followerId = (UUID) job[0];
+            UUID followeeId = (UUID) job[1];
+            // Egy elemmel több a max-size-nál: ha a követettnek ennél több teljesítése van,
+            // a levágás biztosan a hiányzók fölé teszi a határt
+            fanOutRows.increment(inboxRepository.backfill(followerId, followeeId,
+                    ActivityFeedCursor.START.occurredAt(), ActivityFeedCursor.START.id(), maxSize + 1));
+            inboxRepository.advanceHorizon(followerId, maxSize);
+            prunedRows.increment(inboxRepository.prune(followerId));
+            inboxRepository.deleteBackfill(followerId, followeeId);
+        }
+        return jobs.size();
+    }
+}
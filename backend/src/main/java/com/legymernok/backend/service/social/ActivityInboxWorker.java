@@ -0,0 +1,42 @@
+package com.legymernok.backend.service.social;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Az ActivityInboxService háttérfeladata: a fan-out és backfill sorokat kötegenként,
+ * kötegenként külön tranzakcióban üríti (ezért külön bean, hogy a @Transactional proxy
+ * érvényesüljön). Egy futás legfeljebb MAX_BATCHES_PER_RUN köteget dolgoz fel sortípusonként.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityInboxWorker {
+
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    private final ActivityInboxService inboxService;
+
+    @Scheduled(fixedDelayString = "${social.feed.inbox.worker-interval-ms:2000}",
+            initialDelayString = "${social.feed.inbox.worker-interval-ms:2000}")
+    public void run() {
+        if (!inboxService.isEnabled()) return;
+        drain("fan-out", inboxService::fanOutBatch);
+        drain("backfill", inboxService::backfillBatch);
+    }
+
+    private void drain(String queue, IntSupplier batch) {
+        try {
+            for (int batches = 0; batches < MAX_BATCHES_PER_RUN; batches++) {
+                if (batch.getAsInt() == 0) return;
+            }
+        } catch (Exception e) {
+            // A köteg visszagördült, a jobok a sorban maradnak, a következő futás újrapróbálja
+            log.error("Activity inbox {} batch failed: {}", queue, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.legymernok.backend.service.social;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Egy feed-be kerülő teljesítés (group step, sikeres fill-in-blank, quiz) — a
+ * létrehozó tranzakcióban publikálva, hogy az ActivityInboxService fan-out jobja
+ * azzal együtt commitolódjon.
+ *
+ * @param type "GROUP_STEP" | "FILL_IN_BLANK" | "QUIZ", mint az ActivityFeedItemResponse-ban
+ * @param itemId A forrássor azonosítója
+ */
+public record ActivityRecordedEvent(String type, UUID itemId, UUID actorId, UUID missionId, Instant occurredAt) {
+}
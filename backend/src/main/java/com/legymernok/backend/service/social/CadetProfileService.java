@@ -3,11 +3,10 @@ package com.legymernok.backend.service.social;
 import com.legymernok.backend.dto.social.CadetProfileResponse;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.model.cadet.Cadet;
-import com.legymernok.backend.model.mission.MissionStatus;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
 import com.legymernok.backend.repository.social.FollowRepository;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,14 +19,16 @@ import java.util.UUID;
 public class CadetProfileService {
 
     private final CadetRepository cadetRepository;
-    private final CadetMissionRepository cadetMissionRepository;
-    private final MissionGroupProgressRepository missionGroupProgressRepository;
+    private final CadetProgressService cadetProgressService;
     private final FollowRepository followRepository;
 
     @Transactional(readOnly = true)
     public CadetProfileResponse getProfile(UUID cadetId) {
         Cadet cadet = cadetRepository.findById(cadetId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cadet", "id", cadetId));
+        // Materializált összesítő; ha még nincs sora, a kadétnak nincs befejezett eleme
+        CadetProgressTotals totals = cadetProgressService.getTotals(cadetId)
+                .orElseGet(() -> CadetProgressTotals.builder().cadetId(cadetId).build());
 
         return CadetProfileResponse.builder()
                 .id(cadet.getId())
@@ -36,8 +37,8 @@ public class CadetProfileService {
                 .avatarUrl(cadet.getAvatarUrl())
                 .currentStreak(cadet.getCurrentStreak())
                 .longestStreak(cadet.getLongestStreak())
-                .totalCompletedMissions(cadetMissionRepository.countByCadetIdAndStatus(cadetId, MissionStatus.COMPLETED))
-                .totalCompletedGroups(missionGroupProgressRepository.countByCadetIdAndCompletedTrue(cadetId))
+                .totalCompletedMissions(totals.getCompletedMissions())
+                .totalCompletedGroups(totals.getCompletedGroups())
                 .followerCount(followRepository.countByFollowee_Id(cadetId))
                 .followingCount(followRepository.countByFollower_Id(cadetId))
                 .memberSince(cadet.getCreatedAt())
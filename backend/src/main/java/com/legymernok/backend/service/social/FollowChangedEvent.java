@@ -0,0 +1,7 @@
+package com.legymernok.backend.service.social;
+
+import java.util.UUID;
+
+/** Követés létrejötte vagy megszűnése — a követő tranzakciójában publikálva (ActivityInboxService). */
+public record FollowChangedEvent(UUID followerId, UUID followeeId, boolean following) {
+}
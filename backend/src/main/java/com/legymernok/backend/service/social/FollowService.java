@@ -7,9 +7,10 @@ import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.social.Follow;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.social.FollowRepository;
+import com.legymernok.backend.security.CurrentCadet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +26,7 @@ public class FollowService {
 
     private final FollowRepository followRepository;
     private final CadetRepository cadetRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void follow(UUID followeeId) {
@@ -41,6 +43,7 @@ public class FollowService {
         }
 
         followRepository.save(Follow.builder().follower(current).followee(followee).build());
+        eventPublisher.publishEvent(new FollowChangedEvent(current.getId(), followeeId, true));
         log.info("'{}' elkezdte követni '{}'-t.", current.getUsername(), followee.getUsername());
     }
 
@@ -48,6 +51,7 @@ public class FollowService {
     public void unfollow(UUID followeeId) {
         Cadet current = getCurrentAuthenticatedUser();
         followRepository.deleteByFollower_IdAndFollowee_Id(current.getId(), followeeId);
+        eventPublisher.publishEvent(new FollowChangedEvent(current.getId(), followeeId, false));
     }
 
     @Transactional(readOnly = true)
@@ -81,8 +85,6 @@ public class FollowService {
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Cadet", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 }
@@ -0,0 +1,17 @@
+package com.legymernok.backend.service.starsystem;
+
+import java.util.UUID;
+
+/**
+ * Domain esemény: egy Star System részletes nézetének tartalma megváltozott
+ * (misszió, csoport, sorrend, szektor vagy tulajdonos). A StarSystemDetailCache
+ * a tranzakció commitja után érvényteleníti rá a bejegyzéseit.
+ *
+ * @param starSystemId Az érintett Star System, vagy null, ha az összes érintett (pl. szektor átnevezése).
+ */
+public record StarSystemContentChangedEvent(UUID starSystemId) {
+
+    public static StarSystemContentChangedEvent allSystems() {
+        return new StarSystemContentChangedEvent(null);
+    }
+}
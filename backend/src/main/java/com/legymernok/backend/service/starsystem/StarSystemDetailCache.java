@@ -0,0 +1,190 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legymernok.backend.dto.starsystem.StarSystemWithItemsResponse;
+import com.legymernok.backend.integration.SharedCacheTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A Star System részletes nézetének (StarSystemWithItemsResponse) cache-e. Két
+ * rétegű: helyi Caffeine cache, és opcionálisan egy példányok közt megosztott réteg
+ * (SharedCacheTier, pl. Redis), ahol a nézet JSON-ként tárolódik.
+ *
+ * A nézet szerepkör-függő (a templateRepositoryUrl-t csak admin látja), ezért a
+ * kulcs része az admin/kadét nézet. A kulcs része a Star System aktuális verziója
+ * is: a verziót a StarSystemContentChangedEvent a commit után lépteti, így a régi
+ * bejegyzések többé nem találhatók meg — megosztott rétegnél a többi példányon is.
+ *
+ * Az ETag a verzióból és a JSON tartalom hash-éből áll, így újraindulás (a helyi
+ * verziószámlálók nullázódása) után sem adunk hamis 304-et.
+ * Metrikák: "star.system.detail" néven.
+ */
+@Component
+@Slf4j
+public class StarSystemDetailCache {
+
+    /** Egy felépített nézet és az ETag-je (idézőjelekkel, a HTTP fejléc formájában). */
+    public record CachedDetail(StarSystemWithItemsResponse response, String etag) {
+    }
+
+    // version: "<globális>.<rendszerenkénti>" számláló
+    private record Key(UUID starSystemId, boolean adminView, String version) {
+    }
+
+    private static final String VERSION_PREFIX = "star-system-detail:version:";
+    private static final String GLOBAL_VERSION_KEY = VERSION_PREFIX + "all";
+    private static final String ENTRY_PREFIX = "star-system-detail:entry:";
+
+    private final ObjectMapper objectMapper;
+    private final SharedCacheTier sharedTier;
+    private final Duration sharedTtl;
+    private final Cache<Key, CachedDetail> local;
+    private final Map<UUID, Long> localVersions = new ConcurrentHashMap<>();
+    private final AtomicLong localGlobalVersion = new AtomicLong();
+
+    public StarSystemDetailCache(ObjectMapper objectMapper,
+                                 ObjectProvider<SharedCacheTier> sharedTier,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${star-system.detail-cache.max-size:500}") long maxSize,
+                                 @Value("${star-system.detail-cache.shared-ttl-seconds:3600}") long sharedTtlSeconds) {
+        this.objectMapper = objectMapper;
+        this.sharedTier = sharedTier.getIfAvailable();
+        this.sharedTtl = Duration.ofSeconds(sharedTtlSeconds);
+        // Megosztott rétegnél a más példányon érvénytelenített (elavult verziójú) kulcsok itt kifutnak
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(sharedTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "star.system.detail");
+    }
+
+    /**
+     * A nézet a cache-ből, vagy a loader-rel felépítve.
+     * @param adminView Admin nézet (templateRepositoryUrl-lel) — ld. MissionService.isAdmin().
+     */
+    public CachedDetail get(UUID starSystemId, boolean adminView, Supplier<StarSystemWithItemsResponse> loader) {
+        String version = currentVersion(starSystemId);
+        if (version == null) {
+            // A megosztott verzió nem olvasható: cache nélkül, hogy elavult nézetet se adjunk ki
+            StarSystemWithItemsResponse response = loader.get();
+            return new CachedDetail(response, etag("0", toJson(response)));
+        }
+        return local.get(new Key(starSystemId, adminView, version), key -> load(key, loader));
+    }
+
+    /** Verzióléptetés és a helyi bejegyzések eldobása — csak sikeres commit után. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStarSystemContentChanged(StarSystemContentChangedEvent event) {
+        UUID starSystemId = event.starSystemId();
+        if (starSystemId == null) {
+            bumpVersion(GLOBAL_VERSION_KEY, localGlobalVersion::incrementAndGet);
+            local.invalidateAll();
+        } else {
+            bumpVersion(VERSION_PREFIX + starSystemId, () -> localVersions.merge(starSystemId, 1L, Long::sum));
+            local.asMap().keySet().removeIf(key -> key.starSystemId().equals(starSystemId));
+        }
+    }
+
+    private CachedDetail load(Key key, Supplier<StarSystemWithItemsResponse> loader) {
+        String entryKey = ENTRY_PREFIX + key.starSystemId() + ":" + (key.adminView() ? "admin" : "cadet") + ":" + key.version();
+        if (sharedTier != null) {
+            String json = readShared(entryKey);
+            if (json != null) {
+                try {
+                    return new CachedDetail(objectMapper.readValue(json, StarSystemWithItemsResponse.class),
+                            etag(key.version(), json));
+                } catch (JsonProcessingException e) {
+                    log.warn("Discarding unreadable shared star system detail entry {}: {}", entryKey, e.getMessage());
+                }
+            }
+        }
+
+        StarSystemWithItemsResponse response = loader.get();
+        String json = toJson(response);
+        if (sharedTier != null) {
+            try {
+                sharedTier.set(entryKey, json, sharedTtl);
+            } catch (RuntimeException e) {
+                log.warn("Could not write shared star system detail entry {}: {}", entryKey, e.getMessage());
+            }
+        }
+        return new CachedDetail(response, etag(key.version(), json));
+    }
+
+    private String currentVersion(UUID starSystemId) {
+        if (sharedTier == null) {
+            return localGlobalVersion.get() + "." + localVersions.getOrDefault(starSystemId, 0L);
+        }
+        try {
+            return parseVersion(sharedTier.get(GLOBAL_VERSION_KEY)) + "."
+                    + parseVersion(sharedTier.get(VERSION_PREFIX + starSystemId));
+        } catch (RuntimeException e) {
+            log.warn("Could not read shared star system detail version: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void bumpVersion(String sharedKey, Runnable localBump) {
+        if (sharedTier == null) {
+            localBump.run();
+            return;
+        }
+        try {
+            sharedTier.increment(sharedKey);
+        } catch (RuntimeException e) {
+            // A többi példány a bejegyzése lejártáig (shared-ttl-seconds) a régi nézetet adhatja
+            log.error("Could not bump shared star system detail version {}: {}", sharedKey, e.getMessage());
+        }
+    }
+
+    private static long parseVersion(String value) {
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+
+    private String readShared(String entryKey) {
+        try {
+            return sharedTier.get(entryKey);
+        } catch (RuntimeException e) {
+            log.warn("Could not read shared star system detail entry {}: {}", entryKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private String toJson(StarSystemWithItemsResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize star system detail " + response.getId(), e);
+        }
+    }
+
+    private static String etag(String version, String json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return "\"" + version + "-" + HexFormat.of().formatHex(hash, 0, 8) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
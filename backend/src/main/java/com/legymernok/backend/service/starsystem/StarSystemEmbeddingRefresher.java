@@ -0,0 +1,82 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.model.starsystem.StarSystemEmbeddingRefresh;
+import com.legymernok.backend.repository.starsystem.StarSystemEmbeddingRefreshRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A Star System embeddingek aszinkron, debounce-olt frissítése. A Star System és a
+ * missziói írásakor közzétett StarSystemContentChangedEvent-re a módosító tranzakción
+ * belül (outbox) piszkosnak jelöli a rendszert; az ütemező akkor generálja újra az
+ * embeddinget, ha quiet-ms óta nem jött újabb jelölés (egy sorozatnyi misszió-mentés
+ * így egyetlen AI-hívás), de legkésőbb max-delay-ms után. A mentő kérés így nem vár
+ * az AI service-re, és egy újraindítás sem veszít el frissítést.
+ *
+ * Sikertelen AI-hívás után a jelölés marad, és egy újabb quiet-ms múlva próbálkozik
+ * újra. A forrásszöveg hash-e miatt (generateAndSaveEmbedding) a tartalmilag változatlan
+ * rendszereknél nincs AI-hívás.
+ */
+@Service
+@Slf4j
+public class StarSystemEmbeddingRefresher {
+
+    private final StarSystemEmbeddingRefreshRepository refreshRepository;
+    private final StarSystemService starSystemService;
+    private final boolean enabled;
+    private final Duration quiet;
+    private final Duration maxDelay;
+    private final int batchSize;
+
+    public StarSystemEmbeddingRefresher(StarSystemEmbeddingRefreshRepository refreshRepository,
+                                        StarSystemService starSystemService,
+                                        @Value("${ai.embedding-refresh.enabled:true}") boolean enabled,
+                                        @Value("${ai.embedding-refresh.quiet-ms:10000}") long quietMillis,
+                                        @Value("${ai.embedding-refresh.max-delay-ms:60000}") long maxDelayMillis,
+                                        @Value("${ai.embedding-refresh.batch-size:20}") int batchSize) {
+        this.refreshRepository = refreshRepository;
+        this.starSystemService = starSystemService;
+        this.enabled = enabled;
+        this.quiet = Duration.ofMillis(quietMillis);
+        this.maxDelay = Duration.ofMillis(maxDelayMillis);
+        this.batchSize = batchSize;
+    }
+
+    // Szándékosan nem @TransactionalEventListener: a jelölésnek az írással együtt kell commitolnia
+    @EventListener
+    public void onStarSystemContentChanged(StarSystemContentChangedEvent event) {
+        // Az összes rendszert érintő változások (szektor, tulajdonos) nincsenek benne az embedding szövegében
+        if (!enabled || event.starSystemId() == null) return;
+        refreshRepository.markDirty(event.starSystemId());
+    }
+
+    @Scheduled(fixedDelayString = "${ai.embedding-refresh.check-interval-ms:5000}",
+            initialDelayString = "${ai.embedding-refresh.check-interval-ms:5000}")
+    public void refreshDue() {
+        if (!enabled) return;
+
+        Instant now = Instant.now();
+        for (StarSystemEmbeddingRefresh refresh : refreshRepository.findDue(now.minus(quiet), now.minus(maxDelay),
+                Limit.of(batchSize))) {
+            try {
+                StarSystemService.EmbeddingUpdate result = starSystemService.generateAndSaveEmbedding(refresh.getStarSystemId());
+                if (result == StarSystemService.EmbeddingUpdate.FAILED) {
+                    refreshRepository.postpone(refresh.getStarSystemId(), Instant.now());
+                } else {
+                    // Törölt rendszer (NOT_FOUND) sora is itt tűnik el
+                    refreshRepository.deleteIfUnchanged(refresh.getStarSystemId(), refresh.getVersion());
+                }
+            } catch (Exception e) {
+                // A jelölés megmarad, a következő kör újrapróbálja
+                log.error("Embedding refresh failed for StarSystem {}: {}", refresh.getStarSystemId(), e.getMessage());
+            }
+        }
+    }
+}
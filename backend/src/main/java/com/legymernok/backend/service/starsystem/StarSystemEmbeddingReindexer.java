@@ -0,0 +1,244 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.dto.search.EmbeddingReindexRunResponse;
+import com.legymernok.backend.integration.PgVector;
+import com.legymernok.backend.model.starsystem.EmbeddingReindexRun;
+import com.legymernok.backend.model.starsystem.EmbeddingReindexStatus;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.repository.starsystem.EmbeddingReindexRunRepository;
+import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.service.ai.AiEmbeddingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A Star System embeddingek újraindexelése háttérfutásként. A rendszereket id szerinti
+ * keyset lapozással olvassa (lapméret = batch-size * parallelism), a lap forrásszövegeit
+ * egy lekérdezéssel rakja össze, és csak a megváltozott hash-ű rendszereket küldi
+ * kötegekben az AI service /embed_batch végpontjára — legfeljebb parallelism köteg
+ * fut egyszerre. A vektorok JDBC batch update-tel íródnak vissza, kötegenként saját
+ * (auto-commit) tranzakcióban; az egész futást nem fogja egy tranzakció.
+ *
+ * Minden lap után elmenti a haladást (EmbeddingReindexRun), így egy elbukott vagy
+ * újraindítás miatt megszakadt futás az utolsó kész laptól folytatható. Egy köteg
+ * sikertelen AI-hívása csak a failed számlálót növeli: a régi hash marad, a következő
+ * futás újrapróbálja. A futó jobot csak ez a példány tartja nyilván, ezért egyetlen
+ * backend-példányt feltételez.
+ */
+@Service
+@Slf4j
+public class StarSystemEmbeddingReindexer {
+
+    private static final UUID START = new UUID(0L, 0L);
+
+    private final StarSystemRepository starSystemRepository;
+    private final MissionRepository missionRepository;
+    private final EmbeddingReindexRunRepository runRepository;
+    private final AiEmbeddingService embeddingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService coordinator;
+    private final ExecutorService batchExecutor;
+
+    // Az ebben a példányban futó újraindexelés, ha van
+    private UUID activeRunId;
+
+    @Autowired
+    public StarSystemEmbeddingReindexer(StarSystemRepository starSystemRepository,
+                                        MissionRepository missionRepository,
+                                        EmbeddingReindexRunRepository runRepository,
+                                        AiEmbeddingService embeddingService,
+                                        JdbcTemplate jdbcTemplate,
+                                        @Value("${ai.reindex.batch-size:32}") int batchSize,
+                                        @Value("${ai.reindex.parallelism:2}") int parallelism) {
+        this(starSystemRepository, missionRepository, runRepository, embeddingService, jdbcTemplate,
+                batchSize, parallelism,
+                Executors.newSingleThreadExecutor(newThreadFactory("embedding-reindex-")),
+                Executors.newFixedThreadPool(parallelism, newThreadFactory("embedding-batch-")));
+    }
+
+    StarSystemEmbeddingReindexer(StarSystemRepository starSystemRepository,
+                                 MissionRepository missionRepository,
+                                 EmbeddingReindexRunRepository runRepository,
+                                 AiEmbeddingService embeddingService,
+                                 JdbcTemplate jdbcTemplate,
+                                 int batchSize,
+                                 int parallelism,
+                                 ExecutorService coordinator,
+                                 ExecutorService batchExecutor) {
+        this.starSystemRepository = starSystemRepository;
+        this.missionRepository = missionRepository;
+        this.runRepository = runRepository;
+        this.embeddingService = embeddingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.coordinator = coordinator;
+        this.batchExecutor = batchExecutor;
+    }
+
+    private static CustomizableThreadFactory newThreadFactory(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    void shutdownExecutors() {
+        // A félbemaradt futás RUNNING marad, újraindítás után folytatódik.
+        coordinator.shutdownNow();
+        batchExecutor.shutdownNow();
+    }
+
+    /** Az újraindítás miatt megszakadt (RUNNING állapotban maradt) futás folytatása. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        runRepository.findFirstByOrderByStartedAtDesc()
+                .filter(run -> run.getStatus() == EmbeddingReindexStatus.RUNNING)
+                .ifPresent(run -> {
+                    log.info("Resuming interrupted embedding reindex {} after {}", run.getId(), run.getLastStarSystemId());
+                    start();
+                });
+    }
+
+    /**
+     * Elindítja az újraindexelést. Ha már fut, azt adja vissza; ha a legutóbbi futás nem
+     * fejeződött be, azt folytatja.
+     */
+    public synchronized EmbeddingReindexRunResponse start() {
+        if (activeRunId != null) {
+            Optional<EmbeddingReindexRun> active = runRepository.findById(activeRunId);
+            if (active.isPresent()) return toResponse(active.get());
+        }
+
+        Instant now = Instant.now();
+        EmbeddingReindexRun run = runRepository.findFirstByOrderByStartedAtDesc()
+                .filter(last -> last.getStatus() != EmbeddingReindexStatus.COMPLETED)
+                .orElseGet(() -> EmbeddingReindexRun.builder()
+                        .total((int) starSystemRepository.count())
+                        .startedAt(now)
+                        .build());
+        run.setStatus(EmbeddingReindexStatus.RUNNING);
+        run.setUpdatedAt(now);
+        run.setFinishedAt(null);
+        EmbeddingReindexRun saved = runRepository.save(run);
+
+        activeRunId = saved.getId();
+        coordinator.submit(() -> execute(saved));
+        return toResponse(saved);
+    }
+
+    public Optional<EmbeddingReindexRunResponse> getLatestRun() {
+        return runRepository.findFirstByOrderByStartedAtDesc().map(StarSystemEmbeddingReindexer::toResponse);
+    }
+
+    void execute(EmbeddingReindexRun run) {
+        UUID after = run.getLastStarSystemId() != null ? run.getLastStarSystemId() : START;
+        try {
+            List<Object[]> page;
+            while (!(page = starSystemRepository.findEmbeddingSourcePage(after, batchSize * parallelism)).isEmpty()) {
+                PageResult result = processPage(page);
+                after = (UUID) page.get(page.size() - 1)[0];
+
+                run.setProcessed(run.getProcessed() + page.size());
+                run.setEmbedded(run.getEmbedded() + result.embedded());
+                run.setFailed(run.getFailed() + result.changed() - result.embedded());
+                run.setLastStarSystemId(after);
+                run.setUpdatedAt(Instant.now());
+                run = runRepository.save(run);
+                log.info("Embedding reindex {}: {}/{} star systems processed, {} re-embedded, {} failed",
+                        run.getId(), run.getProcessed(), run.getTotal(), run.getEmbedded(), run.getFailed());
+            }
+            run.setStatus(EmbeddingReindexStatus.COMPLETED);
+        } catch (Exception e) {
+            log.error("Embedding reindex {} failed after {}: {}", run.getId(), after, e.getMessage());
+            run.setStatus(EmbeddingReindexStatus.FAILED);
+        }
+        try {
+            run.setUpdatedAt(Instant.now());
+            run.setFinishedAt(run.getUpdatedAt());
+            runRepository.save(run);
+        } finally {
+            synchronized (this) {
+                activeRunId = null;
+            }
+        }
+    }
+
+    // Egy lap: a megváltozott forrásszövegű rendszerek kötegenként, párhuzamosan
+    private PageResult processPage(List<Object[]> page) {
+        Map<UUID, List<String>> missionNames = new HashMap<>();
+        for (Object[] row : missionRepository.findNamesByStarSystemIds(page.stream().map(r -> (UUID) r[0]).toList())) {
+            missionNames.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        List<Source> changed = new ArrayList<>();
+        for (Object[] row : page) {
+            UUID id = (UUID) row[0];
+            String text = StarSystemService.embeddingText((String) row[1], (String) row[2],
+                    missionNames.getOrDefault(id, List.of()));
+            String sourceHash = embeddingService.sourceHash(text);
+            if (!sourceHash.equals(row[3])) changed.add(new Source(id, text, sourceHash));
+        }
+
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < changed.size(); from += batchSize) {
+            List<Source> batch = changed.subList(from, Math.min(from + batchSize, changed.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> embedAndStore(batch), batchExecutor));
+        }
+        return new PageResult(changed.size(), batches.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    private int embedAndStore(List<Source> batch) {
+        List<float[]> embeddings = embeddingService.embedBatch(batch.stream().map(Source::text).toList());
+        if (embeddings == null) return 0;
+
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Source source = batch.get(i);
+            updates.add(new Object[]{new PgVector(embeddings.get(i)), source.hash(), source.id().toString()});
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE star_systems SET content_embedding = ?, content_embedding_hash = ? WHERE id = ?::uuid",
+                updates);
+        return updates.size();
+    }
+
+    private static EmbeddingReindexRunResponse toResponse(EmbeddingReindexRun run) {
+        return EmbeddingReindexRunResponse.builder()
+                .id(run.getId())
+                .status(run.getStatus())
+                .total(run.getTotal())
+                .processed(run.getProcessed())
+                .embedded(run.getEmbedded())
+                .failed(run.getFailed())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+
+    private record Source(UUID id, String text, String hash) {
+    }
+
+    private record PageResult(int changed, int embedded) {
+    }
+}
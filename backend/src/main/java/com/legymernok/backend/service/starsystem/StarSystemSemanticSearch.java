@@ -0,0 +1,152 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.dto.search.StarSystemSearchResult;
+import com.legymernok.backend.integration.PgVector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Star System keresés embedding alapján, a content_embedding HNSW indexén (V19).
+ *
+ * A lekérdezés a távolság szerint rendez (ORDER BY content_embedding <=> ?), mert a
+ * pgvector csak ezt az alakot tudja indexszel kiszolgálni — a korábbi
+ * "ORDER BY 1 - távolság DESC" teljes táblás keresés volt. A hasonlóságot (1 - távolság)
+ * már itt számoljuk.
+ *
+ * A recall és a késleltetés lekérdezésenként hangolható (Tuning): a hnsw.ef_search és az
+ * ivfflat.probes tranzakció-lokálisan (set_config(..., true)) áll be, így nem szivárog át
+ * a pool többi kapcsolatára. Szektorra és tulajdonosra szűrve a HNSW a szűrés előtt csak
+ * ef_search jelöltet ad, ezért ilyenkor iteratív index-bejárást kérünk
+ * (hnsw.iterative_scan, pgvector 0.8+), hogy a szűrő után is meglegyen a limit; a
+ * "relaxed_order" bejárás sorrendjét a külső ORDER BY állítja helyre.
+ */
+@Service
+public class StarSystemSemanticSearch {
+
+    // A pgvector hnsw.ef_search felső határa
+    private static final int MAX_EF_SEARCH = 1000;
+    private static final int MAX_PROBES = 1000;
+
+    /** Opcionális szűrők; a null mező nem szűr. */
+    public record Filter(UUID sectorId, UUID ownerId) {
+        public static final Filter NONE = new Filter(null, null);
+
+        boolean isEmpty() {
+            return sectorId == null && ownerId == null;
+        }
+    }
+
+    /** Lekérdezésenkénti hangolás; a null mező a beállított alapértéket jelenti. */
+    public record Tuning(Integer efSearch, Integer probes) {
+        public static final Tuning DEFAULT = new Tuning(null, null);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultEfSearch;
+    private final int defaultProbes;
+    private final int maxEfSearch;
+    private final int maxLimit;
+    private final String iterativeScan;
+
+    public StarSystemSemanticSearch(JdbcTemplate jdbcTemplate,
+                                    @Value("${search.semantic.ef-search:40}") int defaultEfSearch,
+                                    @Value("${search.semantic.probes:10}") int defaultProbes,
+                                    @Value("${search.semantic.max-ef-search:400}") int maxEfSearch,
+                                    @Value("${search.semantic.max-limit:50}") int maxLimit,
+                                    @Value("${search.semantic.iterative-scan:relaxed_order}") String iterativeScan) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultEfSearch = defaultEfSearch;
+        this.defaultProbes = defaultProbes;
+        this.maxEfSearch = Math.min(maxEfSearch, MAX_EF_SEARCH);
+        this.maxLimit = maxLimit;
+        this.iterativeScan = iterativeScan;
+    }
+
+    // Saját @Transactional kell: a belső hívás megkerüli a proxyt, és tranzakció nélkül
+    // a set_config(..., true) hangolás elveszne a keresés előtt
+    @Transactional(readOnly = true)
+    public List<StarSystemSearchResult> search(float[] queryVector, int limit) {
+        return search(queryVector, Filter.NONE, limit, Tuning.DEFAULT);
+    }
+
+    /**
+     * @param limit 1 és search.semantic.max-limit közé szorítva.
+     * @param tuning Az ef_search legalább a limit (különben a HNSW kevesebb találatot ad),
+     *               legfeljebb search.semantic.max-ef-search.
+     */
+    @Transactional(readOnly = true)
+    public List<StarSystemSearchResult> search(float[] queryVector, Filter filter, int limit, Tuning tuning) {
+        int effectiveLimit = Math.max(1, Math.min(limit, maxLimit));
+        applyTuning(effectiveLimit, filter, tuning);
+
+        List<Object> params = new ArrayList<>();
+        params.add(new PgVector(queryVector));
+        if (filter.sectorId() != null) params.add(filter.sectorId());
+        if (filter.ownerId() != null) params.add(filter.ownerId());
+        params.add(effectiveLimit);
+
+        return jdbcTemplate.query(
+                buildQuery(filter),
+                (rs, i) -> StarSystemSearchResult.builder()
+                        .id(UUID.fromString(rs.getString("id")))
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .iconUrl(rs.getString("icon_url"))
+                        .similarity(1 - rs.getDouble("distance"))
+                        .build(),
+                params.toArray()
+        );
+    }
+
+    int effectiveEfSearch(int limit, Tuning tuning) {
+        int requested = tuning.efSearch() != null ? tuning.efSearch() : defaultEfSearch;
+        return Math.max(limit, Math.min(requested, maxEfSearch));
+    }
+
+    int effectiveProbes(Tuning tuning) {
+        int requested = tuning.probes() != null ? tuning.probes() : defaultProbes;
+        return Math.max(1, Math.min(requested, MAX_PROBES));
+    }
+
+    private void applyTuning(int limit, Filter filter, Tuning tuning) {
+        String efSearch = String.valueOf(effectiveEfSearch(limit, tuning));
+        String probes = String.valueOf(effectiveProbes(tuning));
+        // Üres iterative-scan: régebbi pgvector, ahol a beállítás nem létezik
+        if (filter.isEmpty() || iterativeScan.isBlank()) {
+            jdbcTemplate.queryForList(
+                    "SELECT set_config('hnsw.ef_search', ?, true), set_config('ivfflat.probes', ?, true)",
+                    efSearch, probes);
+        } else {
+            jdbcTemplate.queryForList(
+                    "SELECT set_config('hnsw.ef_search', ?, true), set_config('ivfflat.probes', ?, true), " +
+                            "set_config('hnsw.iterative_scan', ?, true)",
+                    efSearch, probes, iterativeScan);
+        }
+    }
+
+    // A belső ORDER BY distance ugyanaz, mint az ORDER BY content_embedding <=> ?, így
+    // indexelhető, de a vektort csak egyszer kell elküldeni
+    static String buildQuery(Filter filter) {
+        StringBuilder sql = new StringBuilder("""
+                WITH candidates AS MATERIALIZED (
+                    SELECT id, name, description, icon_url, content_embedding <=> ? AS distance
+                    FROM star_systems
+                    WHERE content_embedding IS NOT NULL
+                """);
+        if (filter.sectorId() != null) sql.append("      AND sector_id = ?\n");
+        if (filter.ownerId() != null) sql.append("      AND owner_id = ?\n");
+        sql.append("""
+                    ORDER BY distance
+                    LIMIT ?
+                )
+                SELECT id, name, description, icon_url, distance FROM candidates ORDER BY distance
+                """);
+        return sql.toString();
+    }
+}
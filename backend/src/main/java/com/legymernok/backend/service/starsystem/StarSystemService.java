@@ -3,7 +3,6 @@ package com.legymernok.backend.service.starsystem;
 import com.legymernok.backend.dto.group.MissionGroupResponse;
 import com.legymernok.backend.dto.group.ReorderResponse;
 import com.legymernok.backend.dto.mission.MissionResponse;
-import com.legymernok.backend.dto.search.StarSystemSearchResult;
 import com.legymernok.backend.dto.starsystem.CreateStarSystemRequest;
 import com.legymernok.backend.dto.starsystem.ReorderItemsRequest;
 import com.legymernok.backend.dto.starsystem.StarSystemItemResponse;
@@ -13,35 +12,38 @@ import com.legymernok.backend.dto.starsystem.StarSystemWithProgressResponse;
 import com.legymernok.backend.exception.ResourceConflictException;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.exception.UnauthorizedAccessException;
-import com.legymernok.backend.model.ConnectTable.CadetMission;
+import com.legymernok.backend.integration.PgVector;
 import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.cadet.CadetStarSystemProgress;
 import com.legymernok.backend.model.mission.Mission;
 import com.legymernok.backend.model.mission.MissionGroup;
-import com.legymernok.backend.model.mission.MissionGroupProgress;
-import com.legymernok.backend.model.mission.MissionStatus;
 import com.legymernok.backend.model.starsystem.StarSystem;
 import com.legymernok.backend.model.sector.Sector;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
 import com.legymernok.backend.repository.mission.MissionGroupRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.sector.SectorRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.security.CurrentCadet;
 import com.legymernok.backend.service.ai.AiEmbeddingService;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import com.legymernok.backend.service.mission.MissionService;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -56,11 +58,13 @@ public class StarSystemService {
     private final MissionRepository missionRepository;
     private final MissionGroupRepository missionGroupRepository;
     private final MissionGroupProgressRepository missionGroupProgressRepository;
-    private final CadetMissionRepository cadetMissionRepository;
     private final CadetRepository cadetRepository;
     private final SectorRepository sectorRepository;
     private final AiEmbeddingService embeddingService;
     private final JdbcTemplate jdbcTemplate;
+    private final CadetProgressService cadetProgressService;
+    private final StarSystemDetailCache starSystemDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public StarSystemResponse createStarSystem(CreateStarSystemRequest request) {
@@ -81,7 +85,9 @@ public class StarSystemService {
 
         StarSystem savedStarSystem = starSystemRepository.save(starSystem);
         log.info("StarSystem created: {}", savedStarSystem);
-        generateAndSaveEmbedding(savedStarSystem.getId());
+        // Az embedding a commit után, háttérben készül el (StarSystemEmbeddingRefresher)
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(savedStarSystem.getId()));
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
         return mapToResponse(savedStarSystem);
     }
 
@@ -96,52 +102,40 @@ public class StarSystemService {
      * A Star Map (terv 5.3) node-színezéséhez: minden Star System-hez hozzáadja a jelenleg
      * bejelentkezett kadét összesített állapotát. Szabály: ha a rendszer összes standalone
      * missziója/csoportja teljesítve → COMPLETED; ha legalább egy elindult → IN_PROGRESS;
-     * egyébként NOT_STARTED. Egyszerű, star-systemenkénti aggregáció — nem optimalizált nagy
-     * rendszerszámra, MVP-elégséges (ld. terv 11. szekció).
+     * egyébként NOT_STARTED. Az elemszám egyetlen aggregáló lekérdezés, a kadét haladása a
+     * materializált cadet_star_system_progress sorai (CadetProgressService).
      */
     @Transactional(readOnly = true)
     public List<StarSystemWithProgressResponse> getAllStarSystemsWithProgress() {
         Cadet cadet = getCurrentAuthenticatedUser();
-        return starSystemRepository.findAll().stream()
-                .map(system -> mapToResponseWithProgress(system, cadet.getId()))
+        // Elemszám rendszerenként (kadéttól független) + a kadét materializált haladás-sorai
+        Map<UUID, Integer> itemCounts = new HashMap<>();
+        for (Object[] row : starSystemRepository.countItemsByStarSystem()) {
+            itemCounts.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        Map<UUID, CadetStarSystemProgress> progressBySystem = cadetProgressService.getStarSystemProgress(cadet.getId())
+                .stream()
+                .collect(Collectors.toMap(CadetStarSystemProgress::getStarSystemId, p -> p));
+        return starSystemRepository.findAllWithSector().stream()
+                .map(system -> {
+                    CadetStarSystemProgress progress = progressBySystem.get(system.getId());
+                    return mapToResponseWithProgress(system, new ItemProgress(
+                            itemCounts.getOrDefault(system.getId(), 0),
+                            progress != null ? progress.getStartedItems() : 0,
+                            progress != null ? progress.getCompletedItems() : 0));
+                })
                 .collect(Collectors.toList());
     }
 
-    private StarSystemWithProgressResponse mapToResponseWithProgress(StarSystem system, UUID cadetId) {
-        List<Mission> standaloneMissions = missionRepository
-                .findAllByStarSystemIdAndGroupIsNullOrderByOrderIndexAsc(system.getId());
-        List<MissionGroup> groups = missionGroupRepository.findAllByStarSystemIdOrderByOrderIndexAsc(system.getId());
-
-        int totalItems = standaloneMissions.size() + groups.size();
-        int startedItems = 0;
-        int completedItems = 0;
-
-        for (Mission mission : standaloneMissions) {
-            Optional<CadetMission> cadetMission = cadetMissionRepository
-                    .findByCadetIdAndMissionId(cadetId, mission.getId());
-            if (cadetMission.isPresent()) {
-                startedItems++;
-                if (cadetMission.get().getStatus() == MissionStatus.COMPLETED) {
-                    completedItems++;
-                }
-            }
-        }
-
-        for (MissionGroup group : groups) {
-            Optional<MissionGroupProgress> progress = missionGroupProgressRepository
-                    .findByCadetIdAndGroupId(cadetId, group.getId());
-            if (progress.isPresent()) {
-                startedItems++;
-                if (progress.get().isCompleted()) {
-                    completedItems++;
-                }
-            }
-        }
+    /** Egy Star System elemeinek (standalone missziók + csoportok) haladása a kadétra. */
+    private record ItemProgress(int totalItems, int startedItems, int completedItems) {
+    }
 
+    private StarSystemWithProgressResponse mapToResponseWithProgress(StarSystem system, ItemProgress progress) {
         String status;
-        if (totalItems == 0 || startedItems == 0) {
+        if (progress.totalItems() == 0 || progress.startedItems() == 0) {
             status = "NOT_STARTED";
-        } else if (completedItems == totalItems) {
+        } else if (progress.completedItems() == progress.totalItems()) {
             status = "COMPLETED";
         } else {
             status = "IN_PROGRESS";
@@ -192,8 +186,12 @@ public class StarSystemService {
         missionGroupRepository.findAllByStarSystemIdOrderByOrderIndexAsc(id)
                 .forEach(g -> missionGroupProgressRepository.deleteAllByGroupId(g.getId()));
         missionGroupRepository.deleteAllByStarSystemId(id);
+        // A kadétok összesítőiből is kiesnek a rendszer csoportjai (a sorokat az FK törli)
+        cadetProgressService.refreshStarSystem(id);
 
         starSystemRepository.deleteById(id);
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(id));
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
     }
 
     @Transactional
@@ -218,7 +216,8 @@ public class StarSystemService {
         starSystemToUpdate.setUpdatedAt(Instant.now());
 
         StarSystem updatedStarSystem = starSystemRepository.save(starSystemToUpdate);
-        generateAndSaveEmbedding(updatedStarSystem.getId());
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(id));
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
         return mapToResponse(updatedStarSystem);
     }
 
@@ -229,36 +228,57 @@ public class StarSystemService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A részletes nézet a StarSystemDetailCache-ből (admin és kadét nézet külön), ETag-gel.
+     * Az érvénytelenítést a módosító szolgáltatások StarSystemContentChangedEvent-je végzi.
+     */
+    @Transactional(readOnly = true)
+    public StarSystemDetailCache.CachedDetail getCachedStarSystemWithItems(UUID id) {
+        return starSystemDetailCache.get(id, missionService.isAdmin(), () -> getStarSystemWithItems(id));
+    }
+
+    /**
+     * A Star System részletes nézete, a rendszer méretétől független, konstans számú
+     * lekérdezéssel: a rendszer a szektorral, az összes misszió a csoporttal és a
+     * tulajdonos nevével, és a csoportok. A csoportosítás és a rendezés memóriában történik.
+     */
     @Transactional(readOnly = true)
     public StarSystemWithItemsResponse getStarSystemWithItems(UUID id) {
-        StarSystem starSystem = starSystemRepository.findById(id)
+        StarSystem starSystem = starSystemRepository.findWithSectorById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("StarSystem", "id", id));
 
-        // Standalone mission-ök
-        List<StarSystemItemResponse> missionItems = missionRepository
-                .findAllByStarSystemIdAndGroupIsNullOrderByOrderIndexAsc(id).stream()
-                .map(m -> StarSystemItemResponse.builder()
+        List<StarSystemItemResponse> missionItems = new ArrayList<>();
+        Map<UUID, List<Mission>> missionsByGroup = new HashMap<>();
+        Map<UUID, String> ownerNames = new HashMap<>();
+        for (Object[] row : missionRepository.findAllWithGroupAndOwnerNameByStarSystemId(id)) {
+            Mission m = (Mission) row[0];
+            ownerNames.put(m.getId(), (String) row[1]);
+            if (m.getGroup() != null) {
+                missionsByGroup.computeIfAbsent(m.getGroup().getId(), k -> new ArrayList<>()).add(m);
+            } else {
+                // Standalone mission-ök
+                missionItems.add(StarSystemItemResponse.builder()
                         .type("MISSION")
                         .orderIndex(m.getOrderIndex())
-                        .mission(missionService.mapToResponse(m))
-                        .build())
-                .collect(Collectors.toList());
+                        .mission(missionService.mapToResponse(m, ownerNames.get(m.getId())))
+                        .build());
+            }
+        }
 
-        // Group-ok
+        // Group-ok, a missziók groupOrder szerint
+        Comparator<Mission> byGroupOrder = Comparator.comparing(Mission::getGroupOrder,
+                Comparator.nullsLast(Comparator.naturalOrder()));
         List<StarSystemItemResponse> groupItems = missionGroupRepository
                 .findAllByStarSystemIdOrderByOrderIndexAsc(id).stream()
-                .map(g -> {
-                    List<MissionResponse> groupMissions = missionRepository
-                            .findAllByGroupIdOrderByGroupOrderAsc(g.getId()).stream()
-                            .map(missionService::mapToResponse)
-                            .collect(Collectors.toList());
-                    return StarSystemItemResponse.builder()
-                            .type("GROUP")
-                            .orderIndex(g.getOrderIndex())
-                            .group(mapGroupToResponse(g))
-                            .groupMissions(groupMissions)
-                            .build();
-                })
+                .map(g -> StarSystemItemResponse.builder()
+                        .type("GROUP")
+                        .orderIndex(g.getOrderIndex())
+                        .group(mapGroupToResponse(g))
+                        .groupMissions(missionsByGroup.getOrDefault(g.getId(), List.of()).stream()
+                                .sorted(byGroupOrder)
+                                .map(m -> missionService.mapToResponse(m, ownerNames.get(m.getId())))
+                                .collect(Collectors.toList()))
+                        .build())
                 .collect(Collectors.toList());
 
         // Összefűzés + rendezés orderIndex szerint
@@ -316,6 +336,7 @@ public class StarSystemService {
 
         if (group2 != null) { group2.setOrderIndex(idx1); missionGroupRepository.save(group2); }
         else { mission2.setOrderIndex(idx1); missionRepository.save(mission2); }
+        eventPublisher.publishEvent(new StarSystemContentChangedEvent(starSystemId));
 
         return ReorderResponse.builder()
                 .updated(List.of(
@@ -361,45 +382,53 @@ public class StarSystemService {
     }
 
     private Cadet getCurrentAuthenticatedUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cadetRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        return CurrentCadet.get(cadetRepository);
     }
 
     private boolean hasAuthority(Cadet user, String authorityName) {
-        return user.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(authority -> authority.equals(authorityName));
+        return CurrentCadet.hasAuthority(user, authorityName);
     }
 
-    public void generateAndSaveEmbedding(UUID starSystemId) {
+    /**
+     * Előállítja és elmenti a Star System embeddingjét. A forrásszöveg hash-ét is
+     * eltároljuk: ha a szöveg (és a modell) nem változott, nincs újabb AI-hívás.
+     */
+    public EmbeddingUpdate generateAndSaveEmbedding(UUID starSystemId) {
         StarSystem ss = starSystemRepository.findById(starSystemId).orElse(null);
-        if (ss == null) return;
+        if (ss == null) return EmbeddingUpdate.NOT_FOUND;
 
         List<String> missionNames = missionRepository.findAllByStarSystemId(starSystemId)
                 .stream().map(Mission::getName).collect(Collectors.toList());
 
-        String text = ss.getName()
-                + (ss.getDescription() != null ? " - " + ss.getDescription() : "")
-                + (missionNames.isEmpty() ? "" : ". Missziók: " + String.join(", ", missionNames));
+        String text = embeddingText(ss.getName(), ss.getDescription(), missionNames);
+
+        String sourceHash = embeddingService.sourceHash(text);
+        List<String> storedHash = jdbcTemplate.queryForList(
+                "SELECT content_embedding_hash FROM star_systems WHERE id = ?::uuid AND content_embedding IS NOT NULL",
+                String.class, starSystemId.toString()
+        );
+        if (storedHash.contains(sourceHash)) {
+            log.debug("Embedding for StarSystem {} is up to date", starSystemId);
+            return EmbeddingUpdate.UP_TO_DATE;
+        }
 
         float[] embedding = embeddingService.embed(text);
         if (embedding == null) {
             log.warn("Embedding generation failed for StarSystem {}", starSystemId);
-            return;
+            return EmbeddingUpdate.FAILED;
         }
 
-        String vectorStr = embeddingService.toVectorString(embedding);
         jdbcTemplate.update(
-                "UPDATE star_systems SET content_embedding = ?::vector WHERE id = ?::uuid",
-                vectorStr, starSystemId.toString()
+                "UPDATE star_systems SET content_embedding = ?, content_embedding_hash = ? WHERE id = ?::uuid",
+                new PgVector(embedding), sourceHash, starSystemId.toString()
         );
         log.info("Embedding saved for StarSystem {}", starSystemId);
+        return EmbeddingUpdate.EMBEDDED;
     }
 
     public void deleteEmbedding(UUID starSystemId) {
         jdbcTemplate.update(
-                "UPDATE star_systems SET content_embedding = NULL WHERE id = ?::uuid",
+                "UPDATE star_systems SET content_embedding = NULL, content_embedding_hash = NULL WHERE id = ?::uuid",
                 starSystemId.toString()
         );
         log.info("Embedding deleted for StarSystem {}", starSystemId);
@@ -413,36 +442,24 @@ public class StarSystemService {
         return Boolean.TRUE.equals(result);
     }
 
-    public List<StarSystemSearchResult> searchByEmbedding(String vectorStr, int limit) {
-        return jdbcTemplate.query(
-                """
-                SELECT id, name, description, icon_url,
-                       1 - (content_embedding <=> ?::vector) AS similarity
-                FROM star_systems
-                WHERE content_embedding IS NOT NULL
-                ORDER BY similarity DESC
-                LIMIT ?
-                """,
-                (rs, i) -> StarSystemSearchResult.builder()
-                        .id(UUID.fromString(rs.getString("id")))
-                        .name(rs.getString("name"))
-                        .description(rs.getString("description"))
-                        .iconUrl(rs.getString("icon_url"))
-                        .similarity(rs.getDouble("similarity"))
-                        .build(),
-                vectorStr, limit
-        );
+    /**
+     * A Star System embeddingjének forrásszövege. A misszióneveket rendezzük, hogy a
+     * szöveg (és így a hash-e) ne függjön a lekérdezés sorrendjétől.
+     */
+    static String embeddingText(String name, String description, List<String> missionNames) {
+        List<String> sortedNames = missionNames.stream().sorted().toList();
+        return name
+                + (description != null ? " - " + description : "")
+                + (sortedNames.isEmpty() ? "" : ". Missziók: " + String.join(", ", sortedNames));
     }
 
-    @Transactional
-    public int reindexAllStarSystems() {
-        List<StarSystem> all = starSystemRepository.findAll();
-        int count = 0;
-        for (StarSystem ss : all) {
-            generateAndSaveEmbedding(ss.getId());
-            count++;
-        }
-        log.info("Reindex complete: {} star systems processed", count);
-        return count;
+    /** A generateAndSaveEmbedding kimenete. */
+    public enum EmbeddingUpdate {
+        EMBEDDED,
+        // A forrásszöveg hash-e nem változott, nem volt AI-hívás
+        UP_TO_DATE,
+        // Az AI service nem adott embeddinget, később újrapróbálható
+        FAILED,
+        NOT_FOUND
     }
-}
\ No newline at end of file
+}
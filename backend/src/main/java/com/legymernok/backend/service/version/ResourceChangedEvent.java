@@ -0,0 +1,8 @@
+package com.legymernok.backend.service.version;
+
+/**
+ * Domain esemény: egy erőforrástípus valamely példánya módosult. A ResourceVersions
+ * a tranzakció commitja után lépteti rá a típus verzióját.
+ */
+public record ResourceChangedEvent(ResourceType type) {
+}
@@ -0,0 +1,13 @@
+package com.legymernok.backend.service.version;
+
+/**
+ * Az olvasás-intenzív REST erőforrások verziózott aggregátumai (ResourceVersions,
+ * ConditionalGet). Egy típus verziója a típus bármely példányának módosításakor lép.
+ */
+public enum ResourceType {
+    STAR_SYSTEM,
+    SECTOR,
+    MISSION,
+    FEATURE_FLAG,
+    FILL_IN_BLANK
+}
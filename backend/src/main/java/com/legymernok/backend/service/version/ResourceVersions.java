@@ -0,0 +1,76 @@
+package com.legymernok.backend.service.version;
+
+import com.legymernok.backend.integration.SharedCacheTier;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Erőforrástípusonkénti verziószámlálók a feltételes GET-hez (ConditionalGet): a
+ * verzió olcsón, adatbázis-lekérdezés nélkül olvasható, és minden módosítás commitja
+ * után lép (ResourceChangedEvent).
+ *
+ * Megosztott cache réteggel (SharedCacheTier) a számlálók a példányok közt közösek;
+ * nélküle helyiek, és az indulási időbélyeggel kiegészülnek, így újraindulás után
+ * sem egyezhet egy régi ETag-gel.
+ */
+@Component
+@Slf4j
+public class ResourceVersions {
+
+    private static final String KEY_PREFIX = "resource-version:";
+
+    private final SharedCacheTier sharedTier;
+    private final long epoch = System.currentTimeMillis();
+    private final Map<ResourceType, AtomicLong> localVersions = new EnumMap<>(ResourceType.class);
+
+    public ResourceVersions(ObjectProvider<SharedCacheTier> sharedTier) {
+        this.sharedTier = sharedTier.getIfAvailable();
+        for (ResourceType type : ResourceType.values()) {
+            localVersions.put(type, new AtomicLong());
+        }
+    }
+
+    /** @return A típus aktuális verziója, vagy null, ha a megosztott réteg nem olvasható. */
+    public String current(ResourceType type) {
+        if (sharedTier == null) {
+            return epoch + "." + localVersions.get(type).get();
+        }
+        try {
+            String value = sharedTier.get(KEY_PREFIX + type);
+            return value != null ? value : "0";
+        } catch (RuntimeException e) {
+            log.warn("Could not read shared version of {}: {}", type, e.getMessage());
+            return null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        bump(event.type());
+    }
+
+    /** A Star System tartalmának (missziók, csoportok, sorrend) változása a missziólistákat is érinti. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStarSystemContentChanged(StarSystemContentChangedEvent event) {
+        bump(ResourceType.MISSION);
+    }
+
+    private void bump(ResourceType type) {
+        if (sharedTier == null) {
+            localVersions.get(type).incrementAndGet();
+            return;
+        }
+        try {
+            sharedTier.increment(KEY_PREFIX + type);
+        } catch (RuntimeException e) {
+            log.error("Could not bump shared version of {}: {}", type, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.legymernok.backend.web;
+
+import com.legymernok.backend.dto.admin.GiteaResilienceStatusResponse;
+import com.legymernok.backend.integration.GiteaResilienceInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/gitea")
+@RequiredArgsConstructor
+public class AdminGiteaController {
+
+    private final GiteaResilienceInterceptor giteaResilience;
+
+    @GetMapping("/resilience")
+    @PreAuthorize("hasAuthority('logs:read')")
+    public ResponseEntity<GiteaResilienceStatusResponse> getResilienceStatus() {
+        return ResponseEntity.ok(giteaResilience.status());
+    }
+}
@@ -0,0 +1,24 @@
+package com.legymernok.backend.web;
+
+import com.legymernok.backend.service.version.ResourceType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Feltételes GET egy controller-metódusra: az ETag a felsorolt erőforrástípusok
+ * verziójából (ResourceVersions) és a bejelentkezett felhasználóból képződik, és
+ * egyező If-None-Match esetén a ConditionalGetInterceptor még a metódus (a JPA
+ * lekérdezések és a szerializálás) előtt 304-gyel válaszol.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    /** A válasz tartalmát meghatározó típusok — bármelyik változása új ETag-et ad. */
+    ResourceType[] value();
+}
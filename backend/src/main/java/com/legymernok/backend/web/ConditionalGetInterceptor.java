@@ -0,0 +1,85 @@
+package com.legymernok.backend.web;
+
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.service.version.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.TreeSet;
+
+/**
+ * A @ConditionalGet metódusok ETag-jének kiszámolása és a 304 válasz a handler
+ * futása előtt. Az ETag-et a sikeres válaszra a ConditionalGetResponseAdvice teszi ki.
+ *
+ * Az ETag a felhasználótól (név + jogosultságok) is függ, mert a válasz szerepkör-
+ * és felhasználófüggő lehet (pl. templateRepositoryUrl, my-missions). A 304 a
+ * @PreAuthorize előtt dől el, de csak olyan kliens kaphatja, amelyik a jelenlegi
+ * ETag-et már korábban megkapta.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    private final ResourceVersions resourceVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        String etag = computeEtag(conditionalGet.value());
+        if (etag == null) {
+            return true; // A verzió nem olvasható: feltétel nélkül szolgáljuk ki
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    private String computeEtag(ResourceType[] types) {
+        StringBuilder source = new StringBuilder();
+        for (ResourceType type : types) {
+            String version = resourceVersions.current(type);
+            if (version == null) return null;
+            source.append(type).append('=').append(version).append(';');
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null) {
+            source.append(auth.getName());
+            // Rendezve, hogy a jogosultságok sorrendje ne változtassa az ETag-et
+            TreeSet<String> authorities = new TreeSet<>();
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                authorities.add(authority.getAuthority());
+            }
+            source.append(authorities);
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.legymernok.backend.web.featureflag;
 import com.legymernok.backend.dto.featureflag.FeatureFlagResponse;
 import com.legymernok.backend.dto.featureflag.UpdateFeatureFlagRequest;
 import com.legymernok.backend.service.featureflag.FeatureFlagService;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,7 @@ public class FeatureFlagController {
 
     /** Admin: összes flag listázása kezeléshez. */
     @GetMapping
+    @ConditionalGet(ResourceType.FEATURE_FLAG)
     @PreAuthorize("hasAuthority('feature_flag:read')")
     public ResponseEntity<List<FeatureFlagResponse>> getAllFlags() {
         return ResponseEntity.ok(featureFlagService.getAllFlags());
@@ -33,6 +36,7 @@ public class FeatureFlagController {
      * kötelező, de admin jog nem).
      */
     @GetMapping("/{key}")
+    @ConditionalGet(ResourceType.FEATURE_FLAG)
     public ResponseEntity<FeatureFlagResponse> getFlagByKey(@PathVariable String key) {
         return ResponseEntity.ok(featureFlagService.getFlagByKey(key));
     }
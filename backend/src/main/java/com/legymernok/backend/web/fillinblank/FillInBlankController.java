@@ -2,6 +2,8 @@ package com.legymernok.backend.web.fillinblank;
 
 import com.legymernok.backend.dto.fillinblank.*;
 import com.legymernok.backend.service.fillinblank.FillInBlankService;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -35,12 +37,14 @@ public class FillInBlankController {
     }
 
     @GetMapping("/{missionId}/fill-in-blank/admin")
+    @ConditionalGet(ResourceType.FILL_IN_BLANK)
     @PreAuthorize("hasAuthority('mission:edit')")
     public ResponseEntity<SaveFillInBlankRequest> getDefinitionForAdmin(@PathVariable UUID missionId) {
         return ResponseEntity.ok(fillInBlankService.getDefinitionForAdmin(missionId));
     }
 
     @GetMapping("/{missionId}/fill-in-blank")
+    @ConditionalGet(ResourceType.FILL_IN_BLANK)
     @PreAuthorize("hasAuthority('mission:read')")
     public ResponseEntity<FillInBlankUserResponse> getDefinitionForUser(@PathVariable UUID missionId) {
         return ResponseEntity.ok(fillInBlankService.getDefinitionForUser(missionId));
@@ -3,8 +3,12 @@ package com.legymernok.backend.web.mission;
 import com.legymernok.backend.dto.mission.*;
 import com.legymernok.backend.model.mission.MissionType;
 import jakarta.validation.Valid;
+import com.legymernok.backend.model.mission.MissionStatus;
 import com.legymernok.backend.service.mission.MissionService;
+import com.legymernok.backend.service.mission.MissionStartService;
 import com.legymernok.backend.service.quiz.QuizService;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.web.ConditionalGet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +26,7 @@ import java.util.UUID;
 public class MissionController {
 
     private final MissionService missionService;
+    private final MissionStartService missionStartService;
 
     /**
      * Inicializál egy új missziót a Mission Forge-on keresztül (létrehozza az adatbázis rekordot és a Gitea repót).
@@ -109,8 +114,9 @@ public class MissionController {
     @PreAuthorize("hasAuthority('mission:start')")
     public ResponseEntity<Void> savePlayFiles(
             @PathVariable UUID missionId,
-            @RequestBody Map<String, String> files) {
-        missionService.savePlayFiles(missionId, files);
+            @RequestBody Map<String, String> files,
+            @RequestParam(defaultValue = "false") boolean commit) {
+        missionService.savePlayFiles(missionId, files, commit);
         return ResponseEntity.noContent().build();
     }
 
@@ -142,12 +148,14 @@ public class MissionController {
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(ResourceType.MISSION)
     @PreAuthorize("hasAuthority('mission:read')")
     public ResponseEntity<MissionResponse> getMissionById(@PathVariable UUID id) {
         return ResponseEntity.ok(missionService.getMissionById(id));
     }
 
     @GetMapping
+    @ConditionalGet(ResourceType.MISSION)
     @PreAuthorize("hasAuthority('mission:read')")
     public ResponseEntity<List<MissionResponse>> getAllMissions(@RequestParam(required = false) UUID starSystemId) {
         if (starSystemId != null) {
@@ -157,6 +165,7 @@ public class MissionController {
     }
 
     @GetMapping("/next-order")
+    @ConditionalGet(ResourceType.MISSION)
     @PreAuthorize("hasAuthority('mission:create')")
     public ResponseEntity<Integer> getNextOrder(@RequestParam UUID starSystemId) {
         return ResponseEntity.ok(missionService.getNextOrderForStarSystem(starSystemId));
@@ -194,7 +203,31 @@ public class MissionController {
         return ResponseEntity.ok(repoUrl);
     }
 
+    /**
+     * Aszinkron misszióindítás: azonnal visszatér, a kadét repója a háttérben készül.
+     * A haladás a /topic/mission/{id}/start/{cadetId} STOMP topicon követhető.
+     * @return 202 + a job, amíg az indítás folyamatban van; 200, ha már kész/elbukott.
+     */
+    @PostMapping("/{id}/start/async")
+    @PreAuthorize("hasAuthority('mission:start')")
+    public ResponseEntity<MissionStartJobResponse> startMissionAsync(@PathVariable UUID id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        MissionStartJobResponse job = missionStartService.requestStart(id, username);
+        HttpStatus status = job.getStatus() == MissionStatus.PENDING ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    /** A bejelentkezett kadét indítási jobjának állapota (pl. oldal-újratöltés után). */
+    @GetMapping("/{id}/start/status")
+    @PreAuthorize("hasAuthority('mission:start')")
+    public ResponseEntity<MissionStartJobResponse> getStartJob(@PathVariable UUID id) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.ok(missionStartService.getStartJob(id, username));
+    }
+
     @GetMapping("/my-missions")
+    @ConditionalGet(ResourceType.MISSION)
     @PreAuthorize("hasAuthority('mission:read')")
     public ResponseEntity<List<MissionResponse>> getMyMissions() {
         return ResponseEntity.ok(missionService.getMissionsByCurrentUser());
@@ -209,6 +242,7 @@ public class MissionController {
     }
 
     @GetMapping("/{id}/content")
+    @ConditionalGet(ResourceType.MISSION)
     @PreAuthorize("hasAuthority('mission:read')")
     public ResponseEntity<ContentPageResponse> getContentPage(
             @PathVariable UUID id,
@@ -1,8 +1,10 @@
 package com.legymernok.backend.web.search;
 
+import com.legymernok.backend.dto.search.EmbeddingReindexRunResponse;
 import com.legymernok.backend.dto.search.StarSystemSearchResult;
 import com.legymernok.backend.service.ai.AiEmbeddingService;
-import com.legymernok.backend.service.starsystem.StarSystemService;
+import com.legymernok.backend.service.starsystem.StarSystemEmbeddingReindexer;
+import com.legymernok.backend.service.starsystem.StarSystemSemanticSearch;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,28 +19,43 @@ import java.util.UUID;
 public class SearchController {
 
     private final AiEmbeddingService embeddingService;
-    private final StarSystemService starSystemService;
-
+    private final StarSystemSemanticSearch semanticSearch;
+    private final StarSystemEmbeddingReindexer reindexer;
+
+    /**
+     * Szemantikus keresés, opcionálisan szektorra és tulajdonosra szűrve. Az efSearch és a
+     * probes a recall/késleltetés arányát hangolja (nagyobb: pontosabb, de lassabb);
+     * megadás nélkül a search.semantic.* alapértékek érvényesek.
+     */
     @GetMapping("/search")
     @PreAuthorize("hasAuthority('starsystem:read')")
     public ResponseEntity<List<StarSystemSearchResult>> search(
             @RequestParam String q,
-            @RequestParam(defaultValue = "5") int limit) {
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) UUID sectorId,
+            @RequestParam(required = false) UUID ownerId,
+            @RequestParam(required = false) Integer efSearch,
+            @RequestParam(required = false) Integer probes) {
 
         float[] vector = embeddingService.embed(q);
         if (vector == null) {
             return ResponseEntity.ok(List.of());
         }
-        String vectorStr = embeddingService.toVectorString(vector);
-        return ResponseEntity.ok(starSystemService.searchByEmbedding(vectorStr, limit));
+        return ResponseEntity.ok(semanticSearch.search(vector,
+                new StarSystemSemanticSearch.Filter(sectorId, ownerId), limit,
+                new StarSystemSemanticSearch.Tuning(efSearch, probes)));
     }
 
+    /** Háttérben indítja (vagy folytatja) az újraindexelést; a haladás a GET végponton követhető. */
     @PostMapping("/admin/reindex-star-systems")
     @PreAuthorize("hasAuthority('starsystem:edit_any')")
-    public ResponseEntity<ReindexResponse> reindex() {
-        int count = starSystemService.reindexAllStarSystems();
-        return ResponseEntity.ok(new ReindexResponse(count));
+    public ResponseEntity<EmbeddingReindexRunResponse> reindex() {
+        return ResponseEntity.accepted().body(reindexer.start());
     }
 
-    record ReindexResponse(int indexed) {}
+    @GetMapping("/admin/reindex-star-systems")
+    @PreAuthorize("hasAuthority('starsystem:edit_any')")
+    public ResponseEntity<EmbeddingReindexRunResponse> getReindexStatus() {
+        return ResponseEntity.of(reindexer.getLatestRun());
+    }
 }
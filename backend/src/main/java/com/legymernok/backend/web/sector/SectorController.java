@@ -5,6 +5,8 @@ import com.legymernok.backend.dto.sector.CreateSectorRequest;
 import com.legymernok.backend.dto.sector.SectorResponse;
 import com.legymernok.backend.dto.starsystem.StarSystemResponse;
 import com.legymernok.backend.service.sector.SectorService;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.web.ConditionalGet;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -28,13 +30,16 @@ public class SectorController {
         return new ResponseEntity<>(sectorService.createSector(request), HttpStatus.CREATED);
     }
 
+    // A válasz starSystemCount mezője a Star System írásaival is változik
     @GetMapping
+    @ConditionalGet({ResourceType.SECTOR, ResourceType.STAR_SYSTEM})
     @PreAuthorize("hasAuthority('sector:read')")
     public ResponseEntity<List<SectorResponse>> getAllSectors() {
         return ResponseEntity.ok(sectorService.getAllSectors());
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet({ResourceType.SECTOR, ResourceType.STAR_SYSTEM})
     @PreAuthorize("hasAuthority('sector:read')")
     public ResponseEntity<SectorResponse> getSectorById(@PathVariable UUID id) {
         return ResponseEntity.ok(sectorService.getSectorById(id));
@@ -55,6 +60,7 @@ public class SectorController {
     }
 
     @GetMapping("/{id}/star-systems")
+    @ConditionalGet({ResourceType.SECTOR, ResourceType.STAR_SYSTEM})
     @PreAuthorize("hasAuthority('sector:read')")
     public ResponseEntity<List<StarSystemResponse>> getSectorStarSystems(@PathVariable UUID id) {
         return ResponseEntity.ok(sectorService.getSectorStarSystems(id));
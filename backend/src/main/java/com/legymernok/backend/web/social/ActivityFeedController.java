@@ -1,16 +1,16 @@
 package com.legymernok.backend.web.social;
 
-import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.dto.social.ActivityFeedPageResponse;
 import com.legymernok.backend.service.social.ActivityFeedService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/social")
 @RequiredArgsConstructor
@@ -20,7 +20,9 @@ public class ActivityFeedController {
 
     @GetMapping("/activity-feed")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<ActivityFeedItemResponse>> getActivityFeed() {
-        return ResponseEntity.ok(activityFeedService.getActivityFeed());
+    public ResponseEntity<ActivityFeedPageResponse> getActivityFeed(
+            @RequestParam(required = false) ActivityFeedCursor cursor,
+            @RequestParam(defaultValue = "" + ActivityFeedService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(activityFeedService.getActivityFeed(cursor, size));
     }
 }
@@ -6,12 +6,17 @@ import com.legymernok.backend.dto.starsystem.ReorderItemsRequest;
 import com.legymernok.backend.dto.starsystem.StarSystemResponse;
 import com.legymernok.backend.dto.starsystem.StarSystemWithItemsResponse;
 import com.legymernok.backend.dto.starsystem.StarSystemWithProgressResponse;
+import com.legymernok.backend.service.starsystem.StarSystemDetailCache;
 import com.legymernok.backend.service.starsystem.StarSystemService;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.web.ConditionalGet;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,12 +35,14 @@ public class StarSystemController {
     }
 
     @GetMapping
+    @ConditionalGet(ResourceType.STAR_SYSTEM)
     @PreAuthorize("hasAuthority('starsystem:read')")
     public ResponseEntity<List<StarSystemResponse>> getAllStarSystems() {
         return ResponseEntity.ok(starSystemService.getAllStarSystems());
     }
 
     @GetMapping("/{id}")
+    @ConditionalGet(ResourceType.STAR_SYSTEM)
     @PreAuthorize("hasAuthority('starsystem:read')")
     public ResponseEntity<StarSystemResponse> getStarSystemById(@PathVariable UUID id) {
         return ResponseEntity.ok(starSystemService.getStarSystemById(id));
@@ -58,8 +65,16 @@ public class StarSystemController {
 
     @GetMapping("/{id}/with-missions")
     @PreAuthorize("hasAuthority('starsystem:read')")
-    public ResponseEntity<StarSystemWithItemsResponse> getStarSystemWithItems(@PathVariable UUID id) {
-        return ResponseEntity.ok(starSystemService.getStarSystemWithItems(id));
+    public ResponseEntity<StarSystemWithItemsResponse> getStarSystemWithItems(@PathVariable UUID id, WebRequest webRequest) {
+        StarSystemDetailCache.CachedDetail detail = starSystemService.getCachedStarSystemWithItems(id);
+        if (webRequest.checkNotModified(detail.etag())) {
+            return null; // 304 Not Modified, a fejléceket a checkNotModified állítja be
+        }
+        // Szerepkör-függő tartalom: csak a kliens tárolhatja, és minden használat előtt revalidál
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(detail.etag())
+                .body(detail.response());
     }
 
     @PostMapping("/{id}/reorder-items")
@@ -75,6 +90,7 @@ public class StarSystemController {
     }
 
     @GetMapping("/my-systems")
+    @ConditionalGet(ResourceType.STAR_SYSTEM)
     @PreAuthorize("isAuthenticated()") // Bármely bejelentkezett felhasználó lekérheti a sajátjait
     public ResponseEntity<List<StarSystemResponse>> getMyStarSystems() {
         return ResponseEntity.ok(starSystemService.getSystemsByCurrentUser());
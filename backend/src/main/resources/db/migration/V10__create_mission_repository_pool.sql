@@ -0,0 +1,20 @@
+-- =============================================================================
+-- V10: Előre létrehozott ("meleg") kadét-repók poolja népszerű CODING missziókhoz
+--
+-- A startMission Gitea-lánca (üres repó + secret + másolás + collaborator)
+-- terhelés alatt másodpercekig tart. A MissionRepositoryPoolService háttérben
+-- előre létrehozza és feltölti az admin-owned repókat; indításkor csak
+-- átnevezés + collaborator marad. A template_sha alapján ismerhető fel, ha
+-- a misszió template-je azóta megváltozott (elavult pool-repó).
+-- =============================================================================
+
+CREATE TABLE mission_repository_pool (
+    id           UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    mission_id   UUID NOT NULL REFERENCES missions(id) ON DELETE CASCADE,
+    repo_name    VARCHAR(255) NOT NULL UNIQUE,
+    clone_url    VARCHAR(255) NOT NULL,
+    template_sha VARCHAR(64) NOT NULL,
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_mission_repository_pool_mission ON mission_repository_pool (mission_id, template_sha, created_at);
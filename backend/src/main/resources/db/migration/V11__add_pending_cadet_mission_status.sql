@@ -0,0 +1,10 @@
+-- Aszinkron misszióindítás (MissionStartService): a cadet_missions sor már az
+-- indítás kérésekor PENDING státusszal létrejön, a Gitea-repó a háttérben
+-- készül; sikertelen előkészítés után START_FAILED (újrapróbálható).
+ALTER TABLE cadet_missions DROP CONSTRAINT IF EXISTS cadet_missions_status_check;
+ALTER TABLE cadet_missions ADD CONSTRAINT cadet_missions_status_check
+    CHECK (status IN ('LOCKED','NOT_STARTED','PENDING','START_FAILED','IN_PROGRESS','COMPLETED'));
+
+-- Újraindítás utáni folytatáshoz: a félbemaradt (PENDING) indítások gyors listázása.
+CREATE INDEX IF NOT EXISTS idx_cadet_missions_pending
+    ON cadet_missions (status) WHERE status = 'PENDING';
@@ -0,0 +1,14 @@
+-- Write-behind mentés a CODING misszió-lejátszóhoz (MissionPlayDraftService):
+-- a kadét mentései itt gyűlnek (útvonal -> tartalom), és egy ütemező
+-- N másodpercenként egyetlen Gitea commitba vonja össze őket. A perzisztált
+-- piszkozat miatt egy újraindítás sem veszít el mentett tartalmat.
+CREATE TABLE mission_play_drafts (
+    id               UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    cadet_mission_id UUID NOT NULL UNIQUE REFERENCES cadet_missions(id) ON DELETE CASCADE,
+    files            JSONB NOT NULL,
+    version          BIGINT NOT NULL DEFAULT 0,
+    dirty_since      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_mission_play_drafts_dirty_since ON mission_play_drafts (dirty_since);
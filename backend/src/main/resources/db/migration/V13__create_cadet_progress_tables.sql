@@ -0,0 +1,52 @@
+-- Denormalizált kadét-haladás (CadetProgressService tartja karban): a csillagtérkép,
+-- a profil, a dashboard és az admin statisztika ezekből olvas, nem számolja újra a
+-- cadet_missions / mission_group_progress táblákból minden kérésnél.
+-- Elem = standalone misszió vagy csoport (ugyanaz, mint a csillagtérkép státuszánál).
+CREATE TABLE cadet_star_system_progress (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    cadet_id        UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    star_system_id  UUID NOT NULL REFERENCES star_systems(id) ON DELETE CASCADE,
+    started_items   INTEGER NOT NULL DEFAULT 0,
+    completed_items INTEGER NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    UNIQUE (cadet_id, star_system_id)
+);
+
+CREATE INDEX idx_cadet_star_system_progress_system ON cadet_star_system_progress (star_system_id);
+
+-- Kadét-szintű összesítők + a "folytasd" kártya legutóbbi missziója / nyitott csoportja
+CREATE TABLE cadet_progress_totals (
+    cadet_id           UUID PRIMARY KEY REFERENCES cadets(id) ON DELETE CASCADE,
+    completed_missions BIGINT NOT NULL DEFAULT 0,
+    completed_groups   BIGINT NOT NULL DEFAULT 0,
+    last_mission_id    UUID,
+    last_mission_at    TIMESTAMPTZ,
+    last_group_id      UUID,
+    last_group_at      TIMESTAMPTZ,
+    updated_at         TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Backfill a meglévő adatokból (a későbbi eltérést a CadetProgressService.rebuildAll javítja)
+INSERT INTO cadet_star_system_progress (cadet_id, star_system_id, started_items, completed_items)
+SELECT item.cadet_id, item.star_system_id, COUNT(*), COUNT(*) FILTER (WHERE item.completed)
+FROM (
+    SELECT cm.cadet_id, m.star_system_id, cm.status = 'COMPLETED' AS completed
+    FROM cadet_missions cm JOIN missions m ON m.id = cm.mission_id
+    WHERE m.group_id IS NULL
+    UNION ALL
+    SELECT p.cadet_id, g.star_system_id, p.completed
+    FROM mission_group_progress p JOIN mission_groups g ON g.id = p.group_id
+) item
+GROUP BY item.cadet_id, item.star_system_id;
+
+INSERT INTO cadet_progress_totals (cadet_id, completed_missions, completed_groups,
+                                   last_mission_id, last_mission_at, last_group_id, last_group_at)
+SELECT c.id,
+       (SELECT COUNT(*) FROM cadet_missions cm WHERE cm.cadet_id = c.id AND cm.status = 'COMPLETED'),
+       (SELECT COUNT(*) FROM mission_group_progress p WHERE p.cadet_id = c.id AND p.completed),
+       lm.mission_id, lm.last_updated_at, lg.group_id, lg.last_updated_at
+FROM cadets c
+LEFT JOIN LATERAL (SELECT cm.mission_id, cm.last_updated_at FROM cadet_missions cm
+                   WHERE cm.cadet_id = c.id ORDER BY cm.last_updated_at DESC NULLS LAST LIMIT 1) lm ON true
+LEFT JOIN LATERAL (SELECT p.group_id, p.last_updated_at FROM mission_group_progress p
+                   WHERE p.cadet_id = c.id AND NOT p.completed ORDER BY p.last_updated_at DESC NULLS LAST LIMIT 1) lg ON true;
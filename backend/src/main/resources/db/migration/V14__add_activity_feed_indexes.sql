@@ -0,0 +1,13 @@
+-- Az aktivitás-feed (ActivityFeedRepository) keyset lapozásának indexei: a UNION ALL
+-- minden ága a követett kadét soraiból (occurred_at, id) szerint csökkenő sorrendben,
+-- a kurzor után olvas, így egy lap ára nem függ a korábbi lapok számától.
+-- A mission_group_progress (cadet_id, group_id) és a follows (follower_id, followee_id)
+-- egyedi indexei a join-okhoz már megvannak.
+CREATE INDEX idx_step_completions_feed
+    ON mission_group_step_completions (progress_id, completed_at DESC, id DESC);
+
+CREATE INDEX idx_fill_in_blank_attempts_feed
+    ON fill_in_blank_attempts (cadet_id, submitted_at DESC, id DESC) WHERE passed;
+
+CREATE INDEX idx_mission_results_feed
+    ON mission_results (cadet_id, completed_at DESC, id DESC);
@@ -0,0 +1,48 @@
+-- Fan-out-on-write aktivitás-inbox (ActivityInboxService, social.feed.inbox.enabled):
+-- a teljesítések egy háttérfeladattal a követők inboxába másolódnak, így a feed
+-- egyetlen indexelt olvasás. Sokak által követett kadétoknál (feed_pull) nincs
+-- fan-out: az ő teljesítéseiket a feed olvasáskor húzza be (ActivityFeedRepository).
+ALTER TABLE cadets ADD COLUMN feed_pull BOOLEAN NOT NULL DEFAULT false;
+
+CREATE TABLE activity_inbox (
+    follower_id UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    item_id     UUID NOT NULL,
+    type        VARCHAR(20) NOT NULL,
+    actor_id    UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    mission_id  UUID NOT NULL REFERENCES missions(id) ON DELETE CASCADE,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (follower_id, item_id)
+);
+
+CREATE INDEX idx_activity_inbox_feed ON activity_inbox (follower_id, occurred_at DESC, item_id DESC);
+CREATE INDEX idx_activity_inbox_actor ON activity_inbox (actor_id);
+
+-- A korlátos inbox levágási határa követőnként: az ennél nem újabb elemek már
+-- hiányozhatnak, ezeket a feed a forrástáblákból olvassa.
+CREATE TABLE activity_inbox_horizon (
+    follower_id UUID PRIMARY KEY REFERENCES cadets(id) ON DELETE CASCADE,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    item_id     UUID NOT NULL
+);
+
+-- Fan-out várakozási sor: a teljesítéssel egy tranzakcióban kerül be, a háttérfeladat
+-- kötegekben (FOR UPDATE SKIP LOCKED) dolgozza fel, így újraindításkor sem vész el.
+CREATE TABLE activity_fanout_jobs (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    item_id     UUID NOT NULL,
+    type        VARCHAR(20) NOT NULL,
+    actor_id    UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    mission_id  UUID NOT NULL REFERENCES missions(id) ON DELETE CASCADE,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_activity_fanout_jobs_created_at ON activity_fanout_jobs (created_at);
+
+-- Új követésnél a követett kadét legutóbbi teljesítéseinek betöltése az inboxba
+CREATE TABLE activity_inbox_backfills (
+    follower_id UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    followee_id UUID NOT NULL REFERENCES cadets(id) ON DELETE CASCADE,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (follower_id, followee_id)
+);
@@ -0,0 +1,15 @@
+-- Embedding cache (EmbeddingCache, ai.embedding-cache.persistent): a normalizált
+-- szöveg SHA-256 hash-e és a modell neve szerint tárolt embeddingek, hogy a népszerű
+-- keresések és a változatlan tartalmak újraindulás után se menjenek újra az AI service-hez.
+-- A dimenzió modellfüggő, ezért a vector oszlop dimenzió nélküli.
+CREATE TABLE embedding_cache (
+    model      VARCHAR(100) NOT NULL,
+    text_hash  CHAR(64) NOT NULL,
+    embedding  vector NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (model, text_hash)
+);
+
+-- A Star System embedding forrásszövegének (modellel együtt vett) hash-e: az
+-- újraindexelés kihagyja azokat a rendszereket, amelyek szövege nem változott.
+ALTER TABLE star_systems ADD COLUMN content_embedding_hash CHAR(64);
@@ -0,0 +1,17 @@
+-- A Star System embeddingek újraindexelésének futásai (StarSystemEmbeddingReindexer):
+-- lapokban halad id szerint, és minden lap után elmenti a haladást, így egy
+-- megszakadt (újraindítás) vagy elbukott futás az utolsó kész laptól folytatható.
+CREATE TABLE embedding_reindex_runs (
+    id                  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    status              VARCHAR(20) NOT NULL,
+    total               INTEGER NOT NULL,
+    processed           INTEGER NOT NULL DEFAULT 0,
+    embedded            INTEGER NOT NULL DEFAULT 0,
+    failed              INTEGER NOT NULL DEFAULT 0,
+    last_star_system_id UUID,
+    started_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at         TIMESTAMPTZ
+);
+
+CREATE INDEX idx_embedding_reindex_runs_started_at ON embedding_reindex_runs (started_at DESC);
@@ -0,0 +1,16 @@
+-- Embedding-frissítési outbox (StarSystemEmbeddingRefresher): a Star System és a
+-- missziói írása ugyanabban a tranzakcióban jelöli itt piszkosnak a rendszert, egy
+-- ütemező pedig a csendes időszak (debounce) után, a kérésen kívül generálja újra az
+-- embeddinget. A tábla miatt újraindításkor sem vész el frissítés.
+-- Szándékosan nincs FK: a jelölés a még nem flusholt új rendszerre is megtörténhet,
+-- a törölt rendszerek sorait az ütemező takarítja.
+CREATE TABLE star_system_embedding_refresh (
+    star_system_id UUID PRIMARY KEY,
+    version        BIGINT NOT NULL DEFAULT 0,
+    dirty_since    TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- A már meglévő, embedding nélküli rendszerek is sorra kerülnek
+INSERT INTO star_system_embedding_refresh (star_system_id)
+SELECT id FROM star_systems WHERE content_embedding IS NULL;
@@ -0,0 +1,14 @@
+-- Szemantikus keresés (StarSystemSemanticSearch): a V2 ivfflat indexe (lists = 10) a
+-- rendszerek számával nem skálázódik jól, és üres táblán épült, így a klaszterei
+-- semmit sem tükröztek. A HNSW index nem igényel tanító adatot, a recall pedig
+-- lekérdezésenként hangolható (hnsw.ef_search). Az ivfflat változat továbbra is
+-- visszaállítható: a kereső az ivfflat.probes értékét is beállítja.
+DROP INDEX IF EXISTS idx_star_system_embedding;
+
+CREATE INDEX idx_star_system_embedding_hnsw
+    ON star_systems USING hnsw (content_embedding vector_cosine_ops)
+    WITH (m = 16, ef_construction = 64);
+
+-- Szűrt keresésnél szelektív szűrő esetén a tervező ezekkel pontos keresést választhat
+CREATE INDEX IF NOT EXISTS idx_star_systems_sector ON star_systems (sector_id);
+CREATE INDEX IF NOT EXISTS idx_star_systems_owner ON star_systems (owner_id);
@@ -0,0 +1,27 @@
+-- A V13 backfill (és a karbantartó lekérdezések eddig) minden cadet_missions sort
+-- elkezdett elemnek számoltak, a PENDING / START_FAILED indításokat is — egy sikertelen
+-- indítás így véglegesen megjelent a csillagtérképen és az összesítőkben. A két
+-- táblát a javított szabállyal (csak IN_PROGRESS / COMPLETED) számoljuk újra.
+DELETE FROM cadet_star_system_progress;
+
+INSERT INTO cadet_star_system_progress (cadet_id, star_system_id, started_items, completed_items)
+SELECT item.cadet_id, item.star_system_id, COUNT(*), COUNT(*) FILTER (WHERE item.completed)
+FROM (
+    SELECT cm.cadet_id, m.star_system_id, cm.status = 'COMPLETED' AS completed
+    FROM cadet_missions cm JOIN missions m ON m.id = cm.mission_id
+    WHERE m.group_id IS NULL AND cm.status IN ('IN_PROGRESS', 'COMPLETED')
+    UNION ALL
+    SELECT p.cadet_id, g.star_system_id, p.completed
+    FROM mission_group_progress p JOIN mission_groups g ON g.id = p.group_id
+) item
+GROUP BY item.cadet_id, item.star_system_id;
+
+UPDATE cadet_progress_totals t
+SET last_mission_id = lm.mission_id,
+    last_mission_at = lm.last_updated_at,
+    updated_at      = now()
+FROM cadets c
+LEFT JOIN LATERAL (SELECT cm.mission_id, cm.last_updated_at FROM cadet_missions cm
+                   WHERE cm.cadet_id = c.id AND cm.status IN ('IN_PROGRESS', 'COMPLETED')
+                   ORDER BY cm.last_updated_at DESC NULLS LAST LIMIT 1) lm ON true
+WHERE t.cadet_id = c.id;
@@ -0,0 +1,7 @@
+-- Az embedding_cache eddig csak nőtt: minden új keresőkifejezés és minden modellváltás
+-- után új sorok keletkeztek, törlés nélkül. A last_used_at alapján az EmbeddingCache.prune
+-- ütemezetten törli a régóta nem használt és a már nem beállított modellhez tartozó sorokat.
+-- A meglévő sorok a migráció idejét kapják, így a teljes megőrzési időt kivárják.
+ALTER TABLE embedding_cache ADD COLUMN last_used_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX idx_embedding_cache_last_used_at ON embedding_cache (last_used_at);
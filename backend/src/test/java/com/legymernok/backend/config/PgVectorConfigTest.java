@@ -0,0 +1,69 @@
+package com.legymernok.backend.config;
+
+import com.legymernok.backend.integration.PgVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.TypeInfo;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PgVectorConfigTest {
+
+    private static final int VECTOR_OID = 16390;
+
+    @Mock private DataSource target;
+    // A pool proxyja, amely mögött a fizikai kapcsolat van
+    @Mock private Connection pooledConnection;
+    @Mock private BaseConnection physicalConnection;
+    @Mock private TypeInfo typeInfo;
+    @Mock private QueryExecutor queryExecutor;
+
+    private PgVectorConfig.PgVectorDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new PgVectorConfig.PgVectorDataSource(target);
+        when(target.getConnection()).thenReturn(pooledConnection);
+        when(pooledConnection.isWrapperFor(BaseConnection.class)).thenReturn(true);
+        when(pooledConnection.unwrap(BaseConnection.class)).thenReturn(physicalConnection);
+        lenient().when(physicalConnection.isWrapperFor(BaseConnection.class)).thenReturn(true);
+        lenient().when(physicalConnection.unwrap(BaseConnection.class)).thenReturn(physicalConnection);
+        when(physicalConnection.getTypeInfo()).thenReturn(typeInfo);
+        lenient().when(physicalConnection.getQueryExecutor()).thenReturn(queryExecutor);
+    }
+
+    @Test
+    void getConnection_ShouldRegisterEachPhysicalConnectionOnce() throws SQLException {
+        when(typeInfo.getPGType(PgVector.TYPE)).thenReturn(VECTOR_OID);
+
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        verify(physicalConnection, times(1)).addDataType(PgVector.TYPE, PgVector.class);
+        verify(queryExecutor, times(1)).addBinarySendOid(VECTOR_OID);
+        verify(queryExecutor, times(1)).addBinaryReceiveOid(VECTOR_OID);
+    }
+
+    @Test
+    void getConnection_BeforeExtensionIsInstalled_ShouldRetryLater() throws SQLException {
+        // A Flyway V2 előtt a vector típus még nem létezik
+        when(typeInfo.getPGType(PgVector.TYPE)).thenReturn(Oid.UNSPECIFIED, VECTOR_OID);
+
+        dataSource.getConnection();
+        verifyNoInteractions(queryExecutor);
+
+        dataSource.getConnection();
+        verify(queryExecutor).addBinarySendOid(VECTOR_OID);
+    }
+}
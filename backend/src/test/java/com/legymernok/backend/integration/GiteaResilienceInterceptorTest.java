@@ -0,0 +1,160 @@
+package com.legymernok.backend.integration;
+
+import com.legymernok.backend.exception.ExternalServiceException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A GiteaResilienceInterceptor tesztjei egy helyi, Giteát imitáló HTTP szerverrel:
+ * GET-retry, circuit breaker nyitás/half-open visszazárás és bulkhead-elutasítás.
+ */
+class GiteaResilienceInterceptorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger hits = new AtomicInteger();
+    // Ennyi kérésre válaszol még 503-mal a szerver, utána 200-zal
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+    private final OutboundHttpClients httpClients =
+            new OutboundHttpClients(new MockEnvironment(), new SimpleMeterRegistry(), ObservationRegistry.NOOP);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/v1/repos/admin/repo", exchange -> {
+            hits.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            int status = failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0 ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.createContext("/api/v1/user/repos", exchange -> {
+            try {
+                slowRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowRelease.countDown();
+        httpClients.close();
+        server.stop(0);
+    }
+
+    private static GiteaResilienceInterceptor resilience(int provisionLimit, int minimumCalls, long openDurationMillis) {
+        return new GiteaResilienceInterceptor(8, provisionLimit, 8, 50,
+                minimumCalls, minimumCalls, 0.5, openDurationMillis, 1,
+                3, 1, 5, new SimpleMeterRegistry());
+    }
+
+    private RestClient client(GiteaResilienceInterceptor resilience) {
+        return httpClients.restClient("gitea").baseUrl(baseUrl).requestInterceptor(resilience).build();
+    }
+
+    @Test
+    void get_whenServerIsTemporarilyUnavailable_shouldRetryAndSucceed() {
+        RestClient client = client(resilience(8, 10, 30000));
+        failuresLeft.set(2);
+
+        client.get().uri("/repos/admin/repo").retrieve().toBodilessEntity();
+
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void patch_whenServerFails_shouldNotRetryNonIdempotentCall() {
+        RestClient client = client(resilience(8, 10, 30000));
+        failuresLeft.set(5);
+
+        assertThrows(HttpServerErrorException.class,
+                () -> client.patch().uri("/repos/admin/repo").body("{}").retrieve().toBodilessEntity());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void circuitBreaker_shouldOpenOnFailuresFailFastAndCloseAfterHalfOpenProbe() throws InterruptedException {
+        GiteaResilienceInterceptor resilience = resilience(8, 4, 200);
+        RestClient client = client(resilience);
+        failuresLeft.set(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> client.patch().uri("/repos/admin/repo").body("{}").retrieve().toBodilessEntity());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.circuitBreakerState());
+
+        // Nyitott állapotban a hívás el sem éri a szervert
+        assertThrows(ExternalServiceException.class,
+                () -> client.get().uri("/repos/admin/repo").retrieve().toBodilessEntity());
+        assertEquals(4, hits.get());
+        assertEquals("OPEN", resilience.status().getCircuitBreakerState());
+
+        Thread.sleep(250);
+        client.get().uri("/repos/admin/repo").retrieve().toBodilessEntity();
+
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.circuitBreakerState());
+        assertEquals(5, hits.get());
+    }
+
+    @Test
+    void bulkhead_whenOperationClassIsFull_shouldRejectFastWithoutBlockingOtherClasses() throws Exception {
+        GiteaResilienceInterceptor resilience = resilience(1, 10, 30000);
+        RestClient client = client(resilience);
+
+        Future<?> slowCall = Executors.newSingleThreadExecutor().submit(() ->
+                client.post().uri("/user/repos").body("{}").retrieve().toBodilessEntity());
+        while (resilience.status().getBulkheadAvailable().get("PROVISION") > 0) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(ExternalServiceException.class,
+                () -> client.post().uri("/user/repos").body("{}").retrieve().toBodilessEntity());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+        // Az olvasások saját bulkheadje szabad marad
+        client.get().uri("/repos/admin/repo").retrieve().toBodilessEntity();
+
+        slowRelease.countDown();
+        slowCall.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void classify_shouldSeparateReadsCommitsAndProvisioning() {
+        assertEquals(GiteaResilienceInterceptor.OperationClass.READ, GiteaResilienceInterceptor.classify(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("http://gitea/api/v1/repos/a/b/contents/x.py"))));
+        assertEquals(GiteaResilienceInterceptor.OperationClass.COMMIT, GiteaResilienceInterceptor.classify(
+                new MockClientHttpRequest(HttpMethod.POST, URI.create("http://gitea/api/v1/repos/a/b/contents"))));
+        assertEquals(GiteaResilienceInterceptor.OperationClass.PROVISION, GiteaResilienceInterceptor.classify(
+                new MockClientHttpRequest(HttpMethod.POST, URI.create("http://gitea/api/v1/user/repos"))));
+    }
+}
@@ -0,0 +1,71 @@
+package com.legymernok.backend.integration;
+
+import com.legymernok.backend.exception.ExternalServiceException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A GiteaService olvasó metódusai a nyitott circuit breaker gyors hibáját nem
+ * fordíthatják "üres repóra" / "nincs fájl"-ra — a hívónak 503-ként kell látnia.
+ */
+class GiteaServiceCircuitBreakerTest {
+
+    private HttpServer server;
+    private GiteaService giteaService;
+    private GiteaResilienceInterceptor resilience;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/repos/admin/repo", exchange -> {
+            hits.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+        // Két hibás hívás után nyit, GET-retry nélkül
+        resilience = new GiteaResilienceInterceptor(8, 8, 8, 500, 2, 2, 0.5, 30000, 1, 1, 0, 0,
+                new SimpleMeterRegistry());
+        giteaService = new GiteaService(apiUrl, "admin", "secret", "token",
+                "admin", "js-template", "admin", "py-template", "admin", "quiz-template",
+                "verification-secret", 4, 2, 1000,
+                new TemplateSnapshotCache(8, new SimpleMeterRegistry()),
+                new RepositoryBlobIndex(100, 30, new SimpleMeterRegistry()),
+                new OutboundHttpClients(new MockEnvironment(), new SimpleMeterRegistry(), ObservationRegistry.NOOP),
+                resilience);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        giteaService.shutdownTreeFetchExecutor();
+    }
+
+    @Test
+    void readMethods_whenCircuitBreakerIsOpen_shouldPropagateExternalServiceException() {
+        // A 5xx válaszok a breaker nyitásáig a régi módon "üres" eredményt adnak
+        assertTrue(giteaService.getRepoContents("admin", "repo", "").isEmpty());
+        assertNull(giteaService.getFileContent("admin", "repo", "solution.js"));
+        assertEquals(CircuitBreaker.State.OPEN, resilience.circuitBreakerState());
+        int hitsBeforeOpen = hits.get();
+
+        assertThrows(ExternalServiceException.class, () -> giteaService.getRepoContents("admin", "repo", ""));
+        assertThrows(ExternalServiceException.class, () -> giteaService.getFileContent("admin", "repo", "solution.js"));
+        assertThrows(ExternalServiceException.class, () -> giteaService.getHeadCommitSha("admin", "repo"));
+        assertThrows(ExternalServiceException.class, () -> giteaService.getRepositorySnapshot("admin", "repo"));
+        assertEquals(hitsBeforeOpen, hits.get(), "an open breaker must not reach Gitea");
+    }
+}
@@ -0,0 +1,180 @@
+package com.legymernok.backend.integration;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A GiteaService.getRepositorySnapshot() tesztjei egy helyi, JDK HttpServer-rel
+ * futó "fake Gitea" ellen — egy archívum-hívásból kell a teljes repót kibontani,
+ * és csak akkor szabad a contents API-hoz visszanyúlni, ha az archívum nem érhető el.
+ * Változatlan HEAD commit mellett a kadét-másolat a TemplateSnapshotCache-ből jön.
+ */
+class GiteaServiceSnapshotTest {
+
+    private HttpServer server;
+    private GiteaService giteaService;
+    private final AtomicInteger archiveCalls = new AtomicInteger();
+    private final AtomicInteger contentsCalls = new AtomicInteger();
+    private final AtomicInteger batchCommits = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+        giteaService = new GiteaService(apiUrl, "admin", "secret", "token",
+                "admin", "js-template", "admin", "py-template", "admin", "quiz-template",
+                "verification-secret", 4, 2, 1000,
+                new TemplateSnapshotCache(8, new SimpleMeterRegistry()),
+                new RepositoryBlobIndex(100, 30, new SimpleMeterRegistry()),
+                new OutboundHttpClients(new MockEnvironment(), new SimpleMeterRegistry(), ObservationRegistry.NOOP),
+                new GiteaResilienceInterceptor(32, 8, 16, 500, 20, 10, 0.5, 30000, 3, 3, 0, 0, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        giteaService.shutdownTreeFetchExecutor();
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                if (entry.getValue() != null) zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private void respond(com.sun.net.httpserver.HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void getRepositorySnapshot_shouldUnpackArchiveWithSingleRequest() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("mission-repo/", null);
+        entries.put("mission-repo/solution.js", "export function add(a, b) { return a + b; }");
+        entries.put("mission-repo/.gitea/workflows/", null);
+        entries.put("mission-repo/.gitea/workflows/ci.yml", "name: verify — ékezetes");
+        byte[] archive = zip(entries);
+
+        server.createContext("/api/v1/repos/admin/mission-repo/archive/main.zip", exchange -> {
+            archiveCalls.incrementAndGet();
+            respond(exchange, 200, "application/zip", archive);
+        });
+        server.createContext("/api/v1/repos/admin/mission-repo/contents", exchange -> {
+            contentsCalls.incrementAndGet();
+            respond(exchange, 500, "application/json", new byte[0]);
+        });
+
+        Map<String, String> snapshot = giteaService.getRepositorySnapshot("admin", "mission-repo");
+
+        assertEquals(Map.of(
+                "solution.js", "export function add(a, b) { return a + b; }",
+                ".gitea/workflows/ci.yml", "name: verify — ékezetes"), snapshot);
+        assertEquals(1, archiveCalls.get());
+        assertEquals(0, contentsCalls.get(), "the contents API must not be touched when the archive is available");
+    }
+
+    @Test
+    void getRepositorySnapshot_whenArchiveMissing_shouldFallBackToContentsApi() {
+        server.createContext("/api/v1/repos/admin/legacy-repo/archive/main.zip", exchange -> {
+            archiveCalls.incrementAndGet();
+            respond(exchange, 404, "application/json", "{\"message\":\"not found\"}".getBytes(StandardCharsets.UTF_8));
+        });
+        server.createContext("/api/v1/repos/admin/legacy-repo/contents", exchange -> {
+            contentsCalls.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            String json;
+            if (path.endsWith("/contents")) {
+                json = "[{\"name\":\"starter.py\",\"path\":\"starter.py\",\"sha\":\"a1\",\"type\":\"file\"}]";
+            } else {
+                String encoded = Base64.getEncoder().encodeToString("pass".getBytes(StandardCharsets.UTF_8));
+                json = "{\"name\":\"starter.py\",\"path\":\"starter.py\",\"sha\":\"a1\",\"type\":\"file\",\"content\":\"" + encoded + "\"}";
+            }
+            respond(exchange, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+        });
+
+        Map<String, String> snapshot = giteaService.getRepositorySnapshot("admin", "legacy-repo");
+
+        assertEquals(Map.of("starter.py", "pass"), snapshot);
+        assertEquals(1, archiveCalls.get());
+        assertEquals(2, contentsCalls.get());
+    }
+
+    private void serveMissionRepository(String headSha) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("mission-repo/solution.js", "export function add(a, b) { return a + b; }");
+        entries.put("mission-repo/starter.js", "export function add(a, b) {}");
+        entries.put("mission-repo/solution.test.js", "test('adds', () => {});");
+        byte[] archive = zip(entries);
+
+        server.createContext("/api/v1/repos/admin/mission-repo/branches/main", exchange ->
+                respond(exchange, 200, "application/json",
+                        ("{\"name\":\"main\",\"commit\":{\"id\":\"" + headSha + "\"}}").getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/api/v1/repos/admin/mission-repo/archive/" + headSha + ".zip", exchange -> {
+            archiveCalls.incrementAndGet();
+            respond(exchange, 200, "application/zip", archive);
+        });
+        server.createContext("/api/v1/repos/admin/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            exchange.getRequestBody().readAllBytes();
+            if (path.endsWith("/contents") && "POST".equals(exchange.getRequestMethod())) {
+                batchCommits.incrementAndGet();
+            } else if (path.contains("/contents")) {
+                contentsCalls.incrementAndGet();
+            }
+            respond(exchange, 201, "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @Test
+    void copyMissionRepositoryForCadet_withUnchangedHead_shouldReadTemplateOnlyOnce() throws IOException {
+        serveMissionRepository("abc123");
+
+        giteaService.copyMissionRepositoryForCadet("admin", "mission-repo", "cadet-anna-mission-repo", "mission-repo");
+        giteaService.copyMissionRepositoryForCadet("admin", "mission-repo", "cadet-bela-mission-repo", "mission-repo");
+
+        assertEquals(1, archiveCalls.get(), "the second cadet must be served from the snapshot cache");
+        assertEquals(2, batchCommits.get(), "each cadet repo gets exactly one batch commit");
+        assertEquals(0, contentsCalls.get(), "fresh cadet repos must not be listed for existing SHAs");
+    }
+
+    @Test
+    void copyMissionRepositoryForCadet_afterEviction_shouldReadTemplateAgain() throws IOException {
+        serveMissionRepository("abc123");
+
+        giteaService.copyMissionRepositoryForCadet("admin", "mission-repo", "cadet-anna-mission-repo", "mission-repo");
+        giteaService.evictTemplateSnapshots("admin", "mission-repo");
+        giteaService.copyMissionRepositoryForCadet("admin", "mission-repo", "cadet-bela-mission-repo", "mission-repo");
+
+        assertEquals(2, archiveCalls.get());
+    }
+}
@@ -0,0 +1,185 @@
+package com.legymernok.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A diff-alapú GiteaService.uploadFiles() tesztjei egy "fake Gitea" ellen: csak a
+ * ténylegesen változott fájlok kerülhetnek a batch commitba, beágyazott útvonalaknál
+ * is a helyes blob SHA-val, változatlan tartalomnál pedig commit sem történhet.
+ */
+class GiteaServiceUploadFilesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private GiteaService giteaService;
+    private final AtomicInteger treeCalls = new AtomicInteger();
+    private final List<List<Map<String, Object>>> batches = new CopyOnWriteArrayList<>();
+    private final Map<String, String> repoShas = new HashMap<>();
+    private final Deque<Integer> batchStatuses = new ArrayDeque<>();
+    // A main ág HEAD commitja; minden sikeres batch commit (és push) új SHA-t ad
+    private final AtomicReference<String> head = new AtomicReference<>("c0");
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/repos/admin/cadet-repo/git/trees/main", exchange -> {
+            treeCalls.incrementAndGet();
+            List<Map<String, Object>> tree = new ArrayList<>();
+            repoShas.forEach((path, sha) -> tree.add(Map.of("path", path, "type", "blob", "sha", sha)));
+            tree.add(Map.of("path", "src", "type", "tree", "sha", "tree-sha"));
+            respond(exchange, 200, objectMapper.writeValueAsBytes(Map.of("tree", tree, "truncated", false)));
+        });
+        server.createContext("/api/v1/repos/admin/cadet-repo/branches/main", exchange ->
+                respond(exchange, 200, objectMapper.writeValueAsBytes(Map.of("commit", Map.of("id", head.get())))));
+        server.createContext("/api/v1/repos/admin/cadet-repo/contents", exchange -> {
+            Map<?, ?> body = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> files = (List<Map<String, Object>>) body.get("files");
+            batches.add(files);
+            Integer status = batchStatuses.poll();
+            if (status != null && status >= 400) {
+                respond(exchange, status, "{}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            for (Map<String, Object> file : files) {
+                if ("delete".equals(file.get("operation"))) {
+                    repoShas.remove((String) file.get("path"));
+                } else {
+                    String content = new String(Base64.getDecoder().decode((String) file.get("content")), StandardCharsets.UTF_8);
+                    repoShas.put((String) file.get("path"), RepositoryBlobIndex.gitBlobSha(content));
+                }
+            }
+            head.set("c" + commits.incrementAndGet());
+            respond(exchange, 201, objectMapper.writeValueAsBytes(Map.of("commit", Map.of("sha", head.get()))));
+        });
+        server.start();
+
+        String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+        giteaService = new GiteaService(apiUrl, "admin", "secret", "token",
+                "admin", "js-template", "admin", "py-template", "admin", "quiz-template",
+                "verification-secret", 4, 2, 1000,
+                new TemplateSnapshotCache(8, new SimpleMeterRegistry()),
+                new RepositoryBlobIndex(100, 30, new SimpleMeterRegistry()),
+                new OutboundHttpClients(new MockEnvironment(), new SimpleMeterRegistry(), ObservationRegistry.NOOP),
+                new GiteaResilienceInterceptor(32, 8, 16, 500, 20, 10, 0.5, 30000, 3, 3, 0, 0, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        giteaService.shutdownTreeFetchExecutor();
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, Object> action(List<Map<String, Object>> batch, String path) {
+        return batch.stream().filter(a -> path.equals(a.get("path"))).findFirst().orElse(null);
+    }
+
+    @Test
+    void gitBlobSha_shouldMatchGitHashObject() {
+        assertEquals("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391", RepositoryBlobIndex.gitBlobSha(""));
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", RepositoryBlobIndex.gitBlobSha("hello\n"));
+    }
+
+    @Test
+    void uploadFiles_shouldCommitOnlyChangedAndNewFilesWithNestedShas() {
+        repoShas.put("solution.js", RepositoryBlobIndex.gitBlobSha("let a = 1;"));
+        repoShas.put("src/util.js", RepositoryBlobIndex.gitBlobSha("old"));
+
+        Map<String, String> files = new HashMap<>();
+        files.put("solution.js", "let a = 1;");
+        files.put("src/util.js", "new");
+        files.put("notes.md", "hello");
+        giteaService.uploadFiles("admin", "cadet-repo", files, "Save", null);
+
+        assertEquals(1, batches.size());
+        List<Map<String, Object>> batch = batches.get(0);
+        assertEquals(2, batch.size(), "the unchanged solution.js must not be re-committed");
+        assertEquals("update", action(batch, "src/util.js").get("operation"));
+        assertEquals(RepositoryBlobIndex.gitBlobSha("old"), action(batch, "src/util.js").get("sha"));
+        assertEquals("create", action(batch, "notes.md").get("operation"));
+    }
+
+    @Test
+    void uploadFiles_whenNothingChangedSinceLastSave_shouldNotCallGitea() {
+        Map<String, String> files = Map.of("solution.js", "let a = 2;");
+
+        giteaService.uploadFiles("admin", "cadet-repo", files, "Save", null);
+        giteaService.uploadFiles("admin", "cadet-repo", files, "Save", null);
+
+        assertEquals(1, treeCalls.get(), "the file tree is listed only once and then kept in the index");
+        assertEquals(1, batches.size(), "the second, identical save must be skipped");
+        assertEquals("create", batches.get(0).get(0).get("operation"));
+    }
+
+    @Test
+    void uploadFiles_whenIndexIsStale_shouldRetryOnceWithFreshTree() {
+        repoShas.put("solution.js", RepositoryBlobIndex.gitBlobSha("v1"));
+        giteaService.uploadFiles("admin", "cadet-repo", Map.of("solution.js", "v2"), "Save", null);
+
+        // A kadét push-a a HEAD lekérdezése és a commit közé esik: az index még
+        // aktuálisnak látszik, de a Gitea a régi SHA-t elutasítja
+        repoShas.put("solution.js", RepositoryBlobIndex.gitBlobSha("v3"));
+        batchStatuses.add(422);
+        giteaService.uploadFiles("admin", "cadet-repo", Map.of("solution.js", "v4"), "Save", null);
+
+        assertEquals(2, treeCalls.get());
+        assertEquals(3, batches.size());
+        assertEquals(RepositoryBlobIndex.gitBlobSha("v2"), batches.get(1).get(0).get("sha"));
+        assertEquals(RepositoryBlobIndex.gitBlobSha("v3"), batches.get(2).get(0).get("sha"));
+    }
+
+    @Test
+    void uploadFiles_whenHeadMovedSinceIndexing_shouldNotSkipRevertedFile() {
+        repoShas.put("solution.js", RepositoryBlobIndex.gitBlobSha("v1"));
+        giteaService.uploadFiles("admin", "cadet-repo", Map.of("solution.js", "v2"), "Save", null);
+
+        // A kadét git push-sal v3-at commitolt, majd a szerkesztőben visszamenti az indexelt v2-t
+        repoShas.put("solution.js", RepositoryBlobIndex.gitBlobSha("v3"));
+        head.set("pushed");
+        giteaService.uploadFiles("admin", "cadet-repo", Map.of("solution.js", "v2"), "Save", null);
+
+        assertEquals(2, treeCalls.get(), "a moved HEAD must invalidate the index");
+        assertEquals(2, batches.size(), "the reverted file must still be committed");
+        assertEquals(RepositoryBlobIndex.gitBlobSha("v3"), batches.get(1).get(0).get("sha"));
+        assertEquals(RepositoryBlobIndex.gitBlobSha("v2"), repoShas.get("solution.js"));
+    }
+
+    @Test
+    void deleteFile_shouldUseNestedBlobShaFromTree() {
+        repoShas.put("src/util.js", RepositoryBlobIndex.gitBlobSha("old"));
+
+        giteaService.deleteFile("admin", "cadet-repo", "src/util.js", null);
+
+        Map<String, Object> delete = batches.get(0).get(0);
+        assertEquals("delete", delete.get("operation"));
+        assertEquals(RepositoryBlobIndex.gitBlobSha("old"), delete.get("sha"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.legymernok.backend.integration;
+
+import com.legymernok.backend.exception.ExternalServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A GiteaTreeFetcher párhuzamos fabejárásának tesztjei — HTTP nélkül, egy
+ * memóriabeli "repó" (mappa -> bejegyzések, útvonal -> tartalom) felett.
+ */
+class GiteaTreeFetcherTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static GiteaService.GiteaContent file(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return new GiteaService.GiteaContent(name, path, "sha-" + path, "file", null, null);
+    }
+
+    private static GiteaService.GiteaContent dir(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return new GiteaService.GiteaContent(name, path, null, "dir", null, null);
+    }
+
+    @Test
+    void fetch_shouldReturnSameMapAsSequentialWalk() {
+        Map<String, List<GiteaService.GiteaContent>> tree = new HashMap<>();
+        tree.put("", List.of(file("solution.test.js"), file("starter.js"), dir(".gitea")));
+        tree.put(".gitea", List.of(dir(".gitea/workflows")));
+        tree.put(".gitea/workflows", List.of(file(".gitea/workflows/ci.yml")));
+
+        GiteaTreeFetcher fetcher = new GiteaTreeFetcher(executor, 8, 4, 1000);
+        Map<String, String> result = fetcher.fetch("",
+                path -> tree.getOrDefault(path, List.of()),
+                path -> "content of " + path);
+
+        assertEquals(Map.of(
+                "solution.test.js", "content of solution.test.js",
+                "starter.js", "content of starter.js",
+                ".gitea/workflows/ci.yml", "content of .gitea/workflows/ci.yml"), result);
+    }
+
+    @Test
+    void fetch_shouldSkipFilesWhoseContentCouldNotBeRead() {
+        GiteaTreeFetcher fetcher = new GiteaTreeFetcher(executor, 8, 4, 1000);
+        Map<String, String> result = fetcher.fetch("",
+                path -> List.of(file("a.js"), file("missing.js")),
+                path -> path.equals("missing.js") ? null : "x");
+
+        assertEquals(Map.of("a.js", "x"), result);
+    }
+
+    @Test
+    void fetch_whenRepositoryIsEmpty_shouldReturnEmptyMap() {
+        GiteaTreeFetcher fetcher = new GiteaTreeFetcher(executor, 8, 4, 1000);
+
+        assertTrue(fetcher.fetch("", path -> List.of(), path -> "x").isEmpty());
+    }
+
+    @Test
+    void fetch_shouldNeverExceedPerRepoConcurrency() {
+        List<GiteaService.GiteaContent> files = new ArrayList<>();
+        for (int i = 0; i < 40; i++) files.add(file("file" + i + ".js"));
+
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        GiteaTreeFetcher fetcher = new GiteaTreeFetcher(executor, 8, 3, 1000);
+        Map<String, String> result = fetcher.fetch("", path -> files, path -> {
+            int now = current.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            return "x";
+        });
+
+        assertEquals(40, result.size());
+        assertTrue(peak.get() <= 3, "at most 3 calls may be in flight for one repository, saw " + peak.get());
+        assertTrue(peak.get() > 1, "reads should actually overlap");
+    }
+
+    @Test
+    void fetch_whenReaderThrows_shouldPropagateException() {
+        GiteaTreeFetcher fetcher = new GiteaTreeFetcher(executor, 8, 4, 1000);
+
+        ExternalServiceException ex = assertThrows(ExternalServiceException.class, () -> fetcher.fetch("",
+                path -> List.of(file("a.js")),
+                path -> { throw new ExternalServiceException("Gitea", "boom"); }));
+        assertTrue(ex.getMessage().contains("boom"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.legymernok.backend.integration;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A SharedCacheTier memóriabeli megfelelője tesztekhez (Redis helyett). A TTL-t
+ * figyelmen kívül hagyja; a failing kapcsolóval a réteg kiesése szimulálható.
+ */
+public class InMemorySharedCacheTier implements SharedCacheTier {
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private volatile boolean failing;
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    @Override
+    public String get(String key) {
+        checkAvailable();
+        return values.get(key);
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        checkAvailable();
+        values.put(key, value);
+    }
+
+    @Override
+    public long increment(String key) {
+        checkAvailable();
+        return Long.parseLong(values.merge(key, "1", (old, one) -> String.valueOf(Long.parseLong(old) + 1)));
+    }
+
+    private void checkAvailable() {
+        if (failing) {
+            throw new IllegalStateException("Shared cache tier unavailable");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.legymernok.backend.integration;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Az OutboundHttpClients tesztjei egy helyi HTTP szerverrel: kapcsolat-újrahasznosítás,
+ * read timeout és a pool metrikák.
+ */
+class OutboundHttpClientsTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final MockEnvironment environment = new MockEnvironment();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboundHttpClients httpClients;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        environment.setProperty("http.client.test.max-total", "7");
+        environment.setProperty("http.client.test.max-per-route", "3");
+        environment.setProperty("http.client.test.read-timeout-ms", "300");
+        httpClients = new OutboundHttpClients(environment, meterRegistry, ObservationRegistry.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClients.close();
+        server.stop(0);
+    }
+
+    @Test
+    void restClient_shouldReuseKeepAliveConnection() {
+        RestClient client = httpClients.restClient("test").baseUrl(baseUrl).build();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", client.get().uri("/ok").retrieve().body(String.class));
+        }
+
+        assertEquals(1, clientPorts.size(), "all calls should go through one pooled connection");
+    }
+
+    @Test
+    void restClient_whenServerIsSlow_shouldFailWithReadTimeout() {
+        RestClient client = httpClients.restClient("test").baseUrl(baseUrl).build();
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> client.get().uri("/slow").retrieve().toBodilessEntity());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1500, "the call should not wait for the slow server");
+    }
+
+    @Test
+    void restTemplate_shouldRegisterPoolMetricsPerClient() {
+        httpClients.restTemplate("test").getForObject(baseUrl + "/ok", String.class);
+
+        assertEquals(7.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "test").gauge().value());
+        assertEquals(3.0, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "test").gauge().value());
+    }
+
+    @Test
+    void settings_shouldFallBackToDefaultsForUnconfiguredClient() {
+        OutboundHttpClients.Settings settings = httpClients.settings("other");
+
+        assertEquals(50, settings.maxTotal());
+        assertEquals(30000L, settings.readTimeoutMillis());
+        assertTrue(settings.compression());
+    }
+}
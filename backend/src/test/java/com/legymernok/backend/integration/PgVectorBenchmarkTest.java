@@ -0,0 +1,197 @@
+package com.legymernok.backend.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A bináris vektor-átvitel (PgVector paraméter, cast nélkül) és a korábbi szöveges út
+ * ("[f1,f2,...]" literál StringBuilderrel, ?::vector casttal) összevetése JMH helyett:
+ * 768 dimenziós vektorok beszúrása, frissítése, a "<=>" lekérdezés és a vektor
+ * visszaolvasása, műveletenkénti idővel. A mért idő a kliensoldali kódolást, az
+ * átvitelt és a szerveroldali parse-olást együtt tartalmazza.
+ *
+ * Valódi pgvectoros PostgreSQL kell hozzá, ezért csak akkor fut, ha a PGVECTOR_BENCH_URL
+ * meg van adva (mellé PGVECTOR_BENCH_USER és PGVECTOR_BENCH_PASSWORD), mint a
+ * StarSystemSemanticSearchBenchmarkTest. Ideiglenes táblát használ.
+ */
+@EnabledIfEnvironmentVariable(named = "PGVECTOR_BENCH_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class PgVectorBenchmarkTest {
+
+    private static final int DIMENSIONS = 768;
+    private static final int ROWS = 5_000;
+    private static final int QUERIES = 200;
+    private static final int ROUNDS = 3;
+
+    private Connection connection;
+    private List<float[]> vectors;
+    private List<float[]> queries;
+
+    @BeforeAll
+    void connect() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("PGVECTOR_BENCH_URL"),
+                System.getenv("PGVECTOR_BENCH_USER"), System.getenv("PGVECTOR_BENCH_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        }
+        assertTrue(PgVector.register(connection), "pgvector extension is required");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("bench_binary", "bench_text")) {
+                statement.execute("CREATE TEMP TABLE " + table + " (id INT PRIMARY KEY, " +
+                        "embedding vector(" + DIMENSIONS + ") NOT NULL)");
+            }
+        }
+
+        Random random = new Random(42);
+        vectors = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) vectors.add(randomVector(random));
+        queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) queries.add(randomVector(random));
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    void binaryTransfer_ComparedToTextLiteral() throws SQLException {
+        // Több kör, hogy a JIT és a szerveroldali tervek bemelegedjenek; az utolsó számít
+        Timings binary = null;
+        Timings text = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            binary = measure("bench_binary", "?", true);
+            text = measure("bench_text", "?::vector", false);
+        }
+
+        String report = String.format("%n%-8s %10s %10s %10s %10s%n", "path", "insert", "update", "knn", "read")
+                + binary.format("binary") + text.format("text");
+        log.info("pgvector transfer, ms/op on {}-dim vectors:{}", DIMENSIONS, report);
+
+        // Ugyanazok az adatok és ugyanazok a találatok mindkét úton
+        assertEquals(knnIds("bench_text", "?::vector", false), knnIds("bench_binary", "?", true), report);
+        assertTrue(binary.insert() < text.insert(), report);
+        assertTrue(binary.read() < text.read(), report);
+    }
+
+    private record Timings(double insert, double update, double knn, double read) {
+        String format(String path) {
+            return String.format("%-8s %10.4f %10.4f %10.4f %10.4f%n", path, insert, update, knn, read);
+        }
+    }
+
+    private Timings measure(String table, String placeholder, boolean binary) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE " + table);
+        }
+        connection.setAutoCommit(false);
+        try {
+            double insert = perOp(ROWS, () -> {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO " + table + " (id, embedding) VALUES (?, " + placeholder + ")")) {
+                    for (int id = 0; id < ROWS; id++) {
+                        ps.setInt(1, id);
+                        bind(ps, 2, vectors.get(id), binary);
+                        ps.addBatch();
+                        if ((id + 1) % 500 == 0) ps.executeBatch();
+                    }
+                }
+            });
+            double update = perOp(ROWS, () -> {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "UPDATE " + table + " SET embedding = " + placeholder + " WHERE id = ?")) {
+                    for (int id = 0; id < ROWS; id++) {
+                        bind(ps, 1, vectors.get(ROWS - 1 - id), binary);
+                        ps.setInt(2, id);
+                        ps.addBatch();
+                        if ((id + 1) % 500 == 0) ps.executeBatch();
+                    }
+                }
+            });
+            connection.commit();
+            double knn = perOp(QUERIES, () -> knnIds(table, placeholder, binary));
+            double read = perOp(ROWS, () -> readAll(table, binary));
+            return new Timings(insert, update, knn, read);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private List<Integer> knnIds(String table, String placeholder, boolean binary) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id FROM " + table + " ORDER BY embedding <=> " + placeholder + ", id LIMIT 10")) {
+            for (float[] query : queries) {
+                bind(ps, 1, query, binary);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // A szöveges út a korábbi olvasást követi: embedding::text, majd a literál parse-olása
+    private void readAll(String table, boolean binary) throws SQLException {
+        String column = binary ? "embedding" : "embedding::text";
+        try (PreparedStatement ps = connection.prepareStatement("SELECT " + column + " FROM " + table);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                float[] vector = binary ? PgVector.toArray(rs.getObject(1)) : PgVector.toArray(rs.getString(1));
+                assertEquals(DIMENSIONS, vector.length);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, int index, float[] vector, boolean binary) throws SQLException {
+        if (binary) {
+            ps.setObject(index, new PgVector(vector));
+        } else {
+            ps.setString(index, toVectorString(vector));
+        }
+    }
+
+    /** A korábbi AiEmbeddingService.toVectorString, változatlanul. */
+    private static String toVectorString(float[] embedding) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < embedding.length; i++) {
+            sb.append(embedding[i]);
+            if (i < embedding.length - 1) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    private static double perOp(int operations, SqlWork work) throws SQLException {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1e6 / operations;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) vector[i] = random.nextFloat() * 2 - 1;
+        return vector;
+    }
+}
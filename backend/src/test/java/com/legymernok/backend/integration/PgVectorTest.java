@@ -0,0 +1,94 @@
+package com.legymernok.backend.integration;
+
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PgVectorTest {
+
+    private static final int DIMENSIONS = 768;
+
+    @Test
+    void binaryRoundTrip_ShouldPreserveValues() throws SQLException {
+        float[] vector = randomVector(DIMENSIONS);
+        PgVector sent = new PgVector(vector);
+
+        byte[] bytes = new byte[sent.lengthInBytes()];
+        sent.toBytes(bytes, 0);
+        PgVector received = new PgVector();
+        received.setByteValue(bytes, 0);
+
+        assertEquals(4 + 4 * DIMENSIONS, bytes.length);
+        // pgvector bináris fejléce: dimenzió (uint16), fenntartott (0)
+        assertEquals(DIMENSIONS, ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF));
+        assertEquals(0, bytes[2] | bytes[3]);
+        assertArrayEquals(vector, received.toArray());
+        assertEquals(sent, received);
+    }
+
+    @Test
+    void textFallback_ShouldMatchPgvectorLiteral() throws SQLException {
+        PgVector vector = new PgVector(new float[]{0.5f, -1f, 2.25f});
+
+        assertEquals("[0.5,-1.0,2.25]", vector.getValue());
+
+        PgVector parsed = new PgVector();
+        parsed.setValue("[0.5,-1,2.25]");
+        assertEquals(vector, parsed);
+    }
+
+    @Test
+    void toArray_ShouldAcceptUnregisteredResults() throws SQLException {
+        PGobject unregistered = new PGobject();
+        unregistered.setType("vector");
+        unregistered.setValue("[1,2]");
+
+        assertArrayEquals(new float[]{1f, 2f}, PgVector.toArray(unregistered));
+        assertArrayEquals(new float[]{3f}, PgVector.toArray("[3]"));
+        assertArrayEquals(new float[0], PgVector.toArray("[]"));
+        assertNull(PgVector.toArray(null));
+        assertThrows(SQLException.class, () -> PgVector.toArray("1,2"));
+    }
+
+    @Test
+    void emptyVector_ShouldNotBeSentAsNull() {
+        assertEquals(4, new PgVector(new float[0]).lengthInBytes());
+        assertFalse(new PgVector(new float[0]).isNull());
+    }
+
+    /**
+     * A bináris átvitel alakja: a pgjdbc a PGBinaryObject értékeket bináris paraméterként
+     * küldi, így egy 768 dimenziós vektor 4 + 4 * 768 bájt, a korábbi "[f1,f2,...]"
+     * literál töredéke — float-onként 4 bájt big-endian, szöveg építése nélkül.
+     */
+    @Test
+    void binaryEncoding_ShouldBeSentAsBinaryInPgvectorWireFormat() {
+        PgVector vector = new PgVector(new float[]{1f, -2.5f});
+        byte[] bytes = new byte[vector.lengthInBytes()];
+        vector.toBytes(bytes, 0);
+
+        assertInstanceOf(PGBinaryObject.class, vector);
+        assertArrayEquals(new byte[]{
+                0, 2, 0, 0,                          // dimenzió, fenntartott
+                0x3F, (byte) 0x80, 0, 0,             // 1.0f
+                (byte) 0xC0, 0x20, 0, 0              // -2.5f
+        }, bytes);
+
+        PgVector large = new PgVector(randomVector(DIMENSIONS));
+        assertEquals(4 + 4 * DIMENSIONS, large.lengthInBytes());
+        assertTrue(large.lengthInBytes() * 2 < large.getValue().length(),
+                "binary " + large.lengthInBytes() + " B vs text " + large.getValue().length() + " B");
+    }
+
+    private static float[] randomVector(int dimensions) {
+        Random random = new Random(42);
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) vector[i] = random.nextFloat() * 2 - 1;
+        return vector;
+    }
+}
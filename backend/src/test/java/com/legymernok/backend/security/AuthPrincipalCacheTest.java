@@ -0,0 +1,125 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.integration.InMemorySharedCacheTier;
+import com.legymernok.backend.integration.SharedCacheTier;
+import com.legymernok.backend.model.cadet.Cadet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthPrincipalCacheTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private Cadet cadet;
+
+    @BeforeEach
+    void setUp() {
+        cadet = Cadet.builder().username("test_cadet").roles(new HashSet<>()).build();
+    }
+
+    @Test
+    void load_ShouldHitUserDetailsServiceOnlyOnce() {
+        when(userDetailsService.loadUserByUsername("test_cadet")).thenReturn(cadet);
+        AuthPrincipalCache cache = localCache();
+
+        assertSame(cadet, cache.load("test_cadet").userDetails());
+        assertSame(cadet, cache.load("test_cadet").userDetails());
+
+        verify(userDetailsService, times(1)).loadUserByUsername("test_cadet");
+    }
+
+    @Test
+    void load_UnknownUser_ShouldNotBeCached() {
+        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("User not found"));
+        AuthPrincipalCache cache = localCache();
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.load("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> cache.load("ghost"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("ghost");
+    }
+
+    @Test
+    void onPrincipalChanged_ShouldEvictOnlyThatUser() {
+        Cadet other = Cadet.builder().username("other").roles(new HashSet<>()).build();
+        when(userDetailsService.loadUserByUsername("test_cadet")).thenReturn(cadet);
+        when(userDetailsService.loadUserByUsername("other")).thenReturn(other);
+        AuthPrincipalCache cache = localCache();
+        cache.load("test_cadet");
+        cache.load("other");
+
+        cache.onPrincipalChanged(new PrincipalChangedEvent("test_cadet"));
+        cache.load("test_cadet");
+        cache.load("other");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("test_cadet");
+        verify(userDetailsService, times(1)).loadUserByUsername("other");
+    }
+
+    @Test
+    void onPrincipalChanged_AllPrincipals_ShouldEvictEveryone() {
+        when(userDetailsService.loadUserByUsername("test_cadet")).thenReturn(cadet);
+        AuthPrincipalCache cache = localCache();
+        cache.load("test_cadet");
+
+        cache.onPrincipalChanged(PrincipalChangedEvent.allPrincipals());
+        cache.load("test_cadet");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("test_cadet");
+    }
+
+    @Test
+    void sharedTier_ChangeOnOneInstance_ShouldReloadOnOther() {
+        when(userDetailsService.loadUserByUsername("test_cadet")).thenReturn(cadet);
+        InMemorySharedCacheTier tier = new InMemorySharedCacheTier();
+        AuthPrincipalCache instanceA = sharedCache(tier);
+        AuthPrincipalCache instanceB = sharedCache(tier);
+        instanceB.load("test_cadet");
+
+        instanceA.onPrincipalChanged(PrincipalChangedEvent.allPrincipals());
+        instanceB.load("test_cadet");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("test_cadet");
+    }
+
+    @Test
+    void sharedTier_Unavailable_ShouldLoadUncached() {
+        when(userDetailsService.loadUserByUsername("test_cadet")).thenReturn(cadet);
+        InMemorySharedCacheTier tier = new InMemorySharedCacheTier();
+        AuthPrincipalCache cache = sharedCache(tier);
+        tier.setFailing(true);
+
+        assertSame(cadet, cache.load("test_cadet").userDetails());
+        assertSame(cadet, cache.load("test_cadet").userDetails());
+        assertDoesNotThrow(() -> cache.onPrincipalChanged(PrincipalChangedEvent.allPrincipals()));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("test_cadet");
+    }
+
+    private AuthPrincipalCache localCache() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        return new AuthPrincipalCache(userDetailsService, new PermissionRegistry(), beanFactory.getBeanProvider(SharedCacheTier.class),
+                beanFactory.getBeanProvider(MeterRegistry.class), 30, 100);
+    }
+
+    private AuthPrincipalCache sharedCache(SharedCacheTier tier) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sharedCacheTier", tier));
+        return new AuthPrincipalCache(userDetailsService, new PermissionRegistry(), beanFactory.getBeanProvider(SharedCacheTier.class),
+                beanFactory.getBeanProvider(MeterRegistry.class), 30, 100);
+    }
+}
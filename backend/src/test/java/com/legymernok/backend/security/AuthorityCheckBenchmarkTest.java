@@ -0,0 +1,146 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.model.auth.Permission;
+import com.legymernok.backend.model.auth.Role;
+import com.legymernok.backend.model.cadet.Cadet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark: a jogosultság-ellenőrzés a lefordított AuthorityMask-kal
+ * (CurrentCadet.hasAuthority a CompiledAuthenticationToken-en, illetve a közvetlen
+ * bit-teszt) a korábbi megoldással szemben, amely minden hívásnál a
+ * Cadet.getAuthorities() halmazát építette fel és stream-elte végig. A kérés-szintű
+ * memo nélkül mér (nincs RequestContext), azaz a CurrentCadet legrosszabb esetét.
+ *
+ * Opt-in, mert közel egy percig tart: mvn test -Dtest=AuthorityCheckBenchmarkTest -Djmh=true
+ */
+@EnabledIfSystemProperty(named = "jmh", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityCheckBenchmarkTest {
+
+    // Egy adminisztrátorhoz hasonló felhasználó: több szerepkör, sok engedéllyel
+    @Param({"3"})
+    public int roleCount;
+
+    @Param({"12"})
+    public int permissionsPerRole;
+
+    private Cadet cadet;
+    private AuthorityMask mask;
+    private String present;
+    private String absent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < roleCount; r++) {
+            int role = r;
+            Set<Permission> permissions = IntStream.range(0, permissionsPerRole)
+                    .mapToObj(p -> Permission.builder().name("resource" + role + ":action" + p).build())
+                    .collect(Collectors.toSet());
+            roles.add(Role.builder().name("ROLE_" + r).permissions(permissions).build());
+        }
+        cadet = Cadet.builder().username("benchmark").roles(roles).build();
+
+        PermissionRegistry registry = new PermissionRegistry();
+        mask = registry.compile(cadet.getAuthorities());
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new CompiledAuthenticationToken(new AuthPrincipalCache.CompiledPrincipal(cadet, mask))));
+        present = "resource" + (roleCount - 1) + ":action" + (permissionsPerRole - 1);
+        absent = "mission:delete_any";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /** A korábbi MissionService/StarSystemService.hasAuthority, változatlanul. */
+    private static boolean legacyHasAuthority(Cadet user, String authorityName) {
+        return user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority -> authority.equals(authorityName));
+    }
+
+    @Benchmark
+    public boolean legacyStream_Present() {
+        return legacyHasAuthority(cadet, present);
+    }
+
+    @Benchmark
+    public boolean legacyStream_Absent() {
+        return legacyHasAuthority(cadet, absent);
+    }
+
+    @Benchmark
+    public boolean currentCadet_Present() {
+        return CurrentCadet.hasAuthority(cadet, present);
+    }
+
+    @Benchmark
+    public boolean currentCadet_Absent() {
+        return CurrentCadet.hasAuthority(cadet, absent);
+    }
+
+    @Benchmark
+    public boolean mask_Present() {
+        return mask.has(present);
+    }
+
+    @Test
+    void compiledMask_ShouldBeFasterThanLegacyStream() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuthorityCheckBenchmarkTest.class.getName() + "\\.")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double legacy = score(results, "legacyStream_Present");
+        double compiled = score(results, "currentCadet_Present");
+        assertTrue(compiled < legacy, "CurrentCadet.hasAuthority " + compiled + " ns vs legacy " + legacy + " ns");
+    }
+
+    private static double score(Collection<RunResult> results, String method) {
+        return results.stream()
+                .filter(result -> result.getParams().getBenchmark().endsWith("." + method))
+                .findFirst()
+                .orElseThrow()
+                .getPrimaryResult()
+                .getScore();
+    }
+}
@@ -0,0 +1,124 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.exception.ResourceNotFoundException;
+import com.legymernok.backend.model.auth.Permission;
+import com.legymernok.backend.model.auth.Role;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.repository.cadet.CadetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentCadetTest {
+
+    @Mock
+    private CadetRepository cadetRepository;
+
+    private Cadet cadet;
+
+    @BeforeEach
+    void setUp() {
+        Permission permission = Permission.builder().name("mission:edit_any").build();
+        Role role = Role.builder().name("ROLE_ADMIN").permissions(new HashSet<>(Set.of(permission))).build();
+        cadet = Cadet.builder().id(UUID.randomUUID()).username("test_cadet").roles(new HashSet<>(Set.of(role))).build();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void get_CadetPrincipal_ShouldNotQueryRepository() {
+        authenticate(new UsernamePasswordAuthenticationToken(cadet, null, cadet.getAuthorities()));
+
+        assertSame(cadet, CurrentCadet.get(cadetRepository));
+        assertTrue(CurrentCadet.hasAuthority(cadet, "mission:edit_any"));
+        assertTrue(CurrentCadet.hasAuthority(cadet, "ROLE_ADMIN"));
+        assertFalse(CurrentCadet.hasAuthority(cadet, "mission:delete_any"));
+        verifyNoInteractions(cadetRepository);
+    }
+
+    @Test
+    void hasAuthority_CompiledToken_ShouldUseMask() {
+        PermissionRegistry registry = new PermissionRegistry();
+        authenticate(new CompiledAuthenticationToken(
+                new AuthPrincipalCache.CompiledPrincipal(cadet, registry.compile(cadet.getAuthorities()))));
+
+        assertSame(cadet, CurrentCadet.get(cadetRepository));
+        assertTrue(CurrentCadet.hasAuthority(cadet, "mission:edit_any"));
+        assertTrue(CurrentCadet.hasAuthority(cadet, "ROLE_ADMIN"));
+        assertFalse(CurrentCadet.hasAuthority(cadet, "mission:delete_any"));
+        verifyNoInteractions(cadetRepository);
+    }
+
+    @Test
+    void get_OtherPrincipal_ShouldQueryOncePerRequest() {
+        authenticate(new UsernamePasswordAuthenticationToken("test_cadet", null, List.of()));
+        when(cadetRepository.findByUsername("test_cadet")).thenReturn(Optional.of(cadet));
+
+        assertSame(cadet, CurrentCadet.get(cadetRepository));
+        assertSame(cadet, CurrentCadet.get(cadetRepository));
+        assertTrue(CurrentCadet.hasAuthority(cadet, "mission:edit_any"));
+
+        verify(cadetRepository, times(1)).findByUsername("test_cadet");
+    }
+
+    @Test
+    void get_OutsideRequest_ShouldResolveEveryTime() {
+        RequestContextHolder.resetRequestAttributes();
+        authenticate(new UsernamePasswordAuthenticationToken("test_cadet", null, List.of()));
+        when(cadetRepository.findByUsername("test_cadet")).thenReturn(Optional.of(cadet));
+
+        CurrentCadet.get(cadetRepository);
+        CurrentCadet.get(cadetRepository);
+
+        verify(cadetRepository, times(2)).findByUsername("test_cadet");
+    }
+
+    @Test
+    void get_ReauthenticatedWithinRequest_ShouldNotReuseMemo() {
+        authenticate(new UsernamePasswordAuthenticationToken(cadet, null, cadet.getAuthorities()));
+        CurrentCadet.get(cadetRepository);
+
+        Cadet other = Cadet.builder().id(UUID.randomUUID()).username("other").roles(new HashSet<>()).build();
+        authenticate(new UsernamePasswordAuthenticationToken(other, null, other.getAuthorities()));
+
+        assertSame(other, CurrentCadet.get(cadetRepository));
+        assertFalse(CurrentCadet.hasAuthority(other, "mission:edit_any"));
+    }
+
+    @Test
+    void get_UnknownUser_ThrowsNotFound() {
+        authenticate(new UsernamePasswordAuthenticationToken("ghost", null, List.of()));
+        when(cadetRepository.findByUsername(any())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> CurrentCadet.get(cadetRepository));
+    }
+
+    private static void authenticate(UsernamePasswordAuthenticationToken authentication) {
+        SecurityContextHolder.setContext(new SecurityContextImpl(authentication));
+    }
+}
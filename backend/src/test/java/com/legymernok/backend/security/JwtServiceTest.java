@@ -0,0 +1,50 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.model.cadet.Cadet;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-1234";
+
+    private final Cadet cadet = Cadet.builder().username("test_cadet").roles(new HashSet<>()).build();
+
+    @Test
+    void extractValidUsername_ValidToken_ReturnsSubject() {
+        JwtService jwtService = jwtService(SECRET, 60_000);
+        String token = jwtService.generateToken(cadet);
+
+        assertEquals("test_cadet", jwtService.extractValidUsername(token));
+        assertTrue(jwtService.isTokenValid(token, cadet));
+    }
+
+    @Test
+    void extractValidUsername_ExpiredToken_Throws() {
+        JwtService jwtService = jwtService(SECRET, -1_000);
+        String token = jwtService.generateToken(cadet);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractValidUsername(token));
+    }
+
+    @Test
+    void extractValidUsername_TokenSignedWithOtherKey_Throws() {
+        String token = jwtService("other-secret-other-secret-other-secret-12", 60_000).generateToken(cadet);
+
+        assertThrows(JwtException.class, () -> jwtService(SECRET, 60_000).extractValidUsername(token));
+    }
+
+    private static JwtService jwtService(String secret, long expiration) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", expiration);
+        jwtService.init();
+        return jwtService;
+    }
+}
@@ -0,0 +1,87 @@
+package com.legymernok.backend.security;
+
+import com.legymernok.backend.model.auth.Permission;
+import com.legymernok.backend.model.auth.Role;
+import com.legymernok.backend.model.cadet.Cadet;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionRegistryTest {
+
+    private static final List<String> PERMISSIONS = IntStream.range(0, 70)
+            .mapToObj(i -> "permission:" + i)
+            .toList();
+
+    @Test
+    void compile_ShouldMatchCadetAuthorities() {
+        PermissionRegistry registry = new PermissionRegistry();
+        registry.registerAll(PERMISSIONS);
+
+        // Szerepkörönként eltérő engedélyek, a 64 bites szóhatáron átnyúlva is
+        for (int roleCount = 0; roleCount < 4; roleCount++) {
+            Set<Role> roles = new HashSet<>();
+            for (int r = 0; r < roleCount; r++) {
+                int modulus = r + 2;
+                int remainder = (r * 23) % modulus;
+                Set<Permission> permissions = PERMISSIONS.stream()
+                        .filter(name -> Integer.parseInt(name.substring(11)) % modulus == remainder)
+                        .map(name -> Permission.builder().name(name).build())
+                        .collect(Collectors.toSet());
+                roles.add(Role.builder().name("ROLE_" + r).permissions(permissions).build());
+            }
+            Cadet cadet = Cadet.builder().username("cadet" + roleCount).roles(roles).build();
+            Set<String> expected = cadet.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toSet());
+
+            AuthorityMask mask = registry.compile(cadet.getAuthorities());
+
+            for (String name : PERMISSIONS) {
+                assertEquals(expected.contains(name), mask.has(name), name);
+            }
+            for (int r = 0; r < 4; r++) {
+                assertEquals(expected.contains("ROLE_" + r), mask.has("ROLE_" + r));
+            }
+            assertEquals(expected.size(), mask.authorities().size());
+        }
+    }
+
+    @Test
+    void has_UnknownAuthority_ShouldBeFalse() {
+        PermissionRegistry registry = new PermissionRegistry();
+        AuthorityMask mask = registry.compile(List.of(new SimpleGrantedAuthority("mission:edit_any")));
+
+        assertFalse(mask.has("mission:delete_any"));
+        assertFalse(mask.has(-1));
+        assertFalse(mask.has(1000));
+    }
+
+    @Test
+    void registerAll_ShouldAssignDenseStableIds() {
+        PermissionRegistry registry = new PermissionRegistry();
+        registry.registerAll(List.of("b", "a", "c"));
+
+        assertEquals(0, registry.idOf("a"));
+        assertEquals(1, registry.idOf("b"));
+        assertEquals(2, registry.idOf("c"));
+
+        AuthorityMask mask = registry.compile(List.of(new SimpleGrantedAuthority("d"), new SimpleGrantedAuthority("a")));
+        registry.registerAll(List.of("a", "e"));
+
+        assertEquals(0, registry.idOf("a"));
+        assertEquals(3, registry.idOf("d"));
+        assertEquals(4, registry.idOf("e"));
+        assertEquals(-1, registry.idOf("unknown"));
+        assertTrue(mask.has("d"));
+        assertFalse(mask.has("e"));
+    }
+}
@@ -4,6 +4,7 @@ import com.legymernok.backend.model.auth.Permission;
 import com.legymernok.backend.model.auth.Role;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.service.mission.MissionService;
+import io.jsonwebtoken.ExpiredJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,14 +16,17 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.security.Principal;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -32,16 +36,17 @@ class StompAuthChannelInterceptorTest {
     @Mock
     private JwtService jwtService;
     @Mock
-    private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
+    private AuthPrincipalCache principalCache;
     @Mock
     private MissionService missionService;
 
+    private final PermissionRegistry permissionRegistry = new PermissionRegistry();
     private StompAuthChannelInterceptor interceptor;
     private Cadet cadet;
 
     @BeforeEach
     void setUp() {
-        interceptor = new StompAuthChannelInterceptor(jwtService, userDetailsService, missionService);
+        interceptor = new StompAuthChannelInterceptor(jwtService, principalCache, missionService);
         cadet = new Cadet();
         cadet.setId(UUID.randomUUID());
         cadet.setUsername("test_cadet");
@@ -57,8 +62,13 @@ class StompAuthChannelInterceptorTest {
         cadet.setRoles(Set.of(role));
     }
 
+    private AuthPrincipalCache.CompiledPrincipal compiledCadet() {
+        return new AuthPrincipalCache.CompiledPrincipal(cadet, permissionRegistry.compile(cadet.getAuthorities()));
+    }
+
+    // Mint a CONNECT után: a session-ön a lefordított jogokat hordozó token
     private Principal authenticatedCadet() {
-        return new UsernamePasswordAuthenticationToken(cadet, null, cadet.getAuthorities());
+        return new CompiledAuthenticationToken(compiledCadet());
     }
 
     private Message<byte[]> connectMessage(String authHeaderValue) {
@@ -98,33 +108,33 @@ class StompAuthChannelInterceptorTest {
 
     @Test
     void connect_withUnparseableToken_shouldReject() {
-        when(jwtService.extractUsername("bad-token")).thenThrow(new RuntimeException("malformed JWT"));
+        when(jwtService.extractValidUsername("bad-token")).thenThrow(new RuntimeException("malformed JWT"));
         Message<byte[]> message = connectMessage("Bearer bad-token");
         assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, null));
+        verifyNoInteractions(principalCache);
     }
 
     @Test
-    void connect_whenUserNoLongerExists_shouldReject() {
-        when(jwtService.extractUsername("token")).thenReturn("ghost");
-        when(userDetailsService.loadUserByUsername("ghost")).thenThrow(new UsernameNotFoundException("no such user"));
+    void connect_withExpiredToken_shouldReject() {
+        when(jwtService.extractValidUsername("token")).thenThrow(new ExpiredJwtException(null, null, "expired"));
         Message<byte[]> message = connectMessage("Bearer token");
         assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, null));
+        verifyNoInteractions(principalCache);
     }
 
     @Test
-    void connect_whenTokenFailsValidation_shouldReject() {
-        when(jwtService.extractUsername("token")).thenReturn(cadet.getUsername());
-        when(userDetailsService.loadUserByUsername(cadet.getUsername())).thenReturn(cadet);
-        when(jwtService.isTokenValid("token", cadet)).thenReturn(false);
+    void connect_whenUserNoLongerExists_shouldReject() {
+        when(jwtService.extractValidUsername("token")).thenReturn("ghost");
+        when(principalCache.load("ghost")).thenThrow(new UsernameNotFoundException("no such user"));
         Message<byte[]> message = connectMessage("Bearer token");
         assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, null));
     }
 
     @Test
-    void connect_withValidToken_shouldAuthenticateAndSetUserOnAccessor() {
-        when(jwtService.extractUsername("token")).thenReturn(cadet.getUsername());
-        when(userDetailsService.loadUserByUsername(cadet.getUsername())).thenReturn(cadet);
-        when(jwtService.isTokenValid("token", cadet)).thenReturn(true);
+    void connect_withValidToken_shouldSetCompiledPrincipalOnAccessor() {
+        grantAuthority("logs:read");
+        when(jwtService.extractValidUsername("token")).thenReturn(cadet.getUsername());
+        when(principalCache.load(cadet.getUsername())).thenReturn(compiledCadet());
 
         StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
         accessor.addNativeHeader("Authorization", "Bearer token");
@@ -133,9 +143,12 @@ class StompAuthChannelInterceptorTest {
 
         assertDoesNotThrow(() -> interceptor.preSend(message, null));
 
-        assertNotNull(accessor.getUser());
-        assertInstanceOf(UsernamePasswordAuthenticationToken.class, accessor.getUser());
-        assertEquals(cadet, ((UsernamePasswordAuthenticationToken) accessor.getUser()).getPrincipal());
+        CompiledAuthenticationToken token = assertInstanceOf(CompiledAuthenticationToken.class, accessor.getUser());
+        assertEquals(cadet, token.getPrincipal());
+        assertTrue(token.getAuthorityMask().has("logs:read"));
+        // Egyetlen parse: a külön isTokenValid már nem fut
+        verify(jwtService, never()).isTokenValid(any(), any());
+        verify(jwtService, never()).extractUsername(any());
     }
 
     // =========================================================================
@@ -168,6 +181,23 @@ class StompAuthChannelInterceptorTest {
         assertDoesNotThrow(() -> interceptor.preSend(message, null));
     }
 
+    @Test
+    void subscribe_toLogsTopic_shouldCheckTheCompiledMaskNotTheCadetRoles() {
+        // A maszk a CONNECT-kori jogokat tükrözi; a Cadet szerepköreit nem járjuk be újra
+        Principal compiledWithLogsRead = new CompiledAuthenticationToken(new AuthPrincipalCache.CompiledPrincipal(
+                cadet, permissionRegistry.compile(List.of(new SimpleGrantedAuthority("logs:read")))));
+        Message<byte[]> message = subscribeMessage("/topic/logs", compiledWithLogsRead);
+        assertDoesNotThrow(() -> interceptor.preSend(message, null));
+    }
+
+    @Test
+    void subscribe_toLogsTopic_withPlainAuthenticationCarryingLogsRead_shouldAllow() {
+        Principal plain = new UsernamePasswordAuthenticationToken(cadet, null,
+                List.of(new SimpleGrantedAuthority("logs:read")));
+        Message<byte[]> message = subscribeMessage("/topic/logs", plain);
+        assertDoesNotThrow(() -> interceptor.preSend(message, null));
+    }
+
     @Test
     void subscribe_toMissionTopic_whenServiceAllows_shouldAllow() {
         UUID missionId = UUID.randomUUID();
@@ -204,6 +234,20 @@ class StompAuthChannelInterceptorTest {
         verifyNoInteractions(missionService);
     }
 
+    @Test
+    void subscribe_toOwnMissionStartTopic_shouldAllow() {
+        Message<byte[]> message = subscribeMessage(
+                "/topic/mission/" + UUID.randomUUID() + "/start/" + cadet.getId(), authenticatedCadet());
+        assertDoesNotThrow(() -> interceptor.preSend(message, null));
+    }
+
+    @Test
+    void subscribe_toAnotherCadetsMissionStartTopic_shouldReject() {
+        Message<byte[]> message = subscribeMessage(
+                "/topic/mission/" + UUID.randomUUID() + "/start/" + UUID.randomUUID(), authenticatedCadet());
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, null));
+    }
+
     @Test
     void subscribe_toUnknownTopic_shouldReject() {
         Message<byte[]> message = subscribeMessage("/topic/something-else", authenticatedCadet());
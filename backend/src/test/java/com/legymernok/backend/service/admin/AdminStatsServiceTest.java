@@ -4,9 +4,8 @@ import com.legymernok.backend.dto.admin.AdminStatsResponse;
 import com.legymernok.backend.dto.feedback.FeedbackIssueResponse;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.starsystem.StarSystem;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
+import com.legymernok.backend.repository.cadet.CadetStarSystemProgressRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
 import com.legymernok.backend.service.feedback.FeedbackService;
@@ -34,9 +33,7 @@ class AdminStatsServiceTest {
     @Mock
     private MissionRepository missionRepository;
     @Mock
-    private CadetMissionRepository cadetMissionRepository;
-    @Mock
-    private MissionGroupProgressRepository missionGroupProgressRepository;
+    private CadetStarSystemProgressRepository cadetStarSystemProgressRepository;
     @Mock
     private FeedbackService feedbackService;
 
@@ -65,11 +62,9 @@ class AdminStatsServiceTest {
                 FeedbackIssueResponse.builder().number(2).state("closed").build()
         ));
 
-        // s1: 3 kadét standalone-ból + 1 group-ból = 4 összesen; s2: 1 group-ból
-        when(cadetMissionRepository.countDistinctCadetsByStarSystem())
-                .thenReturn(List.<Object[]>of(new Object[]{s1, 3L}));
-        when(missionGroupProgressRepository.countDistinctCadetsByStarSystem())
-                .thenReturn(List.<Object[]>of(new Object[]{s1, 1L}, new Object[]{s2, 1L}));
+        // s1: 4 kadét kezdett el elemet; s2: 1
+        when(cadetStarSystemProgressRepository.countStartedCadetsByStarSystem())
+                .thenReturn(List.<Object[]>of(new Object[]{s2, 1L}, new Object[]{s1, 4L}));
 
         StarSystem system1 = StarSystem.builder().id(s1).name("Python Alapok").build();
         StarSystem system2 = StarSystem.builder().id(s2).name("Java Galaxis").build();
@@ -0,0 +1,178 @@
+package com.legymernok.backend.service.ai;
+
+import com.legymernok.backend.integration.PgVector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AiEmbeddingServiceTest {
+
+    private static final String MODEL = "nomic-embed-text";
+
+    @Mock private RestTemplate restTemplate;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void embed_SameNormalizedText_ShouldCallAiServiceOnce() {
+        AiEmbeddingService service = service(false);
+        respondWith(new float[]{0.1f, 0.2f}, MODEL);
+
+        float[] first = service.embed("  csillag   rendszer ");
+        float[] second = service.embed("csillag rendszer");
+
+        assertArrayEquals(new float[]{0.1f, 0.2f}, first);
+        assertSame(first, second);
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedResponse.class));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "ai.embedding").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void embed_Failure_ShouldNotBeCached() {
+        AiEmbeddingService service = service(false);
+        when(restTemplate.exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedResponse.class)))
+                .thenThrow(new ResourceAccessException("down"))
+                .thenReturn(ResponseEntity.ok(new AiEmbeddingService.EmbedResponse(new float[]{1f}, MODEL)));
+
+        assertNull(service.embed("kérdés"));
+        assertArrayEquals(new float[]{1f}, service.embed("kérdés"));
+    }
+
+    @Test
+    void embed_ModelMismatch_ShouldNotBeCached() {
+        AiEmbeddingService service = service(false);
+        respondWith(new float[]{1f}, "other-model");
+
+        service.embed("kérdés");
+        service.embed("kérdés");
+
+        verify(restTemplate, times(2)).exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedResponse.class));
+    }
+
+    @Test
+    void embed_Persistent_ShouldServeFromTableAndWriteThrough() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(MODEL), anyString()))
+                .thenReturn(List.of(new float[]{0.5f, -1f}))
+                .thenReturn(List.of());
+        respondWith(new float[]{2f}, MODEL);
+        AiEmbeddingService service = service(true);
+
+        assertArrayEquals(new float[]{0.5f, -1f}, service.embed("tárolt"));
+        assertArrayEquals(new float[]{2f}, service.embed("új"));
+
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedResponse.class));
+        verify(jdbcTemplate).update(anyString(), eq(MODEL), eq(EmbeddingCache.hash("új")),
+                eq(new PgVector(new float[]{2f})));
+        assertEquals(1.0, meterRegistry.get("ai.embedding.cache.persistent").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void embedBatch_ShouldSendOnlyCacheMissesInOneRequest() {
+        AiEmbeddingService service = service(false);
+        respondWith(new float[]{1f}, MODEL);
+        service.embed("cached");
+        when(restTemplate.exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedBatchResponse.class)))
+                .thenReturn(ResponseEntity.ok(new AiEmbeddingService.EmbedBatchResponse(
+                        List.of(new float[]{2f}, new float[]{3f}), MODEL)));
+
+        List<float[]> result = service.embedBatch(List.of("a", "cached", "b"));
+
+        assertEquals(3, result.size());
+        assertArrayEquals(new float[]{2f}, result.get(0));
+        assertArrayEquals(new float[]{1f}, result.get(1));
+        assertArrayEquals(new float[]{3f}, result.get(2));
+        verify(restTemplate).exchange(argThat((RequestEntity<?> request) ->
+                        request.getBody().equals(Map.of("texts", List.of("a", "b")))),
+                eq(AiEmbeddingService.EmbedBatchResponse.class));
+        // A köteg eredménye is a cache-be kerül
+        assertSame(result.get(2), service.embed("b"));
+    }
+
+    @Test
+    void embedBatch_WrongNumberOfEmbeddings_ShouldFail() {
+        AiEmbeddingService service = service(false);
+        when(restTemplate.exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedBatchResponse.class)))
+                .thenReturn(ResponseEntity.ok(new AiEmbeddingService.EmbedBatchResponse(
+                        List.of(new float[]{2f}), MODEL)));
+
+        assertNull(service.embedBatch(List.of("a", "b")));
+    }
+
+    @Test
+    void sourceHash_ShouldDependOnNormalizedTextAndModel() {
+        AiEmbeddingService service = service(false);
+        AiEmbeddingService otherModel = new AiEmbeddingService(restTemplate,
+                new EmbeddingCache(jdbcTemplate, meterRegistry, 100, false, "other-model", 30), "http://ai", "other-model");
+
+        assertEquals(service.sourceHash("Alfa  -  leírás"), service.sourceHash("Alfa - leírás\n"));
+        assertNotEquals(service.sourceHash("Alfa"), service.sourceHash("alfa"));
+        assertNotEquals(service.sourceHash("Alfa"), otherModel.sourceHash("Alfa"));
+    }
+
+    @Test
+    void prune_ShouldTouchUsedKeysThenDeleteStaleAndOtherModelRows() {
+        EmbeddingCache cache = new EmbeddingCache(jdbcTemplate, meterRegistry, 100, true, MODEL, 30);
+        cache.put(MODEL, "hash-1", new float[]{1f});
+        // Helyi találat: a tábla nem olvasódik, de a használat a prune-nál rögzül
+        assertArrayEquals(new float[]{1f}, cache.get(MODEL, "hash-1"));
+
+        cache.prune();
+        cache.prune();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(contains("SET last_used_at = now()"),
+                argThat((List<Object[]> rows) -> rows.size() == 1
+                        && MODEL.equals(rows.get(0)[0]) && "hash-1".equals(rows.get(0)[1])));
+        verify(jdbcTemplate, times(2)).update(contains("DELETE FROM embedding_cache WHERE model <> ?"),
+                eq(MODEL), eq(30));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(), any());
+    }
+
+    @Test
+    void prune_NotPersistent_ShouldNotTouchTheTable() {
+        EmbeddingCache cache = new EmbeddingCache(jdbcTemplate, meterRegistry, 100, false, MODEL, 30);
+        cache.put(MODEL, "hash-1", new float[]{1f});
+        cache.get(MODEL, "hash-1");
+
+        cache.prune();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private AiEmbeddingService service(boolean persistent) {
+        EmbeddingCache cache = new EmbeddingCache(jdbcTemplate, meterRegistry, 100, persistent, MODEL, 30);
+        return new AiEmbeddingService(restTemplate, cache, "http://ai", MODEL);
+    }
+
+    private void respondWith(float[] embedding, String model) {
+        when(restTemplate.exchange(any(RequestEntity.class), eq(AiEmbeddingService.EmbedResponse.class)))
+                .thenReturn(ResponseEntity.ok(new AiEmbeddingService.EmbedResponse(embedding, model)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.legymernok.backend.service.cadet;
+
+import com.legymernok.backend.repository.cadet.CadetProgressTotalsRepository;
+import com.legymernok.backend.repository.cadet.CadetStarSystemProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CadetProgressServiceTest {
+
+    @Mock private CadetStarSystemProgressRepository progressRepository;
+    @Mock private CadetProgressTotalsRepository totalsRepository;
+
+    @Test
+    void refresh_shouldUpdateStarSystemRowAndCadetTotals() {
+        CadetProgressService service = new CadetProgressService(progressRepository, totalsRepository, true);
+        UUID cadetId = UUID.randomUUID();
+        UUID starSystemId = UUID.randomUUID();
+
+        service.refresh(cadetId, starSystemId);
+
+        verify(progressRepository).refresh(cadetId, starSystemId);
+        verify(totalsRepository).refresh(cadetId);
+    }
+
+    @Test
+    void refreshStarSystem_shouldRefreshTotalsBeforeUpsertingRows() {
+        CadetProgressService service = new CadetProgressService(progressRepository, totalsRepository, true);
+        UUID starSystemId = UUID.randomUUID();
+
+        service.refreshStarSystem(starSystemId);
+
+        // A régi sorok alapján választjuk ki a kadétokat, ezért az összesítő jön előbb
+        InOrder inOrder = inOrder(totalsRepository, progressRepository);
+        inOrder.verify(totalsRepository).refreshAllForStarSystem(starSystemId);
+        inOrder.verify(progressRepository).upsertAllForStarSystem(starSystemId);
+        inOrder.verify(progressRepository).deleteOrphansForStarSystem(starSystemId);
+    }
+
+    @Test
+    void rebuildAll_shouldUpsertInPlaceWithoutEmptyingTheTable() {
+        CadetProgressService service = new CadetProgressService(progressRepository, totalsRepository, true);
+
+        service.rebuildAll();
+
+        // Nincs teljes törlés: a közben futó refresh-ek a meglévő sorokat frissítik
+        InOrder inOrder = inOrder(progressRepository, totalsRepository);
+        inOrder.verify(progressRepository).upsertAll();
+        inOrder.verify(progressRepository).deleteOrphans();
+        inOrder.verify(totalsRepository).refreshAll();
+        verifyNoMoreInteractions(progressRepository);
+    }
+
+    @Test
+    void rebuildAll_whenDisabled_shouldDoNothing() {
+        CadetProgressService service = new CadetProgressService(progressRepository, totalsRepository, false);
+
+        service.rebuildAll();
+
+        verifyNoInteractions(progressRepository, totalsRepository);
+    }
+}
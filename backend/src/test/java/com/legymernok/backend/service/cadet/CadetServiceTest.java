@@ -13,12 +13,14 @@ import com.legymernok.backend.repository.auth.RoleRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
+import com.legymernok.backend.security.PrincipalChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Instant;
@@ -52,6 +54,9 @@ class CadetServiceTest {
     @Mock
     private GiteaService giteaService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CadetService cadetService;
 
@@ -249,6 +254,7 @@ class CadetServiceTest {
         verify(testCadet.getRoles(), times(1)).clear();
         verify(testCadet.getRoles(), times(1)).add(adminRole);
         verify(cadetRepository, times(1)).save(testCadet);
+        verify(eventPublisher).publishEvent(new PrincipalChangedEvent(testCadet.getUsername()));
     }
 
     @Test
@@ -1,13 +1,15 @@
 package com.legymernok.backend.service.dashboard;
 
 import com.legymernok.backend.exception.ResourceNotFoundException;
-import com.legymernok.backend.model.ConnectTable.CadetMission;
 import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
 import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionGroup;
 import com.legymernok.backend.model.starsystem.StarSystem;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
+import com.legymernok.backend.repository.mission.MissionGroupRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +20,6 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,8 +30,9 @@ import static org.mockito.Mockito.*;
 class DashboardServiceTest {
 
     @Mock private CadetRepository cadetRepository;
-    @Mock private CadetMissionRepository cadetMissionRepository;
-    @Mock private MissionGroupProgressRepository missionGroupProgressRepository;
+    @Mock private CadetProgressService cadetProgressService;
+    @Mock private MissionRepository missionRepository;
+    @Mock private MissionGroupRepository missionGroupRepository;
     @Mock private Authentication mockAuthentication;
 
     private DashboardService dashboardService;
@@ -38,7 +40,7 @@ class DashboardServiceTest {
 
     @BeforeEach
     void setUp() {
-        dashboardService = new DashboardService(cadetRepository, cadetMissionRepository, missionGroupProgressRepository);
+        dashboardService = new DashboardService(cadetRepository, cadetProgressService, missionRepository, missionGroupRepository);
         currentUser = Cadet.builder().id(UUID.randomUUID()).username("kadét").build();
 
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -50,8 +52,7 @@ class DashboardServiceTest {
 
     @Test
     void getContinue_NoActivity_ThrowsNotFound() {
-        when(cadetMissionRepository.findAllByCadetId(currentUser.getId())).thenReturn(List.of());
-        when(missionGroupProgressRepository.findAllByCadetId(currentUser.getId())).thenReturn(List.of());
+        when(cadetProgressService.getTotals(currentUser.getId())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> dashboardService.getContinue());
     }
@@ -60,15 +61,35 @@ class DashboardServiceTest {
     void getContinue_OnlyMissionActivity_ReturnsMission() {
         StarSystem system = StarSystem.builder().id(UUID.randomUUID()).build();
         Mission mission = Mission.builder().id(UUID.randomUUID()).name("Első lépések").starSystem(system).build();
-        CadetMission cadetMission = CadetMission.builder().mission(mission).lastUpdatedAt(Instant.now()).build();
-
-        when(cadetMissionRepository.findAllByCadetId(currentUser.getId())).thenReturn(List.of(cadetMission));
-        when(missionGroupProgressRepository.findAllByCadetId(currentUser.getId())).thenReturn(List.of());
+        when(cadetProgressService.getTotals(currentUser.getId())).thenReturn(Optional.of(CadetProgressTotals.builder()
+                .cadetId(currentUser.getId()).lastMissionId(mission.getId()).lastMissionAt(Instant.now()).build()));
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
 
         var result = dashboardService.getContinue();
 
         assertEquals("MISSION", result.getType());
         assertEquals(mission.getId(), result.getMissionId());
         assertEquals(system.getId(), result.getStarSystemId());
+        verifyNoInteractions(missionGroupRepository);
+    }
+
+    @Test
+    void getContinue_GroupNewerThanMission_ReturnsGroup() {
+        StarSystem system = StarSystem.builder().id(UUID.randomUUID()).build();
+        MissionGroup group = MissionGroup.builder().id(UUID.randomUUID()).name("Ciklusok").starSystem(system).build();
+        Instant now = Instant.now();
+        when(cadetProgressService.getTotals(currentUser.getId())).thenReturn(Optional.of(CadetProgressTotals.builder()
+                .cadetId(currentUser.getId())
+                .lastMissionId(UUID.randomUUID()).lastMissionAt(now.minusSeconds(60))
+                .lastGroupId(group.getId()).lastGroupAt(now)
+                .build()));
+        when(missionGroupRepository.findById(group.getId())).thenReturn(Optional.of(group));
+
+        var result = dashboardService.getContinue();
+
+        assertEquals("GROUP", result.getType());
+        assertEquals(group.getId(), result.getGroupId());
+        assertEquals(system.getId(), result.getStarSystemId());
+        verifyNoInteractions(missionRepository);
     }
 }
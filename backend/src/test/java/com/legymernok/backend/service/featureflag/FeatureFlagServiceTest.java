@@ -5,11 +5,14 @@ import com.legymernok.backend.dto.featureflag.UpdateFeatureFlagRequest;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.model.featureflag.FeatureFlag;
 import com.legymernok.backend.repository.featureflag.FeatureFlagRepository;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.util.List;
@@ -26,6 +29,9 @@ class FeatureFlagServiceTest {
     @Mock
     private FeatureFlagRepository featureFlagRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FeatureFlagService featureFlagService;
 
@@ -94,6 +100,7 @@ class FeatureFlagServiceTest {
         assertTrue(response.isEnabled());
         assertEquals("New description", response.getDescription());
         verify(featureFlagRepository).save(flag);
+        verify(eventPublisher).publishEvent(new ResourceChangedEvent(ResourceType.FEATURE_FLAG));
     }
 
     @Test
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -37,6 +38,7 @@ class FillInBlankServiceTest {
     @Mock private FillInBlankAnswerDetailRepository answerDetailRepository;
     @Mock private CadetRepository cadetRepository;
     @Mock private com.legymernok.backend.service.streak.StreakService streakService;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private FillInBlankService fillInBlankService;
 
     private Cadet testUser;
@@ -1,5 +1,7 @@
 package com.legymernok.backend.service.mission;
 
+import com.legymernok.backend.model.starsystem.StarSystem;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import com.legymernok.backend.dto.group.GroupProgressResponse;
 import com.legymernok.backend.exception.ResourceConflictException;
 import com.legymernok.backend.model.cadet.Cadet;
@@ -12,6 +14,7 @@ import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
 import com.legymernok.backend.repository.mission.MissionGroupRepository;
 import com.legymernok.backend.repository.mission.MissionGroupStepCompletionRepository;
 import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.service.social.ActivityRecordedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +22,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -41,6 +45,8 @@ class MissionGroupProgressServiceTest {
     @Mock private MissionRepository missionRepository;
     @Mock private CadetRepository cadetRepository;
     @Mock private com.legymernok.backend.service.streak.StreakService streakService;
+    @Mock private CadetProgressService cadetProgressService;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private MissionGroupProgressService missionGroupProgressService;
 
     private Cadet testUser;
@@ -58,6 +64,7 @@ class MissionGroupProgressServiceTest {
                 .id(groupId)
                 .name("Test Group")
                 .orderIndex(1)
+                .starSystem(StarSystem.builder().id(UUID.randomUUID()).build())
                 .build();
 
         Authentication auth = mock(Authentication.class);
@@ -141,6 +148,9 @@ class MissionGroupProgressServiceTest {
         assertTrue(response.isCompleted());
         assertNull(response.getNextMissionId());
         assertNotNull(progress.getCompletedAt());
+        verify(cadetProgressService).refresh(testUser.getId(), testGroup.getStarSystem().getId());
+        verify(eventPublisher).publishEvent(new ActivityRecordedEvent("GROUP_STEP", stepCompletion.getId(),
+                testUser.getId(), m1.getId(), null));
     }
 
     @Test
@@ -213,6 +223,7 @@ class MissionGroupProgressServiceTest {
         ArgumentCaptor<MissionGroupProgress> captor = ArgumentCaptor.forClass(MissionGroupProgress.class);
         verify(progressRepository).save(captor.capture());
         assertTrue(captor.getValue().isCompleted());
+        verifyNoInteractions(eventPublisher);
     }
 
     // =========================================================================
@@ -1,5 +1,6 @@
 package com.legymernok.backend.service.mission;
 
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import com.legymernok.backend.dto.group.CreateMissionGroupRequest;
 import com.legymernok.backend.dto.group.MissionGroupResponse;
 import com.legymernok.backend.dto.group.ReorderResponse;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -39,6 +41,8 @@ class MissionGroupServiceTest {
     @Mock private StarSystemRepository starSystemRepository;
     @Mock private CadetRepository cadetRepository;
     @Mock private MissionService missionService;
+    @Mock private CadetProgressService cadetProgressService;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private MissionGroupService missionGroupService;
 
     private Cadet testUser;
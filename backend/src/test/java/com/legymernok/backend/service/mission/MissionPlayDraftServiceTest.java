@@ -0,0 +1,113 @@
+package com.legymernok.backend.service.mission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legymernok.backend.exception.ExternalServiceException;
+import com.legymernok.backend.integration.GiteaService;
+import com.legymernok.backend.model.ConnectTable.CadetMission;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.mission.MissionPlayDraft;
+import com.legymernok.backend.repository.mission.MissionPlayDraftRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MissionPlayDraftServiceTest {
+
+    @Mock private MissionPlayDraftRepository draftRepository;
+    @Mock private GiteaService giteaService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MissionPlayDraftService draftService;
+    private CadetMission cadetMission;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        draftService = new MissionPlayDraftService(draftRepository, giteaService, new ObjectMapper(),
+                meterRegistry, true, 20000);
+
+        Cadet cadet = new Cadet();
+        cadet.setId(UUID.randomUUID());
+        cadet.setUsername("test_user");
+        cadetMission = CadetMission.builder()
+                .id(UUID.randomUUID())
+                .cadet(cadet)
+                .repositoryUrl("http://gitea/legymernok_admin/cadet-repo.git")
+                .build();
+        lenient().when(giteaService.getAdminUsername()).thenReturn("legymernok_admin");
+    }
+
+    private MissionPlayDraft draft(Map<String, String> files, long version) {
+        return MissionPlayDraft.builder()
+                .id(UUID.randomUUID())
+                .cadetMission(cadetMission)
+                .files(files)
+                .version(version)
+                .dirtySince(Instant.now().minusSeconds(60))
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    @Test
+    void save_withoutCommit_shouldOnlyUpsertDraft() {
+        draftService.save(cadetMission, Map.of("solution.py", "print(1)"), false);
+
+        verify(draftRepository).upsertFiles(cadetMission.getId(), "{\"solution.py\":\"print(1)\"}");
+        verifyNoInteractions(giteaService);
+        assertEquals(1.0, meterRegistry.counter("mission.play_draft.saves").count());
+    }
+
+    @Test
+    void save_withCommit_shouldMergePendingDraftAndCommitOnce() {
+        MissionPlayDraft pending = draft(Map.of("helper.py", "x = 1", "solution.py", "old"), 3);
+        when(draftRepository.findByCadetMissionId(cadetMission.getId())).thenReturn(Optional.of(pending));
+
+        draftService.save(cadetMission, Map.of("solution.py", "new"), true);
+
+        verify(giteaService).uploadFiles(eq("legymernok_admin"), eq("cadet-repo"),
+                eq(Map.of("helper.py", "x = 1", "solution.py", "new")), anyString(), eq(cadetMission.getCadet()));
+        verify(draftRepository).deleteIfUnchanged(pending.getId(), 3);
+        verify(draftRepository, never()).upsertFiles(any(), anyString());
+    }
+
+    @Test
+    void flushDueDrafts_shouldCommitDueDraftsAndDeleteThem() {
+        MissionPlayDraft due = draft(Map.of("solution.py", "print(2)"), 5);
+        when(draftRepository.findIdsDirtySince(any())).thenReturn(List.of(due.getId()));
+        when(draftRepository.findWithCadetMissionById(due.getId())).thenReturn(Optional.of(due));
+
+        draftService.flushDueDrafts();
+
+        verify(giteaService).uploadFiles(eq("legymernok_admin"), eq("cadet-repo"),
+                eq(Map.of("solution.py", "print(2)")), anyString(), eq(cadetMission.getCadet()));
+        verify(draftRepository).deleteIfUnchanged(due.getId(), 5);
+        assertEquals(1.0, meterRegistry.counter("mission.play_draft.flushes").count());
+    }
+
+    @Test
+    void flushDueDrafts_whenCommitFails_shouldKeepDraftForNextRound() {
+        MissionPlayDraft due = draft(Map.of("solution.py", "print(2)"), 1);
+        when(draftRepository.findIdsDirtySince(any())).thenReturn(List.of(due.getId()));
+        when(draftRepository.findWithCadetMissionById(due.getId())).thenReturn(Optional.of(due));
+        doThrow(new ExternalServiceException("Gitea", "Failed to upload files"))
+                .when(giteaService).uploadFiles(anyString(), anyString(), anyMap(), anyString(), any());
+
+        draftService.flushDueDrafts();
+
+        verify(draftRepository, never()).deleteIfUnchanged(any(), anyLong());
+    }
+}
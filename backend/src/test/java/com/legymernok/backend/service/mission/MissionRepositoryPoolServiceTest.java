@@ -0,0 +1,149 @@
+package com.legymernok.backend.service.mission;
+
+import com.legymernok.backend.exception.ExternalServiceException;
+import com.legymernok.backend.integration.GiteaService;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionRepositoryPoolEntry;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.repository.mission.MissionRepositoryPoolRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MissionRepositoryPoolServiceTest {
+
+    @Mock private MissionRepositoryPoolRepository poolRepository;
+    @Mock private MissionRepository missionRepository;
+    @Mock private CadetMissionRepository cadetMissionRepository;
+    @Mock private GiteaService giteaService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private Mission mission;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mission = Mission.builder()
+                .id(UUID.randomUUID())
+                .missionType(MissionType.CODING)
+                .templateRepositoryUrl("http://gitea/legymernok_admin/mission-repo.git")
+                .build();
+        lenient().when(giteaService.getAdminUsername()).thenReturn("legymernok_admin");
+    }
+
+    private MissionRepositoryPoolService service(boolean enabled) {
+        return new MissionRepositoryPoolService(poolRepository, missionRepository, cadetMissionRepository,
+                giteaService, transactionManager, meterRegistry, enabled, 2, 10, 50, 14);
+    }
+
+    private MissionRepositoryPoolEntry entry(String repoName, String sha) {
+        return MissionRepositoryPoolEntry.builder()
+                .id(UUID.randomUUID())
+                .mission(mission)
+                .repoName(repoName)
+                .cloneUrl("http://gitea/" + repoName + ".git")
+                .templateSha(sha)
+                .build();
+    }
+
+    @Test
+    void claim_whenDisabled_shouldNotTouchGitea() {
+        assertTrue(service(false).claim(mission.getId(), "mission-repo", "cadet-anna-x").isEmpty());
+        verifyNoInteractions(giteaService, poolRepository);
+    }
+
+    @Test
+    void claim_whenPooledRepoForCurrentTemplateExists_shouldRenameIt() {
+        MissionRepositoryPoolEntry pooled = entry("pool-a", "sha-1");
+        when(giteaService.getHeadCommitSha("legymernok_admin", "mission-repo")).thenReturn(Optional.of("sha-1"));
+        when(poolRepository.lockOldestAvailable(mission.getId(), "sha-1")).thenReturn(Optional.of(pooled));
+        when(giteaService.renameAdminRepository("pool-a", "cadet-anna-x")).thenReturn("http://gitea/cadet-anna-x.git");
+
+        Optional<String> url = service(true).claim(mission.getId(), "mission-repo", "cadet-anna-x");
+
+        assertEquals(Optional.of("http://gitea/cadet-anna-x.git"), url);
+        verify(poolRepository).delete(pooled);
+        assertEquals(1.0, meterRegistry.get("mission.warm_pool.claims").tag("outcome", "hit").counter().count());
+    }
+
+    @Test
+    void claim_shouldLockAndDeleteInOwnTransactionAndRenameAfterCommit() {
+        MissionRepositoryPoolEntry pooled = entry("pool-a", "sha-1");
+        when(giteaService.getHeadCommitSha("legymernok_admin", "mission-repo")).thenReturn(Optional.of("sha-1"));
+        when(poolRepository.lockOldestAvailable(mission.getId(), "sha-1")).thenReturn(Optional.of(pooled));
+        when(giteaService.renameAdminRepository("pool-a", "cadet-anna-x")).thenReturn("http://gitea/cadet-anna-x.git");
+
+        service(true).claim(mission.getId(), "mission-repo", "cadet-anna-x");
+
+        InOrder inOrder = inOrder(giteaService, transactionManager, poolRepository);
+        inOrder.verify(giteaService).getHeadCommitSha("legymernok_admin", "mission-repo");
+        inOrder.verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        inOrder.verify(poolRepository).lockOldestAvailable(mission.getId(), "sha-1");
+        inOrder.verify(poolRepository).delete(pooled);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(giteaService).renameAdminRepository("pool-a", "cadet-anna-x");
+    }
+
+    @Test
+    void claim_whenTemplateHeadUnknown_shouldNotOpenTransaction() {
+        when(giteaService.getHeadCommitSha("legymernok_admin", "mission-repo")).thenReturn(Optional.empty());
+
+        assertTrue(service(true).claim(mission.getId(), "mission-repo", "cadet-anna-x").isEmpty());
+        verifyNoInteractions(transactionManager, poolRepository);
+        assertEquals(1.0, meterRegistry.get("mission.warm_pool.claims").tag("outcome", "miss").counter().count());
+    }
+
+    @Test
+    void claim_whenRenameFails_shouldDeletePoolRepoAndFallBack() {
+        MissionRepositoryPoolEntry pooled = entry("pool-a", "sha-1");
+        when(giteaService.getHeadCommitSha("legymernok_admin", "mission-repo")).thenReturn(Optional.of("sha-1"));
+        when(poolRepository.lockOldestAvailable(mission.getId(), "sha-1")).thenReturn(Optional.of(pooled));
+        when(giteaService.renameAdminRepository("pool-a", "cadet-anna-x"))
+                .thenThrow(new ExternalServiceException("Gitea", "conflict"));
+
+        assertTrue(service(true).claim(mission.getId(), "mission-repo", "cadet-anna-x").isEmpty());
+        verify(giteaService).deleteAdminRepository("pool-a");
+        assertEquals(1.0, meterRegistry.get("mission.warm_pool.claims").tag("outcome", "miss").counter().count());
+    }
+
+    @Test
+    void refill_shouldDiscardStaleReposAndTopUpToLimit() {
+        MissionRepositoryPoolEntry stale = entry("pool-old", "sha-0");
+        when(cadetMissionRepository.findMostStartedMissionIds(eq(MissionType.CODING), any(), any()))
+                .thenReturn(List.of(mission.getId()));
+        when(missionRepository.findAllById(List.of(mission.getId()))).thenReturn(List.of(mission));
+        when(poolRepository.count()).thenReturn(1L);
+        when(giteaService.getHeadCommitSha("legymernok_admin", "mission-repo")).thenReturn(Optional.of("sha-1"));
+        when(poolRepository.findAllByMissionIdAndTemplateShaNot(mission.getId(), "sha-1")).thenReturn(List.of(stale));
+        when(poolRepository.countByMissionIdAndTemplateSha(mission.getId(), "sha-1")).thenReturn(0L);
+        when(giteaService.createEmptyRepository(startsWith("pool-" + mission.getId()), eq(true)))
+                .thenReturn("http://gitea/pool.git");
+
+        service(true).refill();
+
+        verify(giteaService).deleteAdminRepository("pool-old");
+        verify(poolRepository).delete(stale);
+        verify(giteaService, times(2)).copyMissionRepositoryForCadet(eq("legymernok_admin"), eq("mission-repo"),
+                startsWith("pool-"), eq(mission.getId().toString()));
+        verify(poolRepository, times(2)).save(argThat(e -> "sha-1".equals(e.getTemplateSha())));
+    }
+}
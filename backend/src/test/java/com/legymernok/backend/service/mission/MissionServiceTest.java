@@ -1,5 +1,6 @@
 package com.legymernok.backend.service.mission;
 
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.legymernok.backend.dto.mission.*;
 import com.legymernok.backend.dto.quiz.QuizDefinition;
@@ -30,15 +31,19 @@ import com.legymernok.backend.repository.mission.MissionGroupStepCompletionRepos
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
 import com.legymernok.backend.repository.quiz.QuizSessionRepository;
+import com.legymernok.backend.service.quiz.QuizDefinitionCache;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -67,6 +72,11 @@ class MissionServiceTest {
     @Mock private FillInBlankBlankRepository fillInBlankBlankRepository;
     @Mock private FillInBlankDefinitionRepository fillInBlankDefinitionRepository;
     @Mock private MissionGroupRepository missionGroupRepository;
+    @Mock private MissionRepositoryPoolService missionRepositoryPoolService;
+    @Mock private MissionPlayDraftService missionPlayDraftService;
+    @Mock private QuizDefinitionCache quizDefinitionCache;
+    @Mock private CadetProgressService cadetProgressService;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private MissionService missionService;
 
     private Cadet testUser;
@@ -316,6 +326,7 @@ class MissionServiceTest {
         assertNotNull(response);
         assertEquals(VerificationStatus.PENDING, response.getVerificationStatus());
         verify(giteaService, times(1)).uploadFiles(eq("legymernok_admin"), eq(missionId.toString()), anyMap(), anyString(), eq(testUser));
+        verify(giteaService).evictTemplateSnapshots("legymernok_admin", missionId.toString());
         verify(giteaService, times(1)).getAdminUsername();
         verify(missionRepository).save(mission);
     }
@@ -419,15 +430,10 @@ class MissionServiceTest {
                 .starSystem(testStarSystem)
                 .build();
 
-        List<GiteaService.GiteaContent> giteaContents = Arrays.asList(
-                new GiteaService.GiteaContent("solution.js", "solution.js", "dummy-sha", "file", "encoded", "url"),
-                new GiteaService.GiteaContent("README.md", "README.md", "dummy-sha", "file", "encoded", "url")
-        );
-
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
-        when(giteaService.getRepoContents(eq("legymernok_admin"), eq(missionId.toString()), eq(""))).thenReturn(giteaContents);
-        when(giteaService.getFileContent(eq("legymernok_admin"), eq(missionId.toString()), eq("solution.js"))).thenReturn("function add(){}");
-        when(giteaService.getFileContent(eq("legymernok_admin"), eq(missionId.toString()), eq("README.md"))).thenReturn("# Readme");
+        when(giteaService.getRepositorySnapshot(eq("legymernok_admin"), eq(missionId.toString()))).thenReturn(Map.of(
+                "solution.js", "function add(){}",
+                "README.md", "# Readme"));
 
         Map<String, String> files = missionService.getMissionFiles(missionId);
 
@@ -439,6 +445,27 @@ class MissionServiceTest {
         verify(giteaService, times(1)).getAdminUsername();
     }
 
+    @Test
+    void getMissionFiles_shouldOnlyReturnRootLevelFilesOfSnapshot() {
+        setupAuthentication(testUser);
+
+        UUID missionId = UUID.randomUUID();
+        Mission mission = Mission.builder()
+                .id(missionId)
+                .owner(testUser)
+                .starSystem(testStarSystem)
+                .build();
+
+        when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
+        when(giteaService.getRepositorySnapshot(eq("legymernok_admin"), eq(missionId.toString()))).thenReturn(Map.of(
+                "solution.js", "function add(){}",
+                ".gitea/workflows/ci.yml", "name: verify"));
+
+        Map<String, String> files = missionService.getMissionFiles(missionId);
+
+        assertEquals(Map.of("solution.js", "function add(){}"), files);
+    }
+
     @Test
     void getMissionFiles_byNonOwnerWithoutPermission_shouldThrowUnauthorized() {
         setupAuthentication(testUser);
@@ -455,7 +482,7 @@ class MissionServiceTest {
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
 
         assertThrows(UnauthorizedAccessException.class, () -> missionService.getMissionFiles(missionId));
-        verify(giteaService, never()).getRepoContents(anyString(), anyString(), anyString());
+        verify(giteaService, never()).getRepositorySnapshot(anyString(), anyString());
     }
 
     @Test
@@ -473,12 +500,8 @@ class MissionServiceTest {
 
         mockUserAuthorities("mission:read");
 
-        List<GiteaService.GiteaContent> giteaContents = List.of(
-                new GiteaService.GiteaContent("solution.js", "solution.js", "dummy-sha", "file", "encoded", "url")
-        );
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
-        when(giteaService.getRepoContents(anyString(), anyString(), anyString())).thenReturn(giteaContents);
-        when(giteaService.getFileContent(anyString(), anyString(), anyString())).thenReturn("code");
+        when(giteaService.getRepositorySnapshot(anyString(), anyString())).thenReturn(Map.of("solution.js", "code"));
 
         Map<String, String> files = missionService.getMissionFiles(missionId);
 
@@ -504,13 +527,9 @@ class MissionServiceTest {
                 .starSystem(testStarSystem)
                 .build();
 
-        List<GiteaService.GiteaContent> giteaContents = List.of(
-                new GiteaService.GiteaContent("quiz.json", "quiz.json", "sha", "file", "encoded", "url")
-        );
-
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
-        when(giteaService.getRepoContents(eq("legymernok_admin"), eq(missionId.toString()), eq(""))).thenReturn(giteaContents);
-        when(giteaService.getFileContent(eq("legymernok_admin"), eq(missionId.toString()), eq("quiz.json"))).thenReturn(SAMPLE_QUIZ_JSON);
+        when(giteaService.getRepositorySnapshot(eq("legymernok_admin"), eq(missionId.toString())))
+                .thenReturn(Map.of("quiz.json", SAMPLE_QUIZ_JSON));
 
         Map<String, String> files = missionService.getMissionFiles(missionId);
 
@@ -535,13 +554,8 @@ class MissionServiceTest {
                 .starSystem(testStarSystem)
                 .build();
 
-        List<GiteaService.GiteaContent> giteaContents = List.of(
-                new GiteaService.GiteaContent("quiz.json", "quiz.json", "sha", "file", "encoded", "url")
-        );
-
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
-        when(giteaService.getRepoContents(anyString(), anyString(), eq(""))).thenReturn(giteaContents);
-        when(giteaService.getFileContent(anyString(), anyString(), eq("quiz.json"))).thenReturn(SAMPLE_QUIZ_JSON);
+        when(giteaService.getRepositorySnapshot(anyString(), anyString())).thenReturn(Map.of("quiz.json", SAMPLE_QUIZ_JSON));
 
         Map<String, String> files = missionService.getMissionFiles(missionId);
 
@@ -569,13 +583,8 @@ class MissionServiceTest {
                 .starSystem(testStarSystem)
                 .build();
 
-        List<GiteaService.GiteaContent> giteaContents = List.of(
-                new GiteaService.GiteaContent("quiz.json", "quiz.json", "sha", "file", "encoded", "url")
-        );
-
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
-        when(giteaService.getRepoContents(anyString(), anyString(), eq(""))).thenReturn(giteaContents);
-        when(giteaService.getFileContent(anyString(), anyString(), eq("quiz.json"))).thenReturn(SAMPLE_QUIZ_JSON);
+        when(giteaService.getRepositorySnapshot(anyString(), anyString())).thenReturn(Map.of("quiz.json", SAMPLE_QUIZ_JSON));
 
         Map<String, String> files = missionService.getMissionFiles(missionId);
 
@@ -687,7 +696,8 @@ class MissionServiceTest {
     @Test
     void updateMissionVerificationStatus_shouldUpdateStatus() {
         UUID missionId = UUID.randomUUID();
-        Mission mission = Mission.builder().id(missionId).verificationStatus(VerificationStatus.PENDING).build();
+        Mission mission = Mission.builder().id(missionId).starSystem(testStarSystem)
+                .verificationStatus(VerificationStatus.PENDING).build();
 
         when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission));
         when(missionRepository.save(any(Mission.class))).thenAnswer(i -> i.getArgument(0));
@@ -696,6 +706,8 @@ class MissionServiceTest {
 
         assertEquals(VerificationStatus.SUCCESS, mission.getVerificationStatus());
         verify(missionRepository).save(mission);
+        // A státusz a Star System részletes nézetében is látszik
+        verify(eventPublisher).publishEvent(new StarSystemContentChangedEvent(testStarSystem.getId()));
     }
 
     @Test
@@ -737,13 +749,9 @@ class MissionServiceTest {
                 })
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        List<GiteaService.GiteaContent> initialGiteaContents = Arrays.asList(
-                new GiteaService.GiteaContent("solution.js", "solution.js", "dummy-sha", "file", "encoded", "url"),
-                new GiteaService.GiteaContent("README.md", "README.md", "dummy-sha", "file", "encoded", "url")
-        );
-        when(giteaService.getRepoContents(eq("legymernok_admin"), anyString(), eq(""))).thenReturn(initialGiteaContents);
-        when(giteaService.getFileContent(eq("legymernok_admin"), anyString(), eq("solution.js"))).thenReturn("console.log('initial code');");
-        when(giteaService.getFileContent(eq("legymernok_admin"), anyString(), eq("README.md"))).thenReturn("# Initial Readme");
+        when(giteaService.getRepositorySnapshot(eq("legymernok_admin"), anyString())).thenReturn(Map.of(
+                "solution.js", "console.log('initial code');",
+                "README.md", "# Initial Readme"));
 
         // FIX: batch upload mock
         doNothing().when(giteaService).uploadFiles(anyString(), anyString(), anyMap(), anyString(), any(Cadet.class));
@@ -781,9 +789,7 @@ class MissionServiceTest {
 
         // Assert – Gitea hívások
         verify(giteaService, times(1)).createMissionRepository(anyString(), eq("javascript"), eq(testUser), eq(MissionType.CODING));
-        verify(giteaService, times(1)).getRepoContents(eq("legymernok_admin"), eq(missionId.toString()), eq(""));
-        verify(giteaService, times(1)).getFileContent(eq("legymernok_admin"), eq(missionId.toString()), eq("solution.js"));
-        verify(giteaService, times(1)).getFileContent(eq("legymernok_admin"), eq(missionId.toString()), eq("README.md"));
+        verify(giteaService, times(1)).getRepositorySnapshot(eq("legymernok_admin"), eq(missionId.toString()));
         // FIX: batch upload verify – 1 hívás a teljes map-pel
         verify(giteaService, times(1)).uploadFiles(eq("legymernok_admin"), eq(missionId.toString()), anyMap(), anyString(), eq(testUser));
         // getMissionFiles: 1x, saveForgeMissionContent: 1x
@@ -874,6 +880,7 @@ class MissionServiceTest {
     @Test
     void startMission_whenCoding_shouldUseFilteredCadetCopyNotFullCopy() {
         Mission mission = Mission.builder()
+                .starSystem(testStarSystem)
                 .id(UUID.randomUUID())
                 .missionType(MissionType.CODING)
                 .templateRepositoryUrl("http://gitea/mission-repo.git")
@@ -888,12 +895,56 @@ class MissionServiceTest {
         missionService.startMission(mission.getId(), "test_user");
 
         verify(giteaService).copyMissionRepositoryForCadet(eq("legymernok_admin"), eq("mission-repo"), anyString(), eq(mission.getId().toString()));
+        verify(cadetProgressService).refresh(testUser.getId(), testStarSystem.getId());
         verify(giteaService, never()).copyRepositoryContents(anyString(), anyString(), anyString());
     }
 
+    @Test
+    void startMission_whenPooledRepositoryAvailable_shouldOnlyAddCollaborator() {
+        Mission mission = Mission.builder()
+                .starSystem(testStarSystem)
+                .id(UUID.randomUUID())
+                .missionType(MissionType.CODING)
+                .templateRepositoryUrl("http://gitea/mission-repo.git")
+                .name("Add two numbers")
+                .build();
+        String userRepoName = "cadet-test_user-" + mission.getId();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(cadetRepository.findByUsername("test_user")).thenReturn(Optional.of(testUser));
+        when(cadetMissionRepository.findByCadetIdAndMissionId(testUser.getId(), mission.getId()))
+                .thenReturn(Optional.empty());
+        when(missionRepositoryPoolService.claim(mission.getId(), "mission-repo", userRepoName))
+                .thenReturn(Optional.of("http://gitea/" + userRepoName + ".git"));
+
+        String repoUrl = missionService.startMission(mission.getId(), "test_user");
+
+        assertEquals("http://gitea/" + userRepoName + ".git", repoUrl);
+        verify(giteaService).addCollaborator(userRepoName, "test_user", "write");
+        verify(giteaService, never()).createEmptyRepository(anyString(), anyBoolean());
+        verify(giteaService, never()).copyMissionRepositoryForCadet(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void startMission_whenAsyncStartIsPending_shouldRejectWithConflict() {
+        Mission mission = Mission.builder()
+                .starSystem(testStarSystem)
+                .id(UUID.randomUUID())
+                .missionType(MissionType.CODING)
+                .templateRepositoryUrl("http://gitea/mission-repo.git")
+                .build();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(cadetRepository.findByUsername("test_user")).thenReturn(Optional.of(testUser));
+        when(cadetMissionRepository.findByCadetIdAndMissionId(testUser.getId(), mission.getId()))
+                .thenReturn(Optional.of(CadetMission.builder().status(MissionStatus.PENDING).build()));
+
+        assertThrows(ResourceConflictException.class, () -> missionService.startMission(mission.getId(), "test_user"));
+        verifyNoInteractions(giteaService);
+    }
+
     @Test
     void startMission_whenQuiz_shouldUseFullCopy() {
         Mission mission = Mission.builder()
+                .starSystem(testStarSystem)
                 .id(UUID.randomUUID())
                 .missionType(MissionType.QUIZ)
                 .templateRepositoryUrl("http://gitea/quiz-repo.git")
@@ -918,6 +969,7 @@ class MissionServiceTest {
 
     private CadetMission mockPlayRepository(String repositoryUrl) {
         Mission mission = Mission.builder()
+                .starSystem(testStarSystem)
                 .id(UUID.randomUUID())
                 .missionType(MissionType.CODING)
                 .build();
@@ -942,10 +994,11 @@ class MissionServiceTest {
         files.put("solution.js", "export function add(a, b) { return a + b; }");
         files.put("solution.test.js", "// tampered test content");
 
-        missionService.savePlayFiles(cadetMission.getMission().getId(), files);
+        missionService.savePlayFiles(cadetMission.getMission().getId(), files, false);
 
         ArgumentCaptor<Map<String, String>> captor = ArgumentCaptor.forClass(Map.class);
-        verify(giteaService).uploadFiles(eq("legymernok_admin"), eq("cadet-repo"), captor.capture(), anyString(), eq(testUser));
+        verify(missionPlayDraftService).save(eq(cadetMission), captor.capture(), eq(false));
+        verify(giteaService, never()).uploadFiles(anyString(), anyString(), anyMap(), anyString(), any());
         assertTrue(captor.getValue().containsKey("solution.js"));
         assertFalse(captor.getValue().containsKey("solution.test.js"));
     }
@@ -957,11 +1010,48 @@ class MissionServiceTest {
         Map<String, String> files = new HashMap<>();
         files.put("test_solution.py", "# tampered");
 
-        missionService.savePlayFiles(cadetMission.getMission().getId(), files);
+        missionService.savePlayFiles(cadetMission.getMission().getId(), files, false);
 
+        verify(missionPlayDraftService, never()).save(any(), anyMap(), anyBoolean());
         verify(giteaService, never()).uploadFiles(anyString(), anyString(), anyMap(), anyString(), any());
     }
 
+    @Test
+    void savePlayFiles_whenCommitRequested_shouldCommitImmediately() {
+        CadetMission cadetMission = mockPlayRepository("http://gitea/cadet-repo.git");
+
+        Map<String, String> files = new HashMap<>();
+        files.put("solution.py", "print('hi')");
+
+        missionService.savePlayFiles(cadetMission.getMission().getId(), files, true);
+
+        verify(missionPlayDraftService).save(cadetMission, Map.of("solution.py", "print('hi')"), true);
+    }
+
+    @Test
+    void getPlayFiles_shouldOverlayPendingDraftOnRepositoryContent() {
+        CadetMission cadetMission = mockPlayRepository("http://gitea/cadet-repo.git");
+        when(giteaService.getRepositorySnapshot("legymernok_admin", "cadet-repo"))
+                .thenReturn(Map.of("solution.py", "old", "README.md", "readme"));
+        when(missionPlayDraftService.pendingFiles(cadetMission)).thenReturn(Map.of("solution.py", "new"));
+
+        Map<String, String> files = missionService.getPlayFiles(cadetMission.getMission().getId());
+
+        assertEquals("new", files.get("solution.py"));
+        assertEquals("readme", files.get("README.md"));
+    }
+
+    @Test
+    void deletePlayFile_shouldFlushPendingDraftBeforeDeleting() {
+        CadetMission cadetMission = mockPlayRepository("http://gitea/cadet-repo.git");
+
+        missionService.deletePlayFile(cadetMission.getMission().getId(), "helper.py");
+
+        InOrder inOrder = inOrder(missionPlayDraftService, giteaService);
+        inOrder.verify(missionPlayDraftService).flush(cadetMission);
+        inOrder.verify(giteaService).deleteFile("legymernok_admin", "cadet-repo", "helper.py", testUser);
+    }
+
     @Test
     void createPlayFile_whenProtectedFileName_shouldThrow() {
         CadetMission cadetMission = mockPlayRepository("http://gitea/cadet-repo.git");
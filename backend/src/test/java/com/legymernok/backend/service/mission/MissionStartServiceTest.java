@@ -0,0 +1,173 @@
+package com.legymernok.backend.service.mission;
+
+import com.legymernok.backend.model.starsystem.StarSystem;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import com.legymernok.backend.dto.mission.MissionStartJobResponse;
+import com.legymernok.backend.dto.mission.MissionStartStep;
+import com.legymernok.backend.exception.ExternalServiceException;
+import com.legymernok.backend.model.ConnectTable.CadetMission;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionStatus;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.repository.cadet.CadetRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A MissionStartService tesztjei szinkron executorral — a háttérjob a
+ * requestStart() hívásán belül lefut, így az eredménye azonnal ellenőrizhető.
+ */
+@ExtendWith(MockitoExtension.class)
+class MissionStartServiceTest {
+
+    @Mock private MissionService missionService;
+    @Mock private MissionRepository missionRepository;
+    @Mock private CadetRepository cadetRepository;
+    @Mock private CadetMissionRepository cadetMissionRepository;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private CadetProgressService cadetProgressService;
+
+    private MissionStartService missionStartService;
+    private Cadet cadet;
+    private Mission mission;
+
+    @BeforeEach
+    void setUp() {
+        missionStartService = new MissionStartService(missionService, missionRepository, cadetRepository,
+                cadetMissionRepository, messagingTemplate, cadetProgressService, new ExecutorServiceAdapter(new SyncTaskExecutor()));
+
+        cadet = new Cadet();
+        cadet.setId(UUID.randomUUID());
+        cadet.setUsername("test_user");
+        mission = Mission.builder()
+                .id(UUID.randomUUID())
+                .name("Add two numbers")
+                .missionType(MissionType.CODING)
+                .templateRepositoryUrl("http://gitea/mission-repo.git")
+                .starSystem(StarSystem.builder().id(UUID.randomUUID()).build())
+                .build();
+    }
+
+    private CadetMission pendingJob() {
+        return CadetMission.builder()
+                .id(UUID.randomUUID())
+                .cadet(cadet)
+                .mission(mission)
+                .status(MissionStatus.PENDING)
+                .build();
+    }
+
+    private String startTopic() {
+        return "/topic/mission/" + mission.getId() + "/start/" + cadet.getId();
+    }
+
+    @Test
+    void requestStart_whenNotStarted_shouldRecordPendingRowAndProvisionInBackground() {
+        CadetMission job = pendingJob();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(cadetRepository.findByUsername("test_user")).thenReturn(Optional.of(cadet));
+        when(cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), mission.getId())).thenReturn(Optional.empty());
+        when(cadetMissionRepository.saveAndFlush(argThat(cm -> cm.getStatus() == MissionStatus.PENDING))).thenReturn(job);
+        when(cadetMissionRepository.findWithCadetAndMissionById(job.getId())).thenReturn(Optional.of(job));
+        when(missionService.provisionCadetRepository(eq(mission), eq(cadet), any())).thenAnswer(invocation -> {
+            Consumer<MissionStartStep> onStep = invocation.getArgument(2);
+            onStep.accept(MissionStartStep.CREATING_REPOSITORY);
+            return "http://gitea/cadet-repo.git";
+        });
+
+        MissionStartJobResponse response = missionStartService.requestStart(mission.getId(), "test_user");
+
+        assertEquals(job.getId(), response.getJobId());
+        assertEquals(MissionStatus.IN_PROGRESS, job.getStatus());
+        assertEquals("http://gitea/cadet-repo.git", job.getRepositoryUrl());
+        assertNotNull(job.getStartedAt());
+        verify(missionService, never()).deleteCadetRepositoryQuietly(any(), any());
+        verify(cadetProgressService).refresh(cadet.getId(), mission.getStarSystem().getId());
+        verify(messagingTemplate).convertAndSend(eq(startTopic()),
+                argThat((MissionStartJobResponse r) -> r.getStep() == MissionStartStep.CREATING_REPOSITORY));
+        verify(messagingTemplate).convertAndSend(eq(startTopic()),
+                argThat((MissionStartJobResponse r) -> r.getStep() == MissionStartStep.COMPLETED
+                        && "http://gitea/cadet-repo.git".equals(r.getRepositoryUrl())));
+    }
+
+    @Test
+    void requestStart_whenAlreadyStarted_shouldReturnExistingJobWithoutProvisioning() {
+        CadetMission started = pendingJob();
+        started.setStatus(MissionStatus.IN_PROGRESS);
+        started.setRepositoryUrl("http://gitea/cadet-repo.git");
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(cadetRepository.findByUsername("test_user")).thenReturn(Optional.of(cadet));
+        when(cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), mission.getId())).thenReturn(Optional.of(started));
+
+        MissionStartJobResponse response = missionStartService.requestStart(mission.getId(), "test_user");
+
+        assertEquals(MissionStatus.IN_PROGRESS, response.getStatus());
+        assertEquals("http://gitea/cadet-repo.git", response.getRepositoryUrl());
+        verify(cadetMissionRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(missionService, messagingTemplate);
+    }
+
+    @Test
+    void requestStart_whenProvisioningFails_shouldMarkJobFailedAndPublishError() {
+        CadetMission job = pendingJob();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(cadetRepository.findByUsername("test_user")).thenReturn(Optional.of(cadet));
+        when(cadetMissionRepository.findByCadetIdAndMissionId(cadet.getId(), mission.getId())).thenReturn(Optional.empty());
+        when(cadetMissionRepository.saveAndFlush(any())).thenReturn(job);
+        when(cadetMissionRepository.findWithCadetAndMissionById(job.getId())).thenReturn(Optional.of(job));
+        when(missionService.provisionCadetRepository(eq(mission), eq(cadet), any()))
+                .thenThrow(new ExternalServiceException("Gitea", "Failed to create repository"));
+
+        missionStartService.requestStart(mission.getId(), "test_user");
+
+        assertEquals(MissionStatus.START_FAILED, job.getStatus());
+        verify(cadetMissionRepository).save(job);
+        // A sikertelen indítás nem kerülhet a csillagtérképre / az összesítőkbe
+        verify(cadetProgressService, never()).refresh(any(), any());
+        verify(messagingTemplate).convertAndSend(eq(startTopic()),
+                argThat((MissionStartJobResponse r) -> r.getStep() == MissionStartStep.FAILED && r.getError() != null));
+    }
+
+    @Test
+    void resumePendingStarts_shouldDeleteLeftoverRepoAndProvisionAgain() {
+        CadetMission job = pendingJob();
+        when(cadetMissionRepository.findIdsByStatus(MissionStatus.PENDING)).thenReturn(List.of(job.getId()));
+        when(cadetMissionRepository.findWithCadetAndMissionById(job.getId())).thenReturn(Optional.of(job));
+        when(missionService.provisionCadetRepository(eq(mission), eq(cadet), any())).thenReturn("http://gitea/cadet-repo.git");
+
+        missionStartService.resumePendingStarts();
+
+        verify(missionService).deleteCadetRepositoryQuietly(cadet, mission);
+        assertEquals(MissionStatus.IN_PROGRESS, job.getStatus());
+    }
+
+    @Test
+    void resumePendingStarts_whenJobAlreadyFinished_shouldDoNothing() {
+        CadetMission job = pendingJob();
+        job.setStatus(MissionStatus.IN_PROGRESS);
+        when(cadetMissionRepository.findIdsByStatus(MissionStatus.PENDING)).thenReturn(List.of(job.getId()));
+        when(cadetMissionRepository.findWithCadetAndMissionById(job.getId())).thenReturn(Optional.of(job));
+
+        missionStartService.resumePendingStarts();
+
+        verifyNoInteractions(missionService, messagingTemplate);
+    }
+}
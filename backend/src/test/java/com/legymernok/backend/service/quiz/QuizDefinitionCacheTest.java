@@ -0,0 +1,112 @@
+package com.legymernok.backend.service.quiz;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legymernok.backend.integration.GiteaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuizDefinitionCacheTest {
+
+    private static final String QUIZ_JSON = """
+            {
+              "config": {"timeLimitSeconds": 300, "allowNavigation": true, "showSolutions": false},
+              "questions": [{
+                "id": "q1",
+                "text": "Mi 2+2?",
+                "points": 10,
+                "options": [
+                  {"id": "o1", "text": "3", "isCorrect": false},
+                  {"id": "o2", "text": "4", "isCorrect": true}
+                ]
+              }]
+            }
+            """;
+
+    @Mock private GiteaService giteaService;
+
+    private QuizDefinitionCache cache;
+    private final UUID missionId = UUID.randomUUID();
+    private final String repoName = missionId.toString();
+
+    @BeforeEach
+    void setUp() {
+        cache = new QuizDefinitionCache(giteaService, new ObjectMapper(), new SimpleMeterRegistry(), 100, 60);
+        lenient().when(giteaService.getAdminUsername()).thenReturn("admin");
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeRepeatedStartsWithoutGitea() {
+        when(giteaService.getHeadCommitSha("admin", repoName)).thenReturn(Optional.of("sha-1"));
+        when(giteaService.getFileContent("admin", repoName, "quiz.json", "sha-1")).thenReturn(QUIZ_JSON);
+
+        QuizDefinitionCache.CachedQuiz first = cache.get(missionId).orElseThrow();
+        QuizDefinitionCache.CachedQuiz second = cache.get(missionId).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("sha-1", first.commitSha());
+        verify(giteaService, times(1)).getHeadCommitSha("admin", repoName);
+        verify(giteaService, times(1)).getFileContent("admin", repoName, "quiz.json", "sha-1");
+    }
+
+    @Test
+    void get_shouldKeepAnswersInFullDefinitionAndStripThemFromPublicOne() {
+        when(giteaService.getHeadCommitSha("admin", repoName)).thenReturn(Optional.of("sha-1"));
+        when(giteaService.getFileContent("admin", repoName, "quiz.json", "sha-1")).thenReturn(QUIZ_JSON);
+
+        QuizDefinitionCache.CachedQuiz quiz = cache.get(missionId).orElseThrow();
+
+        assertEquals(Boolean.TRUE, quiz.definition().getQuestions().get(0).getOptions().get(1).getIsCorrect());
+        quiz.publicDefinition().getQuestions().forEach(q -> {
+            assertFalse(q.getIsMulti());
+            q.getOptions().forEach(o -> assertNull(o.getIsCorrect()));
+        });
+        assertFalse(quiz.publicJson().contains("\"isCorrect\":true"));
+        assertEquals(QUIZ_JSON, quiz.json());
+    }
+
+    @Test
+    void evict_shouldForceReloadWithNewHeadSha() {
+        when(giteaService.getHeadCommitSha("admin", repoName))
+                .thenReturn(Optional.of("sha-1"), Optional.of("sha-2"));
+        when(giteaService.getFileContent(eq("admin"), eq(repoName), eq("quiz.json"), anyString())).thenReturn(QUIZ_JSON);
+
+        cache.get(missionId);
+        cache.evict(missionId);
+        QuizDefinitionCache.CachedQuiz reloaded = cache.get(missionId).orElseThrow();
+
+        assertEquals("sha-2", reloaded.commitSha());
+        verify(giteaService).getFileContent("admin", repoName, "quiz.json", "sha-2");
+    }
+
+    @Test
+    void findCached_shouldMatchOnlyIdenticalJsonAndNeverCallGitea() {
+        assertTrue(cache.findCached(missionId, QUIZ_JSON).isEmpty());
+
+        when(giteaService.getHeadCommitSha("admin", repoName)).thenReturn(Optional.of("sha-1"));
+        when(giteaService.getFileContent("admin", repoName, "quiz.json", "sha-1")).thenReturn(QUIZ_JSON);
+        cache.get(missionId);
+
+        assertTrue(cache.findCached(missionId, QUIZ_JSON).isPresent());
+        assertTrue(cache.findCached(missionId, QUIZ_JSON.replace("Mi 2+2?", "Mi 3+3?")).isEmpty());
+        verify(giteaService, times(1)).getHeadCommitSha("admin", repoName);
+    }
+
+    @Test
+    void get_whenQuizJsonMissing_shouldReturnEmpty() {
+        when(giteaService.getHeadCommitSha("admin", repoName)).thenReturn(Optional.of("sha-1"));
+        when(giteaService.getFileContent("admin", repoName, "quiz.json", "sha-1")).thenReturn(null);
+
+        assertTrue(cache.get(missionId).isEmpty());
+    }
+}
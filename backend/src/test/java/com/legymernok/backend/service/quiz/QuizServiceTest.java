@@ -1,13 +1,15 @@
 package com.legymernok.backend.service.quiz;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legymernok.backend.dto.quiz.QuizDefinition;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.exception.UnauthorizedAccessException;
-import com.legymernok.backend.integration.GiteaService;
 import com.legymernok.backend.model.auth.Permission;
 import com.legymernok.backend.model.auth.Role;
 import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.model.mission.QuizSession;
 import com.legymernok.backend.model.starsystem.StarSystem;
 import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.mission.MissionResultRepository;
@@ -19,20 +21,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class QuizServiceTest {
 
-    @Mock private GiteaService giteaService;
     @Mock private QuizSessionRepository quizSessionRepository;
     @Mock private MissionRepository missionRepository;
     @Mock private MissionResultRepository missionResultRepository;
     @Mock private com.legymernok.backend.service.streak.StreakService streakService;
+    @Mock private QuizDefinitionCache quizDefinitionCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @Spy  private ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks private QuizService quizService;
 
@@ -156,4 +160,79 @@ class QuizServiceTest {
 
         verify(quizSessionRepository).deleteAllByMissionId(missionId);
     }
+
+    // =========================================================================
+    // startQuiz tesztek (QuizDefinitionCache)
+    // =========================================================================
+
+    private static final String SAMPLE_QUIZ_JSON = """
+            {
+              "config": {"timeLimitSeconds": 300, "allowNavigation": true, "showSolutions": false},
+              "questions": [{
+                "id": "q1",
+                "text": "Mi 2+2?",
+                "points": 10,
+                "options": [
+                  {"id": "o1", "text": "3", "isCorrect": false},
+                  {"id": "o2", "text": "4", "isCorrect": true}
+                ]
+              }]
+            }
+            """;
+
+    private Mission quizMission() {
+        return Mission.builder()
+                .id(UUID.randomUUID())
+                .owner(testUser)
+                .missionType(MissionType.QUIZ)
+                .starSystem(testStarSystem)
+                .build();
+    }
+
+    private QuizDefinitionCache.CachedQuiz cachedQuiz() throws Exception {
+        QuizDefinition full = objectMapper.readValue(SAMPLE_QUIZ_JSON, QuizDefinition.class);
+        QuizDefinition stripped = QuizDefinitionCache.stripAnswers(objectMapper.readValue(SAMPLE_QUIZ_JSON, QuizDefinition.class));
+        return new QuizDefinitionCache.CachedQuiz("sha-1", SAMPLE_QUIZ_JSON, full, stripped,
+                objectMapper.writeValueAsString(stripped));
+    }
+
+    @Test
+    void startQuiz_newSession_shouldUseCachedDefinitionWithoutGitea() throws Exception {
+        Mission mission = quizMission();
+        QuizDefinitionCache.CachedQuiz cached = cachedQuiz();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(quizSessionRepository.findByMissionIdAndCadetId(mission.getId(), testUser.getId())).thenReturn(Optional.empty());
+        when(quizDefinitionCache.get(mission.getId())).thenReturn(Optional.of(cached));
+
+        QuizDefinition result = quizService.startQuiz(mission.getId(), testUser);
+
+        assertSame(cached.publicDefinition(), result);
+        verify(quizSessionRepository).save(argThat(session -> SAMPLE_QUIZ_JSON.equals(session.getQuizSnapshot())));
+    }
+
+    @Test
+    void startQuiz_whenQuizJsonMissing_shouldThrowNotFound() {
+        Mission mission = quizMission();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(quizSessionRepository.findByMissionIdAndCadetId(mission.getId(), testUser.getId())).thenReturn(Optional.empty());
+        when(quizDefinitionCache.get(mission.getId())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> quizService.startQuiz(mission.getId(), testUser));
+        verify(quizSessionRepository, never()).save(any());
+    }
+
+    @Test
+    void startQuiz_resumingOutdatedSnapshot_shouldStripAnswersFromSnapshot() throws Exception {
+        Mission mission = quizMission();
+        QuizSession session = QuizSession.builder().mission(mission).cadet(testUser).quizSnapshot(SAMPLE_QUIZ_JSON).build();
+        when(missionRepository.findById(mission.getId())).thenReturn(Optional.of(mission));
+        when(quizSessionRepository.findByMissionIdAndCadetId(mission.getId(), testUser.getId())).thenReturn(Optional.of(session));
+        when(quizDefinitionCache.findCached(mission.getId(), SAMPLE_QUIZ_JSON)).thenReturn(Optional.empty());
+
+        QuizDefinition result = quizService.startQuiz(mission.getId(), testUser);
+
+        result.getQuestions().forEach(q -> q.getOptions().forEach(o -> assertNull(o.getIsCorrect())));
+        assertFalse(result.getQuestions().get(0).getIsMulti());
+        verify(quizDefinitionCache, never()).get(any());
+    }
 }
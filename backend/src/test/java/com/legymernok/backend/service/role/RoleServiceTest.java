@@ -8,11 +8,13 @@ import com.legymernok.backend.model.cadet.Cadet;
 import com.legymernok.backend.repository.auth.PermissionRepository;
 import com.legymernok.backend.repository.auth.RoleRepository;
 import com.legymernok.backend.repository.cadet.CadetRepository;
+import com.legymernok.backend.security.PrincipalChangedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -29,6 +31,8 @@ class RoleServiceTest {
     private PermissionRepository permissionRepository;
     @Mock
     private CadetRepository cadetRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private RoleService roleService;
@@ -111,6 +115,7 @@ class RoleServiceTest {
 
         // 2. Ellenőrizzük, hogy magát a role-t töröltük
         verify(roleRepository).delete(role);
+        verify(eventPublisher).publishEvent(PrincipalChangedEvent.allPrincipals());
     }
 
     @Test
@@ -146,5 +151,6 @@ class RoleServiceTest {
         assertEquals("ROLE_UPDATED", response.getName());
         assertEquals("Updated desc", response.getDescription());
         verify(roleRepository).save(existingRole);
+        verify(eventPublisher).publishEvent(PrincipalChangedEvent.allPrincipals());
     }
 }
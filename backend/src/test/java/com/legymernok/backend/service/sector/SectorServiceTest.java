@@ -7,12 +7,14 @@ import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.model.sector.Sector;
 import com.legymernok.backend.repository.sector.SectorRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.service.starsystem.StarSystemContentChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +29,7 @@ class SectorServiceTest {
 
     @Mock private SectorRepository sectorRepository;
     @Mock private StarSystemRepository starSystemRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private SectorService sectorService;
 
     private Sector physics;
@@ -81,6 +84,8 @@ class SectorServiceTest {
         // A DB szintű ON DELETE SET NULL kezeli a star_systems.sector_id-t —
         // a service réteg nem törli/nem is éri el a StarSystem rekordokat.
         verifyNoInteractions(starSystemRepository);
+        // A szektornév eltűnik a rendszerek részletes nézetéből
+        verify(eventPublisher).publishEvent(StarSystemContentChangedEvent.allSystems());
     }
 
     @Test
@@ -0,0 +1,208 @@
+package com.legymernok.backend.service.social;
+
+import com.legymernok.backend.config.H2JpaTestDatabase;
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
+import com.legymernok.backend.dto.social.ActivityFeedPageResponse;
+import com.legymernok.backend.model.auth.Permission;
+import com.legymernok.backend.model.auth.Role;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.fillinblank.FillInBlankAttempt;
+import com.legymernok.backend.model.mission.Difficulty;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionGroup;
+import com.legymernok.backend.model.mission.MissionGroupProgress;
+import com.legymernok.backend.model.mission.MissionGroupStepCompletion;
+import com.legymernok.backend.model.mission.MissionResult;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.model.mission.VerificationStatus;
+import com.legymernok.backend.model.sector.Sector;
+import com.legymernok.backend.model.social.Follow;
+import com.legymernok.backend.model.starsystem.StarSystem;
+import com.legymernok.backend.repository.social.ActivityFeedRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Az aktivitás-feed UNION ALL lekérdezésének keyset lapozása in-memory H2 adatbázison
+ * (PostgreSQL módban): a lapok összefűzve pontosan a teljes, (occurredAt, id) szerint
+ * csökkenő feed-et adják, azonos időpontú elemek esetén is.
+ */
+class ActivityFeedPagingTest {
+
+    private static final Instant BASE = Instant.parse("2026-05-01T10:00:00.123456Z");
+
+    private static H2JpaTestDatabase database;
+    private static EntityManager entityManager;
+    private static TransactionTemplate tx;
+    private static ActivityFeedService activityFeedService;
+    private static final List<UUID> expectedIds = new ArrayList<>();
+    private static Cadet follower;
+
+    @BeforeAll
+    static void setUp() {
+        database = H2JpaTestDatabase.create("activity-feed", Map.of(),
+                Mission.class, MissionGroup.class, StarSystem.class, Sector.class, Cadet.class, Role.class,
+                Permission.class, Follow.class, MissionGroupProgress.class, MissionGroupStepCompletion.class,
+                FillInBlankAttempt.class, MissionResult.class);
+        entityManager = database.entityManager();
+        tx = database.transactionTemplate();
+        activityFeedService = new ActivityFeedService(null,
+                database.repository(ActivityFeedRepository.class),
+                new ActivityInboxService(null, new SimpleMeterRegistry(), false, 500, 1000, 200));
+
+        tx.executeWithoutResult(s -> createFeed());
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(follower, null, List.of())));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        SecurityContextHolder.clearContext();
+        database.close();
+    }
+
+    @Test
+    void getActivityFeed_PagesConcatenateToFullFeed() {
+        List<UUID> seen = new ArrayList<>();
+        ActivityFeedCursor cursor = null;
+        int pages = 0;
+        do {
+            ActivityFeedCursor after = cursor;
+            ActivityFeedPageResponse page = tx.execute(s -> activityFeedService.getActivityFeed(after, 4));
+            page.getItems().stream().map(ActivityFeedItemResponse::getId).forEach(seen::add);
+            cursor = page.getNextCursor() != null ? ActivityFeedCursor.valueOf(page.getNextCursor()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expectedIds, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void getActivityFeed_ResolvesNamesAndSkipsFailedAndUnfollowed() {
+        ActivityFeedPageResponse page = tx.execute(s -> activityFeedService.getActivityFeed(null, 50));
+
+        assertEquals(expectedIds.size(), page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertTrue(page.getItems().stream().allMatch(i -> i.getCadetUsername().startsWith("kovetett")));
+        assertTrue(page.getItems().stream().allMatch(i -> i.getLabel().startsWith("Misszió")));
+        assertEquals(5, page.getItems().stream().filter(i -> "GROUP_STEP".equals(i.getType())).count());
+        assertEquals(5, page.getItems().stream().filter(i -> "FILL_IN_BLANK".equals(i.getType())).count());
+        assertEquals(5, page.getItems().stream().filter(i -> "QUIZ".equals(i.getType())).count());
+    }
+
+    /**
+     * A követő két kadétot követ (lépések + sikeres/sikertelen fill-in-blank, illetve quiz),
+     * egy harmadikat nem. Az időpontok ismétlődnek, hogy az id szerinti döntés is számítson.
+     */
+    private static void createFeed() {
+        follower = cadet("koveto");
+        Cadet stepper = cadet("kovetett-a");
+        Cadet quizzer = cadet("kovetett-b");
+        Cadet stranger = cadet("idegen");
+        entityManager.persist(Follow.builder().follower(follower).followee(stepper).build());
+        entityManager.persist(Follow.builder().follower(follower).followee(quizzer).build());
+
+        Sector sector = Sector.builder().name("Szektor").build();
+        entityManager.persist(sector);
+        StarSystem starSystem = StarSystem.builder().name("Rendszer").sector(sector).owner(stepper).build();
+        entityManager.persist(starSystem);
+        MissionGroup group = MissionGroup.builder().name("Csoport").starSystem(starSystem).owner(stepper).orderIndex(0).build();
+        entityManager.persist(group);
+        MissionGroupProgress progress = MissionGroupProgress.builder().cadet(stepper).group(group).build();
+        entityManager.persist(progress);
+
+        List<Object[]> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Mission mission = mission(starSystem, "Misszió " + i, stepper);
+            MissionGroupStepCompletion step = MissionGroupStepCompletion.builder().progress(progress).mission(mission).build();
+            entityManager.persist(step);
+            events.add(new Object[]{"mission_group_step_completions", "completed_at", step.getId(), true});
+
+            FillInBlankAttempt passed = FillInBlankAttempt.builder().cadet(stepper).mission(mission).passed(true).build();
+            FillInBlankAttempt failed = FillInBlankAttempt.builder().cadet(stepper).mission(mission).passed(false).build();
+            entityManager.persist(passed);
+            entityManager.persist(failed);
+            events.add(new Object[]{"fill_in_blank_attempts", "submitted_at", passed.getId(), true});
+            events.add(new Object[]{"fill_in_blank_attempts", "submitted_at", failed.getId(), false});
+
+            MissionResult quiz = quizResult(quizzer, mission);
+            MissionResult strangerQuiz = quizResult(stranger, mission);
+            events.add(new Object[]{"mission_results", "completed_at", quiz.getId(), true});
+            events.add(new Object[]{"mission_results", "completed_at", strangerQuiz.getId(), false});
+        }
+        entityManager.flush();
+
+        List<Object[]> visible = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            Object[] event = events.get(i);
+            Instant occurredAt = BASE.minusSeconds(i % 4);
+            entityManager.createNativeQuery("UPDATE " + event[0] + " SET " + event[1] + " = :at WHERE id = :id")
+                    .setParameter("at", occurredAt)
+                    .setParameter("id", event[2])
+                    .executeUpdate();
+            if ((boolean) event[3]) {
+                visible.add(new Object[]{occurredAt, event[2]});
+            }
+        }
+        // A Postgres/H2 UUID-rendezés előjel nélküli bájtsorrend, ami a kisbetűs hex szöveg sorrendje
+        visible.stream()
+                .sorted(Comparator.<Object[], Instant>comparing(e -> (Instant) e[0])
+                        .thenComparing(e -> e[1].toString())
+                        .reversed())
+                .forEach(e -> expectedIds.add((UUID) e[1]));
+    }
+
+    private static Cadet cadet(String username) {
+        Cadet cadet = Cadet.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .passwordHash("x")
+                .roles(new HashSet<>())
+                .build();
+        entityManager.persist(cadet);
+        return cadet;
+    }
+
+    private static Mission mission(StarSystem starSystem, String name, Cadet owner) {
+        Mission mission = Mission.builder()
+                .starSystem(starSystem)
+                .name(name)
+                .missionType(MissionType.FILL_IN_BLANK)
+                .difficulty(Difficulty.EASY)
+                .verificationStatus(VerificationStatus.DRAFT)
+                .orderIndex(0)
+                .owner(owner)
+                .build();
+        entityManager.persist(mission);
+        return mission;
+    }
+
+    private static MissionResult quizResult(Cadet cadet, Mission mission) {
+        MissionResult result = MissionResult.builder()
+                .cadet(cadet).mission(mission)
+                .score(1.0).maxScore(1.0).percentage(100.0)
+                .submissionHash(UUID.randomUUID().toString())
+                .build();
+        entityManager.persist(result);
+        return result;
+    }
+}
@@ -1,13 +1,11 @@
 package com.legymernok.backend.service.social;
 
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
 import com.legymernok.backend.dto.social.ActivityFeedItemResponse;
+import com.legymernok.backend.dto.social.ActivityFeedPageResponse;
 import com.legymernok.backend.model.cadet.Cadet;
-import com.legymernok.backend.model.social.Follow;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.fillinblank.FillInBlankAttemptRepository;
-import com.legymernok.backend.repository.mission.MissionGroupStepCompletionRepository;
-import com.legymernok.backend.repository.mission.MissionResultRepository;
-import com.legymernok.backend.repository.social.FollowRepository;
+import com.legymernok.backend.repository.social.ActivityFeedRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,22 +15,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ActivityFeedServiceTest {
 
-    @Mock private FollowRepository followRepository;
     @Mock private CadetRepository cadetRepository;
-    @Mock private MissionGroupStepCompletionRepository stepCompletionRepository;
-    @Mock private FillInBlankAttemptRepository fillInBlankAttemptRepository;
-    @Mock private MissionResultRepository missionResultRepository;
+    @Mock private ActivityFeedRepository activityFeedRepository;
+    @Mock private ActivityInboxService activityInboxService;
     @Mock private Authentication mockAuthentication;
 
     private ActivityFeedService activityFeedService;
@@ -40,9 +38,7 @@ class ActivityFeedServiceTest {
 
     @BeforeEach
     void setUp() {
-        activityFeedService = new ActivityFeedService(
-                followRepository, cadetRepository, stepCompletionRepository,
-                fillInBlankAttemptRepository, missionResultRepository);
+        activityFeedService = new ActivityFeedService(cadetRepository, activityFeedRepository, activityInboxService);
         currentUser = Cadet.builder().id(UUID.randomUUID()).username("kadét").build();
 
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -53,30 +49,81 @@ class ActivityFeedServiceTest {
     }
 
     @Test
-    void getActivityFeed_NoFollowees_ReturnsEmpty() {
-        when(followRepository.findAllByFollower_Id(currentUser.getId())).thenReturn(List.of());
+    void getActivityFeed_FirstPage_StartsFromSentinelCursor() {
+        when(activityFeedRepository.findPage(any(), any(), any(), anyInt())).thenReturn(List.of());
 
-        List<ActivityFeedItemResponse> result = activityFeedService.getActivityFeed();
+        ActivityFeedPageResponse result = activityFeedService.getActivityFeed(null, 20);
 
-        assertTrue(result.isEmpty());
-        verifyNoInteractions(stepCompletionRepository, fillInBlankAttemptRepository, missionResultRepository);
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+        verify(activityFeedRepository).findPage(currentUser.getId(),
+                ActivityFeedCursor.START.occurredAt(), ActivityFeedCursor.START.id(), 21);
     }
 
     @Test
-    void getActivityFeed_WithFollowees_QueriesAllThreeSources() {
-        Cadet followee = Cadet.builder().id(UUID.randomUUID()).username("kovetett").build();
-        Follow follow = Follow.builder().follower(currentUser).followee(followee).build();
-        when(followRepository.findAllByFollower_Id(currentUser.getId())).thenReturn(List.of(follow));
-        when(stepCompletionRepository.findTop20ByProgress_Cadet_IdInOrderByCompletedAtDesc(anyList()))
-                .thenReturn(List.of());
-        when(fillInBlankAttemptRepository.findTop20ByCadet_IdInAndPassedTrueOrderBySubmittedAtDesc(anyList()))
-                .thenReturn(List.of());
-        when(missionResultRepository.findTop20ByCadet_IdInOrderByCompletedAtDesc(anyList()))
-                .thenReturn(List.of());
-
-        List<ActivityFeedItemResponse> result = activityFeedService.getActivityFeed();
-
-        assertTrue(result.isEmpty());
-        verify(stepCompletionRepository).findTop20ByProgress_Cadet_IdInOrderByCompletedAtDesc(List.of(followee.getId()));
+    void getActivityFeed_MoreRowsThanPage_ReturnsCursorOfLastItem() {
+        Instant base = Instant.parse("2026-05-01T10:00:00.123456Z");
+        List<ActivityFeedItemResponse> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(row(UUID.randomUUID(), "QUIZ", base.minusSeconds(i)));
+        }
+        when(activityFeedRepository.findPage(eq(currentUser.getId()), any(), any(), eq(3))).thenReturn(rows);
+
+        ActivityFeedPageResponse result = activityFeedService.getActivityFeed(null, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals("QUIZ", result.getItems().get(0).getType());
+        ActivityFeedCursor next = ActivityFeedCursor.valueOf(result.getNextCursor());
+        assertEquals(rows.get(1).getId(), next.id());
+        assertEquals(base.minusSeconds(1), next.occurredAt());
+    }
+
+    @Test
+    void getActivityFeed_WithCursor_PassesItToRepositoryAndClampsSize() {
+        ActivityFeedCursor cursor = new ActivityFeedCursor(Instant.parse("2026-05-01T10:00:00Z"), UUID.randomUUID());
+        when(activityFeedRepository.findPage(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        activityFeedService.getActivityFeed(ActivityFeedCursor.valueOf(cursor.encode()), 1000);
+
+        verify(activityFeedRepository).findPage(currentUser.getId(), cursor.occurredAt(), cursor.id(), 51);
+    }
+
+    @Test
+    void getActivityFeed_InboxWithoutHorizon_DoesNotPull() {
+        when(activityInboxService.isEnabled()).thenReturn(true);
+        List<ActivityFeedItemResponse> rows = List.of(row(UUID.randomUUID(), "QUIZ", Instant.parse("2026-05-01T10:00:00Z")));
+        when(activityFeedRepository.findInboxPage(eq(currentUser.getId()), any(), any(), eq(21))).thenReturn(rows);
+        when(activityFeedRepository.findHorizon(currentUser.getId())).thenReturn(Optional.empty());
+
+        ActivityFeedPageResponse result = activityFeedService.getActivityFeed(null, 20);
+
+        assertEquals(1, result.getItems().size());
+        verify(activityFeedRepository, never()).findPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getActivityFeed_InboxPastHorizon_ContinuesFromSourceTables() {
+        when(activityInboxService.isEnabled()).thenReturn(true);
+        Instant base = Instant.parse("2026-05-01T10:00:00Z");
+        ActivityFeedItemResponse newest = row(UUID.randomUUID(), "QUIZ", base);
+        ActivityFeedItemResponse newer = row(UUID.randomUUID(), "QUIZ", base.minusSeconds(1));
+        ActivityFeedItemResponse beyondHorizon = row(UUID.randomUUID(), "QUIZ", base.minusSeconds(4));
+        ActivityFeedItemResponse pulled = row(UUID.randomUUID(), "GROUP_STEP", base.minusSeconds(2));
+        when(activityFeedRepository.findInboxPage(eq(currentUser.getId()), any(), any(), eq(6)))
+                .thenReturn(List.of(newest, newer, beyondHorizon));
+        when(activityFeedRepository.findHorizon(currentUser.getId()))
+                .thenReturn(Optional.of(new ActivityFeedCursor(base.minusSeconds(3), UUID.randomUUID())));
+        when(activityFeedRepository.findPage(currentUser.getId(), base.minusSeconds(1), newer.getId(), 4))
+                .thenReturn(List.of(pulled));
+
+        ActivityFeedPageResponse result = activityFeedService.getActivityFeed(null, 5);
+
+        assertEquals(List.of(newest.getId(), newer.getId(), pulled.getId()),
+                result.getItems().stream().map(i -> i.getId()).toList());
+        assertNull(result.getNextCursor());
+    }
+
+    private static ActivityFeedItemResponse row(UUID id, String type, Instant occurredAt) {
+        return new ActivityFeedItemResponse(id, UUID.randomUUID(), "kovetett", type, "Misszió", occurredAt);
     }
 }
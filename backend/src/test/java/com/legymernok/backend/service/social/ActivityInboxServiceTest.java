@@ -0,0 +1,138 @@
+package com.legymernok.backend.service.social;
+
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.repository.social.ActivityInboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityInboxServiceTest {
+
+    private static final int MAX_SIZE = 500;
+    private static final long MAX_PUSH_FOLLOWERS = 1000;
+
+    @Mock private ActivityInboxRepository inboxRepository;
+
+    private final UUID followerId = UUID.randomUUID();
+    private final UUID followeeId = UUID.randomUUID();
+
+    @Test
+    void disabled_ShouldIgnoreEvents() {
+        ActivityInboxService service = service(false);
+
+        service.onActivityRecorded(activity());
+        service.onFollowChanged(new FollowChangedEvent(followerId, followeeId, true));
+        service.enqueueInitialBackfill();
+
+        verifyNoInteractions(inboxRepository);
+    }
+
+    @Test
+    void onActivityRecorded_ShouldEnqueueFanoutJob() {
+        ActivityRecordedEvent event = activity();
+
+        service(true).onActivityRecorded(event);
+
+        verify(inboxRepository).enqueueFanout(event.itemId(), "QUIZ", event.actorId(), event.missionId(), event.occurredAt());
+    }
+
+    @Test
+    void onFollowChanged_Follow_ShouldQueueBackfill() {
+        when(inboxRepository.markPullIfPopular(followeeId, MAX_PUSH_FOLLOWERS)).thenReturn(0);
+
+        service(true).onFollowChanged(new FollowChangedEvent(followerId, followeeId, true));
+
+        verify(inboxRepository).enqueueBackfill(followerId, followeeId);
+        verify(inboxRepository, never()).deleteActor(any());
+    }
+
+    @Test
+    void onFollowChanged_FolloweeBecomesPopular_ShouldDropTheirInboxRows() {
+        when(inboxRepository.markPullIfPopular(followeeId, MAX_PUSH_FOLLOWERS)).thenReturn(1);
+
+        service(true).onFollowChanged(new FollowChangedEvent(followerId, followeeId, true));
+
+        verify(inboxRepository).deleteActor(followeeId);
+        verify(inboxRepository).enqueueBackfill(followerId, followeeId);
+    }
+
+    @Test
+    void onFollowChanged_Unfollow_ShouldRemoveFolloweeRows() {
+        service(true).onFollowChanged(new FollowChangedEvent(followerId, followeeId, false));
+
+        verify(inboxRepository).deleteFollowee(followerId, followeeId);
+        verify(inboxRepository).deleteBackfill(followerId, followeeId);
+        verify(inboxRepository, never()).markPullIfPopular(any(), anyLong());
+    }
+
+    @Test
+    void fanOutBatch_EmptyQueue_ShouldDoNothing() {
+        when(inboxRepository.lockFanoutBatch(200)).thenReturn(List.of());
+
+        assertEquals(0, service(true).fanOutBatch());
+
+        verify(inboxRepository, never()).fanOut(any());
+    }
+
+    @Test
+    void fanOutBatch_ShouldCopyPruneAndDeleteJobs() {
+        List<UUID> jobIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(inboxRepository.lockFanoutBatch(200)).thenReturn(jobIds);
+        when(inboxRepository.fanOut(jobIds)).thenReturn(40);
+
+        assertEquals(2, service(true).fanOutBatch());
+
+        InOrder inOrder = inOrder(inboxRepository);
+        inOrder.verify(inboxRepository).fanOut(jobIds);
+        inOrder.verify(inboxRepository).advanceHorizonForJobs(jobIds, MAX_SIZE);
+        inOrder.verify(inboxRepository).pruneForJobs(jobIds);
+        inOrder.verify(inboxRepository).deleteFanoutJobs(jobIds);
+    }
+
+    @Test
+    void backfillBatch_ShouldLoadOneMoreThanMaxSizeAndPrune() {
+        when(inboxRepository.lockBackfillBatch(200)).thenReturn(List.<Object[]>of(new Object[]{followerId, followeeId}));
+
+        assertEquals(1, service(true).backfillBatch());
+
+        InOrder inOrder = inOrder(inboxRepository);
+        inOrder.verify(inboxRepository).backfill(followerId, followeeId,
+                ActivityFeedCursor.START.occurredAt(), ActivityFeedCursor.START.id(), MAX_SIZE + 1);
+        inOrder.verify(inboxRepository).advanceHorizon(followerId, MAX_SIZE);
+        inOrder.verify(inboxRepository).prune(followerId);
+        inOrder.verify(inboxRepository).deleteBackfill(followerId, followeeId);
+    }
+
+    @Test
+    void enqueueInitialBackfill_OnlyWhenInboxIsEmpty() {
+        ActivityInboxService service = service(true);
+        when(inboxRepository.isInboxEmpty()).thenReturn(false, true);
+
+        service.enqueueInitialBackfill();
+        verify(inboxRepository, never()).enqueueBackfillForAllFollows();
+
+        service.enqueueInitialBackfill();
+        verify(inboxRepository).enqueueBackfillForAllFollows();
+    }
+
+    private ActivityInboxService service(boolean enabled) {
+        return new ActivityInboxService(inboxRepository, new SimpleMeterRegistry(), enabled, MAX_SIZE, MAX_PUSH_FOLLOWERS, 200);
+    }
+
+    private ActivityRecordedEvent activity() {
+        return new ActivityRecordedEvent("QUIZ", UUID.randomUUID(), followeeId, UUID.randomUUID(), Instant.now());
+    }
+}
@@ -3,11 +3,10 @@ package com.legymernok.backend.service.social;
 import com.legymernok.backend.dto.social.CadetProfileResponse;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.model.cadet.Cadet;
-import com.legymernok.backend.model.mission.MissionStatus;
-import com.legymernok.backend.repository.ConnectTables.CadetMissionRepository;
+import com.legymernok.backend.model.cadet.CadetProgressTotals;
 import com.legymernok.backend.repository.cadet.CadetRepository;
-import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
 import com.legymernok.backend.repository.social.FollowRepository;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -24,8 +23,7 @@ import static org.mockito.Mockito.when;
 class CadetProfileServiceTest {
 
     @Mock private CadetRepository cadetRepository;
-    @Mock private CadetMissionRepository cadetMissionRepository;
-    @Mock private MissionGroupProgressRepository missionGroupProgressRepository;
+    @Mock private CadetProgressService cadetProgressService;
     @Mock private FollowRepository followRepository;
 
     @InjectMocks
@@ -36,8 +34,8 @@ class CadetProfileServiceTest {
         UUID id = UUID.randomUUID();
         Cadet cadet = Cadet.builder().id(id).username("kadét").currentStreak(3).longestStreak(7).build();
         when(cadetRepository.findById(id)).thenReturn(Optional.of(cadet));
-        when(cadetMissionRepository.countByCadetIdAndStatus(id, MissionStatus.COMPLETED)).thenReturn(5L);
-        when(missionGroupProgressRepository.countByCadetIdAndCompletedTrue(id)).thenReturn(2L);
+        when(cadetProgressService.getTotals(id)).thenReturn(Optional.of(
+                CadetProgressTotals.builder().cadetId(id).completedMissions(5L).completedGroups(2L).build()));
         when(followRepository.countByFollowee_Id(id)).thenReturn(10L);
         when(followRepository.countByFollower_Id(id)).thenReturn(4L);
 
@@ -51,6 +49,19 @@ class CadetProfileServiceTest {
         assertEquals(4L, response.getFollowingCount());
     }
 
+    @Test
+    void getProfile_WithoutTotalsRow_ReportsZeroCompletions() {
+        UUID id = UUID.randomUUID();
+        Cadet cadet = Cadet.builder().id(id).username("újonc").build();
+        when(cadetRepository.findById(id)).thenReturn(Optional.of(cadet));
+        when(cadetProgressService.getTotals(id)).thenReturn(Optional.empty());
+
+        CadetProfileResponse response = cadetProfileService.getProfile(id);
+
+        assertEquals(0L, response.getTotalCompletedMissions());
+        assertEquals(0L, response.getTotalCompletedGroups());
+    }
+
     @Test
     void getProfile_UnknownCadet_ThrowsNotFound() {
         UUID id = UUID.randomUUID();
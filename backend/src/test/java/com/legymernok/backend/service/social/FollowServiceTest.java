@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +29,7 @@ class FollowServiceTest {
 
     @Mock private FollowRepository followRepository;
     @Mock private CadetRepository cadetRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @Mock private Authentication mockAuthentication;
 
     private FollowService followService;
@@ -36,7 +38,7 @@ class FollowServiceTest {
 
     @BeforeEach
     void setUp() {
-        followService = new FollowService(followRepository, cadetRepository);
+        followService = new FollowService(followRepository, cadetRepository, eventPublisher);
         currentUser = Cadet.builder().id(UUID.randomUUID()).username("kadét").build();
 
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -70,6 +72,7 @@ class FollowServiceTest {
         followService.follow(followee.getId());
 
         verify(followRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -82,6 +85,7 @@ class FollowServiceTest {
         followService.follow(followee.getId());
 
         verify(followRepository).save(any(Follow.class));
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(currentUser.getId(), followee.getId(), true));
     }
 
     @Test
@@ -89,6 +93,7 @@ class FollowServiceTest {
         UUID followeeId = UUID.randomUUID();
         followService.unfollow(followeeId);
         verify(followRepository).deleteByFollower_IdAndFollowee_Id(currentUser.getId(), followeeId);
+        verify(eventPublisher).publishEvent(new FollowChangedEvent(currentUser.getId(), followeeId, false));
     }
 
     @Test
@@ -0,0 +1,162 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legymernok.backend.dto.mission.MissionResponse;
+import com.legymernok.backend.dto.starsystem.StarSystemItemResponse;
+import com.legymernok.backend.dto.starsystem.StarSystemWithItemsResponse;
+import com.legymernok.backend.integration.InMemorySharedCacheTier;
+import com.legymernok.backend.integration.SharedCacheTier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StarSystemDetailCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID starSystemId = UUID.randomUUID();
+    private final UUID missionId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+    private String missionName;
+
+    @BeforeEach
+    void setUp() {
+        missionName = "Első küldetés";
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromLocalTier() {
+        StarSystemDetailCache cache = localCache();
+
+        StarSystemDetailCache.CachedDetail first = cache.get(starSystemId, false, loader(false));
+        StarSystemDetailCache.CachedDetail second = cache.get(starSystemId, false, loader(false));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertTrue(first.etag().startsWith("\"0.0-"));
+    }
+
+    @Test
+    void get_ShouldKeepAdminAndCadetViewsApart() {
+        StarSystemDetailCache cache = localCache();
+
+        StarSystemDetailCache.CachedDetail admin = cache.get(starSystemId, true, loader(true));
+        StarSystemDetailCache.CachedDetail cadet = cache.get(starSystemId, false, loader(false));
+
+        assertEquals(2, loads.get());
+        assertEquals("http://gitea/repo.git", admin.response().getItems().get(0).getMission().getTemplateRepositoryUrl());
+        assertNull(cadet.response().getItems().get(0).getMission().getTemplateRepositoryUrl());
+        assertNotEquals(admin.etag(), cadet.etag());
+    }
+
+    @Test
+    void onStarSystemContentChanged_ShouldReloadAndChangeEtag() {
+        StarSystemDetailCache cache = localCache();
+        StarSystemDetailCache.CachedDetail before = cache.get(starSystemId, false, loader(false));
+
+        missionName = "Átnevezett küldetés";
+        cache.onStarSystemContentChanged(new StarSystemContentChangedEvent(starSystemId));
+        StarSystemDetailCache.CachedDetail after = cache.get(starSystemId, false, loader(false));
+
+        assertEquals(2, loads.get());
+        assertEquals("Átnevezett küldetés", after.response().getItems().get(0).getMission().getName());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void onStarSystemContentChanged_OtherSystem_ShouldKeepEntry() {
+        StarSystemDetailCache cache = localCache();
+        cache.get(starSystemId, false, loader(false));
+
+        cache.onStarSystemContentChanged(new StarSystemContentChangedEvent(UUID.randomUUID()));
+        cache.get(starSystemId, false, loader(false));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onStarSystemContentChanged_AllSystems_ShouldReloadEverySystem() {
+        StarSystemDetailCache cache = localCache();
+        cache.get(starSystemId, false, loader(false));
+
+        cache.onStarSystemContentChanged(StarSystemContentChangedEvent.allSystems());
+        StarSystemDetailCache.CachedDetail after = cache.get(starSystemId, false, loader(false));
+
+        assertEquals(2, loads.get());
+        assertTrue(after.etag().startsWith("\"1.0-"));
+    }
+
+    @Test
+    void sharedTier_ShouldServeOtherInstanceAndPropagateInvalidation() {
+        InMemorySharedCacheTier tier = new InMemorySharedCacheTier();
+        StarSystemDetailCache instanceA = sharedCache(tier);
+        StarSystemDetailCache instanceB = sharedCache(tier);
+
+        StarSystemDetailCache.CachedDetail fromA = instanceA.get(starSystemId, false, loader(false));
+        StarSystemDetailCache.CachedDetail fromB = instanceB.get(starSystemId, false, loader(false));
+
+        assertEquals(1, loads.get());
+        assertEquals(fromA.etag(), fromB.etag());
+        assertEquals(fromA.response(), fromB.response());
+
+        // Az A példányon történt módosítás a B helyi rétegét is elavulttá teszi
+        missionName = "Átnevezett küldetés";
+        instanceA.onStarSystemContentChanged(new StarSystemContentChangedEvent(starSystemId));
+        StarSystemDetailCache.CachedDetail afterChange = instanceB.get(starSystemId, false, loader(false));
+
+        assertEquals(2, loads.get());
+        assertEquals("Átnevezett küldetés", afterChange.response().getItems().get(0).getMission().getName());
+        assertNotEquals(fromB.etag(), afterChange.etag());
+    }
+
+    @Test
+    void sharedTier_Unavailable_ShouldFallBackToLoader() {
+        InMemorySharedCacheTier tier = new InMemorySharedCacheTier();
+        StarSystemDetailCache cache = sharedCache(tier);
+        StarSystemDetailCache.CachedDetail healthy = cache.get(starSystemId, false, loader(false));
+
+        tier.setFailing(true);
+        StarSystemDetailCache.CachedDetail degraded = cache.get(starSystemId, false, loader(false));
+        assertDoesNotThrow(() -> cache.onStarSystemContentChanged(new StarSystemContentChangedEvent(starSystemId)));
+
+        assertEquals(2, loads.get());
+        assertEquals(healthy.response(), degraded.response());
+    }
+
+    private StarSystemDetailCache localCache() {
+        return new StarSystemDetailCache(objectMapper, new StaticListableBeanFactory().getBeanProvider(SharedCacheTier.class),
+                new SimpleMeterRegistry(), 100, 3600);
+    }
+
+    private StarSystemDetailCache sharedCache(SharedCacheTier tier) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("sharedCacheTier", tier));
+        return new StarSystemDetailCache(objectMapper, beanFactory.getBeanProvider(SharedCacheTier.class),
+                new SimpleMeterRegistry(), 100, 3600);
+    }
+
+    private Supplier<StarSystemWithItemsResponse> loader(boolean adminView) {
+        return () -> {
+            loads.incrementAndGet();
+            MissionResponse mission = MissionResponse.builder()
+                    .id(missionId)
+                    .starSystemId(starSystemId)
+                    .name(missionName)
+                    .orderIndex(0)
+                    .templateRepositoryUrl(adminView ? "http://gitea/repo.git" : null)
+                    .build();
+            return StarSystemWithItemsResponse.builder()
+                    .id(starSystemId)
+                    .name("Alfa")
+                    .items(List.of(StarSystemItemResponse.builder().type("MISSION").orderIndex(0).mission(mission).build()))
+                    .build();
+        };
+    }
+}
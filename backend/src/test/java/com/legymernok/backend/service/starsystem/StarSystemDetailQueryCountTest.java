@@ -0,0 +1,222 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.config.H2JpaTestDatabase;
+import com.legymernok.backend.dto.starsystem.StarSystemItemResponse;
+import com.legymernok.backend.dto.starsystem.StarSystemWithItemsResponse;
+import com.legymernok.backend.dto.starsystem.StarSystemWithProgressResponse;
+import com.legymernok.backend.model.auth.Permission;
+import com.legymernok.backend.model.auth.Role;
+import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.cadet.CadetStarSystemProgress;
+import com.legymernok.backend.model.mission.Difficulty;
+import com.legymernok.backend.model.mission.Mission;
+import com.legymernok.backend.model.mission.MissionGroup;
+import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.model.mission.VerificationStatus;
+import com.legymernok.backend.model.sector.Sector;
+import com.legymernok.backend.model.starsystem.StarSystem;
+import com.legymernok.backend.repository.cadet.CadetProgressTotalsRepository;
+import com.legymernok.backend.repository.cadet.CadetStarSystemProgressRepository;
+import com.legymernok.backend.repository.mission.MissionGroupRepository;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.service.cadet.CadetProgressService;
+import com.legymernok.backend.service.mission.MissionService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * A Star System részletes nézetének és a csillagtérképnek a lekérdezésszáma (Hibernate
+ * statisztika alapján), in-memory H2 adatbázison. A séma csak a nézetek által érintett
+ * entitásokból készül.
+ */
+class StarSystemDetailQueryCountTest {
+
+    private static H2JpaTestDatabase database;
+    private static EntityManager entityManager;
+    private static TransactionTemplate tx;
+    private static Statistics statistics;
+    private static StarSystemService starSystemService;
+
+    @BeforeAll
+    static void setUp() {
+        database = H2JpaTestDatabase.create("star-system-detail", Map.of("hibernate.generate_statistics", "true"),
+                Mission.class, MissionGroup.class, StarSystem.class, Sector.class, Cadet.class, Role.class,
+                Permission.class, CadetStarSystemProgress.class);
+        entityManager = database.entityManager();
+        tx = database.transactionTemplate();
+        statistics = database.entityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        MissionService missionService = mock(MissionService.class);
+        when(missionService.mapToResponse(any(Mission.class), any())).thenCallRealMethod();
+
+        starSystemService = new StarSystemService(
+                database.repository(StarSystemRepository.class),
+                missionService,
+                database.repository(MissionRepository.class),
+                database.repository(MissionGroupRepository.class),
+                null, null, null, null, null,
+                new CadetProgressService(database.repository(CadetStarSystemProgressRepository.class),
+                        mock(CadetProgressTotalsRepository.class), false),
+                null, null);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        SecurityContextHolder.clearContext();
+        database.close();
+    }
+
+    @Test
+    void getAllStarSystemsWithProgress_QueryCountDoesNotGrowWithSystemCount() {
+        Cadet cadet = tx.execute(s -> {
+            Cadet created = Cadet.builder().username("terkep-kadet").email("terkep@example.com")
+                    .passwordHash("x").roles(new HashSet<>()).build();
+            entityManager.persist(created);
+            return created;
+        });
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(cadet, null, List.of())));
+
+        tx.executeWithoutResult(s -> createStarSystemsWithProgress(cadet, "Terkep-A", 2));
+        long fewSystems = countStarMapQueries();
+        tx.executeWithoutResult(s -> createStarSystemsWithProgress(cadet, "Terkep-B", 30));
+        long manySystems = countStarMapQueries();
+
+        // Star Systemek + szektor, elemszámok, a kadét haladás-sorai
+        assertEquals(3, fewSystems);
+        assertEquals(fewSystems, manySystems);
+    }
+
+    @Test
+    void getStarSystemWithItems_QueryCountDoesNotGrowWithSystemSize() {
+        UUID small = tx.execute(s -> createStarSystem("Kicsi", 2, 1, 2));
+        UUID large = tx.execute(s -> createStarSystem("Nagy", 40, 15, 6));
+
+        long smallQueries = countQueries(small);
+        long largeQueries = countQueries(large);
+
+        // Star System + szektor, missziók + csoport + tulajdonosnév, csoportok
+        assertEquals(3, smallQueries);
+        assertEquals(smallQueries, largeQueries);
+    }
+
+    @Test
+    void getStarSystemWithItems_GroupsAndOrdersInMemory() {
+        UUID id = tx.execute(s -> createStarSystem("Rendezett", 3, 2, 3));
+
+        StarSystemWithItemsResponse response = tx.execute(s -> starSystemService.getStarSystemWithItems(id));
+
+        List<StarSystemItemResponse> items = response.getItems();
+        assertEquals(5, items.size());
+        assertEquals(List.of(0, 1, 2, 3, 4), items.stream().map(StarSystemItemResponse::getOrderIndex).toList());
+        assertEquals("Szektor Rendezett", response.getSectorName());
+
+        StarSystemItemResponse group = items.stream().filter(i -> "GROUP".equals(i.getType())).findFirst().orElseThrow();
+        assertEquals(List.of(0, 1, 2), group.getGroupMissions().stream().map(m -> m.getGroupOrder()).toList());
+        assertTrue(group.getGroupMissions().stream().allMatch(m -> group.getGroup().getId().equals(m.getGroupId())));
+        assertTrue(group.getGroupMissions().stream().allMatch(m -> m.getOwnerUsername().startsWith("owner-")));
+    }
+
+    private long countStarMapQueries() {
+        statistics.clear();
+        List<StarSystemWithProgressResponse> response = tx.execute(s -> starSystemService.getAllStarSystemsWithProgress());
+        assertFalse(response.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Rendszerenként néhány misszió és csoport; minden másodikban a kadétnak haladás-sora is van. */
+    private static void createStarSystemsWithProgress(Cadet cadet, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            UUID starSystemId = createStarSystem(prefix + "-" + i, 4, 2, 2);
+            if (i % 2 == 0) {
+                entityManager.persist(CadetStarSystemProgress.builder()
+                        .cadetId(cadet.getId()).starSystemId(starSystemId)
+                        .startedItems(3).completedItems(1).updatedAt(Instant.now())
+                        .build());
+            }
+        }
+    }
+
+    private long countQueries(UUID starSystemId) {
+        statistics.clear();
+        StarSystemWithItemsResponse response = tx.execute(s -> starSystemService.getStarSystemWithItems(starSystemId));
+        assertNotNull(response);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Standalone missziók és csoportok váltakozva (orderIndex szerint), csoportonként
+     * fordított sorrendben mentett missziókkal; a tulajdonosok szerepkörrel és joggal.
+     */
+    private static UUID createStarSystem(String name, int standaloneCount, int groupCount, int missionsPerGroup) {
+        Permission permission = Permission.builder().name("mission:create:" + name).build();
+        entityManager.persist(permission);
+        Role role = Role.builder().name("ROLE_" + name).permissions(new HashSet<>(Set.of(permission))).build();
+        entityManager.persist(role);
+        Cadet[] owners = new Cadet[3];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = Cadet.builder()
+                    .username("owner-" + name + "-" + i)
+                    .email(name + i + "@example.com")
+                    .passwordHash("x")
+                    .roles(new HashSet<>(Set.of(role)))
+                    .build();
+            entityManager.persist(owners[i]);
+        }
+
+        Sector sector = Sector.builder().name("Szektor " + name).build();
+        entityManager.persist(sector);
+        StarSystem starSystem = StarSystem.builder().name(name).sector(sector).owner(owners[0]).build();
+        entityManager.persist(starSystem);
+
+        int order = 0;
+        int missionNo = 0;
+        for (int i = 0; i < Math.max(standaloneCount, groupCount); i++) {
+            if (i < standaloneCount) {
+                entityManager.persist(mission(starSystem, null, name + " M" + missionNo, owners[missionNo++ % owners.length])
+                        .orderIndex(order++).build());
+            }
+            if (i < groupCount) {
+                MissionGroup group = MissionGroup.builder()
+                        .name(name + " G" + i).starSystem(starSystem).owner(owners[0]).orderIndex(order++).build();
+                entityManager.persist(group);
+                for (int j = missionsPerGroup - 1; j >= 0; j--) {
+                    entityManager.persist(mission(starSystem, group, name + " M" + missionNo, owners[missionNo++ % owners.length])
+                            .groupOrder(j).build());
+                }
+            }
+        }
+        return starSystem.getId();
+    }
+
+    private static Mission.MissionBuilder mission(StarSystem starSystem, MissionGroup group, String name, Cadet owner) {
+        return Mission.builder()
+                .starSystem(starSystem)
+                .group(group)
+                .name(name)
+                .missionType(MissionType.CODING)
+                .difficulty(Difficulty.EASY)
+                .verificationStatus(VerificationStatus.DRAFT)
+                .owner(owner);
+    }
+}
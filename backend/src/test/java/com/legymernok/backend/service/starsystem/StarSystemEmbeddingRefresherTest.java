@@ -0,0 +1,105 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.model.starsystem.StarSystemEmbeddingRefresh;
+import com.legymernok.backend.repository.starsystem.StarSystemEmbeddingRefreshRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StarSystemEmbeddingRefresherTest {
+
+    @Mock private StarSystemEmbeddingRefreshRepository refreshRepository;
+    @Mock private StarSystemService starSystemService;
+
+    @Test
+    void onStarSystemContentChanged_ShouldMarkSystemDirty() {
+        UUID id = UUID.randomUUID();
+
+        refresher(true).onStarSystemContentChanged(new StarSystemContentChangedEvent(id));
+
+        verify(refreshRepository).markDirty(id);
+    }
+
+    @Test
+    void onStarSystemContentChanged_AllSystemsOrDisabled_ShouldBeIgnored() {
+        refresher(true).onStarSystemContentChanged(StarSystemContentChangedEvent.allSystems());
+        refresher(false).onStarSystemContentChanged(new StarSystemContentChangedEvent(UUID.randomUUID()));
+
+        verifyNoInteractions(refreshRepository);
+    }
+
+    @Test
+    void refreshDue_ShouldQueryWithDebounceWindows() {
+        when(refreshRepository.findDue(any(), any(), any())).thenReturn(List.of());
+
+        Instant before = Instant.now();
+        refresher(true).refreshDue();
+
+        ArgumentCaptor<Instant> quietBefore = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> maxDelayBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(refreshRepository).findDue(quietBefore.capture(), maxDelayBefore.capture(), eq(Limit.of(20)));
+        assertFalse(quietBefore.getValue().isAfter(before.minusSeconds(10).plusSeconds(1)));
+        assertEquals(Duration.ofSeconds(50), Duration.between(maxDelayBefore.getValue(), quietBefore.getValue()));
+        verifyNoInteractions(starSystemService);
+    }
+
+    @Test
+    void refreshDue_ShouldDeleteDoneMarkersAndPostponeFailures() {
+        StarSystemEmbeddingRefresh embedded = refresh(3);
+        StarSystemEmbeddingRefresh failed = refresh(0);
+        StarSystemEmbeddingRefresh deleted = refresh(1);
+        StarSystemEmbeddingRefresh broken = refresh(0);
+        when(refreshRepository.findDue(any(), any(), any())).thenReturn(List.of(embedded, failed, deleted, broken));
+        when(starSystemService.generateAndSaveEmbedding(embedded.getStarSystemId()))
+                .thenReturn(StarSystemService.EmbeddingUpdate.EMBEDDED);
+        when(starSystemService.generateAndSaveEmbedding(failed.getStarSystemId()))
+                .thenReturn(StarSystemService.EmbeddingUpdate.FAILED);
+        when(starSystemService.generateAndSaveEmbedding(deleted.getStarSystemId()))
+                .thenReturn(StarSystemService.EmbeddingUpdate.NOT_FOUND);
+        when(starSystemService.generateAndSaveEmbedding(broken.getStarSystemId()))
+                .thenThrow(new IllegalStateException("db down"));
+
+        refresher(true).refreshDue();
+
+        verify(refreshRepository).deleteIfUnchanged(embedded.getStarSystemId(), 3);
+        verify(refreshRepository).deleteIfUnchanged(deleted.getStarSystemId(), 1);
+        verify(refreshRepository).postpone(eq(failed.getStarSystemId()), any(Instant.class));
+        verify(refreshRepository, never()).deleteIfUnchanged(eq(failed.getStarSystemId()), anyLong());
+        verify(refreshRepository, never()).deleteIfUnchanged(eq(broken.getStarSystemId()), anyLong());
+    }
+
+    @Test
+    void refreshDue_Disabled_ShouldDoNothing() {
+        refresher(false).refreshDue();
+
+        verifyNoInteractions(refreshRepository, starSystemService);
+    }
+
+    private StarSystemEmbeddingRefresher refresher(boolean enabled) {
+        return new StarSystemEmbeddingRefresher(refreshRepository, starSystemService, enabled, 10000, 60000, 20);
+    }
+
+    private static StarSystemEmbeddingRefresh refresh(long version) {
+        Instant now = Instant.now();
+        return StarSystemEmbeddingRefresh.builder()
+                .starSystemId(UUID.randomUUID())
+                .version(version)
+                .dirtySince(now)
+                .updatedAt(now)
+                .build();
+    }
+}
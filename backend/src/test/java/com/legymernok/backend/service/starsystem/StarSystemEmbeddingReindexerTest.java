@@ -0,0 +1,193 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.dto.search.EmbeddingReindexRunResponse;
+import com.legymernok.backend.model.starsystem.EmbeddingReindexRun;
+import com.legymernok.backend.model.starsystem.EmbeddingReindexStatus;
+import com.legymernok.backend.repository.mission.MissionRepository;
+import com.legymernok.backend.repository.starsystem.EmbeddingReindexRunRepository;
+import com.legymernok.backend.repository.starsystem.StarSystemRepository;
+import com.legymernok.backend.service.ai.AiEmbeddingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StarSystemEmbeddingReindexerTest {
+
+    private static final UUID START = new UUID(0L, 0L);
+
+    @Mock private StarSystemRepository starSystemRepository;
+    @Mock private MissionRepository missionRepository;
+    @Mock private EmbeddingReindexRunRepository runRepository;
+    @Mock private AiEmbeddingService embeddingService;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private ExecutorService coordinator;
+
+    private ExecutorService batchExecutor;
+    private StarSystemEmbeddingReindexer reindexer;
+
+    @BeforeEach
+    void setUp() {
+        batchExecutor = Executors.newFixedThreadPool(2);
+        // batch-size 2, parallelism 2 -> 4 elemes lapok
+        reindexer = new StarSystemEmbeddingReindexer(starSystemRepository, missionRepository, runRepository,
+                embeddingService, jdbcTemplate, 2, 2, coordinator, batchExecutor);
+        lenient().when(runRepository.save(any(EmbeddingReindexRun.class))).thenAnswer(i -> i.getArgument(0));
+        lenient().when(embeddingService.sourceHash(anyString())).thenAnswer(i -> "hash:" + i.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutor.shutdownNow();
+    }
+
+    @Test
+    void execute_ShouldEmbedOnlyChangedSystemsInBatchesAndCheckpointEachPage() {
+        UUID a = id(1), b = id(2), c = id(3), d = id(4), e = id(5);
+        when(starSystemRepository.findEmbeddingSourcePage(START, 4)).thenReturn(List.of(
+                row(a, "Alfa", null, null),
+                row(b, "Béta", "leírás", "hash:Béta - leírás"),
+                row(c, "Gamma", null, "régi"),
+                row(d, "Delta", null, null)));
+        when(starSystemRepository.findEmbeddingSourcePage(d, 4)).thenReturn(List.<Object[]>of(row(e, "Epszilon", null, null)));
+        when(starSystemRepository.findEmbeddingSourcePage(e, 4)).thenReturn(List.of());
+        when(missionRepository.findNamesByStarSystemIds(anyList())).thenReturn(List.of());
+        List<Object[]> aRows = List.<Object[]>of(new Object[]{a, "Második"}, new Object[]{a, "Első"});
+        when(missionRepository.findNamesByStarSystemIds(List.of(a, b, c, d))).thenReturn(aRows);
+        when(embeddingService.embedBatch(anyList()))
+                .thenAnswer(i -> ((List<?>) i.getArgument(0)).stream().map(t -> new float[]{1f}).toList());
+
+        EmbeddingReindexRun run = newRun(5);
+        reindexer.execute(run);
+
+        // a, c, d változott (b hash-e egyezik), e a második lapon
+        verify(embeddingService, times(3)).embedBatch(anyList());
+        verify(embeddingService).embedBatch(List.of("Epszilon"));
+        verify(embeddingService).sourceHash("Alfa. Missziók: Első, Második");
+        assertEquals(EmbeddingReindexStatus.COMPLETED, run.getStatus());
+        assertEquals(5, run.getProcessed());
+        assertEquals(4, run.getEmbedded());
+        assertEquals(0, run.getFailed());
+        assertEquals(e, run.getLastStarSystemId());
+        assertNotNull(run.getFinishedAt());
+        // Laponként egy checkpoint és a lezárás
+        verify(runRepository, times(3)).save(run);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), updates.capture());
+        List<Object> updatedIds = new ArrayList<>();
+        updates.getAllValues().forEach(batch -> batch.forEach(u -> updatedIds.add(u[2])));
+        assertTrue(updatedIds.containsAll(List.of(a.toString(), c.toString(), d.toString(), e.toString())));
+        assertFalse(updatedIds.contains(b.toString()));
+    }
+
+    @Test
+    void execute_ShouldResumeAfterCheckpointAndCountFailedBatches() {
+        UUID last = id(7), next = id(8);
+        EmbeddingReindexRun run = newRun(10);
+        run.setLastStarSystemId(last);
+        run.setProcessed(7);
+        when(starSystemRepository.findEmbeddingSourcePage(last, 4)).thenReturn(List.<Object[]>of(row(next, "Éta", null, null)));
+        when(starSystemRepository.findEmbeddingSourcePage(next, 4)).thenReturn(List.of());
+        when(missionRepository.findNamesByStarSystemIds(List.of(next))).thenReturn(List.of());
+        when(embeddingService.embedBatch(List.of("Éta"))).thenReturn(null);
+
+        reindexer.execute(run);
+
+        assertEquals(EmbeddingReindexStatus.COMPLETED, run.getStatus());
+        assertEquals(8, run.getProcessed());
+        assertEquals(1, run.getFailed());
+        verify(starSystemRepository, never()).findEmbeddingSourcePage(eq(START), anyInt());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void execute_DatabaseError_ShouldMarkRunFailed() {
+        when(starSystemRepository.findEmbeddingSourcePage(START, 4)).thenThrow(new IllegalStateException("db down"));
+
+        EmbeddingReindexRun run = newRun(3);
+        reindexer.execute(run);
+
+        assertEquals(EmbeddingReindexStatus.FAILED, run.getStatus());
+        verify(runRepository).save(run);
+    }
+
+    @Test
+    void start_ShouldResumeUnfinishedRun() {
+        EmbeddingReindexRun failed = newRun(10);
+        failed.setId(UUID.randomUUID());
+        failed.setStatus(EmbeddingReindexStatus.FAILED);
+        failed.setProcessed(4);
+        failed.setFinishedAt(Instant.now());
+        when(runRepository.findFirstByOrderByStartedAtDesc()).thenReturn(Optional.of(failed));
+
+        EmbeddingReindexRunResponse response = reindexer.start();
+
+        assertEquals(failed.getId(), response.getId());
+        assertEquals(EmbeddingReindexStatus.RUNNING, response.getStatus());
+        assertEquals(4, response.getProcessed());
+        assertNull(response.getFinishedAt());
+        verify(coordinator).submit(any(Runnable.class));
+        verify(starSystemRepository, never()).count();
+    }
+
+    @Test
+    void start_AfterCompletedRun_ShouldStartNewRunOnce() {
+        EmbeddingReindexRun completed = newRun(3);
+        completed.setStatus(EmbeddingReindexStatus.COMPLETED);
+        when(runRepository.findFirstByOrderByStartedAtDesc()).thenReturn(Optional.of(completed));
+        when(starSystemRepository.count()).thenReturn(12L);
+        when(runRepository.save(any(EmbeddingReindexRun.class))).thenAnswer(i -> {
+            EmbeddingReindexRun run = i.getArgument(0);
+            run.setId(UUID.randomUUID());
+            return run;
+        });
+
+        EmbeddingReindexRunResponse first = reindexer.start();
+        when(runRepository.findById(first.getId())).thenReturn(Optional.of(EmbeddingReindexRun.builder()
+                .id(first.getId()).status(EmbeddingReindexStatus.RUNNING).total(12).build()));
+        EmbeddingReindexRunResponse second = reindexer.start();
+
+        assertEquals(12, first.getTotal());
+        assertEquals(first.getId(), second.getId());
+        verify(coordinator, times(1)).submit(any(Runnable.class));
+    }
+
+    private static EmbeddingReindexRun newRun(int total) {
+        return EmbeddingReindexRun.builder()
+                .status(EmbeddingReindexStatus.RUNNING)
+                .total(total)
+                .startedAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    private static UUID id(long n) {
+        return new UUID(0L, n);
+    }
+
+    private static Object[] row(UUID id, String name, String description, String hash) {
+        return new Object[]{id, name, description, hash};
+    }
+}
@@ -0,0 +1,249 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.integration.PgVector;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recall/késleltetés benchmark (JMH helyett): 100 000 szintetikus, klaszterezett
+ * 768 dimenziós vektoron a HNSW index (m = 16, ef_construction = 64, mint a V19-ben)
+ * találatait hasonlítja a pontos (index nélküli) kereséshez, több hnsw.ef_search
+ * értékkel, valamint szektorra szűrve iteratív bejárással és anélkül.
+ *
+ * Valódi pgvectoros PostgreSQL kell hozzá, ezért csak akkor fut, ha a PGVECTOR_BENCH_URL
+ * meg van adva (pl. jdbc:postgresql://localhost:5432/legymernok, mellé
+ * PGVECTOR_BENCH_USER és PGVECTOR_BENCH_PASSWORD). Ideiglenes táblát használ; az
+ * adatok betöltése és az index építése néhány percig tart.
+ */
+@EnabledIfEnvironmentVariable(named = "PGVECTOR_BENCH_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class StarSystemSemanticSearchBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int DIMENSIONS = 768;
+    private static final int CLUSTERS = 200;
+    private static final int SECTORS = 50;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+    private static final int[] EF_SEARCH_VALUES = {10, 20, 40, 80, 160, 320};
+
+    private static final String KNN_QUERY =
+            "SELECT id FROM bench_vectors ORDER BY embedding <=> ? LIMIT " + K;
+    // Ugyanaz az alak, mint a StarSystemSemanticSearch szűrt lekérdezése
+    private static final String FILTERED_QUERY = """
+            WITH candidates AS MATERIALIZED (
+                SELECT id, embedding <=> ? AS distance FROM bench_vectors
+                WHERE sector = ?
+                ORDER BY distance
+                LIMIT %d
+            )
+            SELECT id FROM candidates ORDER BY distance
+            """.formatted(K);
+
+    private Connection connection;
+    private float[][] centroids;
+    private List<float[]> queries;
+
+    @BeforeAll
+    void loadDataset() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("PGVECTOR_BENCH_URL"),
+                System.getenv("PGVECTOR_BENCH_USER"), System.getenv("PGVECTOR_BENCH_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            PgVector.register(connection);
+            statement.execute("CREATE TEMP TABLE bench_vectors (id INT PRIMARY KEY, sector INT NOT NULL, " +
+                    "embedding vector(" + DIMENSIONS + ") NOT NULL)");
+        }
+
+        Random random = new Random(42);
+        centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) centroids[c] = normalize(gaussian(random, 1f));
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_vectors (id, sector, embedding) VALUES (?, ?, ?)")) {
+            for (int id = 0; id < ROWS; id++) {
+                insert.setInt(1, id);
+                insert.setInt(2, id % SECTORS);
+                insert.setObject(3, new PgVector(sample(random)));
+                insert.addBatch();
+                if ((id + 1) % 1_000 == 0) insert.executeBatch();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET maintenance_work_mem = '1GB'");
+            statement.execute("CREATE INDEX ON bench_vectors USING hnsw (embedding vector_cosine_ops) " +
+                    "WITH (m = 16, ef_construction = 64)");
+            statement.execute("ANALYZE bench_vectors");
+        }
+
+        queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) queries.add(sample(random));
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        if (connection != null) connection.close();
+    }
+
+    @Test
+    void hnsw_RecallVsLatency_ComparedToExactSearch() throws SQLException {
+        Run exact = run(KNN_QUERY, null, Map.of("enable_indexscan", "off", "enable_seqscan", "on"));
+
+        Map<Integer, Run> approximate = new LinkedHashMap<>();
+        for (int efSearch : EF_SEARCH_VALUES) {
+            approximate.put(efSearch, run(KNN_QUERY, null,
+                    Map.of("enable_indexscan", "on", "hnsw.ef_search", String.valueOf(efSearch))));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%n%-12s %8s %10s%n", "ef_search", "recall@" + K, "ms/query"));
+        report.append(String.format("%-12s %8.3f %10.2f%n", "exact", 1.0, exact.millisPerQuery()));
+        approximate.forEach((efSearch, run) -> report.append(String.format("%-12d %8.3f %10.2f%n",
+                efSearch, run.recall(exact), run.millisPerQuery())));
+        log.info("HNSW recall vs latency:{}", report);
+
+        double recall40 = approximate.get(40).recall(exact);
+        double recall160 = approximate.get(160).recall(exact);
+        assertTrue(recall160 >= 0.9, "recall@" + K + " at ef_search=160: " + recall160 + report);
+        assertTrue(recall160 >= recall40, report.toString());
+        assertTrue(approximate.get(40).millisPerQuery() < exact.millisPerQuery(), report.toString());
+    }
+
+    @Test
+    void hnsw_FilteredBySector_IterativeScanShouldKeepResultCount() throws SQLException {
+        Run exact = run(FILTERED_QUERY, 7, Map.of("enable_indexscan", "off", "enable_seqscan", "on"));
+        // A seq scan tiltásával a tervező a HNSW indexet használja (a szűrőoszlopon nincs index)
+        Run plain = run(FILTERED_QUERY, 7, Map.of("enable_indexscan", "on", "enable_seqscan", "off",
+                "hnsw.ef_search", "40"));
+
+        // pgvector 0.8 előtt nincs hnsw.iterative_scan
+        Assumptions.assumeTrue(supportsIterativeScan(), "hnsw.iterative_scan requires pgvector 0.8+");
+        Run iterative;
+        try {
+            iterative = run(FILTERED_QUERY, 7, Map.of("enable_indexscan", "on", "enable_seqscan", "off",
+                    "hnsw.ef_search", "40", "hnsw.iterative_scan", "relaxed_order"));
+        } finally {
+            set(Map.of("enable_seqscan", "on"));
+        }
+
+        String report = String.format("%nsector filter: exact %.2f ms, %.1f rows | plain recall %.3f, %.1f rows, %.2f ms" +
+                        " | iterative recall %.3f, %.1f rows, %.2f ms%n",
+                exact.millisPerQuery(), exact.averageRows(),
+                plain.recall(exact), plain.averageRows(), plain.millisPerQuery(),
+                iterative.recall(exact), iterative.averageRows(), iterative.millisPerQuery());
+        log.info("HNSW filtered search:{}", report);
+
+        // Szűrés nélküli bejárásnál az ef_search jelöltnek csak ~1/SECTORS része marad meg
+        assertTrue(plain.averageRows() < K, report);
+        assertEquals(K, iterative.averageRows(), 0.0, report);
+        assertTrue(iterative.recall(exact) >= 0.9, report);
+    }
+
+    private boolean supportsIterativeScan() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT 1 FROM pg_settings WHERE name = 'hnsw.iterative_scan'")) {
+            return rs.next();
+        }
+    }
+
+    private record Run(List<Set<Integer>> results, long nanos) {
+        double millisPerQuery() {
+            return nanos / 1e6 / results.size();
+        }
+
+        double averageRows() {
+            return results.stream().mapToInt(Set::size).average().orElse(0);
+        }
+
+        double recall(Run exact) {
+            double sum = 0;
+            for (int i = 0; i < results.size(); i++) {
+                Set<Integer> expected = exact.results().get(i);
+                if (expected.isEmpty()) continue;
+                long found = results.get(i).stream().filter(expected::contains).count();
+                sum += (double) found / expected.size();
+            }
+            return sum / results.size();
+        }
+    }
+
+    private Run run(String sql, Integer sector, Map<String, String> settings) throws SQLException {
+        set(settings);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            // Bemelegítés: a terv és a lapok a cache-ben
+            execute(statement, queries.get(0), sector);
+            List<Set<Integer>> results = new ArrayList<>();
+            long start = System.nanoTime();
+            for (float[] query : queries) results.add(execute(statement, query, sector));
+            return new Run(results, System.nanoTime() - start);
+        }
+    }
+
+    private Set<Integer> execute(PreparedStatement statement, float[] query, Integer sector) throws SQLException {
+        statement.setObject(1, new PgVector(query));
+        if (sector != null) statement.setInt(2, sector);
+        Set<Integer> ids = new HashSet<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) ids.add(rs.getInt(1));
+        }
+        return ids;
+    }
+
+    private void set(Map<String, String> settings) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT set_config(?, ?, false)")) {
+            for (Map.Entry<String, String> setting : settings.entrySet()) {
+                statement.setString(1, setting.getKey());
+                statement.setString(2, setting.getValue());
+                statement.execute();
+            }
+        }
+    }
+
+    // Egy véletlen klaszter középpontja körüli zajos pont, egységnyi hosszra normálva
+    private float[] sample(Random random) {
+        float[] centroid = centroids[random.nextInt(CLUSTERS)];
+        float[] noise = gaussian(random, 0.05f);
+        for (int i = 0; i < DIMENSIONS; i++) noise[i] += centroid[i];
+        return normalize(noise);
+    }
+
+    private static float[] gaussian(Random random, float sigma) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) vector[i] = (float) random.nextGaussian() * sigma;
+        return vector;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) norm += value * value;
+        float inverse = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) vector[i] *= inverse;
+        return vector;
+    }
+}
@@ -0,0 +1,115 @@
+package com.legymernok.backend.service.starsystem;
+
+import com.legymernok.backend.integration.PgVector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StarSystemSemanticSearchTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private StarSystemSemanticSearch search;
+
+    @BeforeEach
+    void setUp() {
+        search = new StarSystemSemanticSearch(jdbcTemplate, 40, 10, 400, 50, "relaxed_order");
+    }
+
+    @Test
+    void buildQuery_ShouldOrderByDistanceSoTheIndexIsUsed() {
+        String sql = StarSystemSemanticSearch.buildQuery(StarSystemSemanticSearch.Filter.NONE);
+
+        assertTrue(sql.contains("content_embedding <=> ? AS distance"));
+        assertTrue(sql.contains("ORDER BY distance\n"));
+        assertFalse(sql.contains("similarity"));
+        assertFalse(sql.contains("sector_id"));
+        assertFalse(sql.contains("owner_id"));
+    }
+
+    @Test
+    void search_WithFilters_ShouldBindThemInOrderAndEnableIterativeScan() {
+        UUID sectorId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        float[] vector = {0.1f, 0.2f};
+
+        search.search(vector, new StarSystemSemanticSearch.Filter(sectorId, ownerId), 5,
+                StarSystemSemanticSearch.Tuning.DEFAULT);
+
+        verify(jdbcTemplate).queryForList(contains("hnsw.iterative_scan"), eq("40"), eq("10"), eq("relaxed_order"));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class),
+                eq(new PgVector(vector)), eq(sectorId), eq(ownerId), eq(5));
+        assertTrue(sql.getValue().contains("AND sector_id = ?"));
+        assertTrue(sql.getValue().contains("AND owner_id = ?"));
+    }
+
+    @Test
+    void search_WithoutFilters_ShouldOnlySetEfSearchAndProbes() {
+        search.search(new float[]{1f}, StarSystemSemanticSearch.Filter.NONE, 5,
+                new StarSystemSemanticSearch.Tuning(100, 3));
+
+        verify(jdbcTemplate).queryForList(anyString(), eq("100"), eq("3"));
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(new PgVector(new float[]{1f})), eq(5));
+    }
+
+    @Test
+    void tuning_ShouldBeClampedToLimitAndConfiguredMaximum() {
+        StarSystemSemanticSearch.Tuning tooLow = new StarSystemSemanticSearch.Tuning(5, 0);
+        StarSystemSemanticSearch.Tuning tooHigh = new StarSystemSemanticSearch.Tuning(5000, 5000);
+
+        // Az ef_search nem lehet kisebb a limitnél, különben a HNSW kevesebb találatot adna
+        assertEquals(20, search.effectiveEfSearch(20, tooLow));
+        assertEquals(400, search.effectiveEfSearch(20, tooHigh));
+        assertEquals(40, search.effectiveEfSearch(20, StarSystemSemanticSearch.Tuning.DEFAULT));
+        assertEquals(1, search.effectiveProbes(tooLow));
+        assertEquals(1000, search.effectiveProbes(tooHigh));
+    }
+
+    @Test
+    void search_LimitOutOfRange_ShouldBeClamped() {
+        search.search(new float[]{1f}, 500);
+        search.search(new float[]{1f}, 0);
+
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), any(PgVector.class), eq(50));
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), any(PgVector.class), eq(1));
+    }
+
+    @Test
+    void search_BlankIterativeScan_ShouldNotSetIt() {
+        StarSystemSemanticSearch legacy = new StarSystemSemanticSearch(jdbcTemplate, 40, 10, 400, 50, "");
+
+        legacy.search(new float[]{1f}, new StarSystemSemanticSearch.Filter(UUID.randomUUID(), null), 5,
+                StarSystemSemanticSearch.Tuning.DEFAULT);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(sql.capture(), eq("40"), eq("10"));
+        assertFalse(sql.getValue().contains("iterative_scan"));
+    }
+
+    @Test
+    void searchConvenienceOverload_ShouldOpenItsOwnTransaction() throws NoSuchMethodException {
+        // A ChatService ezt hívja; a belső hívás a proxyn kívül fut, így a set_config(..., true)
+        // hangoláshoz ennek magának kell tranzakciót nyitnia
+        Transactional transactional = StarSystemSemanticSearch.class
+                .getMethod("search", float[].class, int.class).getAnnotation(Transactional.class);
+
+        assertNotNull(transactional);
+        assertTrue(transactional.readOnly());
+    }
+}
@@ -1,11 +1,14 @@
 package com.legymernok.backend.service.starsystem;
 
 import com.legymernok.backend.dto.starsystem.CreateStarSystemRequest;
+import com.legymernok.backend.dto.starsystem.StarSystemWithProgressResponse;
 import com.legymernok.backend.exception.ResourceNotFoundException;
 import com.legymernok.backend.exception.UnauthorizedAccessException;
+import com.legymernok.backend.integration.PgVector;
 import com.legymernok.backend.model.auth.Permission;
 import com.legymernok.backend.model.auth.Role;
 import com.legymernok.backend.model.cadet.Cadet;
+import com.legymernok.backend.model.cadet.CadetStarSystemProgress;
 import com.legymernok.backend.model.starsystem.StarSystem;
 import com.legymernok.backend.repository.cadet.CadetRepository;
 import com.legymernok.backend.repository.mission.MissionGroupProgressRepository;
@@ -14,7 +17,9 @@ import com.legymernok.backend.repository.mission.MissionRepository;
 import com.legymernok.backend.repository.sector.SectorRepository;
 import com.legymernok.backend.repository.starsystem.StarSystemRepository;
 import com.legymernok.backend.service.ai.AiEmbeddingService;
+import com.legymernok.backend.service.cadet.CadetProgressService;
 import com.legymernok.backend.service.mission.MissionService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +30,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -44,6 +51,9 @@ public class StarSystemServiceTest {
     @Mock private SectorRepository sectorRepository;
     @Mock private AiEmbeddingService embeddingService;
     @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private CadetProgressService cadetProgressService;
+    @Mock private StarSystemDetailCache starSystemDetailCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private StarSystemService starSystemService;
 
     private Cadet owner;
@@ -78,7 +88,7 @@ public class StarSystemServiceTest {
 
         Authentication auth = mock(Authentication.class);
         SecurityContext securityContext = mock(SecurityContext.class);
-        when(securityContext.getAuthentication()).thenReturn(auth);
+        lenient().when(securityContext.getAuthentication()).thenReturn(auth);
         SecurityContextHolder.setContext(securityContext);
     }
 
@@ -99,6 +109,9 @@ public class StarSystemServiceTest {
         starSystemService.createStarSystem(request);
 
         verify(starSystemRepository).save(argThat(system -> system.getOwner().equals(owner)));
+        // Az embedding a commit után, háttérben frissül
+        verify(eventPublisher).publishEvent(any(StarSystemContentChangedEvent.class));
+        verifyNoInteractions(embeddingService);
     }
 
     @Test
@@ -117,6 +130,8 @@ public class StarSystemServiceTest {
         when(starSystemRepository.save(any(StarSystem.class))).thenReturn(systemToUpdate);
 
         assertDoesNotThrow(() -> starSystemService.updateStarSystem(systemToUpdate.getId(), request));
+        verify(eventPublisher).publishEvent(new StarSystemContentChangedEvent(systemToUpdate.getId()));
+        verifyNoInteractions(embeddingService);
     }
 
     @Test
@@ -164,4 +179,79 @@ public class StarSystemServiceTest {
 
         assertThrows(UnauthorizedAccessException.class, () -> starSystemService.deleteStarSystem(system.getId()));
     }
-}
\ No newline at end of file
+
+    // =========================================================================
+    // getAllStarSystemsWithProgress tesztek
+    // =========================================================================
+
+    private static StarSystem system(String name) {
+        StarSystem system = new StarSystem();
+        system.setId(UUID.randomUUID());
+        system.setName(name);
+        return system;
+    }
+
+    private CadetStarSystemProgress progress(StarSystem system, int started, int completed) {
+        return CadetStarSystemProgress.builder()
+                .cadetId(otherUser.getId())
+                .starSystemId(system.getId())
+                .startedItems(started)
+                .completedItems(completed)
+                .build();
+    }
+
+    @Test
+    void getAllStarSystemsWithProgress_shouldDeriveStatusFromAggregatedCounts() {
+        mockAuthenticatedUser("other_user", otherUser);
+        StarSystem empty = system("Empty");
+        StarSystem untouched = system("Untouched");
+        StarSystem started = system("Started");
+        StarSystem done = system("Done");
+        when(starSystemRepository.findAllWithSector()).thenReturn(List.of(empty, untouched, started, done));
+        when(starSystemRepository.countItemsByStarSystem()).thenReturn(List.of(
+                new Object[]{untouched.getId(), 3L},
+                new Object[]{started.getId(), 3L},
+                new Object[]{done.getId(), 2L}));
+        when(cadetProgressService.getStarSystemProgress(otherUser.getId())).thenReturn(List.of(
+                progress(started, 2, 1),
+                progress(done, 2, 2)));
+
+        Map<String, String> statuses = starSystemService.getAllStarSystemsWithProgress().stream()
+                .collect(Collectors.toMap(StarSystemWithProgressResponse::getName, StarSystemWithProgressResponse::getStatus));
+
+        assertEquals("NOT_STARTED", statuses.get("Empty"));
+        assertEquals("NOT_STARTED", statuses.get("Untouched"));
+        assertEquals("IN_PROGRESS", statuses.get("Started"));
+        assertEquals("COMPLETED", statuses.get("Done"));
+    }
+
+    @Test
+    void generateAndSaveEmbedding_whenSourceTextUnchanged_shouldSkipEmbedding() {
+        StarSystem system = system("Unchanged");
+        when(starSystemRepository.findById(system.getId())).thenReturn(Optional.of(system));
+        when(missionRepository.findAllByStarSystemId(system.getId())).thenReturn(List.of());
+        when(embeddingService.sourceHash("Unchanged")).thenReturn("hash-1");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(system.getId().toString())))
+                .thenReturn(List.of("hash-1"));
+
+        assertEquals(StarSystemService.EmbeddingUpdate.UP_TO_DATE, starSystemService.generateAndSaveEmbedding(system.getId()));
+
+        verify(embeddingService, never()).embed(anyString());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void generateAndSaveEmbedding_whenSourceTextChanged_shouldStoreEmbeddingWithHash() {
+        StarSystem system = system("Changed");
+        when(starSystemRepository.findById(system.getId())).thenReturn(Optional.of(system));
+        when(missionRepository.findAllByStarSystemId(system.getId())).thenReturn(List.of());
+        when(embeddingService.sourceHash("Changed")).thenReturn("hash-2");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(system.getId().toString())))
+                .thenReturn(List.of("hash-1"));
+        when(embeddingService.embed("Changed")).thenReturn(new float[]{0.5f, 1.0f});
+
+        assertEquals(StarSystemService.EmbeddingUpdate.EMBEDDED, starSystemService.generateAndSaveEmbedding(system.getId()));
+
+        verify(jdbcTemplate).update(anyString(), eq(new PgVector(new float[]{0.5f, 1.0f})), eq("hash-2"), eq(system.getId().toString()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.legymernok.backend.web;
+
+import com.legymernok.backend.config.SecurityConfig;
+import com.legymernok.backend.dto.admin.GiteaResilienceStatusResponse;
+import com.legymernok.backend.integration.GiteaResilienceInterceptor;
+import com.legymernok.backend.security.AuthPrincipalCache;
+import com.legymernok.backend.security.JwtAuthenticationFilter;
+import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
+import com.legymernok.backend.service.version.ResourceVersions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminGiteaController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
+class AdminGiteaControllerSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GiteaResilienceInterceptor giteaResilience;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @DisplayName("GET /api/admin/gitea/resilience - Admin (logs:read) should succeed")
+    @WithMockUser(username = "admin", authorities = {"logs:read"})
+    void getResilienceStatus_AsAdmin_ShouldSucceed() throws Exception {
+        when(giteaResilience.status()).thenReturn(
+                GiteaResilienceStatusResponse.builder()
+                        .circuitBreakerState("OPEN")
+                        .failureRate(0.6)
+                        .bufferedCalls(10)
+                        .bulkheadAvailable(Map.of("READ", 32))
+                        .bulkheadLimits(Map.of("READ", 32))
+                        .build());
+
+        mockMvc.perform(get("/api/admin/gitea/resilience"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.circuitBreakerState").value("OPEN"));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/gitea/resilience - Cadet (no permission) should fail")
+    @WithMockUser(username = "cadet", authorities = {"mission:read"})
+    void getResilienceStatus_AsCadet_ShouldFail() throws Exception {
+        mockMvc.perform(get("/api/admin/gitea/resilience"))
+                .andExpect(status().isForbidden());
+    }
+}
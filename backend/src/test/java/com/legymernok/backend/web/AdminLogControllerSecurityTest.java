@@ -1,9 +1,12 @@
 package com.legymernok.backend.web;
 
 import com.legymernok.backend.config.SecurityConfig;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
 import com.legymernok.backend.service.admin.LogService;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +25,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminLogController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class AdminLogControllerSecurityTest {
 
     @Autowired
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.legymernok.backend.config.SecurityConfig;
 import com.legymernok.backend.dto.cadet.CadetResponse;
 import com.legymernok.backend.dto.cadet.CreateCadetRequest;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
 import com.legymernok.backend.service.cadet.CadetService;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,7 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CadetController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class CadetControllerSecurityTest {
 
     @Autowired
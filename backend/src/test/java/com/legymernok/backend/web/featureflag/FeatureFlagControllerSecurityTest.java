@@ -4,33 +4,45 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.legymernok.backend.config.SecurityConfig;
 import com.legymernok.backend.dto.featureflag.FeatureFlagResponse;
 import com.legymernok.backend.dto.featureflag.UpdateFeatureFlagRequest;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
 import com.legymernok.backend.service.featureflag.FeatureFlagService;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FeatureFlagController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class FeatureFlagControllerSecurityTest {
 
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
+    @Autowired private ResourceVersions resourceVersions;
 
     @MockitoBean private FeatureFlagService featureFlagService;
     @MockitoBean private JwtService jwtService;
@@ -97,4 +109,40 @@ class FeatureFlagControllerSecurityTest {
                         .content(objectMapper.writeValueAsString(req)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("GET /api/feature-flags - Matching If-None-Match is answered with 304 until a flag changes")
+    @WithMockUser(authorities = {"feature_flag:read"})
+    void listFlags_ConditionalGet() throws Exception {
+        when(featureFlagService.getAllFlags())
+                .thenReturn(List.of(FeatureFlagResponse.builder().key("ai_chatbot").enabled(true).build()));
+
+        String etag = mockMvc.perform(get("/api/feature-flags"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/feature-flags").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(featureFlagService, times(1)).getAllFlags();
+
+        resourceVersions.onResourceChanged(new ResourceChangedEvent(ResourceType.FEATURE_FLAG));
+
+        mockMvc.perform(get("/api/feature-flags").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(featureFlagService, times(2)).getAllFlags();
+    }
+
+    @Test
+    @DisplayName("GET /api/feature-flags - ETag differs between principals")
+    void listFlags_EtagVariesByPrincipal() throws Exception {
+        String adminEtag = mockMvc.perform(get("/api/feature-flags")
+                        .with(user("admin").authorities(new SimpleGrantedAuthority("feature_flag:read"))))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/feature-flags")
+                        .with(user("other").authorities(new SimpleGrantedAuthority("feature_flag:read")))
+                        .header(HttpHeaders.IF_NONE_MATCH, adminEtag))
+                .andExpect(status().isOk());
+    }
 }
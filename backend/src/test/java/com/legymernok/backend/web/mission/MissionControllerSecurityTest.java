@@ -8,9 +8,15 @@ import com.legymernok.backend.dto.mission.MissionForgeContentRequest;
 import com.legymernok.backend.dto.mission.MissionResponse;
 import com.legymernok.backend.model.mission.Difficulty;
 import com.legymernok.backend.model.mission.MissionType;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
+import com.legymernok.backend.dto.mission.MissionStartJobResponse;
+import com.legymernok.backend.model.mission.MissionStatus;
 import com.legymernok.backend.service.mission.MissionService;
+import com.legymernok.backend.service.mission.MissionStartService;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,7 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MissionController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class MissionControllerSecurityTest {
 
     @Autowired
@@ -49,6 +55,9 @@ class MissionControllerSecurityTest {
     @MockitoBean
     private MissionService missionService;
 
+    @MockitoBean
+    private MissionStartService missionStartService;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -229,4 +238,31 @@ class MissionControllerSecurityTest {
 
         verify(missionService).startMission(missionId, "cadet_john");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /start/async - Cadet should get 202 with the pending job")
+    @WithMockUser(username = "cadet_john", authorities = {"mission:start"})
+    void startMissionAsync_AsCadet_ShouldReturnAccepted() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(missionStartService.requestStart(missionId, "cadet_john")).thenReturn(MissionStartJobResponse.builder()
+                .jobId(jobId)
+                .missionId(missionId)
+                .status(MissionStatus.PENDING)
+                .build());
+
+        mockMvc.perform(post("/api/missions/{id}/start/async", missionId).with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("POST /start/async - Without mission:start should be forbidden")
+    @WithMockUser(username = "guest", authorities = {"mission:read"})
+    void startMissionAsync_WithoutPermission_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/api/missions/{id}/start/async", missionId).with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(missionStartService);
+    }
+}
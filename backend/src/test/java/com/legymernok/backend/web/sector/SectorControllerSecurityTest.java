@@ -2,14 +2,20 @@ package com.legymernok.backend.web.sector;
 
 import com.legymernok.backend.config.SecurityConfig;
 import com.legymernok.backend.dto.sector.SectorResponse;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
 import com.legymernok.backend.service.sector.SectorService;
+import com.legymernok.backend.service.version.ResourceChangedEvent;
+import com.legymernok.backend.service.version.ResourceType;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -18,17 +24,22 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(SectorController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class SectorControllerSecurityTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @MockitoBean
     private SectorService sectorService;
 
@@ -86,4 +97,31 @@ class SectorControllerSecurityTest {
         mockMvc.perform(delete("/api/sectors/" + UUID.randomUUID()))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("GET /api/sectors - ETag changes after a star system is created (starSystemCount)")
+    @WithMockUser(username = "cadet", authorities = {"sector:read"})
+    void getAllSectors_StarSystemChanged_ShouldChangeEtag() throws Exception {
+        UUID sectorId = UUID.randomUUID();
+        when(sectorService.getAllSectors()).thenReturn(List.of(
+                SectorResponse.builder().id(sectorId).name("Fizika").starSystemCount(1).build()));
+        when(sectorService.getSectorById(sectorId)).thenReturn(
+                SectorResponse.builder().id(sectorId).name("Fizika").starSystemCount(1).build());
+
+        String listEtag = mockMvc.perform(get("/api/sectors"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String itemEtag = mockMvc.perform(get("/api/sectors/" + sectorId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Ezt teszi közzé a StarSystemService.createStarSystem
+        resourceVersions.onResourceChanged(new ResourceChangedEvent(ResourceType.STAR_SYSTEM));
+
+        String newListEtag = mockMvc.perform(get("/api/sectors").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(listEtag, newListEtag);
+        mockMvc.perform(get("/api/sectors/" + sectorId).header(HttpHeaders.IF_NONE_MATCH, itemEtag))
+                .andExpect(status().isOk());
+    }
 }
@@ -1,9 +1,14 @@
 package com.legymernok.backend.web.social;
 
 import com.legymernok.backend.config.SecurityConfig;
+import com.legymernok.backend.dto.social.ActivityFeedCursor;
+import com.legymernok.backend.dto.social.ActivityFeedPageResponse;
+import com.legymernok.backend.security.AuthPrincipalCache;
 import com.legymernok.backend.security.JwtAuthenticationFilter;
 import com.legymernok.backend.security.JwtService;
+import com.legymernok.backend.security.PermissionRegistry;
 import com.legymernok.backend.service.social.ActivityFeedService;
+import com.legymernok.backend.service.version.ResourceVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +19,17 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ActivityFeedController.class)
-@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthPrincipalCache.class, PermissionRegistry.class, ResourceVersions.class})
 class ActivityFeedControllerSecurityTest {
 
     @Autowired private MockMvc mockMvc;
@@ -40,8 +48,30 @@ class ActivityFeedControllerSecurityTest {
     @DisplayName("GET /api/social/activity-feed - Any authenticated cadet can access")
     @WithMockUser
     void getActivityFeed_Authenticated_Success() throws Exception {
-        when(activityFeedService.getActivityFeed()).thenReturn(List.of());
+        when(activityFeedService.getActivityFeed(null, 20))
+                .thenReturn(ActivityFeedPageResponse.builder().items(List.of()).build());
 
         mockMvc.perform(get("/api/social/activity-feed")).andExpect(status().isOk());
     }
+
+    @Test
+    @DisplayName("GET /api/social/activity-feed - Cursor and size are passed to the service")
+    @WithMockUser
+    void getActivityFeed_WithCursor_Success() throws Exception {
+        ActivityFeedCursor cursor = new ActivityFeedCursor(Instant.parse("2026-05-01T10:00:00.123456Z"), UUID.randomUUID());
+        when(activityFeedService.getActivityFeed(cursor, 10))
+                .thenReturn(ActivityFeedPageResponse.builder().items(List.of()).nextCursor("next").build());
+
+        mockMvc.perform(get("/api/social/activity-feed").param("cursor", cursor.encode()).param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("GET /api/social/activity-feed - Malformed cursor is rejected")
+    @WithMockUser
+    void getActivityFeed_InvalidCursor_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/social/activity-feed").param("cursor", "nem-kurzor"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -51,9 +51,9 @@ describe("Mobil viewport smoke teszt (360/390/430px)", () => {
           statusCode: 404,
           body: {},
         }).as("getContinue");
-        cy.intercept("GET", "**/api/social/activity-feed", {
+        cy.intercept("GET", "**/api/social/activity-feed*", {
           statusCode: 200,
-          body: [],
+          body: { items: [], nextCursor: null },
         }).as("getActivityFeed");
         cy.intercept("GET", "**/api/star-systems/with-progress", {
           statusCode: 200,
@@ -43,7 +43,7 @@ import type {
 import type { AdminStatsResponse } from "../types/admin";
 import type {
   ContinueResponse,
-  ActivityFeedItemResponse,
+  ActivityFeedPageResponse,
 } from "../types/dashboard";
 import type { SectorResponse, CreateSectorRequest } from "../types/sector";
 
@@ -259,9 +259,12 @@ export const missionApi = {
     return response.data;
   },
 
-  /** Elmenti (batch) a kadét saját munkarepójának fájltartalmait. */
-  savePlayFiles: async (missionId: string, files: Record<string, string>) => {
-    await apiClient.put(`/missions/${missionId}/play/files`, files);
+  /**
+   * Elmenti (batch) a kadét saját munkarepójának fájltartalmait. Alapból csak a
+   * szerveroldali piszkozatba kerülnek (autosave); commit=true esetén azonnal commitolódnak.
+   */
+  savePlayFiles: async (missionId: string, files: Record<string, string>, commit = false) => {
+    await apiClient.put(`/missions/${missionId}/play/files`, files, { params: { commit } });
   },
 
   /** Új (üres) fájlt hoz létre a kadét saját munkarepójában. */
@@ -679,10 +682,14 @@ export const socialApi = {
     return response.data;
   },
 
-  /** A követett kadétok legutóbbi teljesítései, időrendben csökkenő sorrendben. */
-  getActivityFeed: async (): Promise<ActivityFeedItemResponse[]> => {
-    const response = await apiClient.get<ActivityFeedItemResponse[]>(
+  /** A követett kadétok teljesítései, időrendben csökkenő sorrendben, kurzoros lapozással. */
+  getActivityFeed: async (
+    cursor?: string,
+    size?: number,
+  ): Promise<ActivityFeedPageResponse> => {
+    const response = await apiClient.get<ActivityFeedPageResponse>(
       "/social/activity-feed",
+      { params: { cursor, size } },
     );
     return response.data;
   },
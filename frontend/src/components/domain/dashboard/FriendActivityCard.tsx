@@ -29,10 +29,10 @@ export const FriendActivityCard: React.FC = () => {
 
   const { data, isLoading } = useQuery({
     queryKey: ["activityFeed"],
-    queryFn: socialApi.getActivityFeed,
+    queryFn: () => socialApi.getActivityFeed(undefined, 8),
   });
 
-  const items = data ?? [];
+  const items = data?.items ?? [];
 
   return (
     <GlowCard>
@@ -63,9 +63,9 @@ export const FriendActivityCard: React.FC = () => {
 
       {!isLoading && items.length > 0 && (
         <Stack spacing={1.5} sx={{ mt: 1 }}>
-          {items.slice(0, 8).map((item, idx) => (
+          {items.map((item) => (
             <Box
-              key={`${item.cadetId}-${item.occurredAt}-${idx}`}
+              key={item.id}
               sx={{
                 display: "flex",
                 justifyContent: "space-between",
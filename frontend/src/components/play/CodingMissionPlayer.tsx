@@ -33,6 +33,10 @@ import {
 // logika is helyesen kezelje (nem nyers value-csere).
 const QUICK_INSERT_CHARS = ["(", ")", "{", "}", "[", "]", ";"];
 
+// Ennyi gépelési szünet után a szerkesztő tartalma automatikusan a szerveroldali
+// piszkozatba kerül (commit nélkül) — a Gitea commitot a backend vonja össze.
+const AUTOSAVE_DELAY_MS = 3000;
+
 interface CodingMissionPlayerProps {
   missionId: string;
 }
@@ -70,6 +74,10 @@ const CodingMissionPlayer: React.FC<CodingMissionPlayerProps> = ({
     severity: "success" as "success" | "error",
   });
   const editorRef = useRef<MonacoEditorNS.IStandaloneCodeEditor | null>(null);
+  // Csak a kadét szerkesztése indít autosave-et, a kezdeti betöltés nem.
+  const isDirtyRef = useRef(false);
+  // A legutóbbi szerkesztői tartalom az unmountkori mentéshez (a cleanup nem látja a state-et).
+  const latestFilesRef = useRef<Record<string, string>>({});
 
   const handleEditorMount: OnMount = (editorInstance) => {
     editorRef.current = editorInstance;
@@ -109,8 +117,9 @@ const CodingMissionPlayer: React.FC<CodingMissionPlayerProps> = ({
   }, [fetchedFiles]);
 
   const saveMutation = useMutation({
-    mutationFn: () => missionApi.savePlayFiles(missionId, currentFileContents),
+    mutationFn: () => missionApi.savePlayFiles(missionId, currentFileContents, true),
     onSuccess: () => {
+      isDirtyRef.current = false;
       setSnackbar({
         open: true,
         message: t("forge.filesSavedSuccess"),
@@ -126,6 +135,34 @@ const CodingMissionPlayer: React.FC<CodingMissionPlayerProps> = ({
     },
   });
 
+  const autosaveMutation = useMutation({
+    mutationFn: (files: Record<string, string>) =>
+      missionApi.savePlayFiles(missionId, files),
+  });
+
+  useEffect(() => {
+    latestFilesRef.current = currentFileContents;
+    if (!isDirtyRef.current) return;
+    const timer = setTimeout(() => {
+      isDirtyRef.current = false;
+      autosaveMutation.mutate(currentFileContents);
+    }, AUTOSAVE_DELAY_MS);
+    return () => clearTimeout(timer);
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [currentFileContents]);
+
+  // Ha a kadét a debounce lejárta előtt elnavigál, a függő autosave-et azonnal
+  // elküldjük — a timer törlése önmagában eldobná az utolsó szerkesztéseket.
+  useEffect(() => {
+    return () => {
+      if (!isDirtyRef.current) return;
+      isDirtyRef.current = false;
+      missionApi.savePlayFiles(missionId, latestFilesRef.current).catch(() => {
+        // Unmount után nincs hová jelezni; a következő betöltés a szerver állapotát mutatja
+      });
+    };
+  }, [missionId]);
+
   const createFileMutation = useMutation({
     mutationFn: (path: string) => missionApi.createPlayFile(missionId, path),
     onSuccess: (_data, path) => {
@@ -368,15 +405,14 @@ const CodingMissionPlayer: React.FC<CodingMissionPlayerProps> = ({
                   theme="vs-dark"
                   language={getMonacoLanguage(activeFileName)}
                   value={currentFileContents[activeFileName] || ""}
-                  onChange={(val) =>
-                    activeFileName &&
-                    val !== undefined &&
-                    !activeFileIsReadOnly &&
+                  onChange={(val) => {
+                    if (!activeFileName || val === undefined || activeFileIsReadOnly) return;
+                    isDirtyRef.current = true;
                     setCurrentFileContents((prev) => ({
                       ...prev,
                       [activeFileName]: val,
-                    }))
-                  }
+                    }));
+                  }}
                   onMount={handleEditorMount}
                   options={{
                     minimap: { enabled: false },
@@ -7,9 +7,16 @@ export interface ContinueResponse {
 }
 
 export interface ActivityFeedItemResponse {
+  id: string;
   cadetId: string;
   cadetUsername: string;
   type: "GROUP_STEP" | "FILL_IN_BLANK" | "QUIZ";
   label: string;
   occurredAt: string;
 }
+
+export interface ActivityFeedPageResponse {
+  items: ActivityFeedItemResponse[];
+  /** A következő lap kurzora; null, ha nincs több elem. */
+  nextCursor: string | null;
+}